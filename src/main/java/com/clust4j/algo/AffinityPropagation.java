@@ -20,6 +20,7 @@ import com.clust4j.except.ModelNotFitException;
 import com.clust4j.log.Log;
 import com.clust4j.log.Log.Tag.Algo;
 import com.clust4j.log.LogTimer;
+import com.clust4j.metrics.pairwise.BlockedPairwise;
 import com.clust4j.metrics.pairwise.GeometricallySeparable;
 import com.clust4j.utils.MatUtils;
 import com.clust4j.utils.MatUtils.Axis;
@@ -28,6 +29,7 @@ import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.util.FastMath;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Random;
 
@@ -307,78 +309,106 @@ final public class AffinityPropagation extends AbstractAutonomousClusterer imple
      */
     protected static double[][] computeSmoothedSimilarity(final double[][] X, GeometricallySeparable metric, Random seed, boolean addNoise) {
         /*
-         * Originally, we computed similarity matrix, then refactored the diagonal vector, and
-         * then computed the following portions. We can do this all at once and save lots of passes
-         * (5?) on the order of O(M^2), condensing it all to one pass of O(M choose 2).
-         *
          * After the sim matrix is computed, we need to do three things:
          *
          * 1. Create a matrix of very small values (tiny_scaled) to remove degeneracies in sim_mal
          * 2. Multiply tiny_scaled by an extremely small value (GlobalState.Mathematics.TINY*100)
          * 3. Create a noise matrix of random Gaussian values and add it to the similarity matrix.
          *
-         * The methods exist to build these in three to five separate O(M^2) passes, but that's
-         * extremely expensive, so we're going to do it in one giant, convoluted loop. If you're
-         * trying to debug this, sorry...
+         * The similarities themselves are computed in parallel tiles of the upper
+         * triangle. The preference is the median of all M^2 entries, which used to
+         * be copied into an M * M vector; it is now taken from the sorted upper
+         * triangle (each value counted twice) merged with the sorted diagonal.
+         * The noise is drawn afterwards in the same pair order as always, so a
+         * seeded run produces the same matrix.
          *
-         * Total runtime: O(2M * M choose 2)
+         * Total runtime: O(M choose 2) metric calls plus an O(M^2 log M) sort
          */
         final int m = X.length;
-        double[][] sim_mat = new double[m][m];
-
-        int idx = 0;
+        final double[][] sim_mat = new double[m][m];
         final double tiny_val = GlobalState.Mathematics.TINY * 100;
-        final double[] vector = new double[m * m];
-        double sim, noise;
-        boolean last_iter = false;
-
+        double noise;
 
         // Do this a little differently... set the diagonal FIRST.
+        final double[] diagonal = new double[m];
         for (int i = 0; i < m; i++) {
-            sim = -(metric.getPartialDistance(X[i], X[i]));
-            sim_mat[i][i] = sim;
-            vector[idx++] = sim;
+            diagonal[i] = -(metric.getPartialDistance(X[i], X[i]));
+            sim_mat[i][i] = diagonal[i];
         }
 
+        if (m < 2)
+            return sim_mat;
 
-        for (int i = 0; i < m - 1; i++) {
-            for (int j = i + 1; j < m; j++) { // Upper triangular
-                sim = -(metric.getPartialDistance(X[i], X[j])); // similarity
-
-                // Assign to upper and lower portion
-                sim_mat[i][j] = sim;
-                sim_mat[j][i] = sim;
-
-                // Add to the vector (twice)
-                for (int b = 0; b < 2; b++)
-                    vector[idx++] = sim;
+        // Upper and lower portion, symmetric
+        BlockedPairwise.forEachPair(X, metric, true, -1.0, (i, j, sim) -> {
+            sim_mat[i][j] = sim;
+            sim_mat[j][i] = sim;
+        });
 
-                // Catch the last iteration, compute the pref:
-                double median = 0.0;
-                if (last_iter = (i == m - 2 && j == m - 1))
-                    median = VecUtils.median(vector);
+        final double median = medianOfSymmetric(sim_mat, diagonal);
 
-                if (addNoise) {
-                    noise = (sim * GlobalState.Mathematics.EPS + tiny_val);
+        if (addNoise) {
+            for (int i = 0; i < m - 1; i++) {
+                for (int j = i + 1; j < m; j++) {
+                    noise = (sim_mat[i][j] * GlobalState.Mathematics.EPS + tiny_val);
                     sim_mat[i][j] += (noise * seed.nextGaussian());
                     sim_mat[j][i] += (noise * seed.nextGaussian());
-
-                    if (last_iter) { // set diag and do the noise thing.
-                        noise = (median * GlobalState.Mathematics.EPS + tiny_val);
-                        for (int h = 0; h < m; h++)
-                            sim_mat[h][h] = median + (noise * seed.nextGaussian());
-                    }
-                } else if (last_iter) {
-                    // it's the last iter and no noise. Just set diag.
-                    for (int h = 0; h < m; h++)
-                        sim_mat[h][h] = median;
                 }
             }
+
+            // set diag and do the noise thing.
+            noise = (median * GlobalState.Mathematics.EPS + tiny_val);
+            for (int h = 0; h < m; h++)
+                sim_mat[h][h] = median + (noise * seed.nextGaussian());
+        } else {
+            // no noise. Just set diag.
+            for (int h = 0; h < m; h++)
+                sim_mat[h][h] = median;
         }
 
         return sim_mat;
     }
 
+    /**
+     * The median of every entry of a symmetric matrix, equal to
+     * {@link VecUtils#median(double[])} over all M^2 entries, from a sorted
+     * copy of the strict upper triangle (weight two) and the diagonal (weight one)
+     */
+    static double medianOfSymmetric(final double[][] sym, final double[] diagonal) {
+        final int m = diagonal.length;
+        final double[] upper = new double[m * (m - 1) / 2];
+        for (int i = 0, r = 0; i < m - 1; i++) {
+            System.arraycopy(sym[i], i + 1, upper, r, m - i - 1);
+            r += m - i - 1;
+        }
+
+        final double[] diag = VecUtils.copy(diagonal);
+        Arrays.sort(upper);
+        Arrays.sort(diag);
+
+        final long total = (long) m * m, mid = total / 2;
+        if (total % 2 != 0)
+            return orderStatistic(upper, diag, mid);
+        return (orderStatistic(upper, diag, mid - 1) + orderStatistic(upper, diag, mid)) / 2d;
+    }
+
+    /**
+     * The k-th smallest (zero based) of the multiset holding each of the sorted
+     * <tt>twice</tt> values two times and each of the sorted <tt>once</tt> values one time
+     */
+    private static double orderStatistic(final double[] twice, final double[] once, final long k) {
+        long pos = 0;
+        int a = 0, b = 0;
+        while (true) {
+            final boolean takeTwice = b == once.length
+                || (a < twice.length && Double.compare(twice[a], once[b]) <= 0);
+            final double value = takeTwice ? twice[a++] : once[b++];
+            pos += takeTwice ? 2 : 1;
+            if (k < pos)
+                return value;
+        }
+    }
+
 
     /**
      * Computes the first portion of the AffinityPropagation iteration
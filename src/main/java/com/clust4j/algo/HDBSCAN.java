@@ -20,6 +20,7 @@ import com.clust4j.log.Log;
 import com.clust4j.log.Log.Tag.Algo;
 import com.clust4j.log.LogTimer;
 import com.clust4j.log.Loggable;
+import com.clust4j.metrics.pairwise.CondensedDistanceMatrix;
 import com.clust4j.metrics.pairwise.Distance;
 import com.clust4j.metrics.pairwise.DistanceMetric;
 import com.clust4j.metrics.pairwise.GeometricallySeparable;
@@ -45,6 +46,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.IntStream;
 
 /**
  * Hierarchical Density-Based Spatial Clustering of Applications with Noise.
@@ -81,7 +83,7 @@ final public class HDBSCAN extends AbstractDBSCAN {
     private final int leafSize;
 
     private volatile HDBSCANLinkageTree tree = null;
-    private volatile double[][] dist_mat = null;
+    private volatile CondensedDistanceMatrix dist_mat = null;
     private volatile int[] labels = null;
     private volatile int numClusters = -1;
     private volatile int numNoisey = -1;
@@ -907,6 +909,126 @@ final public class HDBSCAN extends AbstractDBSCAN {
 
             return MatUtils.transpose(result);
         }
+
+        /**
+         * Core distance of every row of a condensed distance matrix: the
+         * <tt>minPts</tt>-th smallest entry of the row, its diagonal included,
+         * exactly as {@link #mutualReachability(double[][], int, double)} takes
+         * it from the sorted columns. Rows are streamed in parallel blocks and
+         * selected in linear expected time instead of fully sorted.
+         *
+         * @param dist_mat
+         * @param minPts
+         * @return the core distances
+         */
+        static double[] coreDistances(final CondensedDistanceMatrix dist_mat, int minPts) {
+            final int size = dist_mat.size();
+            final int k = FastMath.min(size - 1, minPts);
+            final double[] core = new double[size];
+            final int block = 64;
+
+            IntStream.range(0, (size + block - 1) / block).parallel().forEach(b -> {
+                final double[] row = new double[size];
+                for (int i = b * block, end = FastMath.min(size, i + block); i < end; i++)
+                    core[i] = select(dist_mat.getRow(i, row), k);
+            });
+
+            return core;
+        }
+
+        /**
+         * Partially reorders <tt>a</tt> and returns its
+         * <tt>k</tt>-th smallest element (zero based)
+         */
+        static double select(final double[] a, final int k) {
+            int lo = 0, hi = a.length - 1;
+            while (hi > lo) {
+                // Median of three pivot keeps sorted rows linear
+                final int mid = (lo + hi) >>> 1;
+                if (a[mid] < a[lo]) swap(a, mid, lo);
+                if (a[hi] < a[lo]) swap(a, hi, lo);
+                if (a[hi] < a[mid]) swap(a, hi, mid);
+                final double pivot = a[mid];
+
+                int i = lo, j = hi;
+                while (i <= j) {
+                    while (a[i] < pivot) i++;
+                    while (a[j] > pivot) j--;
+                    if (i <= j)
+                        swap(a, i++, j--);
+                }
+
+                if (k <= j) hi = j;
+                else if (k >= i) lo = i;
+                else return a[k];
+            }
+
+            return a[k];
+        }
+
+        private static void swap(double[] a, int i, int j) {
+            final double t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+
+        /**
+         * Prim's minimum spanning tree over the mutual reachability graph
+         * <tt>max(core_i, core_j, d_ij / alpha)</tt>, computed from the condensed
+         * distances one streamed row at a time. Produces the same edges as
+         * {@link #minSpanTreeLinkageCore(double[][], int)} applied to
+         * {@link #mutualReachability(double[][], int, double)}, including
+         * tie breaking towards the lowest label, without either dense matrix
+         * and without allocating inside the loop.
+         *
+         * @param dist_mat
+         * @param core the core distances
+         * @param alpha
+         * @return the unsorted (m - 1) x 3 edge list
+         */
+        static double[][] minSpanTreeLinkageCore(final CondensedDistanceMatrix dist_mat,
+                                                 final double[] core, final double alpha) {
+            final int m = dist_mat.size();
+            final double[][] result = new double[m - 1][3];
+            final boolean[] in_tree = new boolean[m];
+            final double[] current_distances = VecUtils.rep(Double.POSITIVE_INFINITY, m);
+            final double[] row = new double[m];
+
+            int current_node = 0;
+            for (int i = 1; i < m; i++) {
+                in_tree[current_node] = true;
+                dist_mat.getRow(current_node, row);
+
+                final double core_current = core[current_node];
+                double min = Double.POSITIVE_INFINITY;
+                int new_node = -1;
+
+                for (int j = 0; j < m; j++) {
+                    if (in_tree[j])
+                        continue;
+
+                    double reach = alpha != 1.0 ? row[j] / alpha : row[j];
+                    if (core_current > reach)
+                        reach = core_current;
+                    if (core[j] > reach)
+                        reach = core[j];
+
+                    if (reach < current_distances[j])
+                        current_distances[j] = reach;
+                    if (new_node < 0 || current_distances[j] < min) {
+                        min = current_distances[j];
+                        new_node = j;
+                    }
+                }
+
+                result[i - 1][0] = current_node;
+                result[i - 1][1] = new_node;
+                result[i - 1][2] = min;
+                current_node = new_node;
+            }
+
+            return result;
+        }
     }
 
 
@@ -1065,17 +1187,20 @@ final public class HDBSCAN extends AbstractDBSCAN {
         GenericTree() {
             super();
 
-            // The generic implementation requires the computation of an UT dist mat
+            // The generic implementation requires the computation of an UT dist mat;
+            // it is kept condensed in float32 and only ever streamed row by row
             final LogTimer s = new LogTimer();
-            dist_mat = Pairwise.getDistance(data, getSeparabilityMetric(), false, false);
-            info("completed distance matrix computation in " + s.toString());
+            dist_mat = Pairwise.getCondensedDistance(null != dataData ? dataData : data.getData(),
+                getSeparabilityMetric(), false);
+            info("completed distance matrix computation in " + s.toString()
+                + " (" + dist_mat.bytes() + " bytes" + (dist_mat.isOffHeap() ? ", off heap)" : ")"));
         }
 
         @Override
         double[][] link() {
-            final double[][] mutual_reachability = mutualReachability();
+            final double[] core_distances = LinkageTreeUtils.coreDistances(dist_mat, minPts);
             double[][] min_spanning_tree = LinkageTreeUtils
-                .minSpanTreeLinkageCore(mutual_reachability, m);
+                .minSpanTreeLinkageCore(dist_mat, core_distances, alpha);
 
             // Sort edges of the min_spanning_tree by weight
             min_spanning_tree = MatUtils.sortAscByCol(min_spanning_tree, 2);
@@ -1092,7 +1217,8 @@ final public class HDBSCAN extends AbstractDBSCAN {
 					+ "or after the model has already been fit.");
 			*/
 
-            return LinkageTreeUtils.mutualReachability(dist_mat, minPts, alpha);
+            // Dense, for inspection only; link() never materializes it
+            return LinkageTreeUtils.mutualReachability(dist_mat.toDense(), minPts, alpha);
         }
     }
 
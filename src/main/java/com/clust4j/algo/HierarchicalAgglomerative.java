@@ -21,6 +21,8 @@ import com.clust4j.kernel.LogKernel;
 import com.clust4j.log.Log;
 import com.clust4j.log.Log.Tag.Algo;
 import com.clust4j.log.LogTimer;
+import com.clust4j.metrics.pairwise.BlockedPairwise;
+import com.clust4j.metrics.pairwise.CondensedDistanceMatrix;
 import com.clust4j.metrics.pairwise.Distance;
 import com.clust4j.metrics.pairwise.GeometricallySeparable;
 import com.clust4j.metrics.scoring.SupervisedMetric;
@@ -215,12 +217,14 @@ final public class HierarchicalAgglomerative extends AbstractPartitionalClustere
          */
         static double[] build(final double[][] data, GeometricallySeparable dist, boolean partial) {
             final int m = data.length;
-            final int s = m * (m - 1) / 2; // The shape of the flattened upper triangular matrix (m choose 2)
-            final double[] vec = new double[s];
-            for (int i = 0, r = 0; i < m - 1; i++)
-                for (int j = i + 1; j < m; j++, r++)
-                    vec[r] = partial ? dist.getPartialDistance(data[i], data[j]) :
-                        dist.getDistance(data[i], data[j]);
+            final long s = CondensedDistanceMatrix.length(m); // The shape of the flattened upper triangular matrix (m choose 2)
+            if (s > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException(m + " rows exceed the flattened distance vector limit");
+
+            // Linkage updates the vector in place, so it stays double; the fill is tiled and parallel
+            final double[] vec = new double[(int) s];
+            BlockedPairwise.forEachPair(data, dist, partial, 1.0,
+                (i, j, d) -> vec[(int) CondensedDistanceMatrix.index(m, i, j)] = d);
 
             return vec;
         }
@@ -256,11 +260,7 @@ final public class HierarchicalAgglomerative extends AbstractPartitionalClustere
          * @return the corresponding vector index
          */
         static int getIndexFromFlattenedVec(final int m, final int i, final int j) {
-            if (i < j)
-                return m * i - (i * (i + 1) / 2) + (j - i - 1);
-            else if (i > j)
-                return m * j - (j * (j + 1) / 2) + (i - j - 1);
-            throw new IllegalArgumentException(i + ", " + j + "; i should not equal j");
+            return (int) CondensedDistanceMatrix.index(m, i, j);
         }
 
         /**
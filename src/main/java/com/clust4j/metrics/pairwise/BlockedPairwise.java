@@ -0,0 +1,123 @@
+/*******************************************************************************
+ *    Original Copyright 2015, 2016 Taylor G Smith
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package com.clust4j.metrics.pairwise;
+
+import java.util.stream.IntStream;
+
+/**
+ * Parallel, cache blocked evaluation of a metric over every pair of rows.
+ *
+ * <p>
+ * The strict upper triangle is cut into square tiles of rows <tt>[i0, i1)</tt>
+ * against rows <tt>[j0, j1)</tt>, with <tt>i0 &lt;= j0</tt>. A tile is sized so
+ * both row blocks stay in cache while every pair between them is evaluated,
+ * and tiles are independent, so they are handed to the common fork join pool.
+ * Each pair <tt>i &lt; j</tt> is computed exactly once.
+ */
+public abstract class BlockedPairwise {
+    /**
+     * Bytes of row data, both blocks together, a tile aims to keep in cache
+     */
+    static final int TILE_BYTES = 1 << 18;
+    static final int MIN_TILE = 16, MAX_TILE = 512;
+
+    /**
+     * Receives the value of each pair. Called concurrently
+     * from several threads, but never twice for the same pair.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        void accept(int i, int j, double value);
+    }
+
+    /**
+     * @param cols row length
+     * @return rows per tile side for rows of <tt>cols</tt> doubles
+     */
+    static int tileSize(int cols) {
+        final int rows = TILE_BYTES / (2 * Double.BYTES * Math.max(1, cols));
+        return Math.max(MIN_TILE, Math.min(MAX_TILE, rows));
+    }
+
+    /**
+     * Evaluate <tt>geo</tt> over every pair <tt>i &lt; j</tt> of rows
+     * in parallel tiles and hand each value to <tt>sink</tt>.
+     *
+     * @param a       the rows
+     * @param geo     the metric
+     * @param partial use the partial distance?
+     * @param scalar  multiplied into each value; -1 turns distances into similarities
+     * @param sink    receives <tt>(i, j, value)</tt>
+     */
+    public static void forEachPair(final double[][] a, final GeometricallySeparable geo,
+                                   final boolean partial, final double scalar, final PairConsumer sink) {
+        final int m = a.length;
+        if (m < 2)
+            return;
+
+        final int tile = tileSize(a[0].length);
+        final int blocks = (m + tile - 1) / tile;
+
+        // Tile t of the upper block triangle is (bi, bj), bi <= bj, in row major order
+        final int[] tileRow = new int[blocks * (blocks + 1) / 2];
+        final int[] tileCol = new int[tileRow.length];
+        for (int bi = 0, t = 0; bi < blocks; bi++) {
+            for (int bj = bi; bj < blocks; bj++, t++) {
+                tileRow[t] = bi;
+                tileCol[t] = bj;
+            }
+        }
+
+        IntStream.range(0, tileRow.length).parallel().forEach(t -> {
+            final int i0 = tileRow[t] * tile, i1 = Math.min(m, i0 + tile);
+            final int j0 = tileCol[t] * tile, j1 = Math.min(m, j0 + tile);
+
+            for (int i = i0; i < i1; i++) {
+                final double[] x = a[i];
+                for (int j = Math.max(j0, i + 1); j < j1; j++) {
+                    sink.accept(i, j, scalar * (partial ?
+                        geo.getPartialDistance(x, a[j]) :
+                        geo.getDistance(x, a[j])));
+                }
+            }
+        });
+    }
+
+    /**
+     * Compute the condensed distance matrix of <tt>a</tt>, the diagonal included.
+     *
+     * @param a       the rows
+     * @param geo     the metric
+     * @param partial use the partial distance?
+     * @param storage where to keep the upper triangle
+     * @return the float32 upper triangle
+     */
+    public static CondensedDistanceMatrix getDistance(final double[][] a, final GeometricallySeparable geo,
+                                                      final boolean partial, final CondensedDistanceMatrix.Storage storage) {
+        final int m = a.length;
+        final CondensedDistanceMatrix out = new CondensedDistanceMatrix(m,
+            storage.offHeap(CondensedDistanceMatrix.length(m)));
+
+        forEachPair(a, geo, partial, 1.0, out::set);
+        for (int i = 0; i < m; i++) {
+            out.set(i, i, partial ?
+                geo.getPartialDistance(a[i], a[i]) :
+                geo.getDistance(a[i], a[i]));
+        }
+
+        return out;
+    }
+}
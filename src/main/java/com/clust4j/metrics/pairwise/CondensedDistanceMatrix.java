@@ -0,0 +1,211 @@
+/*******************************************************************************
+ *    Original Copyright 2015, 2016 Taylor G Smith
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package com.clust4j.metrics.pairwise;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * A symmetric pairwise matrix stored as its flattened strict upper triangle
+ * in single precision, plus the diagonal. For <tt>m</tt> rows this holds
+ * <tt>m choose 2</tt> floats instead of the <tt>m * m</tt> doubles of a dense
+ * matrix, one eighth of the memory; 50,000 rows fit in under 5GB.
+ *
+ * <p>
+ * The triangle is split into pages so indices are <tt>long</tt> and the matrix
+ * is not limited by the maximum array length. Pages live either on the heap
+ * or in direct buffers outside of it (see {@link Storage}).
+ *
+ * <p>
+ * Consumers that only need one row at a time (linkage, core distances) should
+ * stream it through {@link #getRow(int, double[])} rather than materialize a
+ * dense copy.
+ *
+ * @see BlockedPairwise
+ */
+public final class CondensedDistanceMatrix {
+    /**
+     * Where the upper triangle pages are allocated
+     */
+    public static enum Storage {
+        HEAP,
+        OFF_HEAP,
+        /**
+         * Off heap when the triangle would take more than
+         * a quarter of the maximum heap size, else on heap
+         */
+        AUTO;
+
+        boolean offHeap(long floats) {
+            switch (this) {
+                case HEAP:
+                    return false;
+                case OFF_HEAP:
+                    return true;
+                default:
+                    return floats * Float.BYTES > Runtime.getRuntime().maxMemory() / 4;
+            }
+        }
+    }
+
+    static final int PAGE_SHIFT = 26; // 64M floats, 256MB per page
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final int m;
+    private final long length;
+    private final float[] diagonal;
+    private final float[][] heapPages;
+    private final FloatBuffer[] directPages;
+
+    CondensedDistanceMatrix(final int m, boolean offHeap) {
+        if (m < 1)
+            throw new IllegalArgumentException("m must be positive");
+
+        this.m = m;
+        this.length = length(m);
+        this.diagonal = new float[m];
+
+        final int pages = (int) ((length + PAGE_SIZE - 1) >>> PAGE_SHIFT);
+        if (offHeap) {
+            heapPages = null;
+            directPages = new FloatBuffer[pages];
+            for (int p = 0; p < pages; p++)
+                directPages[p] = ByteBuffer
+                    .allocateDirect(pageLength(p) * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        } else {
+            directPages = null;
+            heapPages = new float[pages][];
+            for (int p = 0; p < pages; p++)
+                heapPages[p] = new float[pageLength(p)];
+        }
+    }
+
+    private int pageLength(int page) {
+        return (int) Math.min(PAGE_SIZE, length - ((long) page << PAGE_SHIFT));
+    }
+
+    /**
+     * @param m number of rows
+     * @return the number of strictly upper triangular entries, <tt>m choose 2</tt>
+     */
+    public static long length(int m) {
+        return (long) m * (m - 1) / 2;
+    }
+
+    /**
+     * Position of <tt>(i, j)</tt> in the flattened upper triangle,
+     * in either order; <tt>i</tt> must not equal <tt>j</tt>.
+     */
+    public static long index(final int m, int i, int j) {
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        } else if (i == j) {
+            throw new IllegalArgumentException(i + ", " + j + "; i should not equal j");
+        }
+
+        return (long) m * i - ((long) i * (i + 1) / 2) + (j - i - 1);
+    }
+
+    /**
+     * @return the number of rows (and columns)
+     */
+    public int size() {
+        return m;
+    }
+
+    /**
+     * @return the number of stored off-diagonal entries
+     */
+    public long length() {
+        return length;
+    }
+
+    public boolean isOffHeap() {
+        return null != directPages;
+    }
+
+    /**
+     * @return bytes held by the triangle and diagonal
+     */
+    public long bytes() {
+        return (length + m) * Float.BYTES;
+    }
+
+    public double get(int i, int j) {
+        if (i == j)
+            return diagonal[i];
+        return get(index(m, i, j));
+    }
+
+    double get(long idx) {
+        final int page = (int) (idx >>> PAGE_SHIFT), off = (int) (idx & PAGE_MASK);
+        return null != heapPages ? heapPages[page][off] : directPages[page].get(off);
+    }
+
+    void set(int i, int j, double value) {
+        if (i == j) {
+            diagonal[i] = (float) value;
+            return;
+        }
+
+        final long idx = index(m, i, j);
+        final int page = (int) (idx >>> PAGE_SHIFT), off = (int) (idx & PAGE_MASK);
+        if (null != heapPages)
+            heapPages[page][off] = (float) value;
+        else
+            directPages[page].put(off, (float) value);
+    }
+
+    /**
+     * Stream row <tt>i</tt> into <tt>row</tt>, which must have at
+     * least {@link #size()} slots. The part right of the diagonal is
+     * read contiguously; the part left of it is gathered column-wise.
+     *
+     * @param i   the row
+     * @param row the destination
+     * @return <tt>row</tt>
+     */
+    public double[] getRow(final int i, final double[] row) {
+        if (row.length < m)
+            throw new IllegalArgumentException("row buffer length " + row.length + " < " + m);
+
+        for (int j = 0; j < i; j++)
+            row[j] = get(index(m, j, i));
+        row[i] = diagonal[i];
+
+        long idx = i + 1 < m ? index(m, i, i + 1) : 0;
+        for (int j = i + 1; j < m; j++, idx++)
+            row[j] = get(idx);
+
+        return row;
+    }
+
+    /**
+     * Materialize the full dense matrix. Only sensible for small inputs.
+     */
+    public double[][] toDense() {
+        final double[][] out = new double[m][];
+        for (int i = 0; i < m; i++)
+            out[i] = getRow(i, new double[m]);
+        return out;
+    }
+}
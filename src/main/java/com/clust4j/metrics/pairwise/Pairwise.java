@@ -31,6 +31,15 @@ public abstract class Pairwise {
         return pairwise(a, geo, upperTriang, partial, 1.0);
     }
 
+    /**
+     * Distances as a float32 upper triangle, computed in parallel tiles
+     * by {@link BlockedPairwise}; off heap when it would crowd the heap.
+     */
+    public static CondensedDistanceMatrix getCondensedDistance(double[][] a,
+                                                               GeometricallySeparable geo, boolean partial) {
+        return BlockedPairwise.getDistance(a, geo, partial, CondensedDistanceMatrix.Storage.AUTO);
+    }
+
     public static double[][] getSimilarity(AbstractRealMatrix a,
                                            GeometricallySeparable geo,
                                            boolean upperTriang, boolean partial) {
@@ -69,7 +69,9 @@ import edu.jhuapl.trinity.javafx.javafx3d.RetroWavePane;
 import edu.jhuapl.trinity.javafx.services.FeatureVectorManagerService;
 import edu.jhuapl.trinity.javafx.services.FeatureVectorManagerServiceImpl;
 import edu.jhuapl.trinity.javafx.services.FeatureVectorUtils;
+import edu.jhuapl.trinity.javafx.services.FeatureVectorRepository;
 import edu.jhuapl.trinity.javafx.services.InMemoryFeatureVectorRepository;
+import edu.jhuapl.trinity.javafx.services.MappedFeatureVectorRepository;
 import edu.jhuapl.trinity.messages.CommandTask;
 import edu.jhuapl.trinity.messages.MessageProcessor;
 import edu.jhuapl.trinity.messages.ZeroMQFeedManager;
@@ -98,6 +100,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -172,7 +175,7 @@ public class AppAsyncManager extends Task<Void> {
         this.desktopPane = desktopPane;
         this.centerStack = centerStack;
         // Shared FeatureVector Manager service (mirrors vectors/collections into the Manager view)
-        fvService = new FeatureVectorManagerServiceImpl(new InMemoryFeatureVectorRepository());
+        fvService = new FeatureVectorManagerServiceImpl(createFeatureVectorRepository(namedParameters));
         // Allow service to fire APPLY_ACTIVE_FEATUREVECTORS back to the app via scene root
         if (fvService instanceof FeatureVectorManagerServiceImpl impl) {
             impl.setEventTarget(scene.getRoot());
@@ -189,6 +192,23 @@ public class AppAsyncManager extends Task<Void> {
             scene.getRoot().fireEvent(new ApplicationEvent(ApplicationEvent.HIDE_BUSY_INDICATOR))));
     }
 
+    /**
+     * A --featurestore=&lt;dir&gt; argument keeps collections in a memory-mapped
+     * columnar store under that directory; otherwise collections stay on heap.
+     */
+    private static FeatureVectorRepository createFeatureVectorRepository(Map<String, String> namedParameters) {
+        if (null != namedParameters && namedParameters.containsKey("featurestore")) {
+            String dir = namedParameters.get("featurestore");
+            try {
+                LOG.info("Using memory-mapped feature store at {}", dir);
+                return new MappedFeatureVectorRepository(Path.of(dir));
+            } catch (IOException | RuntimeException ex) {
+                LOG.error("Unable to open feature store {}, falling back to heap.", dir, ex);
+            }
+        }
+        return new InMemoryFeatureVectorRepository();
+    }
+
     @Override
     protected Void call() throws Exception {
         Platform.runLater(() -> {
@@ -599,6 +619,12 @@ public class AppAsyncManager extends Task<Void> {
                 fvService.appendVectorsToActive(java.util.List.of(fv));
             }
         });
+        // ...and coalesced streaming batches
+        scene.getRoot().addEventHandler(FeatureVectorEvent.NEW_FEATURE_VECTOR_BATCH, ev -> {
+            if (ev.object instanceof java.util.List<?> batch && !batch.isEmpty()) {
+                fvService.appendVectorsToActive((java.util.List<FeatureVector>) batch);
+            }
+        });
         // Optional: keep manager’s active view consistent with global clears
         scene.getRoot().addEventHandler(FeatureVectorEvent.CLEAR_ALL_FEATUREVECTORS, ev -> {
             fvService.replaceActiveVectors(java.util.List.of());
@@ -1002,6 +1028,7 @@ public class AppAsyncManager extends Task<Void> {
         progress.setPercentComplete(current++ / total);
         fveh = new FeatureVectorEventHandler();
         scene.getRoot().addEventHandler(FeatureVectorEvent.NEW_FEATURE_VECTOR, fveh);
+        scene.getRoot().addEventHandler(FeatureVectorEvent.NEW_FEATURE_VECTOR_BATCH, fveh);
         scene.getRoot().addEventHandler(FeatureVectorEvent.LOCATE_FEATURE_VECTOR, fveh);
         scene.getRoot().addEventHandler(FeatureVectorEvent.NEW_FEATURE_COLLECTION, fveh);
         scene.getRoot().addEventHandler(FeatureVectorEvent.RESCAN_FACTOR_LABELS, fveh);
@@ -1039,6 +1066,7 @@ public class AppAsyncManager extends Task<Void> {
         scene.getRoot().addEventHandler(ManifoldEvent.FIND_PROJECTION_CLUSTERS, meh);
         scene.getRoot().addEventHandler(ManifoldEvent.NEW_CLUSTER_COLLECTION, meh);
         scene.getRoot().addEventHandler(ManifoldEvent.NEW_PROJECTION_VECTOR, meh);
+        scene.getRoot().addEventHandler(ManifoldEvent.NEW_PROJECTION_VECTOR_BATCH, meh);
         meh.addManifoldRenderer(projections3DPane);
         scene.getRoot().addEventHandler(ManifoldEvent.FIND_HYPERSURFACE_CLUSTERS, e -> {
             hypersurface3DPane.findClusters((ManifoldEvent.ProjectionConfig) e.object1);
@@ -56,9 +56,9 @@ public class FeatureKernel { // extends Kernel {
         xFactors = new double[featureVectors.size()];
         yFactors = new double[featureVectors.size()];
         zFactors = new double[featureVectors.size()];
-        Arrays.parallelSetAll(xFactors, i -> featureVectors.get(i).getData().get(x));
-        Arrays.parallelSetAll(yFactors, i -> featureVectors.get(i).getData().get(y));
-        Arrays.parallelSetAll(zFactors, i -> featureVectors.get(i).getData().get(z));
+        Arrays.parallelSetAll(xFactors, i -> featureVectors.get(i).dataValue(x));
+        Arrays.parallelSetAll(yFactors, i -> featureVectors.get(i).dataValue(y));
+        Arrays.parallelSetAll(zFactors, i -> featureVectors.get(i).dataValue(z));
 
         xCoords = new double[featureVectors.size()];
         yCoords = new double[featureVectors.size()];
@@ -3,11 +3,14 @@ package edu.jhuapl.trinity.data;
 import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
 import javafx.scene.paint.Color;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Sean Phillips
@@ -15,34 +18,30 @@ import java.util.List;
 public class Trajectory {
 
     public Integer totalStates = null;
-    public ArrayList<double[]> states = new ArrayList<>();
-    public ArrayList<Double> times = new ArrayList<>();
     private Boolean visible = false;
     private Color color = Color.LIGHTSKYBLUE;
     private Double stability = null;
     private String label = null;
+    private volatile TrajectoryStore store;
 
     public Trajectory(String label) {
-        states = new ArrayList<>();
-        states.add(new double[]{0.0, 0.0, 0.0});
-        times = new ArrayList<>();
-        times.add(0.0);
+        store = new TrajectoryStore(3);
+        store.append(0.0, new double[]{0.0, 0.0, 0.0});
         this.label = label;
     }
 
-    public Trajectory(String label, ArrayList<double[]> newStates, ArrayList<Double> newTimes) {
-        this.states = new ArrayList<>(newStates);
-        this.times = new ArrayList<>(newTimes);
+    public Trajectory(String label, List<double[]> newStates, List<Double> newTimes) {
+        store = toStore(newStates, newTimes);
         this.label = label;
-        totalStates = this.states.size();
+        totalStates = store.size();
     }
 
     /**
      * Provides lookup mechanism to find any object model that is currently
      * anchored in the system.
      */
-    private static HashMap<String, Trajectory> globalTrajectoryMap = new HashMap<>();
-    public static HashMap<Trajectory, FeatureCollection> globalTrajectoryToFeatureCollectionMap = new HashMap<>();
+    private static Map<String, Trajectory> globalTrajectoryMap = new ConcurrentHashMap<>();
+    public static Map<Trajectory, FeatureCollection> globalTrajectoryToFeatureCollectionMap = new ConcurrentHashMap<>();
 
     public static Collection<Trajectory> getTrajectories() {
         return globalTrajectoryMap.values();
@@ -96,88 +95,149 @@ public class Trajectory {
     }
 
     public double[] getMaxXState() {
-        return states.stream().max((double[] o1, double[] o2) -> {
-            if (o1[0] < o2[0]) return -1;
-            else if (o1[0] > o1[0]) return 1;
-            else return 0;
-        }).orElse(null);
+        return extremeState(0, true);
     }
 
     public double[] getMaxYState() {
-        return states.stream().max((double[] o1, double[] o2) -> {
-            if (o1[1] < o2[1]) return -1;
-            else if (o1[1] > o1[1]) return 1;
-            else return 0;
-        }).orElse(null);
+        return extremeState(1, true);
     }
 
     public double[] getMaxZState() {
-        return states.stream().max((double[] o1, double[] o2) -> {
-            if (o1[2] < o2[2]) return -1;
-            else if (o1[2] > o1[2]) return 1;
-            else return 0;
-        }).orElse(null);
+        return extremeState(2, true);
     }
 
     public double[] getMinXState() {
-        return states.stream().min((double[] o1, double[] o2) -> {
-            if (o1[0] < o2[0]) return -1;
-            else if (o1[0] > o1[0]) return 1;
-            else return 0;
-        }).orElse(null);
+        return extremeState(0, false);
     }
 
     public double[] getMinYState() {
-        return states.stream().min((double[] o1, double[] o2) -> {
-            if (o1[1] < o2[1]) return -1;
-            else if (o1[1] > o1[1]) return 1;
-            else return 0;
-        }).orElse(null);
+        return extremeState(1, false);
     }
 
     public double[] getMinZState() {
-        return states.stream().min((double[] o1, double[] o2) -> {
-            if (o1[2] < o2[2]) return -1;
-            else if (o1[2] > o1[2]) return 1;
-            else return 0;
-        }).orElse(null);
+        return extremeState(2, false);
+    }
+
+    private double[] extremeState(int d, boolean max) {
+        TrajectoryStore current = store;
+        if (d >= current.getDimensions()) return null;
+        int best = max ? current.argMax(d) : current.argMin(d);
+        return best < 0 ? null : current.state(best);
     }
 
     public double getRangeX() {
-        Double maxX = null;
-        Double minX = null;
-        Double range = null;
-        for (double[] state : states) {
-            //update coordinate transformation information for X
-            maxX = null == maxX || state[0] > maxX ? state[0] : maxX;
-            minX = null == minX || state[0] < minX ? state[0] : minX;
-            range = maxX - minX;
-        }
-        return range;
+        return store.getRange(0);
     }
 
     public double getRangeY() {
-        Double max = null;
-        Double min = null;
-        Double range = null;
-        for (double[] state : states) {
-            max = null == max || state[1] > max ? state[1] : max;
-            min = null == min || state[1] < min ? state[1] : min;
-            range = max - min;
-        }
-        return range;
+        return store.getRange(1);
     }
 
     public double getRangeZ() {
-        Double max = null;
-        Double min = null;
-        Double range = null;
-        for (double[] state : states) {
-            max = null == max || state[2] > max ? state[2] : max;
-            min = null == min || state[2] < min ? state[2] : min;
-            range = max - min;
+        return store.getRange(2);
+    }
+
+    /**
+     * Primitive, time-indexed storage of this trajectory's states with cached
+     * bounds and decimated levels of detail. The store is the only copy of the
+     * states; replacing them swaps in a new store, so a reader holding the old
+     * one keeps a consistent view.
+     *
+     * @return the store, never null
+     */
+    public TrajectoryStore getStore() {
+        return store;
+    }
+
+    public int getStateCount() {
+        return store.size();
+    }
+
+    /**
+     * @return a read only view of the states present when called, copied out of the store on access
+     */
+    public List<double[]> getStates() {
+        TrajectoryStore current = store;
+        int n = current.size();
+        return new AbstractList<>() {
+            @Override
+            public double[] get(int index) {
+                Objects.checkIndex(index, n);
+                return current.state(index);
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+
+    /**
+     * Replaces the states, timed by their index.
+     */
+    public void setStates(List<double[]> newStates) {
+        setStates(newStates, null);
+    }
+
+    /**
+     * Replaces the states. Times that do not pair one to one with states fall
+     * back to the state index; out of order times are clamped.
+     */
+    public synchronized void setStates(List<double[]> newStates, List<Double> newTimes) {
+        store = toStore(newStates, newTimes);
+    }
+
+    public synchronized void clearStates() {
+        store = new TrajectoryStore(store.getDimensions());
+    }
+
+    /**
+     * Appends a state one time unit after the last one.
+     */
+    public synchronized void appendState(double[] state) {
+        TrajectoryStore current = store;
+        int n = current.size();
+        appendState(n == 0 ? 0.0 : current.time(n - 1) + 1.0, state);
+    }
+
+    /**
+     * Appends a live state, so a feed thread can extend a long-running track
+     * while the scene renders it. States shorter than the store's dimensions
+     * are padded with zeros.
+     *
+     * @param time  non-decreasing state time
+     * @param state state vector
+     */
+    public synchronized void appendState(double time, double[] state) {
+        TrajectoryStore current = store;
+        if (state.length < current.getDimensions())
+            state = Arrays.copyOf(state, current.getDimensions());
+        current.append(time, state);
+    }
+
+    private static TrajectoryStore toStore(List<double[]> states, List<Double> times) {
+        int dims = 3;
+        for (double[] state : states)
+            dims = Math.max(dims, state.length);
+        TrajectoryStore newStore = new TrajectoryStore(dims);
+        boolean timed = null != times && times.size() == states.size();
+        double last = Double.NEGATIVE_INFINITY;
+        double[] padded = new double[dims];
+        for (int i = 0; i < states.size(); i++) {
+            double[] state = states.get(i);
+            double t = timed && null != times.get(i) ? times.get(i) : i;
+            //out of order or missing times are clamped so the store stays sorted
+            if (!(t >= last)) t = Double.isInfinite(last) ? i : last;
+            last = t;
+            if (state.length < dims) {
+                Arrays.fill(padded, 0.0);
+                System.arraycopy(state, 0, padded, 0, state.length);
+                state = padded;
+            }
+            newStore.append(t, state);
         }
-        return range;
+        return newStore;
     }
 
     /**
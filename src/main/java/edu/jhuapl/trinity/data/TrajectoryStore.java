@@ -0,0 +1,504 @@
+package edu.jhuapl.trinity.data;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Append-only, time-indexed storage for long-running trajectories.
+ * <p>
+ * Times and states are kept in primitive chunks of CHUNK_SIZE entries, so a
+ * track with millions of states never boxes a value and never copies old data
+ * when it grows. Appends are serialized on the store; readers take no lock.
+ * A reader only ever sees states that were completely written before the
+ * volatile size was published, so a render pass can query a live track while
+ * a feed thread keeps appending to it.
+ * <p>
+ * Per dimension bounds, and the index of the state holding each of them, are
+ * updated on append and published as immutable snapshots, so range and
+ * extreme state lookups are O(1). Times must be non-decreasing, which lets
+ * time windows resolve to index ranges by binary search.
+ * <p>
+ * Every full chunk is simplified with Douglas-Peucker once, at each of the LOD
+ * levels, on a shared background thread; the append that fills a chunk only
+ * queues the work. Chunks are published in order, and until a chunk's levels
+ * are ready {@link #slice} returns its states raw. Level k keeps the points needed to stay within
+ * baseTolerance * LEVEL_FACTOR^(k-1) of the original polyline, measured in the
+ * first (up to) three state dimensions. Level 0 is the raw data and the
+ * partially filled tail chunk is always returned raw, so the newest states are
+ * exact. A renderer picks a level from its zoom with {@link #levelFor(double)}
+ * or from a vertex budget with {@link #levelForBudget(int, int, int)}.
+ *
+ * @author Sean Phillips
+ */
+public class TrajectoryStore {
+    public static final int CHUNK_SIZE = 4096;
+    public static final int DEFAULT_LEVELS = 6;
+    public static final double LEVEL_FACTOR = 4.0;
+    /**
+     * Fraction of the bounding diagonal used as the level 1 tolerance when none is given.
+     */
+    public static final double DEFAULT_RELATIVE_TOLERANCE = 1e-3;
+    //single thread, so every store's chunks are sealed in the order they filled
+    private static final ExecutorService LOD_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "trajectory-lod");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * A copy of the states in a window.
+     *
+     * @param times  time of each returned state
+     * @param states row major packed states, count * dimensions values
+     * @param level  level of detail the states were taken from
+     */
+    public record Slice(double[] times, double[] states, int dimensions, int level) {
+        public int count() {
+            return times.length;
+        }
+
+        public double get(int i, int d) {
+            return states[i * dimensions + d];
+        }
+
+        public double[] state(int i) {
+            return Arrays.copyOfRange(states, i * dimensions, (i + 1) * dimensions);
+        }
+    }
+
+    private final int dimensions;
+    private final int spatialDims;
+    private final int levels;
+    private volatile double baseTolerance;
+    private double lastTime = Double.NEGATIVE_INFINITY;
+    private double[] workingBounds;
+    private int[] workingExtremes;
+
+    private volatile double[][] timeChunks = new double[16][];
+    private volatile double[][] stateChunks = new double[16][];
+    private volatile int[][][] lodChunks = new int[16][][];
+    private volatile long[] levelCounts;
+    private volatile double[] bounds;
+    private volatile int[] extremes;
+    private volatile int size = 0;
+    private volatile int sealed = 0;
+
+    public TrajectoryStore(int dimensions) {
+        this(dimensions, DEFAULT_LEVELS, 0.0);
+    }
+
+    /**
+     * @param dimensions    values per state
+     * @param levels        decimated levels kept in addition to the raw data
+     * @param baseTolerance level 1 tolerance in state units, or 0 to derive it
+     *                      from the bounds when the first chunk fills
+     */
+    public TrajectoryStore(int dimensions, int levels, double baseTolerance) {
+        if (dimensions < 1 || levels < 0 || baseTolerance < 0 || Double.isNaN(baseTolerance))
+            throw new IllegalArgumentException("need dimensions >= 1, levels >= 0, baseTolerance >= 0");
+        this.dimensions = dimensions;
+        this.spatialDims = Math.min(3, dimensions);
+        this.levels = levels;
+        this.baseTolerance = baseTolerance;
+        levelCounts = new long[levels + 1];
+        workingBounds = new double[2 * dimensions];
+        Arrays.fill(workingBounds, 0, dimensions, Double.POSITIVE_INFINITY);
+        Arrays.fill(workingBounds, dimensions, 2 * dimensions, Double.NEGATIVE_INFINITY);
+        bounds = workingBounds.clone();
+        workingExtremes = new int[2 * dimensions];
+        Arrays.fill(workingExtremes, -1);
+        extremes = workingExtremes.clone();
+    }
+
+    /**
+     * Appends one state. Only the first dimensions values of state are stored.
+     *
+     * @throws IllegalArgumentException if time is NaN or earlier than the last appended time
+     */
+    public synchronized void append(double time, double[] state) {
+        boolean extended = write(time, state);
+        if (extended) publishBounds();
+    }
+
+    /**
+     * Appends a batch of states, publishing the bounds once for the whole batch.
+     * If a state is rejected the ones before it stay appended.
+     */
+    public synchronized void appendAll(double[] times, double[][] states) {
+        if (times.length != states.length)
+            throw new IllegalArgumentException("times and states differ in length");
+        boolean extended = false;
+        try {
+            for (int i = 0; i < times.length; i++)
+                extended |= write(times[i], states[i]);
+        } finally {
+            if (extended) publishBounds();
+        }
+    }
+
+    private void publishBounds() {
+        extremes = workingExtremes.clone();
+        bounds = workingBounds.clone();
+    }
+
+    private boolean write(double time, double[] state) {
+        if (Double.isNaN(time) || time < lastTime)
+            throw new IllegalArgumentException("time " + time + " is before the last appended time " + lastTime);
+        if (state.length < dimensions)
+            throw new IllegalArgumentException("state has " + state.length + " values, store needs " + dimensions);
+        int n = size;
+        int c = n / CHUNK_SIZE, o = n % CHUNK_SIZE;
+        if (o == 0) {
+            if (c == timeChunks.length) {
+                int grown = c * 2;
+                lodChunks = Arrays.copyOf(lodChunks, grown);
+                stateChunks = Arrays.copyOf(stateChunks, grown);
+                timeChunks = Arrays.copyOf(timeChunks, grown);
+            }
+            timeChunks[c] = new double[CHUNK_SIZE];
+            stateChunks[c] = new double[CHUNK_SIZE * dimensions];
+        }
+        timeChunks[c][o] = time;
+        System.arraycopy(state, 0, stateChunks[c], o * dimensions, dimensions);
+        boolean extended = false;
+        for (int d = 0; d < dimensions; d++) {
+            double v = state[d];
+            if (v < workingBounds[d]) {
+                workingBounds[d] = v;
+                workingExtremes[d] = n;
+                extended = true;
+            }
+            if (v > workingBounds[dimensions + d]) {
+                workingBounds[dimensions + d] = v;
+                workingExtremes[dimensions + d] = n;
+                extended = true;
+            }
+        }
+        lastTime = time;
+        size = n + 1;
+        if (o == CHUNK_SIZE - 1) seal(c);
+        return extended;
+    }
+
+    /**
+     * Queues the decimated levels of a full chunk. The tolerance is fixed here,
+     * under the append lock, from the bounds seen so far.
+     */
+    private void seal(int c) {
+        if (levels == 0) {
+            sealed = c + 1;
+            return;
+        }
+        if (baseTolerance <= 0) {
+            double diagonal = 0;
+            for (int d = 0; d < spatialDims; d++) {
+                double r = workingBounds[dimensions + d] - workingBounds[d];
+                diagonal += r * r;
+            }
+            diagonal = Math.sqrt(diagonal);
+            baseTolerance = diagonal > 0 ? diagonal * DEFAULT_RELATIVE_TOLERANCE : Double.MIN_NORMAL;
+        }
+        double[] chunk = stateChunks[c];
+        double[] tolerances = new double[levels];
+        for (int k = 1; k <= levels; k++) tolerances[k - 1] = tolerance(k);
+        LOD_EXECUTOR.execute(() -> {
+            int[][] kept = new int[levels][];
+            for (int k = 0; k < levels; k++)
+                kept[k] = simplify(chunk, dimensions, spatialDims, CHUNK_SIZE, tolerances[k]);
+            publishLevels(c, kept);
+        });
+    }
+
+    /**
+     * Publishes a chunk's levels. Taken under the store lock so a concurrent
+     * append growing lodChunks cannot drop the write.
+     */
+    private synchronized void publishLevels(int c, int[][] kept) {
+        long[] counts = levelCounts.clone();
+        for (int k = 1; k <= levels; k++) counts[k] += kept[k - 1].length;
+        lodChunks[c] = kept;
+        levelCounts = counts;
+        sealed = c + 1;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until the levels of every chunk filled so far are published.
+     */
+    public synchronized void awaitLevels() throws InterruptedException {
+        while (sealed < size / CHUNK_SIZE) wait();
+    }
+
+    /**
+     * Iterative Douglas-Peucker over count packed states, measuring point to
+     * segment distance in the first spatial dimensions.
+     *
+     * @return sorted offsets of the kept states, always including both ends
+     */
+    static int[] simplify(double[] packed, int dims, int spatial, int count, double tolerance) {
+        if (count <= 2) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) all[i] = i;
+            return all;
+        }
+        boolean[] keep = new boolean[count];
+        keep[0] = keep[count - 1] = true;
+        double tol2 = tolerance * tolerance;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        int kept = 2;
+        while (top > 0) {
+            int hi = stack[--top], lo = stack[--top];
+            double worst = -1;
+            int arg = -1;
+            for (int i = lo + 1; i < hi; i++) {
+                double d = segmentDistanceSq(packed, dims, spatial, lo, hi, i);
+                if (d > worst) {
+                    worst = d;
+                    arg = i;
+                }
+            }
+            if (worst > tol2) {
+                keep[arg] = true;
+                kept++;
+                if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = lo;
+                stack[top++] = arg;
+                stack[top++] = arg;
+                stack[top++] = hi;
+            }
+        }
+        int[] offsets = new int[kept];
+        for (int i = 0, j = 0; i < count; i++)
+            if (keep[i]) offsets[j++] = i;
+        return offsets;
+    }
+
+    private static double segmentDistanceSq(double[] packed, int dims, int spatial, int a, int b, int p) {
+        int ia = a * dims, ib = b * dims, ip = p * dims;
+        double abab = 0, apab = 0;
+        for (int d = 0; d < spatial; d++) {
+            double ab = packed[ib + d] - packed[ia + d];
+            abab += ab * ab;
+            apab += (packed[ip + d] - packed[ia + d]) * ab;
+        }
+        double t = abab > 0 ? Math.max(0, Math.min(1, apab / abab)) : 0;
+        double sum = 0;
+        for (int d = 0; d < spatial; d++) {
+            double e = packed[ip + d] - (packed[ia + d] + t * (packed[ib + d] - packed[ia + d]));
+            sum += e * e;
+        }
+        return sum;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public double time(int i) {
+        checkIndex(i, size);
+        return timeChunks[i / CHUNK_SIZE][i % CHUNK_SIZE];
+    }
+
+    public double get(int i, int d) {
+        checkIndex(i, size);
+        return stateChunks[i / CHUNK_SIZE][(i % CHUNK_SIZE) * dimensions + d];
+    }
+
+    public double[] state(int i) {
+        checkIndex(i, size);
+        int o = (i % CHUNK_SIZE) * dimensions;
+        return Arrays.copyOfRange(stateChunks[i / CHUNK_SIZE], o, o + dimensions);
+    }
+
+    private static void checkIndex(int i, int n) {
+        if (i < 0 || i >= n)
+            throw new IndexOutOfBoundsException("index " + i + " outside 0.." + n);
+    }
+
+    /**
+     * @return index of the first state holding the smallest value of dimension d, -1 while empty
+     */
+    public int argMin(int d) {
+        return extremes[d];
+    }
+
+    /**
+     * @return index of the first state holding the largest value of dimension d, -1 while empty
+     */
+    public int argMax(int d) {
+        return extremes[dimensions + d];
+    }
+
+    /**
+     * @return the smallest value of dimension d, NaN while empty
+     */
+    public double getMin(int d) {
+        double v = bounds[d];
+        return Double.isInfinite(v) && size == 0 ? Double.NaN : v;
+    }
+
+    /**
+     * @return the largest value of dimension d, NaN while empty
+     */
+    public double getMax(int d) {
+        double v = bounds[dimensions + d];
+        return Double.isInfinite(v) && size == 0 ? Double.NaN : v;
+    }
+
+    /**
+     * @return max - min of dimension d, 0 while empty
+     */
+    public double getRange(int d) {
+        double[] b = bounds;
+        return b[dimensions + d] >= b[d] ? b[dimensions + d] - b[d] : 0.0;
+    }
+
+    /**
+     * Tolerance of a level in state units, 0 for the raw level or before the
+     * first chunk fills when the tolerance is derived from the bounds.
+     */
+    public double tolerance(int level) {
+        double base = baseTolerance;
+        if (level <= 0 || base <= 0) return 0.0;
+        return base * Math.pow(LEVEL_FACTOR, level - 1);
+    }
+
+    /**
+     * Coarsest level whose error stays under the given size, for example the
+     * world units covered by one pixel at the current zoom. Chunks whose levels
+     * are still being built are served raw by {@link #slice}.
+     */
+    public int levelFor(double maxError) {
+        int level = 0;
+        for (int k = 1; k <= levels; k++) {
+            double tol = tolerance(k);
+            if (tol > 0 && tol <= maxError) level = k;
+        }
+        return level;
+    }
+
+    /**
+     * Finest level whose estimated point count over [from, to) fits the budget,
+     * or the coarsest level if none does. The estimate scales the sealed
+     * chunks' kept fraction to the window and counts the raw tail exactly.
+     */
+    public int levelForBudget(int from, int to, int maxPoints) {
+        int n = size, s = sealed;
+        from = Math.max(0, from);
+        to = Math.min(n, to);
+        if (to - from <= maxPoints || s == 0 || levels == 0) return 0;
+        long[] counts = levelCounts;
+        int sealedEnd = s * CHUNK_SIZE;
+        int tail = Math.max(0, to - Math.max(from, sealedEnd));
+        int body = Math.max(0, Math.min(to, sealedEnd) - from);
+        for (int k = 1; k <= levels; k++) {
+            double estimate = (double) body * counts[k] / sealedEnd + tail;
+            if (estimate <= maxPoints) return k;
+        }
+        return levels;
+    }
+
+    /**
+     * @return first index whose time is at or after t, size() if none
+     */
+    public int indexAtOrAfter(double t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (time(mid) < t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * @return first index whose time is after t, size() if none
+     */
+    public int indexAfter(double t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (time(mid) <= t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * States with t0 &lt;= time &lt;= t1 at the given level of detail.
+     */
+    public Slice query(double t0, double t1, int level) {
+        return slice(indexAtOrAfter(t0), indexAfter(t1), level);
+    }
+
+    /**
+     * States with index in [from, to) at the given level of detail. The first
+     * and last state of the window are always included.
+     */
+    public Slice slice(int from, int to, int level) {
+        int n = size, s = sealed;
+        from = Math.max(0, from);
+        to = Math.min(n, to);
+        level = Math.max(0, Math.min(levels, level));
+        if (to <= from) return new Slice(new double[0], new double[0], dimensions, level);
+        double[][] tc = timeChunks, sc = stateChunks;
+        int[][][] lc = lodChunks;
+        int[] indices;
+        int count = 0;
+        if (level == 0) {
+            indices = null;
+            count = to - from;
+        } else {
+            indices = new int[Math.min(to - from, 1024)];
+            int last = to - 1;
+            for (int c = from / CHUNK_SIZE; c <= last / CHUNK_SIZE; c++) {
+                int base = c * CHUNK_SIZE;
+                if (c < s) {
+                    for (int offset : lc[c][level - 1]) {
+                        int i = base + offset;
+                        if (i < from || i > last) continue;
+                        if (count == indices.length) indices = Arrays.copyOf(indices, count * 2);
+                        indices[count++] = i;
+                    }
+                } else {
+                    for (int i = Math.max(from, base); i <= Math.min(last, base + CHUNK_SIZE - 1); i++) {
+                        if (count == indices.length) indices = Arrays.copyOf(indices, count * 2);
+                        indices[count++] = i;
+                    }
+                }
+            }
+            //the window edges rarely fall on a kept state
+            boolean head = count == 0 || indices[0] != from;
+            boolean tail = count == 0 || indices[count - 1] != last;
+            int[] framed = new int[count + (head ? 1 : 0) + (tail && last != from ? 1 : 0)];
+            int j = 0;
+            if (head) framed[j++] = from;
+            System.arraycopy(indices, 0, framed, j, count);
+            j += count;
+            if (tail && last != from) framed[j++] = last;
+            indices = framed;
+            count = j;
+        }
+        double[] times = new double[count];
+        double[] states = new double[count * dimensions];
+        for (int j = 0; j < count; j++) {
+            int i = null == indices ? from + j : indices[j];
+            int c = i / CHUNK_SIZE, o = i % CHUNK_SIZE;
+            times[j] = tc[c][o];
+            System.arraycopy(sc[c], o * dimensions, states, j * dimensions, dimensions);
+        }
+        return new Slice(times, states, dimensions, level);
+    }
+}
@@ -136,6 +136,10 @@ public abstract class FourierTransform {
      * A constant indicating a Hamming window should be used on sample buffers.
      */
     public static final int HAMMING = 1;
+    /**
+     * A constant indicating a Hann window should be used on sample buffers.
+     */
+    public static final int HANN = 2;
     protected static final int LINAVG = 2;
     protected static final int LOGAVG = 3;
     protected static final int NOAVG = 4;
@@ -144,6 +148,7 @@ public abstract class FourierTransform {
     protected int sampleRate;
     protected float bandWidth;
     protected int whichWindow;
+    private float[] hannTable;
     protected float[] real;
     protected float[] imag;
     protected float[] spectrum;
@@ -282,10 +287,10 @@ public abstract class FourierTransform {
      * If an invalid window is asked for, an error will be reported and the
      * current window will not be changed.
      *
-     * @param which FourierTransform.HAMMING or FourierTransform.NONE
+     * @param which FourierTransform.HAMMING, FourierTransform.HANN or FourierTransform.NONE
      */
     public void window(int which) {
-        if (which < 0 || which > 1) {
+        if (which < 0 || which > 2) {
             throw new IllegalArgumentException("Invalid window type.");
         } else {
             whichWindow = which;
@@ -297,6 +302,22 @@ public abstract class FourierTransform {
             case HAMMING:
                 hamming(samples);
                 break;
+            case HANN:
+                hann(samples);
+                break;
+        }
+    }
+
+    // windows the data in samples with a Hann window, coefficients computed once per length
+    protected void hann(float[] samples) {
+        if (hannTable == null || hannTable.length != samples.length) {
+            hannTable = new float[samples.length];
+            for (int i = 0; i < samples.length; i++) {
+                hannTable[i] = (float) (0.5 - 0.5 * Math.cos(TWO_PI * i / (samples.length - 1)));
+            }
+        }
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] *= hannTable[i];
         }
     }
 
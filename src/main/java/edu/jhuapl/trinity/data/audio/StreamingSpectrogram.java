@@ -0,0 +1,372 @@
+package edu.jhuapl.trinity.data.audio;
+
+import org.jflac.FLACDecoder;
+import org.jflac.PCMProcessor;
+import org.jflac.metadata.StreamInfo;
+import org.jflac.util.ByteData;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Overlapped, Hann windowed short time Fourier transform of a WAV or FLAC file
+ * with bounded memory.
+ * <p>
+ * Frames follow the same hop logic as {@link SpectrumProvider}: frame f covers
+ * samples [f * hopSize, f * hopSize + windowSize). WAV data is memory-mapped a
+ * segment at a time and FLAC is stream decoded; either way the mono samples are
+ * cut into chunks of {@link #FRAMES_PER_CHUNK} frames (consecutive chunks share
+ * windowSize - hopSize samples) that are transformed in parallel on the common
+ * pool. Finished chunks are handed to the listener in frame order on the
+ * decoding thread, and at most a few chunks per core are in flight, so memory
+ * does not grow with the length of the recording.
+ * <p>
+ * The FFT uses the sample rate read from the file. A trailing partial frame is
+ * zero padded.
+ *
+ * @author Sean Phillips
+ */
+public class StreamingSpectrogram {
+    public static final int DEFAULT_WINDOW_SIZE = 512;
+    public static final int DEFAULT_HOP_SIZE = 256;
+    /**
+     * Frames transformed per parallel task.
+     */
+    static final int FRAMES_PER_CHUNK = 512;
+    /**
+     * Bytes of WAV data mapped at a time.
+     */
+    static final long MAP_BYTES = 64L << 20;
+    /**
+     * Samples converted to mono per pass.
+     */
+    static final int CONVERT_SAMPLES = 1 << 16;
+
+    public interface FrameListener {
+        /**
+         * Called in frame order from the decoding thread.
+         *
+         * @param firstFrame index of spectra[0] within the recording
+         * @param spectra    magnitude spectra, windowSize / 2 + 1 bins each
+         */
+        void onFrames(long firstFrame, float[][] spectra);
+    }
+
+    private final int windowSize;
+    private final int hopSize;
+    private volatile float sampleRate = 0;
+    private volatile int channels = 0;
+    private volatile long totalSamples = -1;
+
+    public StreamingSpectrogram() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_HOP_SIZE);
+    }
+
+    /**
+     * @param windowSize FFT size, a power of two
+     * @param hopSize    samples between frame starts, at most windowSize
+     */
+    public StreamingSpectrogram(int windowSize, int hopSize) {
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("Sample window size must be > 0");
+        if ((windowSize & (windowSize - 1)) != 0)
+            throw new IllegalArgumentException("Sample window size must be a power of two");
+        if (hopSize <= 0)
+            throw new IllegalArgumentException("Hop size must be > 0");
+        if (windowSize < hopSize)
+            throw new IllegalArgumentException("Hop size must be <= sampleSize");
+        this.windowSize = windowSize;
+        this.hopSize = hopSize;
+    }
+
+    /**
+     * Decodes and transforms the whole file, FLAC by extension and WAV otherwise.
+     *
+     * @return number of frames delivered to the listener
+     */
+    public long process(File file, FrameListener listener) throws IOException {
+        if (file.getName().toLowerCase().endsWith(".flac"))
+            return processFlac(file, listener);
+        return processWav(file, listener);
+    }
+
+    public long processWav(File file, FrameListener listener) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(ch, head, 0);
+            if (!"RIFF".equals(tag(head, 0)) || !"WAVE".equals(tag(head, 8)))
+                throw new IOException("not a wav: " + file.getName());
+            int format = -1, blockAlign = 0;
+            long dataStart = -1, dataBytes = 0;
+            long pos = 12;
+            ByteBuffer chunk = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            // walk the RIFF chunks, skipping LIST, fact and anything else before the data
+            while (pos + 8 <= ch.size()) {
+                chunk.clear();
+                readFully(ch, chunk, pos);
+                String id = tag(chunk, 0);
+                long size = chunk.getInt(4) & 0xFFFFFFFFL;
+                if ("fmt ".equals(id)) {
+                    ByteBuffer fmt = ByteBuffer.allocate((int) Math.min(size, 40)).order(ByteOrder.LITTLE_ENDIAN);
+                    readFully(ch, fmt, pos + 8);
+                    format = fmt.getShort(0) & 0xFFFF;
+                    channels = fmt.getShort(2) & 0xFFFF;
+                    sampleRate = fmt.getInt(4);
+                    blockAlign = fmt.getShort(12) & 0xFFFF;
+                    //WAVE_FORMAT_EXTENSIBLE: the sub format GUID starts with the format code
+                    if (format == 0xFFFE && size >= 26) format = fmt.getShort(24) & 0xFFFF;
+                } else if ("data".equals(id)) {
+                    dataStart = pos + 8;
+                    dataBytes = Math.min(size, ch.size() - dataStart);
+                    break;
+                }
+                pos += 8 + size + (size & 1);
+            }
+            if (format < 0 || dataStart < 0)
+                throw new IOException("expected fmt and data chunks: " + file.getName());
+            if (format != 1 && format != 3)
+                throw new IOException("Only PCM and IEEE float wav supported, format " + format);
+            if (channels < 1 || blockAlign < channels || sampleRate <= 0)
+                throw new IOException("invalid wav fmt chunk: " + file.getName());
+            final int bytesPerSample = blockAlign / channels;
+            final boolean isFloat = format == 3;
+            totalSamples = dataBytes / blockAlign;
+
+            Pipeline pipeline = new Pipeline(listener);
+            long samplesPerMap = Math.max(1, MAP_BYTES / blockAlign);
+            float[] mono = new float[CONVERT_SAMPLES];
+            for (long s = 0; s < totalSamples; s += samplesPerMap) {
+                long count = Math.min(samplesPerMap, totalSamples - s);
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY,
+                    dataStart + s * blockAlign, count * blockAlign);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                for (long done = 0; done < count; ) {
+                    int n = (int) Math.min(mono.length, count - done);
+                    toMono(map, n, channels, bytesPerSample, isFloat, mono);
+                    pipeline.push(mono, n);
+                    done += n;
+                }
+            }
+            return pipeline.finish();
+        }
+    }
+
+    public long processFlac(File file, FrameListener listener) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 20)) {
+            FLACDecoder decoder = new FLACDecoder(in);
+            FlacSink sink = new FlacSink(listener);
+            decoder.addPCMProcessor(sink);
+            decoder.decode();
+            return null == sink.pipeline ? 0 : sink.pipeline.finish();
+        }
+    }
+
+    /**
+     * Feeds decoded FLAC blocks into the pipeline; StreamInfo always precedes the PCM.
+     */
+    private final class FlacSink implements PCMProcessor {
+        private final FrameListener listener;
+        private Pipeline pipeline;
+        private int bytesPerSample;
+        private float[] mono = new float[0];
+
+        FlacSink(FrameListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void processStreamInfo(StreamInfo info) {
+            sampleRate = info.getSampleRate();
+            channels = info.getChannels();
+            totalSamples = info.getTotalSamples() > 0 ? info.getTotalSamples() : -1;
+            bytesPerSample = (info.getBitsPerSample() + 7) / 8;
+            pipeline = new Pipeline(listener);
+        }
+
+        @Override
+        public void processPCM(ByteData pcm) {
+            int n = pcm.getLen() / (bytesPerSample * channels);
+            if (mono.length < n) mono = new float[n];
+            ByteBuffer buffer = ByteBuffer.wrap(pcm.getData(), 0, pcm.getLen()).order(ByteOrder.LITTLE_ENDIAN);
+            toMono(buffer, n, channels, bytesPerSample, false, mono);
+            pipeline.push(mono, n);
+        }
+    }
+
+    /**
+     * Cuts the mono stream into overlapping chunks, transforms them in parallel
+     * and delivers the spectra in order.
+     */
+    private final class Pipeline {
+        private record Pending(long firstFrame, CompletableFuture<float[][]> spectra) {
+        }
+
+        private final FrameListener listener;
+        private final float rate = sampleRate;
+        private final int chunkSamples = (FRAMES_PER_CHUNK - 1) * hopSize + windowSize;
+        private final int advance = FRAMES_PER_CHUNK * hopSize;
+        private final int maxInFlight = 2 * ForkJoinPool.getCommonPoolParallelism() + 2;
+        private final ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+        private float[] buffer = new float[chunkSamples];
+        private int filled = 0;
+        // leading samples of the buffer already covered by submitted frames
+        private int carried = 0;
+        private long nextFrame = 0;
+        private long delivered = 0;
+
+        Pipeline(FrameListener listener) {
+            this.listener = listener;
+        }
+
+        void push(float[] samples, int length) {
+            int off = 0;
+            while (off < length) {
+                int n = Math.min(length - off, chunkSamples - filled);
+                System.arraycopy(samples, off, buffer, filled, n);
+                filled += n;
+                off += n;
+                if (filled == chunkSamples) {
+                    float[] next = new float[chunkSamples];
+                    int keep = chunkSamples - advance;
+                    System.arraycopy(buffer, advance, next, 0, keep);
+                    submit(buffer, FRAMES_PER_CHUNK);
+                    buffer = next;
+                    filled = keep;
+                    carried = keep;
+                }
+            }
+        }
+
+        long finish() {
+            if (filled > carried) {
+                int frames = filled <= windowSize ? 1
+                    : (filled - windowSize + hopSize - 1) / hopSize + 1;
+                submit(buffer, frames); //the unfilled tail is already zero
+                buffer = new float[chunkSamples];
+                filled = carried = 0;
+            }
+            while (!inFlight.isEmpty()) deliver();
+            return delivered;
+        }
+
+        private void submit(float[] chunk, int frames) {
+            if (inFlight.size() >= maxInFlight) deliver();
+            long first = nextFrame;
+            nextFrame += frames;
+            inFlight.add(new Pending(first,
+                CompletableFuture.supplyAsync(() -> transform(chunk, frames, rate))));
+        }
+
+        private void deliver() {
+            Pending pending = inFlight.poll();
+            float[][] spectra = pending.spectra().join();
+            listener.onFrames(pending.firstFrame(), spectra);
+            delivered += spectra.length;
+        }
+    }
+
+    private float[][] transform(float[] chunk, int frames, float rate) {
+        FFT fft = new FFT(windowSize, rate);
+        fft.window(FFT.HANN);
+        float[] frame = new float[windowSize];
+        float[][] out = new float[frames][];
+        for (int k = 0; k < frames; k++) {
+            System.arraycopy(chunk, k * hopSize, frame, 0, windowSize);
+            fft.forward(frame);
+            out[k] = Arrays.copyOf(fft.getSpectrum(), windowSize / 2 + 1);
+        }
+        return out;
+    }
+
+    /**
+     * Averages interleaved little endian samples to mono in [-1, 1], advancing the buffer position.
+     */
+    static void toMono(ByteBuffer buffer, int count, int channels, int bytesPerSample,
+                       boolean isFloat, float[] out) {
+        int pos = buffer.position();
+        float norm = 1.0f / channels;
+        for (int i = 0; i < count; i++) {
+            float sum = 0;
+            for (int c = 0; c < channels; c++) {
+                sum += sample(buffer, pos, bytesPerSample, isFloat);
+                pos += bytesPerSample;
+            }
+            out[i] = sum * norm;
+        }
+        buffer.position(pos);
+    }
+
+    private static float sample(ByteBuffer b, int p, int bytes, boolean isFloat) {
+        switch (bytes) {
+            case 1:
+                return ((b.get(p) & 0xFF) - 128) / 128f; //8 bit PCM is unsigned
+            case 2:
+                return b.getShort(p) / 32768f;
+            case 3:
+                return ((b.get(p) & 0xFF) | (b.get(p + 1) & 0xFF) << 8 | b.get(p + 2) << 16) / 8388608f;
+            default:
+                return isFloat ? b.getFloat(p) : b.getInt(p) / 2147483648f;
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = ch.read(buffer, position + buffer.position());
+            if (n < 0) throw new IOException("unexpected end of file");
+        }
+    }
+
+    private static String tag(ByteBuffer buffer, int offset) {
+        byte[] id = new byte[4];
+        for (int i = 0; i < 4; i++) id[i] = buffer.get(offset + i);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getHopSize() {
+        return hopSize;
+    }
+
+    /**
+     * @return sample rate read from the file, 0 before processing starts
+     */
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * @return samples per channel in the file, -1 when unknown (streamed FLAC without a total)
+     */
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+
+    /**
+     * @return frames a recording of the given length produces, including a zero padded tail
+     */
+    public long frameCount(long samples) {
+        if (samples <= 0) return 0;
+        if (samples <= windowSize) return 1;
+        return (samples - windowSize + hopSize - 1) / hopSize + 1;
+    }
+}
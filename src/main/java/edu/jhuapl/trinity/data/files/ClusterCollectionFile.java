@@ -54,10 +54,7 @@ public class ClusterCollectionFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isClusterCollectionFile(File file) throws IOException {
-        String body = Files.readString(file.toPath());
-        return ClusterCollection.isClusterCollection(body);
-//        return firstLine.isPresent() &&
-//        (firstLine.get().contains(FILE_DESC1) || firstLine.get().contains(FILE_DESC2));
+        return DroppedFileType.CLUSTER_COLLECTION.matches(file);
     }
 
     /**
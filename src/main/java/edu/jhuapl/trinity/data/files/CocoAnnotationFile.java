@@ -50,13 +50,7 @@ public class CocoAnnotationFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isCocoAnnotationFile(File file) throws IOException {
-        String extension = file.getAbsolutePath().substring(
-            file.getAbsolutePath().lastIndexOf("."));
-        if (extension.equalsIgnoreCase(".json")) {
-            String body = Files.readString(file.toPath());
-            return CocoObject.isCocoObject(body);
-        }
-        return false;
+        return DroppedFileType.COCO_ANNOTATION.matches(file);
     }
 
     /**
@@ -35,12 +35,7 @@ public class CyberReporterFile extends DroppableFile {
      * @throws java.io.IOException
      */
     public static boolean isFileType(File file) throws IOException {
-        String extension = file.getName().substring(file.getName().lastIndexOf("."));
-        if (extension.equalsIgnoreCase(".json")) {
-            String body = Files.readString(file.toPath());
-            return CyberReport.isCyberReport(body);
-        }
-        return false;
+        return DroppedFileType.CYBER_REPORT.matches(file);
     }
 
     @Override
@@ -0,0 +1,125 @@
+package edu.jhuapl.trinity.data.files;
+
+import edu.jhuapl.trinity.data.graph.GraphDirectedCollection;
+import edu.jhuapl.trinity.data.messages.bci.SemanticMapCollection;
+import edu.jhuapl.trinity.data.messages.xai.ClusterCollection;
+import edu.jhuapl.trinity.data.messages.xai.CyberReport;
+import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
+import edu.jhuapl.trinity.data.messages.xai.GaussianMixtureCollection;
+import edu.jhuapl.trinity.data.messages.xai.LabelConfig;
+import edu.jhuapl.trinity.data.messages.xai.ManifoldData;
+import edu.jhuapl.trinity.data.messages.xai.ShapleyCollection;
+import edu.jhuapl.trinity.data.messages.xai.TextEmbeddingCollection;
+import edu.jhuapl.trinity.data.messages.xai.VectorMaskCollection;
+import edu.jhuapl.trinity.data.terrain.FireAreaTextFile;
+import edu.jhuapl.trinity.data.terrain.TerrainTextFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Registry of the data file types that can be dropped or opened, in dispatch
+ * order. Each entry identifies its files from a single bounded FileSniffer
+ * pass, so detecting the type of a multi-GB file usually reads only a few KB;
+ * the key-based COCO and cyber report checks stream the rest of a JSON file
+ * only when the head and tail windows miss a key.
+ * <p>
+ * The view string is the suggested primary view for the file type, or
+ * UNKNOWN when no view switch should be offered.
+ *
+ * @author Sean Phillips
+ */
+public enum DroppedFileType {
+    SATURN("UNKNOWN", s -> {
+        String line = s.firstLine();
+        return line.trim().startsWith(SaturnFile.VARCOL)
+            && line.contains(SaturnFile.TIMECOL) && line.contains(SaturnFile.SHUTTERCOL);
+    }),
+    CDC_CSV("Hyperspace", s -> s.firstLine().startsWith(CdcCsvFile.FILE_DESC)),
+    CDC_TISSUE_GENES("Hyperspace", s -> s.firstLine().contains(CdcTissueGenesFile.FILE_DESC)),
+    FEATURE_COLLECTION("Hyperspace", s -> s.isJsonFile() && s.typeIs(FeatureCollection.TYPESTRING)),
+    SHAPLEY_COLLECTION("Hypersurface", s -> s.isJsonFile() && s.typeIs(ShapleyCollection.TYPESTRING)),
+    GRAPH_DIRECTED_COLLECTION("Hypersurface", s -> s.isJsonFile()
+        && s.typeIs(GraphDirectedCollection.TYPESTRING)),
+    VECTOR_MASK_COLLECTION("Hypersurface", s -> s.isJsonFile()
+        && s.typeIs(VectorMaskCollection.TYPESTRING)),
+    LABEL_CONFIG("Hyperspace", s -> s.isJsonFile() && s.typeIs(LabelConfig.TYPESTRING)),
+    TERRAIN_TEXT("Hypersurface", s -> s.firstLine().contentEquals(TerrainTextFile.TERRAIN_TEXT_MARKER)),
+    FIRE_AREA_TEXT("Hypersurface", s -> s.firstLine().contains(FireAreaTextFile.FIREAREA_TEXT_MARKER)),
+    SEMANTIC_MAP_COLLECTION("Hyperspace", s -> s.typeIs(SemanticMapCollection.TYPESTRING)
+        || Arrays.stream(s.leadingLines(2)).anyMatch(t -> {
+        String start = t.substring(0, Math.min(256, t.length()));
+        return start.contains(SemanticMapCollectionFile.FILE_DESC1)
+            || start.contains(SemanticMapCollectionFile.FILE_DESC2);
+    })),
+    CLUSTER_COLLECTION("Projections", s -> s.typeIs(ClusterCollection.TYPESTRING) && s.containsAll("clusters")),
+    GAUSSIAN_MIXTURE_COLLECTION("Hyperspace", s -> s.typeIs(GaussianMixtureCollection.TYPESTRING)),
+    TEXT_EMBEDDING_COLLECTION("Hyperspace", s -> s.typeIs(TextEmbeddingCollection.TYPESTRING)),
+    MCCLOD_SPLIT_DATA("Hyperspace", s -> s.firstLine().contains(McclodSplitDataTsvFile.FILE_DESC)),
+    ZERO_PILOT_LATENTS("Hyperspace", s -> s.firstLine().contains(ZeroPilotLatentsFile.FILE_DESC)),
+    MANIFOLD_DATA("Projections", s -> s.typeIs(ManifoldData.TYPESTRING)),
+    COCO_ANNOTATION("Hypersurface", s -> s.isJsonFile()
+        && s.containsAll("categories", "images", "annotations")),
+    CYBER_REPORT("UNKNOWN", s -> s.isJsonFile()
+        && s.containsAll(CyberReport.GROUNDTRUTH, CyberReport.ADJACENTNETWORK, CyberReport.INFERENCES));
+
+    private final String view;
+    private final Predicate<FileSniffer.Sniff> matcher;
+
+    DroppedFileType(String view, Predicate<FileSniffer.Sniff> matcher) {
+        this.view = view;
+        this.matcher = matcher;
+    }
+
+    /**
+     * @return the suggested primary view for this file type, or UNKNOWN
+     */
+    public String getView() {
+        return view;
+    }
+
+    public boolean matches(FileSniffer.Sniff sniff) {
+        return matcher.test(sniff);
+    }
+
+    /**
+     * Sniffs the file and tests it against this type only.
+     *
+     * @param file the File to be tested
+     * @return True if the file matches this type
+     * @throws java.io.IOException
+     */
+    public boolean matches(File file) throws IOException {
+        try {
+            return matches(FileSniffer.sniff(file));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Sniffs the file once and returns the first matching type in dispatch order.
+     *
+     * @param file the File to be identified
+     * @return the matching type, or empty if the file is not a known data file
+     * @throws java.io.IOException
+     */
+    public static Optional<DroppedFileType> detect(File file) throws IOException {
+        if (!file.isFile())
+            return Optional.empty();
+        FileSniffer.Sniff sniff = FileSniffer.sniff(file);
+        try {
+            for (DroppedFileType type : values()) {
+                if (type.matches(sniff))
+                    return Optional.of(type);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return Optional.empty();
+    }
+}
@@ -1,6 +1,5 @@
 package edu.jhuapl.trinity.data.files;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
 import org.slf4j.Logger;
@@ -11,7 +10,6 @@ import java.awt.datatransfer.Transferable;
 import java.awt.datatransfer.UnsupportedFlavorException;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 
 /**
  * @author Sean Phillips
@@ -54,15 +52,7 @@ public class FeatureCollectionFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isFeatureCollectionFile(File file) throws IOException {
-        String extension = file.getAbsolutePath().substring(
-            file.getAbsolutePath().lastIndexOf("."));
-        if (extension.equalsIgnoreCase(".json")) {
-            String body = Files.readString(file.toPath());
-            return FeatureCollection.isFeatureCollection(body);
-        }
-//        return firstLine.isPresent() &&
-//        (firstLine.get().contains(FILE_DESC1) || firstLine.get().contains(FILE_DESC2));
-        return false;
+        return DroppedFileType.FEATURE_COLLECTION.matches(file);
     }
 
     /**
@@ -75,12 +65,20 @@ public class FeatureCollectionFile extends File implements Transferable {
         parseContent();
     }
 
+    /**
+     * Parses the file specified via this object's constructor, streaming the
+     * features array and reporting each decoded batch to the listener.
+     *
+     * @param batchSize number of FeatureVectors per listener callback
+     * @param listener  receives batches and bytes consumed, may be null
+     * @throws java.io.IOException
+     */
+    public void parse(int batchSize, FeatureCollectionStreamParser.BatchListener listener) throws IOException {
+        featureCollection = new FeatureCollectionStreamParser(batchSize, listener).parse(toPath());
+    }
+
     private FeatureCollection parseContent() throws IOException {
-        /** Provides deserialization support for JSON messages */
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        String message = Files.readString(this.toPath());
-        featureCollection = mapper.readValue(message, FeatureCollection.class);
+        featureCollection = new FeatureCollectionStreamParser().parse(toPath());
         return featureCollection;
     }
 
@@ -0,0 +1,165 @@
+package edu.jhuapl.trinity.data.files;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FeatureCollectionStreamParser
+ * -----------------------------
+ * Single-pass streaming decoder for FeatureCollection JSON.
+ * <p>
+ * Walks the top level object with a Jackson JsonParser and binds the elements
+ * of the "features" array one at a time into FeatureVectors, so the raw file is
+ * never held in memory as a String or a tree. Decoded vectors are handed to an
+ * optional BatchListener every batchSize elements together with the number of
+ * bytes consumed so far, which lets loaders report progress by file position.
+ * <p>
+ * Small top level fields (type, dimensionLabels, MessageData header fields) are
+ * bound normally; unknown fields are ignored like the ObjectMapper path.
+ *
+ * @author Sean Phillips
+ */
+public final class FeatureCollectionStreamParser {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Receives decoded FeatureVectors in batches as parsing progresses.
+     */
+    @FunctionalInterface
+    public interface BatchListener {
+        /**
+         * @param batch      the vectors decoded since the previous callback (do not retain the list)
+         * @param bytesRead  bytes of the source consumed so far
+         * @param totalBytes total size of the source in bytes, or -1 if unknown
+         */
+        void onBatch(List<FeatureVector> batch, long bytesRead, long totalBytes);
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader VECTOR_READER = MAPPER.readerFor(FeatureVector.class);
+    private static final TypeReference<ArrayList<String>> LABELS_TYPE = new TypeReference<>() {
+    };
+
+    private final int batchSize;
+    private final BatchListener listener;
+
+    public FeatureCollectionStreamParser() {
+        this(DEFAULT_BATCH_SIZE, null);
+    }
+
+    public FeatureCollectionStreamParser(int batchSize, BatchListener listener) {
+        this.batchSize = Math.max(1, batchSize);
+        this.listener = listener;
+    }
+
+    /**
+     * Parses the FeatureCollection stored at the given path.
+     *
+     * @param path JSON file containing a single FeatureCollection object
+     * @return the fully populated FeatureCollection
+     * @throws IOException if the file cannot be read or is not a FeatureCollection object
+     */
+    public FeatureCollection parse(Path path) throws IOException {
+        long totalBytes = Files.size(path);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), READ_BUFFER_BYTES)) {
+            return parse(in, totalBytes);
+        }
+    }
+
+    /**
+     * Parses a FeatureCollection from a byte stream. The stream is not closed.
+     *
+     * @param in         UTF-8 JSON source
+     * @param totalBytes expected length of the source for progress reporting, -1 if unknown
+     * @return the fully populated FeatureCollection
+     * @throws IOException if the source cannot be read or is not a FeatureCollection object
+     */
+    public FeatureCollection parse(InputStream in, long totalBytes) throws IOException {
+        FeatureCollection featureCollection = new FeatureCollection();
+        ObjectNode headerFields = null;
+        try (JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("FeatureCollection JSON must start with an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                switch (field) {
+                    case "type" -> featureCollection.setType(parser.getValueAsString());
+                    case "dimensionLabels" -> {
+                        if (valueToken != JsonToken.VALUE_NULL)
+                            featureCollection.setDimensionLabels(MAPPER.readValue(parser, LABELS_TYPE));
+                    }
+                    case "features" -> readFeatures(parser, featureCollection.getFeatures(), totalBytes);
+                    default -> {
+                        if (valueToken.isStructStart()) {
+                            parser.skipChildren();
+                        } else {
+                            if (null == headerFields)
+                                headerFields = MAPPER.createObjectNode();
+                            headerFields.set(field, MAPPER.readTree(parser));
+                        }
+                    }
+                }
+            }
+        }
+        if (null != headerFields) {
+            //version, topic, messageId etc. from MessageData
+            MAPPER.readerForUpdating(featureCollection).readValue(headerFields);
+        }
+        return featureCollection;
+    }
+
+    private void readFeatures(JsonParser parser, List<FeatureVector> features,
+                              long totalBytes) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        List<FeatureVector> batch = new ArrayList<>(batchSize);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (null == token)
+                throw new IOException("Unexpected end of input inside features array");
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            FeatureVector featureVector = VECTOR_READER.readValue(parser);
+            features.add(featureVector);
+            if (null != listener) {
+                batch.add(featureVector);
+                if (batch.size() >= batchSize) {
+                    listener.onBatch(batch, bytesRead(parser), totalBytes);
+                    batch.clear();
+                }
+            }
+        }
+        if (null != listener && !batch.isEmpty()) {
+            listener.onBatch(batch, bytesRead(parser), totalBytes);
+        }
+    }
+
+    private static long bytesRead(JsonParser parser) {
+        return parser.currentLocation().getByteOffset();
+    }
+}
@@ -0,0 +1,282 @@
+package edu.jhuapl.trinity.data.files;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * FileSniffer
+ * -----------
+ * Bounded content sniffing for dropped or opened files.
+ * <p>
+ * Reads at most HEAD_BYTES from the start and TAIL_BYTES from the end of a file
+ * through a FileChannel, so identification costs the same for a 1 KB file and a
+ * multi-GB embedding dump. For JSON content the head is walked with a streaming
+ * JsonParser to pick up the top level "type" / "messageType" tokens and the top
+ * level field names; if the type field only appears after a large array the tail
+ * is checked for a trailing top level type field instead. Token checks that
+ * miss both windows fall back to one streaming pass over the whole file.
+ *
+ * @author Sean Phillips
+ */
+public final class FileSniffer {
+
+    public static final int HEAD_BYTES = 16 * 1024;
+    public static final int TAIL_BYTES = 4 * 1024;
+    private static final int SCAN_BYTES = 1024 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Pattern TAIL_TYPE_PATTERN =
+        Pattern.compile("\"(type|messageType)\"\\s*:\\s*\"([^\"]*)\"");
+
+    private FileSniffer() {
+    }
+
+    /**
+     * Immutable result of sniffing a file.
+     *
+     * @param file           the sniffed file
+     * @param size           file size in bytes
+     * @param json           true if the head parses as the start of a JSON object or array
+     * @param type           top level "type" value, null if not seen
+     * @param messageType    top level "messageType" value, null if not seen
+     * @param topLevelFields top level field names seen within the head
+     * @param head           decoded head text (at most HEAD_BYTES)
+     * @param tail           decoded tail text, empty when the head covers the whole file
+     */
+    public record Sniff(File file, long size, boolean json, String type, String messageType,
+                        Set<String> topLevelFields, String head, String tail) {
+
+        /**
+         * @return the lowercase file extension including the dot, or empty string
+         */
+        public String extension() {
+            String name = file.getName();
+            int dot = name.lastIndexOf('.');
+            return dot < 0 ? "" : name.substring(dot).toLowerCase();
+        }
+
+        public boolean isJsonFile() {
+            return extension().equals(".json");
+        }
+
+        /**
+         * @param typeString expected type token
+         * @return true if either the top level type or messageType equals typeString
+         */
+        public boolean typeIs(String typeString) {
+            return typeString.equals(type) || typeString.equals(messageType);
+        }
+
+        public boolean hasTopLevelField(String fieldName) {
+            return topLevelFields.contains(fieldName);
+        }
+
+        /**
+         * @return the first line of the file, truncated to the head buffer
+         */
+        public String firstLine() {
+            int newline = head.indexOf('\n');
+            String line = newline < 0 ? head : head.substring(0, newline);
+            return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        }
+
+        /**
+         * @param maxLines number of leading lines to return
+         * @return up to maxLines leading lines from the head
+         */
+        public String[] leadingLines(int maxLines) {
+            return head.lines().limit(maxLines).toArray(String[]::new);
+        }
+
+        public boolean headOrTailContains(String token) {
+            return head.contains(token) || tail.contains(token);
+        }
+
+        /**
+         * True if every token occurs anywhere in the file. Tokens found in the
+         * head or tail cost nothing; the rest are searched for in a single
+         * streaming pass, so a key placed after a multi-MB array is still found.
+         *
+         * @throws UncheckedIOException if the file cannot be read for the full pass
+         */
+        public boolean containsAll(String... tokens) {
+            List<String> missing = new ArrayList<>();
+            for (String token : tokens) {
+                if (!headOrTailContains(token))
+                    missing.add(token);
+            }
+            if (missing.isEmpty())
+                return true;
+            if (size <= HEAD_BYTES)
+                return false;
+            try {
+                return scanFile(file, missing);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Sniffs the given file reading only a bounded head and tail.
+     *
+     * @param file the file to inspect
+     * @return the sniff result
+     * @throws IOException if the file cannot be read
+     */
+    public static Sniff sniff(File file) throws IOException {
+        byte[] headBytes;
+        byte[] tailBytes;
+        long size;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            size = channel.size();
+            headBytes = read(channel, 0, (int) Math.min(size, HEAD_BYTES));
+            if (size > HEAD_BYTES) {
+                long tailStart = Math.max(HEAD_BYTES, size - TAIL_BYTES);
+                tailBytes = read(channel, tailStart, (int) (size - tailStart));
+            } else {
+                tailBytes = new byte[0];
+            }
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        String[] types = new String[2];
+        boolean json = scanJsonHead(headBytes, fields, types);
+        String tail = new String(tailBytes, StandardCharsets.UTF_8);
+        if (json && null == types[0] && null == types[1]) {
+            scanTailForType(tail, types);
+        }
+        return new Sniff(file, size, json, types[0], types[1],
+            Collections.unmodifiableSet(fields),
+            new String(headBytes, StandardCharsets.UTF_8), tail);
+    }
+
+    /**
+     * Streams the whole file in SCAN_BYTES chunks looking for ASCII tokens,
+     * stopping as soon as all of them have been seen. Chunks overlap by the
+     * longest token so matches across a chunk boundary are not lost.
+     */
+    static boolean scanFile(File file, List<String> tokens) throws IOException {
+        List<String> remaining = new ArrayList<>(tokens);
+        int overlap = remaining.stream().mapToInt(String::length).max().orElse(1) - 1;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += SCAN_BYTES) {
+                long start = Math.max(0, position - overlap);
+                byte[] chunk = read(channel, start, (int) Math.min(size - start, SCAN_BYTES + (position - start)));
+                //latin-1 maps bytes to chars one to one, so ASCII tokens match exactly
+                String text = new String(chunk, StandardCharsets.ISO_8859_1);
+                remaining.removeIf(text::contains);
+                if (remaining.isEmpty())
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0)
+                break;
+        }
+        if (buffer.hasRemaining()) {
+            byte[] partial = new byte[buffer.position()];
+            System.arraycopy(buffer.array(), 0, partial, 0, partial.length);
+            return partial;
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Walks the head with a streaming parser, recording top level field names
+     * and the top level type/messageType values. A truncated head is expected
+     * and simply ends the scan.
+     *
+     * @return true if the head starts like a JSON object or array
+     */
+    static boolean scanJsonHead(byte[] head, Set<String> fields, String[] types) {
+        boolean json = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(head)) {
+            JsonToken first = parser.nextToken();
+            if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY)
+                return false;
+            json = true;
+            if (first == JsonToken.START_ARRAY) {
+                //top level arrays are sniffed through their first element
+                if (parser.nextToken() != JsonToken.START_OBJECT)
+                    return true;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                fields.add(field);
+                token = parser.nextToken();
+                if (token == JsonToken.VALUE_STRING) {
+                    if (field.equals("type") && null == types[0])
+                        types[0] = parser.getText();
+                    else if (field.equals("messageType") && null == types[1])
+                        types[1] = parser.getText();
+                } else if (null != token && token.isStructStart()) {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            //truncated or non-JSON head, keep whatever was found
+        } catch (IOException ex) {
+            //byte array source, not expected
+        }
+        return json;
+    }
+
+    /**
+     * Accepts the last type/messageType token of the tail only when it is
+     * followed by nothing but top level scalars and the closing brace, so a
+     * nested type inside the last array element is not mistaken for it.
+     */
+    static void scanTailForType(String tail, String[] types) {
+        Matcher matcher = TAIL_TYPE_PATTERN.matcher(tail);
+        String key = null;
+        String value = null;
+        int end = -1;
+        while (matcher.find()) {
+            key = matcher.group(1);
+            value = matcher.group(2);
+            end = matcher.end();
+        }
+        if (null == key)
+            return;
+        String rest = tail.substring(end);
+        int closingBraces = 0;
+        for (int i = 0; i < rest.length(); i++) {
+            char c = rest.charAt(i);
+            if (c == '{' || c == '[' || c == ']')
+                return;
+            if (c == '}')
+                closingBraces++;
+        }
+        if (closingBraces != 1)
+            return;
+        if (key.equals("type"))
+            types[0] = value;
+        else
+            types[1] = value;
+    }
+}
@@ -51,9 +51,7 @@ public class GaussianMixtureCollectionFile extends File implements Transferable
      * @throws java.io.IOException
      */
     public static boolean isGaussianMixtureCollectionFile(File file) throws IOException {
-        return Files.lines(file.toPath()).anyMatch(line ->
-            line.contains(FILE_DESC1) || line.contains(FILE_DESC2) ||
-                (line.contains("type") && line.contains(GaussianMixtureCollection.TYPESTRING)));
+        return DroppedFileType.GAUSSIAN_MIXTURE_COLLECTION.matches(file);
     }
 
     /**
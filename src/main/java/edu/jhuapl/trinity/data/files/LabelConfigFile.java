@@ -64,13 +64,7 @@ public class LabelConfigFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isLabelConfigFile(File file) throws IOException {
-        String extension = file.getAbsolutePath().substring(
-            file.getAbsolutePath().lastIndexOf("."));
-        if (extension.equalsIgnoreCase(".json")) {
-            String body = Files.readString(file.toPath());
-            return LabelConfig.isLabelConfig(body);
-        }
-        return false;
+        return DroppedFileType.LABEL_CONFIG.matches(file);
     }
 
     /**
@@ -54,8 +54,7 @@ public class ManifoldDataFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isManifoldDataFile(File file) throws IOException {
-        String body = Files.readString(file.toPath());
-        return ManifoldData.isManifoldData(body);
+        return DroppedFileType.MANIFOLD_DATA.matches(file);
     }
 
     /**
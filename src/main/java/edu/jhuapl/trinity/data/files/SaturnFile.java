@@ -14,7 +14,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * @author Sean Phillips
@@ -62,9 +61,7 @@ public class SaturnFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isSaturnFile(File file) throws IOException {
-        Optional<String> firstLine = Files.lines(file.toPath()).findFirst();
-        return firstLine.isPresent() && firstLine.get().trim().startsWith(VARCOL)
-            && firstLine.get().contains(TIMECOL) && firstLine.get().contains(SHUTTERCOL);
+        return DroppedFileType.SATURN.matches(file);
     }
 
     /**
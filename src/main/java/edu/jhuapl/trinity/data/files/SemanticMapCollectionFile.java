@@ -53,11 +53,7 @@ public class SemanticMapCollectionFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isSemanticMapCollectionFile(File file) throws IOException {
-        return Files.lines(file.toPath()).limit(2).anyMatch(t -> {
-            int lim = t.length() > 256 ? 256 : t.length();
-            return t.substring(0, lim).contains(FILE_DESC1)
-                || t.substring(0, lim).contains(FILE_DESC2);
-        });
+        return DroppedFileType.SEMANTIC_MAP_COLLECTION.matches(file);
     }
 
     /**
@@ -54,13 +54,7 @@ public class ShapleyCollectionFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isShapleyCollectionFile(File file) throws IOException {
-        String extension = file.getAbsolutePath().substring(
-            file.getAbsolutePath().lastIndexOf("."));
-        if (extension.equalsIgnoreCase(".json")) {
-            String body = Files.readString(file.toPath());
-            return ShapleyCollection.isShapleyCollection(body);
-        }
-        return false;
+        return DroppedFileType.SHAPLEY_COLLECTION.matches(file);
     }
 
     /**
@@ -54,8 +54,7 @@ public class TextEmbeddingCollectionFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isTextEmbeddingCollection(File file) throws IOException {
-        String body = Files.readString(file.toPath());
-        return TextEmbeddingCollection.isTextEmbeddingCollection(body);
+        return DroppedFileType.TEXT_EMBEDDING_COLLECTION.matches(file);
     }
 
     /**
@@ -54,13 +54,7 @@ public class VectorMaskCollectionFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isVectorMaskCollectionFile(File file) throws IOException {
-        String extension = file.getAbsolutePath().substring(
-            file.getAbsolutePath().lastIndexOf("."));
-        if (extension.equalsIgnoreCase(".json")) {
-            String body = Files.readString(file.toPath());
-            return VectorMaskCollection.isVectorMaskCollection(body);
-        }
-        return false;
+        return DroppedFileType.VECTOR_MASK_COLLECTION.matches(file);
     }
 
     /**
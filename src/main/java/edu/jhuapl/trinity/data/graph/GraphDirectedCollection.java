@@ -1,5 +1,6 @@
 package edu.jhuapl.trinity.data.graph;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
@@ -38,6 +39,9 @@ public class GraphDirectedCollection {
     private List<GraphEdge> edges;
     //</editor-fold>
 
+    @JsonIgnore
+    private transient volatile GraphIndex index;
+
     public GraphDirectedCollection() {
         messageType = TYPESTRING;
         nodes = new ArrayList<>();
@@ -52,9 +56,31 @@ public class GraphDirectedCollection {
     }
 
     public Optional<GraphNode> findNodeById(String nodeId) {
-        return nodes.stream()
-            .filter(n -> n.getEntityID().contentEquals(nodeId))
-            .findFirst();
+        int i = getIndex().indexOf(nodeId);
+        return i < 0 ? Optional.empty() : Optional.of(nodes.get(i));
+    }
+
+    /**
+     * Adjacency index over the current nodes and edges, built on first use.
+     * Replacing the lists through the setters drops it; call {@link #invalidateIndex()}
+     * after mutating the lists in place.
+     *
+     * @return the index
+     */
+    @JsonIgnore
+    public GraphIndex getIndex() {
+        GraphIndex i = index;
+        if (i == null) {
+            synchronized (this) {
+                i = index;
+                if (i == null) index = i = GraphIndex.build(this);
+            }
+        }
+        return i;
+    }
+
+    public void invalidateIndex() {
+        index = null;
     }
 
     //<editor-fold defaultstate="collapsed" desc="Properties">
@@ -127,6 +153,7 @@ public class GraphDirectedCollection {
      */
     public void setNodes(List<GraphNode> nodes) {
         this.nodes = nodes;
+        invalidateIndex();
     }
 
     /**
@@ -141,6 +168,7 @@ public class GraphDirectedCollection {
      */
     public void setEdges(List<GraphEdge> edges) {
         this.edges = edges;
+        invalidateIndex();
     }
 
     //</editor-fold>
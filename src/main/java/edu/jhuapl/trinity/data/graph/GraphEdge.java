@@ -31,6 +31,7 @@ public class GraphEdge {
     private String color; //optional overrides default color
     //ex #FF0000FF == fully opaque Red in RGBA HEX form
     private String endID;
+    private Double weight; //optional, 1.0 when absent
     //</editor-fold>
 
     public GraphEdge() {
@@ -94,5 +95,19 @@ public class GraphEdge {
         this.endID = endId;
     }
 
+    /**
+     * @return the weight, or null if none was given
+     */
+    public Double getWeight() {
+        return weight;
+    }
+
+    /**
+     * @param weight the weight to set
+     */
+    public void setWeight(Double weight) {
+        this.weight = weight;
+    }
+
     //</editor-fold>
 }
@@ -0,0 +1,218 @@
+package edu.jhuapl.trinity.data.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, read-only adjacency index over a {@link GraphDirectedCollection}.
+ * <p>
+ * Nodes are numbered by their position in the node list. Edges are stored in CSR
+ * form: the neighbors of node i are {@code neighbors[offsets[i] .. offsets[i+1])}
+ * with matching float weights and the index of the originating GraphEdge. The index
+ * is undirected; each edge appears under both of its endpoints (self loops once).
+ * Edges whose endpoints are not in the node list are skipped.
+ * <p>
+ * Building is O(N + E); id lookups are O(1) and neighbor, row and degree queries
+ * are O(degree).
+ *
+ * @author Sean Phillips
+ */
+public final class GraphIndex {
+
+    private final List<GraphNode> nodes;
+    private final Map<String, Integer> idToIndex;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final float[] weights;
+    private final int[] edgeIds;
+    private final int edgeCount;
+    private final int maxDegree;
+    private final float minWeight;
+    private final float maxWeight;
+
+    private GraphIndex(List<GraphNode> nodes, List<GraphEdge> edges) {
+        this.nodes = nodes;
+        final int n = nodes.size();
+        idToIndex = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        for (int i = 0; i < n; i++) {
+            String id = nodes.get(i).getEntityID();
+            if (id != null) idToIndex.putIfAbsent(id, i);
+        }
+
+        // resolve endpoints once, then count degrees
+        final int m = edges.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] degree = new int[n];
+        int valid = 0;
+        for (int e = 0; e < m; e++) {
+            GraphEdge ge = edges.get(e);
+            int a = indexOf(ge.getStartID());
+            int b = indexOf(ge.getEndID());
+            from[e] = a;
+            to[e] = b;
+            if (a < 0 || b < 0) continue;
+            valid++;
+            degree[a]++;
+            if (a != b) degree[b]++;
+        }
+        edgeCount = valid;
+
+        offsets = new int[n + 1];
+        int max = 0;
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + degree[i];
+            max = Math.max(max, degree[i]);
+        }
+        maxDegree = max;
+
+        neighbors = new int[offsets[n]];
+        weights = new float[offsets[n]];
+        edgeIds = new int[offsets[n]];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        float minW = Float.POSITIVE_INFINITY, maxW = Float.NEGATIVE_INFINITY;
+        for (int e = 0; e < m; e++) {
+            int a = from[e], b = to[e];
+            if (a < 0 || b < 0) continue;
+            float w = (float) weightOf(edges.get(e));
+            minW = Math.min(minW, w);
+            maxW = Math.max(maxW, w);
+            put(cursor[a]++, b, w, e);
+            if (a != b) put(cursor[b]++, a, w, e);
+        }
+        minWeight = valid > 0 ? minW : 0f;
+        maxWeight = valid > 0 ? maxW : 0f;
+    }
+
+    private void put(int k, int neighbor, float w, int edge) {
+        neighbors[k] = neighbor;
+        weights[k] = w;
+        edgeIds[k] = edge;
+    }
+
+    /**
+     * Index the current node and edge lists of a graph.
+     */
+    public static GraphIndex build(GraphDirectedCollection graph) {
+        return new GraphIndex(graph.getNodes(), graph.getEdges());
+    }
+
+    /**
+     * @return the edge weight, or 1.0 when the edge carries none
+     */
+    public static double weightOf(GraphEdge edge) {
+        Double w = edge.getWeight();
+        return w != null && Double.isFinite(w) ? w : 1.0;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return number of edges whose endpoints both resolved
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return node index for an entity id, or -1 if unknown
+     */
+    public int indexOf(String entityId) {
+        if (entityId == null) return -1;
+        Integer i = idToIndex.get(entityId);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * @return index of the node with the same entity id, or -1
+     */
+    public int indexOf(GraphNode node) {
+        return node == null ? -1 : indexOf(node.getEntityID());
+    }
+
+    public GraphNode getNode(int i) {
+        return nodes.get(i);
+    }
+
+    public int degree(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+
+    /**
+     * First adjacency slot of node i; slots run to {@link #neighborsEnd(int)} exclusive.
+     */
+    public int neighborsStart(int i) {
+        return offsets[i];
+    }
+
+    public int neighborsEnd(int i) {
+        return offsets[i + 1];
+    }
+
+    public int neighborAt(int slot) {
+        return neighbors[slot];
+    }
+
+    public float weightAt(int slot) {
+        return weights[slot];
+    }
+
+    /**
+     * @return index into the graph's edge list of the edge behind a slot
+     */
+    public int edgeAt(int slot) {
+        return edgeIds[slot];
+    }
+
+    /**
+     * @return a copy of the neighbor indices of node i
+     */
+    public int[] neighbors(int i) {
+        return Arrays.copyOfRange(neighbors, offsets[i], offsets[i + 1]);
+    }
+
+    /**
+     * @return sum of the weights of the edges touching node i
+     */
+    public double strength(int i) {
+        double s = 0;
+        for (int k = offsets[i]; k < offsets[i + 1]; k++) s += weights[k];
+        return s;
+    }
+
+    /**
+     * Write node i's dense weight row into out (length >= size()); entries without an
+     * edge are 0. With parallel edges the larger magnitude weight wins.
+     *
+     * @return out
+     */
+    public double[] row(int i, double[] out) {
+        Arrays.fill(out, 0, nodes.size(), 0.0);
+        for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+            int j = neighbors[k];
+            double w = weights[k];
+            if (Math.abs(w) > Math.abs(out[j])) out[j] = w;
+        }
+        return out;
+    }
+
+    public int maxDegree() {
+        return maxDegree;
+    }
+
+    public double meanDegree() {
+        return nodes.isEmpty() ? 0.0 : neighbors.length / (double) nodes.size();
+    }
+
+    public float minWeight() {
+        return minWeight;
+    }
+
+    public float maxWeight() {
+        return maxWeight;
+    }
+}
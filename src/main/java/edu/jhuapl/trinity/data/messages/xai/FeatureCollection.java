@@ -5,7 +5,6 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import edu.jhuapl.trinity.data.messages.MessageData;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -59,15 +58,9 @@ public class FeatureCollection extends MessageData {
         int vectorCount = features.size();
         int vectorWidth = features.get(0).getData().size();
         float[][] data = new float[vectorCount][vectorWidth];
+        //shorter vectors are zero padded, longer ones truncated
         for (int featureVectorIndex = 0; featureVectorIndex < vectorCount; featureVectorIndex++) {
-            Arrays.fill(data[featureVectorIndex], 0);
-            for (int vectorIndex = 0; vectorIndex < vectorWidth; vectorIndex++) {
-                if (features.get(featureVectorIndex).getData().size() > vectorIndex)
-                    data[featureVectorIndex][vectorIndex] =
-                        features.get(featureVectorIndex).getData().get(vectorIndex).floatValue();
-                else
-                    break;
-            }
+            features.get(featureVectorIndex).getData().copyInto(data[featureVectorIndex], 0);
         }
         return data;
     }
@@ -76,15 +69,9 @@ public class FeatureCollection extends MessageData {
         int vectorCount = features.size();
         int vectorWidth = features.get(0).getData().size();
         double[][] data = new double[vectorCount][vectorWidth];
+        //shorter vectors are zero padded, longer ones truncated
         for (int featureVectorIndex = 0; featureVectorIndex < vectorCount; featureVectorIndex++) {
-            Arrays.fill(data[featureVectorIndex], 0);
-            for (int vectorIndex = 0; vectorIndex < vectorWidth; vectorIndex++) {
-                if (features.get(featureVectorIndex).getData().size() > vectorIndex)
-                    data[featureVectorIndex][vectorIndex] =
-                        features.get(featureVectorIndex).getData().get(vectorIndex);
-                else
-                    break;
-            }
+            features.get(featureVectorIndex).getData().copyInto(data[featureVectorIndex], 0);
         }
         return data;
     }
@@ -1,7 +1,9 @@
 package edu.jhuapl.trinity.data.messages.xai;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import edu.jhuapl.trinity.data.messages.MessageData;
 
 import java.text.DecimalFormat;
@@ -10,6 +12,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -21,6 +24,11 @@ import java.util.function.Function;
 public class FeatureVector extends MessageData {
 
     public static final String TYPESTRING = "feature_vector";
+    /**
+     * System property that switches new FeatureVectors to float32 storage.
+     */
+    public static final String FLOAT32_PROPERTY = "trinity.featurevector.float32";
+    private static volatile boolean float32Storage = Boolean.getBoolean(FLOAT32_PROPERTY);
     //<editor-fold defaultstate="collapsed" desc="JSON Payload">
     /*
     '{
@@ -59,7 +67,7 @@ public class FeatureVector extends MessageData {
 
     //<editor-fold defaultstate="collapsed" desc="Payload Fields">
     private String entityId;
-    private List<Double> data;
+    private PrimitiveDoubleList data;
     private String label;
     private List<Double> bbox; //[0.0, 0, 16.0, 0]
     private long imageId;
@@ -75,7 +83,7 @@ public class FeatureVector extends MessageData {
 
     public FeatureVector() {
         this.messageType = TYPESTRING;
-        this.data = new ArrayList<>();
+        this.data = new PrimitiveDoubleList(0, float32Storage);
         this.metaData = new HashMap<>();
         entityId = UUID.randomUUID().toString();
         metaData.put("uuid", entityId);
@@ -88,7 +96,7 @@ public class FeatureVector extends MessageData {
     public FeatureVector(List<Double> data) {
         this(); // keep UUID/meta init
         if (data != null) {
-            this.data = new ArrayList<>(data);
+            this.data = PrimitiveDoubleList.copyOf(data, float32Storage);
         }
     }
 
@@ -119,11 +127,11 @@ public class FeatureVector extends MessageData {
     }
 
     public double getMin() {
-        return getData().stream().min(Double::compare).get();
+        return data.min();
     }
 
     public double getMax() {
-        return getData().stream().max(Double::compare).get();
+        return data.max();
     }
 
     public double getWidth() {
@@ -136,54 +144,56 @@ public class FeatureVector extends MessageData {
     }
 
     public static double getMaxAbsValue(List<FeatureVector> featureVectors) {
-        return featureVectors.parallelStream().flatMapToDouble((t) -> {
-            return t.getData().stream().mapToDouble((value) -> {
-                return Math.abs(value);
-            });
-        }).max().getAsDouble();
+        return featureVectors.parallelStream()
+            .filter(t -> !t.getData().isEmpty())
+            .mapToDouble(t -> t.getData().maxAbs())
+            .max().getAsDouble();
     }
 
     public static double getMeanCenteredMaxAbsValue(List<FeatureVector> featureVectors, List<Double> meanVector) {
         int dataSize = featureVectors.get(0).getData().size();
-        Double maxMax = null;
-        double currentMax;
-        for (int dataIndex = 0; dataIndex < dataSize; dataIndex++) {
-            int index = dataIndex;
-            currentMax = featureVectors.stream()
-                .mapMultiToDouble((t, u) -> {
-                    if (null != t)
-                        u.accept(Math.abs(t.getData().get(index) - meanVector.get(index)));
-                })
-                .max().getAsDouble();
-            //System.out.println("CurrentMax: " + currentMax + " meanVector.get(index): " + meanVector.get(index));
-            if (null == maxMax || currentMax > maxMax)
-                maxMax = currentMax;
+        double[] mean = PrimitiveDoubleList.copyOf(meanVector, false).toDoubleArray();
+        double maxMax = Double.NEGATIVE_INFINITY;
+        boolean found = false;
+        for (FeatureVector t : featureVectors) {
+            if (null == t)
+                continue;
+            PrimitiveDoubleList d = t.getData();
+            for (int index = 0; index < dataSize; index++) {
+                maxMax = Math.max(maxMax, Math.abs(d.getDouble(index) - mean[index]));
+            }
+            found = true;
         }
-
+        if (!found)
+            throw new NoSuchElementException("No feature vectors");
         return maxMax;
     }
 
     public static List<Double> getMeanVector(List<FeatureVector> featureVectors) {
         int dataSize = featureVectors.get(0).getData().size();
-        List<Double> meanVector = new ArrayList<>(dataSize);
-
-        for (int dataIndex = 0; dataIndex < dataSize; dataIndex++) {
-            int index = dataIndex;
-            meanVector.add(index, featureVectors.stream()
-                .mapMultiToDouble((t, u) -> {
-                    if (null != t)
-                        u.accept(t.getData().get(index));
-                })
-                .average().getAsDouble());
+        double[] sums = new double[dataSize];
+        int count = 0;
+        for (FeatureVector t : featureVectors) {
+            if (null == t)
+                continue;
+            PrimitiveDoubleList d = t.getData();
+            for (int index = 0; index < dataSize; index++)
+                sums[index] += d.getDouble(index);
+            count++;
         }
+        if (count == 0)
+            throw new NoSuchElementException("No feature vectors");
+        List<Double> meanVector = new ArrayList<>(dataSize);
+        for (int index = 0; index < dataSize; index++)
+            meanVector.add(sums[index] / count);
         return meanVector;
     }
 
     public static void updateMeanVector(List<Double> meanVector, FeatureVector featureVector) {
         int dataSize = meanVector.size();
-
+        PrimitiveDoubleList d = featureVector.getData();
         for (int i = 0; i < dataSize; i++) {
-            meanVector.set(i, (meanVector.get(i) + featureVector.getData().get(i)) / 2.0);
+            meanVector.set(i, (meanVector.get(i) + d.getDouble(i)) / 2.0);
         }
     }
 
@@ -196,18 +206,12 @@ public class FeatureVector extends MessageData {
         return state.getData().toString();
     };
 
-    public static Function<FeatureVector, double[]> mapToStateArray = (state) -> {
-        double[] states = new double[state.data.size()];
-        for (int i = 0; i < states.length; i++) {
-            states[i] = state.data.get(i);
-        }
-        return states;
-    };
+    public static Function<FeatureVector, double[]> mapToStateArray = (state) -> state.data.toDoubleArray();
 
     public static FeatureVector fromData(double[] data, int width, double scaling) {
         FeatureVector fv = new FeatureVector();
         for (int vectorIndex = 0; vectorIndex < width; vectorIndex++) {
-            fv.getData().add(data[vectorIndex] * scaling);
+            fv.data.addDouble(data[vectorIndex] * scaling);
         }
         return fv;
     }
@@ -215,10 +219,8 @@ public class FeatureVector extends MessageData {
     public static FeatureVector EMPTY_FEATURE_VECTOR(String label, int dataSize) {
         FeatureVector fv = new FeatureVector();
         fv.setLabel(label);
-        ArrayList<Double> newData = new ArrayList<>(dataSize);
-        for (int i = 0; i < dataSize; i++)
-            newData.add(0.0);
-        fv.setData(newData);
+        fv.data = float32Storage ? PrimitiveDoubleList.wrap(new float[dataSize])
+            : PrimitiveDoubleList.wrap(new double[dataSize]);
         ArrayList<Double> bboxList = new ArrayList<>();
         bboxList.add(0.0);
         bboxList.add(0.0);
@@ -236,6 +238,51 @@ public class FeatureVector extends MessageData {
         return false;
     }
 
+    /**
+     * @return the components as a new double[], without boxing
+     */
+    public double[] dataArray() {
+        return data.toDoubleArray();
+    }
+
+    /**
+     * @param index component index
+     * @return the unboxed component value
+     */
+    public double dataValue(int index) {
+        return data.getDouble(index);
+    }
+
+    public int dataSize() {
+        return data.size();
+    }
+
+    /**
+     * Converts this vector's components to 32 bit float storage in place.
+     */
+    public void toFloat32() {
+        if (null != data && !data.isFloat32())
+            data = data.copy(true);
+    }
+
+    /**
+     * @return true if new FeatureVectors store their components as floats
+     */
+    public static boolean isFloat32Storage() {
+        return float32Storage;
+    }
+
+    /**
+     * Selects the storage precision for FeatureVectors created after this call.
+     * Float32 halves the footprint of large embedding sets at the cost of
+     * roughly 7 significant digits per component.
+     *
+     * @param float32 true to store new vectors as floats
+     */
+    public static void setFloat32Storage(boolean float32) {
+        float32Storage = float32;
+    }
+
     public String metadataAsString(String delimiter) {
         StringBuilder sb = new StringBuilder();
         for (Entry<String, String> entry : getMetaData().entrySet()) {
@@ -260,19 +307,45 @@ public class FeatureVector extends MessageData {
     }
 
     /**
-     * @return the data
+     * @return the data as a List view over the primitive component store
      */
-    public List<Double> getData() {
+    @JsonProperty("data")
+    public PrimitiveDoubleList getData() {
         return data;
     }
 
     /**
-     * @param data the data to set
+     * @param data the data to set, copied into primitive storage
      */
+    @JsonIgnore
     public void setData(List<Double> data) {
+        this.data = null == data ? null : PrimitiveDoubleList.copyOf(data, float32Storage);
+    }
+
+    /**
+     * Takes ownership of the given component store without copying.
+     *
+     * @param data the components, keeps its own precision
+     */
+    public void wrapData(PrimitiveDoubleList data) {
         this.data = data;
     }
 
+    /**
+     * Binds the JSON data array straight to primitive storage.
+     *
+     * @param data the components to take ownership of
+     */
+    @JsonProperty("data")
+    public void setDataArray(double[] data) {
+        if (null == data)
+            this.data = null;
+        else if (float32Storage)
+            this.data = PrimitiveDoubleList.wrap(data).copy(true);
+        else
+            this.data = PrimitiveDoubleList.wrap(data);
+    }
+
     /**
      * @return the label
      */
@@ -0,0 +1,338 @@
+package edu.jhuapl.trinity.data.messages.xai;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * PrimitiveDoubleList
+ * -------------------
+ * Growable List&lt;Double&gt; view over a primitive double[] or float[] store.
+ * <p>
+ * FeatureVector keeps its components here so a 768-d embedding costs 6 KB
+ * (or 3 KB in float32 mode) instead of 768 boxed Doubles plus an Object[].
+ * The List interface keeps the JSON and UI code unchanged, while compute code
+ * should use the primitive accessors (getDouble, toDoubleArray, copyInto) to
+ * read the backing array without boxing.
+ * <p>
+ * Null elements are not supported. Not thread safe, same as ArrayList.
+ *
+ * @author Sean Phillips
+ */
+public final class PrimitiveDoubleList extends AbstractList<Double> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    //exactly one of these is non-null
+    private double[] doubles;
+    private float[] floats;
+    private int size;
+
+    public PrimitiveDoubleList() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * @param capacity initial capacity
+     * @param float32  true to store the components as 32 bit floats
+     */
+    public PrimitiveDoubleList(int capacity, boolean float32) {
+        int cap = Math.max(0, capacity);
+        if (float32)
+            floats = new float[cap];
+        else
+            doubles = new double[cap];
+    }
+
+    /**
+     * Wraps the given array without copying. The caller must not keep writing
+     * to the array unless that is the intent.
+     *
+     * @param values the backing array
+     * @return a list of values.length elements backed by values
+     */
+    public static PrimitiveDoubleList wrap(double[] values) {
+        PrimitiveDoubleList list = new PrimitiveDoubleList(0, false);
+        list.doubles = values;
+        list.size = values.length;
+        return list;
+    }
+
+    /**
+     * Wraps the given array without copying.
+     *
+     * @param values the backing array
+     * @return a float32 list of values.length elements backed by values
+     */
+    public static PrimitiveDoubleList wrap(float[] values) {
+        PrimitiveDoubleList list = new PrimitiveDoubleList(0, true);
+        list.floats = values;
+        list.size = values.length;
+        return list;
+    }
+
+    /**
+     * Copies the given values into a new list.
+     *
+     * @param values  source values, null elements are not allowed
+     * @param float32 true to store the components as 32 bit floats
+     * @return a new list holding a copy of values
+     */
+    public static PrimitiveDoubleList copyOf(Collection<? extends Number> values, boolean float32) {
+        if (values instanceof PrimitiveDoubleList other) {
+            return other.copy(float32);
+        }
+        PrimitiveDoubleList list = new PrimitiveDoubleList(values.size(), float32);
+        if (values instanceof List<? extends Number> indexed && values instanceof RandomAccess) {
+            for (int i = 0; i < indexed.size(); i++)
+                list.addDouble(indexed.get(i).doubleValue());
+        } else {
+            for (Number n : values)
+                list.addDouble(n.doubleValue());
+        }
+        return list;
+    }
+
+    /**
+     * @param float32 storage precision of the copy
+     * @return a trimmed copy of this list
+     */
+    public PrimitiveDoubleList copy(boolean float32) {
+        if (float32)
+            return wrap(toFloatArray());
+        return wrap(toDoubleArray());
+    }
+
+    public boolean isFloat32() {
+        return null != floats;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Primitive Access">
+
+    /**
+     * @param index component index
+     * @return the unboxed component value
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        return null != doubles ? doubles[index] : floats[index];
+    }
+
+    /**
+     * @param index component index
+     * @param value the new component value
+     * @return the previous component value
+     */
+    public double setDouble(int index, double value) {
+        checkIndex(index);
+        double old;
+        if (null != doubles) {
+            old = doubles[index];
+            doubles[index] = value;
+        } else {
+            old = floats[index];
+            floats[index] = (float) value;
+        }
+        return old;
+    }
+
+    public void addDouble(double value) {
+        ensureCapacity(size + 1);
+        if (null != doubles)
+            doubles[size] = value;
+        else
+            floats[size] = (float) value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * @return a new double[] holding exactly size() components
+     */
+    public double[] toDoubleArray() {
+        if (null != doubles)
+            return Arrays.copyOf(doubles, size);
+        double[] out = new double[size];
+        for (int i = 0; i < size; i++)
+            out[i] = floats[i];
+        return out;
+    }
+
+    /**
+     * @return a new float[] holding exactly size() components
+     */
+    public float[] toFloatArray() {
+        if (null != floats)
+            return Arrays.copyOf(floats, size);
+        float[] out = new float[size];
+        for (int i = 0; i < size; i++)
+            out[i] = (float) doubles[i];
+        return out;
+    }
+
+    /**
+     * Copies up to dest.length - offset components into dest starting at offset.
+     *
+     * @param dest   destination array
+     * @param offset first destination index
+     * @return the number of components copied
+     */
+    public int copyInto(double[] dest, int offset) {
+        int n = Math.min(size, dest.length - offset);
+        if (n <= 0)
+            return 0;
+        if (null != doubles) {
+            System.arraycopy(doubles, 0, dest, offset, n);
+        } else {
+            for (int i = 0; i < n; i++)
+                dest[offset + i] = floats[i];
+        }
+        return n;
+    }
+
+    /**
+     * Copies up to dest.length - offset components into dest starting at offset.
+     *
+     * @param dest   destination array
+     * @param offset first destination index
+     * @return the number of components copied
+     */
+    public int copyInto(float[] dest, int offset) {
+        int n = Math.min(size, dest.length - offset);
+        if (n <= 0)
+            return 0;
+        if (null != floats) {
+            System.arraycopy(floats, 0, dest, offset, n);
+        } else {
+            for (int i = 0; i < n; i++)
+                dest[offset + i] = (float) doubles[i];
+        }
+        return n;
+    }
+
+    public double min() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        double m = getDouble(0);
+        for (int i = 1; i < size; i++)
+            m = Math.min(m, null != doubles ? doubles[i] : floats[i]);
+        return m;
+    }
+
+    public double max() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        double m = getDouble(0);
+        for (int i = 1; i < size; i++)
+            m = Math.max(m, null != doubles ? doubles[i] : floats[i]);
+        return m;
+    }
+
+    public double sum() {
+        double s = 0.0;
+        for (int i = 0; i < size; i++)
+            s += null != doubles ? doubles[i] : floats[i];
+        return s;
+    }
+
+    public double sumAbs() {
+        double s = 0.0;
+        for (int i = 0; i < size; i++)
+            s += Math.abs(null != doubles ? doubles[i] : floats[i]);
+        return s;
+    }
+
+    public double maxAbs() {
+        double m = 0.0;
+        for (int i = 0; i < size; i++)
+            m = Math.max(m, Math.abs(null != doubles ? doubles[i] : floats[i]));
+        return m;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="List Implementation">
+    @Override
+    public Double get(int index) {
+        return getDouble(index);
+    }
+
+    @Override
+    public Double set(int index, Double element) {
+        return setDouble(index, element);
+    }
+
+    @Override
+    public boolean add(Double element) {
+        addDouble(element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Double element) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        double value = element;
+        ensureCapacity(size + 1);
+        if (null != doubles) {
+            System.arraycopy(doubles, index, doubles, index + 1, size - index);
+            doubles[index] = value;
+        } else {
+            System.arraycopy(floats, index, floats, index + 1, size - index);
+            floats[index] = (float) value;
+        }
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Double> c) {
+        ensureCapacity(size + c.size());
+        for (Double d : c)
+            addDouble(d);
+        return !c.isEmpty();
+    }
+
+    @Override
+    public Double remove(int index) {
+        double old = getDouble(index);
+        int tail = size - index - 1;
+        if (null != doubles)
+            System.arraycopy(doubles, index + 1, doubles, index, tail);
+        else
+            System.arraycopy(floats, index + 1, floats, index, tail);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+    //</editor-fold>
+
+    private void ensureCapacity(int required) {
+        int capacity = null != doubles ? doubles.length : floats.length;
+        if (required <= capacity)
+            return;
+        int newCapacity = Math.max(required, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
+        if (null != doubles)
+            doubles = Arrays.copyOf(doubles, newCapacity);
+        else
+            floats = Arrays.copyOf(floats, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
@@ -1,5 +1,6 @@
 package edu.jhuapl.trinity.data.terrain;
 
+import edu.jhuapl.trinity.data.files.DroppedFileType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,8 +54,7 @@ public class FireAreaTextFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isFireAreaTextFile(File file) throws IOException {
-        return Files.lines(file.toPath())
-            .findFirst().get().contains(FIREAREA_TEXT_MARKER);
+        return DroppedFileType.FIRE_AREA_TEXT.matches(file);
     }
 
     /**
@@ -1,5 +1,6 @@
 package edu.jhuapl.trinity.data.terrain;
 
+import edu.jhuapl.trinity.data.files.DroppedFileType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,8 +54,7 @@ public class TerrainTextFile extends File implements Transferable {
      * @throws java.io.IOException
      */
     public static boolean isTerrainTextFile(File file) throws IOException {
-        return Files.lines(file.toPath())
-            .findFirst().get().contentEquals(TERRAIN_TEXT_MARKER);
+        return DroppedFileType.TERRAIN_TEXT.matches(file);
     }
 
     /**
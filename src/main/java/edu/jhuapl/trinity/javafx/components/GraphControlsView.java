@@ -61,6 +61,7 @@ public final class GraphControlsView extends VBox {
     private Spinner<Double> attractSpinner;
     private Spinner<Double> gravitySpinner;
     private Spinner<Double> coolingSpinner;
+    private Spinner<Double> thetaSpinner;
 
     private final GraphLayoutParams params;
     private final Scene scene;
@@ -247,6 +248,11 @@ public final class GraphControlsView extends VBox {
         styleSpinner(coolingSpinner);
         addRow(gp, 5, "Cooling", coolingSpinner);
 
+        thetaSpinner = new Spinner<>(new SpinnerValueFactory.DoubleSpinnerValueFactory(0.0, 2.0, params.theta, 0.05));
+        thetaSpinner.setEditable(true);
+        styleSpinner(thetaSpinner);
+        addRow(gp, 6, "Theta (0 = exact)", thetaSpinner);
+
         itersSpinner.valueProperty().addListener((o, ov, nv) -> {
             params.iterations = nv;
             fireParamsChanged();
@@ -271,6 +277,10 @@ public final class GraphControlsView extends VBox {
             params.cooling = nv;
             fireParamsChanged();
         });
+        thetaSpinner.valueProperty().addListener((o, ov, nv) -> {
+            params.theta = nv;
+            fireParamsChanged();
+        });
 
         toggleForceSectionVisibility();
         return gp;
@@ -316,6 +326,7 @@ public final class GraphControlsView extends VBox {
         attractSpinner.setDisable(!fr);
         gravitySpinner.setDisable(!fr);
         coolingSpinner.setDisable(!fr);
+        thetaSpinner.setDisable(!fr);
     }
 
     private void syncControlsFromParams() {
@@ -339,6 +350,7 @@ public final class GraphControlsView extends VBox {
         attractSpinner.getValueFactory().setValue(params.attraction);
         gravitySpinner.getValueFactory().setValue(params.gravity);
         coolingSpinner.getValueFactory().setValue(params.cooling);
+        thetaSpinner.getValueFactory().setValue(params.theta);
 
         toggleEdgePolicyFields();
         toggleForceSectionVisibility();
@@ -425,6 +437,9 @@ public final class GraphControlsView extends VBox {
         dst.attraction = src.attraction;
         dst.gravity = src.gravity;
         dst.cooling = src.cooling;
+        dst.theta = src.theta;
+        dst.parallel = src.parallel;
+        dst.reportEvery = src.reportEvery;
 
         // edges
         dst.edgePolicy = src.edgePolicy;
@@ -128,6 +128,7 @@ public class PairwiseJpdfView extends BorderPane {
     private List<FeatureVector> cohortB = new ArrayList<>();
     private String cohortALabel = "A";
     private String cohortBLabel = "B";
+    private String cohortAFingerprint; // null until known or first computed
 
     private Consumer<String> toastHandler;
     private Consumer<PairGridPane.PairItem> onCellClickHandler;
@@ -135,7 +136,7 @@ public class PairwiseJpdfView extends BorderPane {
     private volatile Thread workerThread;
 
     public PairwiseJpdfView(JpdfBatchEngine engine, DensityCache cache, PairwiseJpdfConfigPanel configPanel) {
-        this.cache = (cache != null) ? cache : new DensityCache.Builder().maxEntries(128).ttlMillis(0).build();
+        this.cache = (cache != null) ? cache : new DensityCache.Builder().maxBytes(64L << 20).ttlMillis(0).diskDir(DensityCache.defaultDiskDir()).build();
         this.configPanel = (configPanel != null) ? configPanel : new PairwiseJpdfConfigPanel();
 
         // Grid (right)
@@ -441,7 +442,15 @@ public class PairwiseJpdfView extends BorderPane {
     // --- Public API ---
 
     public void setCohortA(List<FeatureVector> vectors, String label) {
+        setCohortA(vectors, label, null);
+    }
+
+    /**
+     * @param fingerprint content fingerprint of vectors if the caller maintains one, else null
+     */
+    public synchronized void setCohortA(List<FeatureVector> vectors, String label, String fingerprint) {
         this.cohortA = (vectors == null) ? new ArrayList<>() : new ArrayList<>(vectors);
+        this.cohortAFingerprint = fingerprint;
         if (label != null && !label.isBlank()) this.cohortALabel = label;
     }
 
@@ -516,6 +525,7 @@ public class PairwiseJpdfView extends BorderPane {
         };
 
         final JpdfRecipe runRecipe = recipe;
+        final List<FeatureVector> runCohort = cohortA;
 
         Task<Void> task = new Task<>() {
             @Override
@@ -523,9 +533,10 @@ public class PairwiseJpdfView extends BorderPane {
                 JpdfBatchEngine.BatchResult batch;
                 long start = System.currentTimeMillis();
                 try {
+                    String fingerprint = fingerprintOf(runCohort);
                     switch (runRecipe.getPairSelection()) {
-                        case WHITELIST -> batch = JpdfBatchEngine.runWhitelistPairs(cohortA, runRecipe, policy, PairwiseJpdfView.this.cache, onResult);
-                        default -> batch = JpdfBatchEngine.runComponentPairs(cohortA, runRecipe, policy, PairwiseJpdfView.this.cache, onResult);
+                        case WHITELIST -> batch = JpdfBatchEngine.runWhitelistPairs(runCohort, runRecipe, policy, PairwiseJpdfView.this.cache, onResult, fingerprint);
+                        default -> batch = JpdfBatchEngine.runComponentPairs(runCohort, runRecipe, policy, PairwiseJpdfView.this.cache, onResult, fingerprint);
                     }
                 } catch (Throwable t) {
                     final String msg = "Batch failed: " + t.getClass().getSimpleName()
@@ -642,6 +653,20 @@ public class PairwiseJpdfView extends BorderPane {
         }
     }
 
+    /**
+     * Fingerprint of cohort A, scanned at most once per cohort when the caller did not supply one.
+     */
+    private String fingerprintOf(List<FeatureVector> cohort) {
+        synchronized (this) {
+            if (cohort == cohortA && cohortAFingerprint != null) return cohortAFingerprint;
+        }
+        String fingerprint = DensityCache.fingerprintDataset(cohort);
+        synchronized (this) {
+            if (cohort == cohortA) cohortAFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
     public List<FeatureVector> getCohortA() {
         return cohortA;
     }
@@ -91,6 +91,8 @@ public final class PairwiseMatrixView extends BorderPane {
     private List<FeatureVector> cohortB = new ArrayList<>();
     private String cohortALabel = "A";
     private String cohortBLabel = "B";
+    private String cohortAFingerprint; // null until known or first computed
+    private String cohortBFingerprint;
     private final DensityCache cache;
 
     // If user loaded a synthetic matrix, we may get underlying vectors—stash them here.
@@ -108,7 +110,7 @@ public final class PairwiseMatrixView extends BorderPane {
     private PairwiseMatrixConfigPanel.Request lastRequest;
 
     public PairwiseMatrixView(PairwiseMatrixConfigPanel configPanel, DensityCache cache) {
-        this.cache = (cache != null) ? cache : new DensityCache.Builder().maxEntries(128).ttlMillis(0).build();
+        this.cache = (cache != null) ? cache : new DensityCache.Builder().maxBytes(64L << 20).ttlMillis(0).diskDir(DensityCache.defaultDiskDir()).build();
         this.configPanel = (configPanel != null) ? configPanel : new PairwiseMatrixConfigPanel();
         this.heatmap = new MatrixHeatmapView();
 
@@ -229,15 +231,47 @@ public final class PairwiseMatrixView extends BorderPane {
     // ---------------------------------------------------------------------
 
     public void setCohortA(List<FeatureVector> vectors, String label) {
+        setCohortA(vectors, label, null);
+    }
+
+    /**
+     * @param fingerprint content fingerprint of vectors if the caller maintains one, else null
+     */
+    public synchronized void setCohortA(List<FeatureVector> vectors, String label, String fingerprint) {
         this.cohortA = (vectors == null) ? new ArrayList<>() : new ArrayList<>(vectors);
+        this.cohortAFingerprint = fingerprint;
         if (label != null && !label.isBlank()) this.cohortALabel = label;
     }
 
     public void setCohortB(List<FeatureVector> vectors, String label) {
+        setCohortB(vectors, label, null);
+    }
+
+    /**
+     * @param fingerprint content fingerprint of vectors if the caller maintains one, else null
+     */
+    public synchronized void setCohortB(List<FeatureVector> vectors, String label, String fingerprint) {
         this.cohortB = (vectors == null) ? new ArrayList<>() : new ArrayList<>(vectors);
+        this.cohortBFingerprint = fingerprint;
         if (label != null && !label.isBlank()) this.cohortBLabel = label;
     }
 
+    /**
+     * Fingerprint of a current cohort, scanned at most once per cohort when the caller did not supply one.
+     */
+    private String fingerprintOf(List<FeatureVector> cohort) {
+        synchronized (this) {
+            if (cohort == cohortA && cohortAFingerprint != null) return cohortAFingerprint;
+            if (cohort == cohortB && cohortBFingerprint != null) return cohortBFingerprint;
+        }
+        String fingerprint = DensityCache.fingerprintDataset(cohort);
+        synchronized (this) {
+            if (cohort == cohortA) cohortAFingerprint = fingerprint;
+            if (cohort == cohortB) cohortBFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
     public List<FeatureVector> getCohortA() {
         return cohortA;
     }
@@ -343,8 +377,10 @@ public final class PairwiseMatrixView extends BorderPane {
                         });
                         return;
                     }
+                    List<FeatureVector> a = cohortA, b = cohortB;
                     result = PairwiseMatrixEngine.computeDivergenceMatrix(
-                        cohortA, cohortB, recipe, nonNull(req.divergenceMetric, DivergenceMetric.JS), cache
+                        a, b, recipe, nonNull(req.divergenceMetric, DivergenceMetric.JS), cache,
+                        fingerprintOf(a), fingerprintOf(b)
                     );
                 }
 
@@ -421,7 +457,8 @@ public final class PairwiseMatrixView extends BorderPane {
                     gdr.yCenters(),
                     "Comp " + Math.min(i, j) + " | Comp " + Math.max(i, j) + " (PDF)"
                 ));
-            }
+            },
+            fingerprintOf(cohortA)
         );
 
         toast("Rendered JPDF for pair (" + i + "," + j + ").", false);
@@ -455,9 +492,9 @@ public final class PairwiseMatrixView extends BorderPane {
 
         // (3) Run A and B separately, grab the single job result from each batch
         JpdfBatchEngine.BatchResult batchA =
-            JpdfBatchEngine.runWhitelistPairs(cohortA, recipe, policy, useCache);
+            JpdfBatchEngine.runWhitelistPairs(cohortA, recipe, policy, useCache, null, fingerprintOf(cohortA));
         JpdfBatchEngine.BatchResult batchB =
-            JpdfBatchEngine.runWhitelistPairs(cohortB, recipe, policy, useCache);
+            JpdfBatchEngine.runWhitelistPairs(cohortB, recipe, policy, useCache, null, fingerprintOf(cohortB));
 
         if (batchA.jobs().isEmpty() || batchB.jobs().isEmpty()
             || batchA.jobs().get(0).density() == null || batchB.jobs().get(0).density() == null) {
@@ -27,6 +27,12 @@ import java.util.function.Supplier;
 /**
  * Generic manager for batching and throttling REST requests with retries and
  * timeouts.
+ * <p>
+ * With adaptive concurrency enabled the number of batches in flight is not fixed
+ * at maxInFlight but steered AIMD style between 1 and maxInFlight: it grows while
+ * batch latency stays near the best latency seen (doubling per round trip until
+ * the first congestion signal, then +1 per round trip) and is cut multiplicatively
+ * on failures, timeouts or when latency rises past latencyTolerance times that best.
  *
  * @param <T> T = your batch/request type (e.g. List<EmbeddingsImageListItem>)
  *
@@ -49,6 +55,17 @@ public class BatchRequestManager<T> {
     private final List<Long> batchDurations = Collections.synchronizedList(new ArrayList<>());
     private final Map<Integer, Long> batchEndDurations = new ConcurrentHashMap<>();
 
+    // Adaptive (AIMD) concurrency state, guarded by this
+    private volatile boolean adaptiveConcurrency = false;
+    private int initialInFlight = 2;
+    private double concurrencyLimit;
+    private boolean slowStart = true;
+    private double latencyEwmaMillis = 0;
+    private double baselineLatencyMillis = Double.MAX_VALUE;
+    private double latencyTolerance = 2.0;
+    private double decreaseFactor = 0.5;
+    private long lastDecreaseMillis = 0;
+
     private final Supplier<Integer> requestIdSupplier;
     private final Supplier<Integer> batchNumberSupplier;
     private final TriFunction<T, Integer, Integer, Runnable> taskFactory; // (batch, batchNumber, reqId) -> Runnable
@@ -120,6 +137,7 @@ public class BatchRequestManager<T> {
         batchDurations.clear();
         batchEndDurations.clear();
         batchStartTimes.clear();
+        resetConcurrency();
         for (T batch : batches) {
             int batchNum = batchNumberSupplier.get();
             int reqId = requestIdSupplier.get();
@@ -155,18 +173,59 @@ public class BatchRequestManager<T> {
 
     // Call this from enqueue() only
     private void initialDispatch() {
-        while (inFlight.get() < maxInFlight && !pendingQueue.isEmpty()) {
+        while (inFlight.get() < getConcurrencyLimit() && !pendingQueue.isEmpty()) {
             scheduleNextBatch();
         }
     }
 
     // Call this from completion/failure/timeout
     private void dispatch() {
-        while (inFlight.get() < maxInFlight && !pendingQueue.isEmpty()) {
+        while (inFlight.get() < getConcurrencyLimit() && !pendingQueue.isEmpty()) {
             scheduleNextBatch();
         }
     }
 
+    private synchronized void resetConcurrency() {
+        concurrencyLimit = Math.max(1, Math.min(maxInFlight, initialInFlight));
+        slowStart = true;
+        latencyEwmaMillis = 0;
+        baselineLatencyMillis = Double.MAX_VALUE;
+        lastDecreaseMillis = 0;
+    }
+
+    /**
+     * Additive increase, or multiplicative decrease when latency has drifted too far above the baseline.
+     */
+    private synchronized void onBatchLatency(long startMillis, long durationMillis) {
+        if (!adaptiveConcurrency) return;
+        latencyEwmaMillis = latencyEwmaMillis == 0 ? durationMillis
+            : 0.8 * latencyEwmaMillis + 0.2 * durationMillis;
+        baselineLatencyMillis = Math.min(baselineLatencyMillis, latencyEwmaMillis);
+        if (latencyEwmaMillis > latencyTolerance * baselineLatencyMillis) {
+            decreaseConcurrency(startMillis);
+        } else {
+            // slow start doubles per round trip, congestion avoidance adds one per round trip
+            concurrencyLimit = Math.min(maxInFlight, concurrencyLimit + (slowStart ? 1.0 : 1.0 / concurrencyLimit));
+        }
+    }
+
+    /**
+     * Multiplicative decrease, at most once per round trip: batches that started
+     * before the last cut are part of the same congestion episode.
+     */
+    private synchronized void decreaseConcurrency(long startMillis) {
+        if (!adaptiveConcurrency || startMillis < lastDecreaseMillis) return;
+        concurrencyLimit = Math.max(1.0, concurrencyLimit * decreaseFactor);
+        slowStart = false;
+        lastDecreaseMillis = System.currentTimeMillis();
+        // let the baseline follow a server that has genuinely become slower
+        if (latencyEwmaMillis > 0 && baselineLatencyMillis < Double.MAX_VALUE) {
+            baselineLatencyMillis = 0.9 * baselineLatencyMillis + 0.1 * latencyEwmaMillis;
+        }
+        LOG.info("Adaptive concurrency reduced to {} (latency ewma {} ms)",
+            (int) concurrencyLimit, (long) latencyEwmaMillis);
+    }
+
     private void scheduleNextBatch() {
         BatchWrapper<T> wrapper = pendingQueue.poll();
         if (wrapper != null) {
@@ -224,6 +283,11 @@ public class BatchRequestManager<T> {
             batchDurations.add(duration); // keep this as "most recent"
             LOG.info("Batch {} completed in {} ms (avg: {} ms)", requestId, duration, getAvgBatchDurationMillis());
             batchEndDurations.put(requestId, duration);
+            if (status == BatchResult.Status.SUCCESS) {
+                onBatchLatency(startTime, duration);
+            } else {
+                decreaseConcurrency(startTime);
+            }
         }
 
         if (onComplete != null) {
@@ -235,6 +299,8 @@ public class BatchRequestManager<T> {
     private void handleFailure(BatchWrapper<T> wrapper, Exception ex) {
         timeouts.remove(wrapper.requestId);
         inFlight.decrementAndGet();
+        Long startTime = batchStartTimes.remove(wrapper.requestId);
+        decreaseConcurrency(startTime != null ? startTime : System.currentTimeMillis());
         if (wrapper.retries < maxRetries) {
             wrapper.retries++;
             LOG.info("Retrying batch {} (batchNumber={}) (retry #{})", wrapper.requestId, wrapper.batchNumber, wrapper.retries);
@@ -249,13 +315,16 @@ public class BatchRequestManager<T> {
     }
 
     public double getAvgBatchDurationMillis() {
-        if (batchDurations.isEmpty()) return 0;
-        return batchDurations.stream().mapToLong(Long::longValue).average().orElse(0);
+        // streams over a synchronized list are not themselves synchronized
+        synchronized (batchDurations) {
+            return batchDurations.stream().mapToLong(Long::longValue).average().orElse(0);
+        }
     }
 
     public long getTotalBatchDurationMillis() {
-        if (batchDurations.isEmpty()) return 0;
-        return batchDurations.stream().mapToLong(Long::longValue).sum();
+        synchronized (batchDurations) {
+            return batchDurations.stream().mapToLong(Long::longValue).sum();
+        }
     }
 
     public long getLastBatchDurationMillis() {
@@ -283,8 +352,55 @@ public class BatchRequestManager<T> {
         return maxInFlight;
     }
 
-    public void setMaxInFlight(int maxInFlight) {
+    public synchronized void setMaxInFlight(int maxInFlight) {
         this.maxInFlight = maxInFlight;
+        concurrencyLimit = Math.min(concurrencyLimit, maxInFlight);
+    }
+
+    /**
+     * @return batches currently allowed in flight: the AIMD limit when adaptive, else maxInFlight
+     */
+    public synchronized int getConcurrencyLimit() {
+        if (!adaptiveConcurrency) return maxInFlight;
+        return Math.max(1, Math.min(maxInFlight, (int) concurrencyLimit));
+    }
+
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    /**
+     * @param adaptive steer concurrency AIMD style with maxInFlight as the ceiling
+     */
+    public void setAdaptiveConcurrency(boolean adaptive) {
+        this.adaptiveConcurrency = adaptive;
+        resetConcurrency();
+    }
+
+    public synchronized void setInitialInFlight(int initialInFlight) {
+        this.initialInFlight = Math.max(1, initialInFlight);
+    }
+
+    public synchronized double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    /**
+     * @param latencyTolerance latency ewma over best seen latency that counts as congestion (> 1)
+     */
+    public synchronized void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+    }
+
+    public synchronized double getDecreaseFactor() {
+        return decreaseFactor;
+    }
+
+    /**
+     * @param decreaseFactor multiplier applied to the limit on congestion (0..1)
+     */
+    public synchronized void setDecreaseFactor(double decreaseFactor) {
+        this.decreaseFactor = Math.max(0.05, Math.min(0.95, decreaseFactor));
     }
 
     public long getTimeoutMillis() {
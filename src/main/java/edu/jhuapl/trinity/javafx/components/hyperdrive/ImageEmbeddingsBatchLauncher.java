@@ -1,31 +1,31 @@
 package edu.jhuapl.trinity.javafx.components.hyperdrive;
 
 import edu.jhuapl.trinity.data.messages.llm.EmbeddingsImageBatchInput;
-import edu.jhuapl.trinity.data.messages.llm.EmbeddingsImageUrl;
 import edu.jhuapl.trinity.javafx.components.listviews.EmbeddingsImageListItem;
 import edu.jhuapl.trinity.messages.EmbeddingsImageCallback;
 import edu.jhuapl.trinity.messages.RestAccessLayer;
-import edu.jhuapl.trinity.utils.ResourceUtils;
 import javafx.scene.Scene;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
-import static edu.jhuapl.trinity.data.messages.llm.EmbeddingsImageUrl.imageUrlFromImage;
-
 /**
  * Utility for launching a batch of image embedding requests and registering
  * completion callbacks with the BatchRequestManager.
+ * <p>
+ * Images go through an {@link ImageEncodingPipeline} (parallel decode/resize, then
+ * parallel PNG + Base64 encode) and the request body is streamed element by element,
+ * so launchBatch returns immediately and the upload overlaps with encoding.
  */
 public class ImageEmbeddingsBatchLauncher {
 
     private static final Logger LOG = LoggerFactory.getLogger(ImageEmbeddingsBatchLauncher.class);
 
     private final Scene scene;
+    private final ImageEncodingPipeline pipeline = new ImageEncodingPipeline();
     private String currentEmbeddingsModel;
 
     public ImageEmbeddingsBatchLauncher(Scene scene, String model) {
@@ -47,26 +47,11 @@ public class ImageEmbeddingsBatchLauncher {
         //register the callback and fire the REST request.
         EmbeddingsImageCallback.completionCallbacks.put(reqId, callback);
 
-        List<EmbeddingsImageUrl> inputs = new ArrayList<>();
-
-        //Serial encoding (preserves GUI thread order)
-        for (int i = 0; i < batch.size(); i++) {
-            EmbeddingsImageListItem item = batch.get(i);
-            if (!item.isImageLoaded()) {
-                try {
-                    inputs.add(imageUrlFromImage.apply(
-                        ResourceUtils.loadImageFile(item.getFile())));
-                } catch (IOException ex) {
-                    LOG.error("Failed to load Image from source: " + item.getFile().getAbsolutePath());
-                }
-            } else {
-                inputs.add(imageUrlFromImage.apply(item.getCurrentImage()));
-            }
-        }
+        //Decode and encode in parallel; the request body streams elements as they finish
+        List<CompletableFuture<byte[]>> inputs = pipeline.submit(batch);
 
-        // Now build and send the request as before:
+        // Request template; its empty input list is filled from the pipeline while sending
         EmbeddingsImageBatchInput input = new EmbeddingsImageBatchInput();
-        input.setInput(inputs);
         input.setDimensions(512);
         input.setEmbedding_type("all");
         input.setEncoding_format("float");
@@ -76,6 +61,7 @@ public class ImageEmbeddingsBatchLauncher {
         try {
             RestAccessLayer.requestImageEmbeddings(
                 input,
+                inputs,
                 scene,
                 batch.stream().map(i -> i.imageID).toList(),
                 reqId
@@ -88,6 +74,17 @@ public class ImageEmbeddingsBatchLauncher {
         }
     }
 
+    /**
+     * @return the stage pools used to prepare images
+     */
+    public ImageEncodingPipeline getPipeline() {
+        return pipeline;
+    }
+
+    public void shutdown() {
+        pipeline.shutdown();
+    }
+
     /**
      * @return the currentEmbeddingsModel
      */
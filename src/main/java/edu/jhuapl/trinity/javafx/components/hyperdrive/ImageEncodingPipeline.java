@@ -0,0 +1,155 @@
+package edu.jhuapl.trinity.javafx.components.hyperdrive;
+
+import edu.jhuapl.trinity.data.messages.llm.EmbeddingsImageUrl;
+import edu.jhuapl.trinity.javafx.components.listviews.EmbeddingsImageListItem;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Two stage, multi-threaded image preparation for embedding requests.
+ * <ol>
+ * <li>decode (and optionally downscale) on the decode pool</li>
+ * <li>PNG encode, Base64 encode and serialize the request element on the encode pool</li>
+ * </ol>
+ * Each image yields a future of its serialized {@link EmbeddingsImageUrl} JSON, so a
+ * streaming request body can start uploading as soon as the first element is ready.
+ * Futures complete exceptionally for images that cannot be read.
+ *
+ * @author Sean Phillips
+ */
+public class ImageEncodingPipeline {
+
+    // Serialized form of EmbeddingsImageUrl around the Base64 payload; Base64 needs no JSON escaping
+    private static final byte[] ELEMENT_PREFIX = ("{\"type\":\"image_url\",\"image_url\":{\"url\":\""
+        + EmbeddingsImageUrl.BASE64_PREFIX_PNG).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ELEMENT_SUFFIX = "\"}}".getBytes(StandardCharsets.US_ASCII);
+
+    private final ExecutorService decodePool;
+    private final ExecutorService encodePool;
+    private volatile int maxImageDimension = 0;
+
+    public ImageEncodingPipeline() {
+        this(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public ImageEncodingPipeline(int decodeThreads, int encodeThreads) {
+        decodePool = Executors.newFixedThreadPool(Math.max(1, decodeThreads), daemonThreads("image-decode"));
+        encodePool = Executors.newFixedThreadPool(Math.max(1, encodeThreads), daemonThreads("image-encode"));
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Submit every item of a batch; the returned futures are in batch order.
+     */
+    public List<CompletableFuture<byte[]>> submit(List<EmbeddingsImageListItem> batch) {
+        List<CompletableFuture<byte[]>> out = new ArrayList<>(batch.size());
+        for (EmbeddingsImageListItem item : batch) {
+            if (item.isImageLoaded()) {
+                out.add(submit(item.getCurrentImage()));
+            } else {
+                out.add(submit(item.getFile()));
+            }
+        }
+        return out;
+    }
+
+    public CompletableFuture<byte[]> submit(File file) {
+        return CompletableFuture
+            .supplyAsync(() -> resize(decode(file), maxImageDimension), decodePool)
+            .thenApplyAsync(ImageEncodingPipeline::encodeElement, encodePool);
+    }
+
+    public CompletableFuture<byte[]> submit(Image image) {
+        return CompletableFuture
+            .supplyAsync(() -> resize(SwingFXUtils.fromFXImage(image, null), maxImageDimension), decodePool)
+            .thenApplyAsync(ImageEncodingPipeline::encodeElement, encodePool);
+    }
+
+    private static BufferedImage decode(File file) {
+        try {
+            BufferedImage image = ImageIO.read(file);
+            if (image == null) throw new IOException("Unsupported image format: " + file.getAbsolutePath());
+            return image;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load Image from source: " + file.getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Downscale so the longer side is at most maxDimension, keeping the aspect ratio.
+     * Images already small enough, or maxDimension <= 0, are returned unchanged.
+     */
+    public static BufferedImage resize(BufferedImage image, int maxDimension) {
+        int w = image.getWidth(), h = image.getHeight();
+        if (maxDimension <= 0 || Math.max(w, h) <= maxDimension) return image;
+        double scale = maxDimension / (double) Math.max(w, h);
+        int nw = Math.max(1, (int) Math.round(w * scale));
+        int nh = Math.max(1, (int) Math.round(h * scale));
+        BufferedImage out = new BufferedImage(nw, nh, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, nw, nh, null);
+        g.dispose();
+        return out;
+    }
+
+    /**
+     * PNG encode an image and wrap its Base64 form as a serialized EmbeddingsImageUrl.
+     */
+    public static byte[] encodeElement(BufferedImage image) {
+        ByteArrayOutputStream png = new ByteArrayOutputStream(image.getWidth() * image.getHeight());
+        try {
+            ImageIO.write(image, "png", png);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        byte[] base64 = Base64.getEncoder().encode(png.toByteArray());
+        byte[] out = new byte[ELEMENT_PREFIX.length + base64.length + ELEMENT_SUFFIX.length];
+        System.arraycopy(ELEMENT_PREFIX, 0, out, 0, ELEMENT_PREFIX.length);
+        System.arraycopy(base64, 0, out, ELEMENT_PREFIX.length, base64.length);
+        System.arraycopy(ELEMENT_SUFFIX, 0, out, ELEMENT_PREFIX.length + base64.length, ELEMENT_SUFFIX.length);
+        return out;
+    }
+
+    public int getMaxImageDimension() {
+        return maxImageDimension;
+    }
+
+    /**
+     * @param maxImageDimension downscale images whose longer side exceeds this; <=0 sends full size
+     */
+    public void setMaxImageDimension(int maxImageDimension) {
+        this.maxImageDimension = maxImageDimension;
+    }
+
+    public void shutdown() {
+        decodePool.shutdownNow();
+        encodePool.shutdownNow();
+    }
+}
@@ -6,6 +6,7 @@ import edu.jhuapl.trinity.javafx.components.FeatureVectorManagerView;
 import edu.jhuapl.trinity.javafx.events.ApplicationEvent;
 import edu.jhuapl.trinity.javafx.events.FeatureVectorEvent;
 import edu.jhuapl.trinity.javafx.services.FeatureVectorManagerService;
+import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.collections.ListChangeListener;
 import javafx.geometry.Insets;
@@ -126,8 +127,11 @@ public class FeatureVectorManagerPane extends LitPathPane {
 
         // Keep bottom status roughly in sync with rows shown
         view.getTable().itemsProperty().addListener((obs, o, n) -> {
-            view.setStatus("Showing " + (n == null ? 0 : n.size()) + " vectors.");
+            view.setStatus(service.displayedSummary());
         });
+        InvalidationListener summary = obs -> view.setStatus(service.displayedSummary());
+        service.getDisplayedVectors().addListener(summary);
+        service.matchingCountProperty().addListener(summary);
         view.getTable().itemsProperty().bind(Bindings.createObjectBinding(
             () -> service.getDisplayedVectors(), service.getDisplayedVectors()));
     }
@@ -162,7 +166,7 @@ public class FeatureVectorManagerPane extends LitPathPane {
         // Also update placeholder status text if you want visual feedback (optional)
         service.textFilterProperty().addListener((obs, o, n) -> {
             boolean active = n != null && !n.isBlank();
-            view.setStatus(active ? "Showing filtered vectors." : "Showing " + service.getDisplayedVectors().size() + " vectors.");
+            view.setStatus(active ? "Showing filtered vectors." : service.displayedSummary());
         });
     }
 
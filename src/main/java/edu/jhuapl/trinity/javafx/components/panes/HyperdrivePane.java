@@ -1398,14 +1398,18 @@ public class HyperdrivePane extends LitPathPane {
                     imageEmbeddingRequestIndicator.setLabelLater(
                         "Batches completed: " + imageEmbeddingManager.getBatchesCompleted()
                             + " of " + imageEmbeddingManager.getTotalBatches()
+                            + " | In flight limit: " + imageEmbeddingManager.getConcurrencyLimit()
                             + (failed > 0 ? (" | Errors: " + failed) : "")
                     );
                 });
             }
         );
+        // Max In Flight is the ceiling; the manager adapts below it from latency and errors
+        imageEmbeddingManager.setAdaptiveConcurrency(true);
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             if (this != null) {
                 imageEmbeddingManager.shutdown();
+                imageBatchLauncher.shutdown();
             }
         }));
     }
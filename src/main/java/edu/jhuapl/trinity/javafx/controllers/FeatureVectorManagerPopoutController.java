@@ -7,6 +7,7 @@ import edu.jhuapl.trinity.javafx.components.FeatureVectorManagerView;
 import edu.jhuapl.trinity.javafx.events.FeatureVectorEvent;
 import edu.jhuapl.trinity.javafx.services.FeatureVectorManagerService;
 import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.collections.ListChangeListener;
 import javafx.geometry.Insets;
@@ -164,8 +165,13 @@ public final class FeatureVectorManagerPopoutController {
         // live items list
         view.getTable().setItems(service.getDisplayedVectors());
         view.getTable().itemsProperty().addListener((obs, o, n) ->
-            view.setStatus("Showing " + (n == null ? 0 : n.size()) + " vectors.")
+            view.setStatus(service.displayedSummary())
         );
+        InvalidationListener summary = obs -> {
+            if (null != view) view.setStatus(service.displayedSummary());
+        };
+        service.getDisplayedVectors().addListener(summary);
+        service.matchingCountProperty().addListener(summary);
         view.getTable().itemsProperty().bind(Bindings.createObjectBinding(
             service::getDisplayedVectors, service.getDisplayedVectors()));
 
@@ -248,7 +254,7 @@ public final class FeatureVectorManagerPopoutController {
             boolean active = n != null && !n.isBlank();
             view.setStatus(active
                 ? "Showing filtered vectors."
-                : "Showing " + service.getDisplayedVectors().size() + " vectors.");
+                : service.displayedSummary());
         });
     }
 
@@ -46,7 +46,7 @@ public class PairwiseJpdfPanePopoutController {
         PairwiseJpdfConfigPanel configPanel) {
         this.appScene = appScene;
         this.engine = (engine != null) ? engine : new JpdfBatchEngine();
-        this.cache = (cache != null) ? cache : new DensityCache.Builder().maxEntries(128).ttlMillis(0).build();
+        this.cache = (cache != null) ? cache : new DensityCache.Builder().maxBytes(64L << 20).ttlMillis(0).diskDir(DensityCache.defaultDiskDir()).build();
         this.configPanel = (configPanel != null) ? configPanel : new PairwiseJpdfConfigPanel();
     }
 
@@ -102,7 +102,7 @@ public class PairwiseJpdfPanePopoutController {
         appScene.addEventHandler(FeatureVectorEvent.NEW_FEATURE_COLLECTION, e -> {
             if (view == null) return; // Defensive, in case view is not yet built
             if (e.object instanceof FeatureCollection fc && fc.getFeatures() != null) {
-                view.setCohortA(fc.getFeatures(), "A");
+                view.setCohortA(fc.getFeatures(), "A", e.datasetFingerprint);
                 // Optionally, show a toast to user
                 view.toast("Loaded " + fc.getFeatures().size() + " vectors into Cohort A.", false);
             }
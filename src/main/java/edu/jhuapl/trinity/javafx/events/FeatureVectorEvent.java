@@ -12,6 +12,11 @@ public class FeatureVectorEvent extends Event {
     public Object object;
     public Object object2;
     public boolean clearExisting = false;
+    /**
+     * Content fingerprint of the carried features when the sender maintains one
+     * (see FeatureVectorManagerService#getFingerprint), otherwise null.
+     */
+    public String datasetFingerprint;
 
     public static final EventType<FeatureVectorEvent> PROJECT_SURFACE_GRID = new EventType(ANY, "PROJECT_SURFACE_GRID");
     public static final EventType<FeatureVectorEvent> PROJECT_FEATURE_COLLECTION = new EventType(ANY, "PROJECT_FEATURE_COLLECTION");
@@ -21,6 +26,7 @@ public class FeatureVectorEvent extends Event {
     public static final EventType<FeatureVectorEvent> NEW_FEATURES_SOURCE = new EventType(ANY, "NEW_FEATURES_SOURCE");
     public static final EventType<FeatureVectorEvent> NEW_FEATURE_COLLECTION = new EventType(ANY, "NEW_FEATURE_COLLECTION");
     public static final EventType<FeatureVectorEvent> NEW_FEATURE_VECTOR = new EventType(ANY, "NEW_FEATURE_VECTOR");
+    public static final EventType<FeatureVectorEvent> NEW_FEATURE_VECTOR_BATCH = new EventType(ANY, "NEW_FEATURE_VECTOR_BATCH");
     public static final EventType<FeatureVectorEvent> LOCATE_FEATURE_VECTOR = new EventType(ANY, "LOCATE_FEATURE_VECTOR");
     public static final EventType<FeatureVectorEvent> SELECT_FEATURE_VECTOR = new EventType(ANY, "SELECT_FEATURE_VECTOR");
     public static final EventType<FeatureVectorEvent> RESCAN_FEATURE_LAYERS = new EventType(ANY, "RESCAN_FEATURE_LAYERS");
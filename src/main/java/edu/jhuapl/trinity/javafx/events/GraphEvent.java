@@ -20,6 +20,7 @@ public class GraphEvent extends Event {
     public static final EventType<GraphEvent> GRAPH_PARAMS_CHANGED = new EventType<>(ANY, "GRAPH_PARAMS_CHANGED");
     public static final EventType<GraphEvent> GRAPH_REBUILD_PARAMS = new EventType<>(ANY, "GRAPH_REBUILD_PARAMS");
     public static final EventType<GraphEvent> GRAPH_RESET_PARAMS = new EventType<>(ANY, "GRAPH_RESET_PARAMS");
+    public static final EventType<GraphEvent> GRAPH_LAYOUT_PROGRESS = new EventType<>(ANY, "GRAPH_LAYOUT_PROGRESS");
     // Graph style (runtime + reset)
     public static final EventType<GraphEvent> GRAPH_STYLE_PARAMS_CHANGED = new EventType<>(ANY, "GRAPH_STYLE_PARAMS_CHANGED");
     public static final EventType<GraphEvent> GRAPH_STYLE_RESET_DEFAULTS = new EventType<>(ANY, "GRAPH_STYLE_RESET_DEFAULTS");
@@ -110,6 +110,12 @@ public class HypersurfaceEvent extends Event {
     public static final EventType<HypersurfaceEvent> COMPUTE_COSINE_DISTANCE =
         new EventType<>(ANY, "HYPERSURF_COMPUTE_COSINE_DISTANCE");    // FeatureCollection
 
+    // --- Progressive data (e.g. streamed spectrogram rows) ---
+    public static final EventType<HypersurfaceEvent> SET_SURFACE_ROWS =
+        new EventType<>(ANY, "HYPERSURF_SET_SURFACE_ROWS");           // FeatureCollection, replaces the grid
+    public static final EventType<HypersurfaceEvent> APPEND_SURFACE_ROWS =
+        new EventType<>(ANY, "HYPERSURF_APPEND_SURFACE_ROWS");        // FeatureCollection, appended to the grid
+
     // --- Constructors (matching your style) ---
     public HypersurfaceEvent(EventType<? extends Event> type) {
         super(type);
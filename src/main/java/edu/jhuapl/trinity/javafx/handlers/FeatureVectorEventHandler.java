@@ -99,6 +99,18 @@ public class FeatureVectorEventHandler implements EventHandler<FeatureVectorEven
         }
     }
 
+    /**
+     * Adds a coalesced micro-batch: one label/layer scan and one renderer
+     * update per batch instead of per vector.
+     */
+    private void addNewFeatureVectors(List<FeatureVector> featureVectors) {
+        if (featureVectors.isEmpty()) return;
+        scanLabelsAndLayers(featureVectors);
+        for (FeatureVectorRenderer renderer : renderers) {
+            renderer.addFeatureVectors(featureVectors);
+        }
+    }
+
     public void handleCyberReport(FeatureVectorEvent event) {
         List<CyberReport> cyberReports = (List<CyberReport>) event.object;
         FeatureCollection fc = new FeatureCollection();
@@ -185,8 +197,9 @@ public class FeatureVectorEventHandler implements EventHandler<FeatureVectorEven
             //Have we seen this layer before?
             int index = featureVector.getLayer();
             FeatureLayer matchingLayer = FeatureLayer.getFeatureLayer(index);
-            //The layer is new... add a new FeatureLayer row
-            if (null == matchingLayer) {
+            //The layer is new... add a new FeatureLayer row (once per scan)
+            if (null == matchingLayer
+                && newFeatureLayers.stream().noneMatch(f -> f.getIndex() == index)) {
                 if (layerColorIndex > layerColorCount) {
                     layerColorIndex = 0;
                 }
@@ -329,6 +342,8 @@ public class FeatureVectorEventHandler implements EventHandler<FeatureVectorEven
         if (event.getEventType().equals(FeatureVectorEvent.NEW_FEATURE_VECTOR)
             || event.getEventType().equals(FeatureVectorEvent.LOCATE_FEATURE_VECTOR))
             handleFeatureVectorEvent(event);
+        else if (event.getEventType().equals(FeatureVectorEvent.NEW_FEATURE_VECTOR_BATCH))
+            addNewFeatureVectors((List<FeatureVector>) event.object);
         else if (event.getEventType().equals(FeatureVectorEvent.NEW_FEATURE_COLLECTION))
             handleFeatureCollectionEvent(event);
         else if (event.getEventType().equals(FeatureVectorEvent.CLEAR_ALL_FEATUREVECTORS))
@@ -341,6 +341,11 @@ public class ManifoldEventHandler implements EventHandler<ManifoldEvent> {
             for (ManifoldRenderer renderer : manifoldRenderers) {
                 renderer.transformFeatureVector(fv);
             }
+        } else if (event.getEventType().equals(ManifoldEvent.NEW_PROJECTION_VECTOR_BATCH)) {
+            List<FeatureVector> batch = (List<FeatureVector>) event.object1;
+            for (ManifoldRenderer renderer : manifoldRenderers) {
+                renderer.transformFeatureVectors(batch);
+            }
         } else if (event.getEventType().equals(ManifoldEvent.NEW_CLUSTER_COLLECTION)) {
             ClusterCollection cc = (ClusterCollection) event.object1;
             for (ManifoldRenderer renderer : manifoldRenderers) {
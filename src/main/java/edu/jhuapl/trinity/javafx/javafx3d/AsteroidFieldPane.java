@@ -1133,18 +1133,14 @@ public class AsteroidFieldPane extends StackPane {
 //        }
         //Build trajectory by 3D coordinate states
         Trajectory distanceTrajectory = new Trajectory("Distance Line");
-        distanceTrajectory.states.clear();
-        distanceTrajectory.states.add(
-            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()});
         //add midpoint so we can anchor a numeric distance label
         javafx.geometry.Point3D midpoint = distance.getPoint1().midpoint(distance.getPoint2());
-        distanceTrajectory.states.add(
-            new double[]{midpoint.getX(), midpoint.getY(), midpoint.getZ()});
-        distanceTrajectory.states.add(
-            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()});
-        distanceTrajectory.states.add(
+        distanceTrajectory.setStates(List.of(
+            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()},
+            new double[]{midpoint.getX(), midpoint.getY(), midpoint.getZ()},
+            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()},
             new double[]{distance.getPoint2().getX(), distance.getPoint2().getY(), distance.getPoint2().getZ()}
-        );
+        ));
         //Add 2D distance label overlay at midpoint
         Sphere midpointSphere = new Sphere(1);
 
@@ -41,6 +41,7 @@ import org.fxyz3d.geometry.Point3D;
 import org.fxyz3d.scene.paint.Palette.ColorPalette;
 import org.fxyz3d.scene.paint.Patterns;
 import org.fxyz3d.shapes.primitives.helper.TextureMode;
+import org.fxyz3d.shapes.primitives.helper.TriangleMeshHelper.TextureType;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -165,7 +166,7 @@ public class DirectedScatterMesh extends Group implements TextureMode {
     private final DoubleProperty height = new SimpleDoubleProperty(DEFAULT_HEIGHT) {
         @Override
         protected void invalidated() {
-            if (meshes != null) {
+            if (meshes != null && !rescaleInPlace()) {
                 updateMesh();
             }
         }
@@ -232,12 +233,264 @@ public class DirectedScatterMesh extends Group implements TextureMode {
         createDots();
         getChildren().setAll(meshes);
         updateTransforms();
+        invalidateInPlaceState();
+    }
+
+    /*
+     * In place update state for the joined mesh. Every glyph is the same
+     * template (glyphPoints/glyphFaces, glyphVertexCount vertices) translated to
+     * its start point with its first vertex pushed out by its end point, so
+     * glyph g owns points [g * V * 3, (g + 1) * V * 3) and faces
+     * [g * F * 6, (g + 1) * F * 6) of the TriangleMesh. pointBuffer and
+     * faceBuffer mirror those arrays with spare capacity; glyphStarts, glyphEnds and
+     * glyphColors hold what each glyph was last written with so changed glyphs can
+     * be found and only their ranges pushed to the mesh. Glyph 0 is the origin
+     * dot createDots() seeds the join with and is never recolored. The mesh's
+     * own vertex and face lists are left as built; they are only read when the
+     * texture mode changes, which rebuilds first if anything was patched.
+     */
+    private boolean inPlaceReady = false;
+    private boolean editedInPlace = false;
+    private float[] glyphPoints;
+    private int[] glyphFaces;
+    private int[] glyphSmoothing;
+    private int glyphVertexCount, glyphFaceCount;
+    private int glyphCount;
+    private float[] glyphStarts = new float[0];
+    private float[] glyphEnds = new float[0];
+    private float[] glyphColors = new float[0];
+    private float[] pointBuffer = new float[0];
+    private int[] faceBuffer = new int[0];
+    private final Point3D densityProbe = new Point3D(0, 0, 0);
+
+    private void invalidateInPlaceState() {
+        inPlaceReady = false;
+        editedInPlace = false;
+    }
+
+    /**
+     * Bring the joined mesh up to date with new scatter data by writing only
+     * what changed into the existing TriangleMesh arrays, instead of
+     * regenerating it as {@link #setScatterDataAndEndPoints(List, List)} does.
+     * <ul>
+     * <li>glyphs whose start or end point moved get their point range rewritten</li>
+     * <li>glyphs whose color value (f) changed get their face texture indices remapped</li>
+     * <li>points past the current count are appended; a shorter list truncates</li>
+     * </ul>
+     * Dirty ranges are pushed with ObservableFloatArray/ObservableFaceArray
+     * set(index, src, srcIndex, length), so a recolor or a scale drag costs a
+     * pass over the data and one bulk copy, with no Point3D or Face3 churn.
+     * Colors are remapped from f only, so the density function must depend
+     * on f alone (as label/hue coloring does).
+     *
+     * @return false if the mesh is not in a state that can be patched (not
+     * joined, not colored by COLORED_VERTICES_3D, or never built); the
+     * caller should then fall back to the full rebuild
+     */
+    public boolean updateScatterDataInPlace(List<Point3D> data, List<Point3D> ends) {
+        if (data.size() < 2 || ends.size() < data.size() || !prepareInPlace())
+            return false;
+        DirectedTexturedMesh dot = meshes.get(0);
+        TriangleMesh mesh = (TriangleMesh) dot.getMesh();
+        final int V = glyphVertexCount, F = glyphFaceCount;
+        final int newCount = data.size();
+        final int common = Math.min(glyphCount, newCount);
+        ensureGlyphCapacity(newCount);
+
+        int pointLo = Integer.MAX_VALUE, pointHi = -1;
+        int faceLo = Integer.MAX_VALUE, faceHi = -1;
+        for (int g = 1; g < common; g++) {
+            Point3D p = data.get(g);
+            Point3D e = ends.get(g);
+            if (storeGlyph(g, p, e)) {
+                writeGlyphPoints(g);
+                pointLo = Math.min(pointLo, g);
+                pointHi = g;
+            }
+            if (Float.compare(glyphColors[g], p.f) != 0) {
+                glyphColors[g] = p.f;
+                writeGlyphColors(g, dot);
+                faceLo = Math.min(faceLo, g);
+                faceHi = g;
+            }
+        }
+        if (pointHi >= 0)
+            mesh.getPoints().set(pointLo * V * 3, pointBuffer, pointLo * V * 3, (pointHi - pointLo + 1) * V * 3);
+        if (faceHi >= 0)
+            mesh.getFaces().set(faceLo * F * 6, faceBuffer, faceLo * F * 6, (faceHi - faceLo + 1) * F * 6);
+
+        boolean resized = newCount != glyphCount;
+        if (newCount > glyphCount) {
+            appendGlyphs(glyphCount, newCount, data, ends, dot, mesh);
+        } else if (newCount < glyphCount) {
+            mesh.getPoints().resize(newCount * V * 3);
+            mesh.getFaces().resize(newCount * F * 6);
+            mesh.getFaceSmoothingGroups().resize(newCount * F);
+        }
+        glyphCount = newCount;
+        if (pointHi >= 0 || faceHi >= 0 || resized)
+            editedInPlace = true;
+        if (pointHi >= 0 || resized)
+            dot.updateTransforms();
+
+        renderOnChange = false;  //the mesh already reflects the new lists
+        scatterData.setValue(data);
+        endPoints.setValue(ends);
+        renderOnChange = true;
+        return true;
+    }
+
+    /**
+     * Height only changes the glyph template: rewrite every glyph's points
+     * from its stored start and end with one bulk copy, faces untouched.
+     */
+    private boolean rescaleInPlace() {
+        if (!inPlaceReady || meshes.size() != 1)
+            return false;
+        DirectedTexturedMesh dot = meshes.get(0);
+        buildGlyphTemplate();
+        for (int g = 0; g < glyphCount; g++)
+            writeGlyphPoints(g);
+        ((TriangleMesh) dot.getMesh()).getPoints().set(0, pointBuffer, 0, glyphCount * glyphVertexCount * 3);
+        dot.updateTransforms();
+        editedInPlace = true;
+        return true;
+    }
+
+    /**
+     * Capture the glyph layout of a freshly built joined mesh, once.
+     */
+    private boolean prepareInPlace() {
+        if (inPlaceReady)
+            return true;
+        if (!joinSegments.get() || meshes.size() != 1
+            || meshes.get(0).getTextureType() != TextureType.COLORED_VERTICES_3D)
+            return false;
+        List<Point3D> data = scatterData.get();
+        List<Point3D> ends = endPoints.get();
+        if (null == data || null == ends || data.size() < 2 || ends.size() < data.size())
+            return false;
+        TriangleMesh mesh = (TriangleMesh) meshes.get(0).getMesh();
+        buildGlyphTemplate();
+        int count = data.size();
+        if (mesh.getPoints().size() != count * glyphVertexCount * 3
+            || mesh.getFaces().size() != count * glyphFaceCount * 6)
+            return false;
+
+        glyphCount = count;
+        ensureGlyphCapacity(count);
+        pointBuffer = mesh.getPoints().toArray(pointBuffer);
+        faceBuffer = mesh.getFaces().toArray(faceBuffer);
+        for (int g = 1; g < count; g++) {
+            storeGlyph(g, data.get(g), ends.get(g));
+            glyphColors[g] = data.get(g).f;
+        }
+        inPlaceReady = true;
+        return true;
+    }
+
+    private void buildGlyphTemplate() {
+        DirectedTexturedMesh glyph = new DirectedTetrahedraMesh(height.get(), level.get(), null, null);
+        DirectedMeshHelper mh = new DirectedMeshHelper((TriangleMesh) glyph.getMesh());
+        glyphPoints = mh.getPoints();
+        glyphFaces = mh.getFaces();
+        glyphSmoothing = mh.getFaceSmoothingGroups();
+        glyphVertexCount = glyphPoints.length / 3;
+        glyphFaceCount = glyphFaces.length / 6;
+    }
+
+    private void ensureGlyphCapacity(int count) {
+        if (glyphStarts.length >= count * 3 && pointBuffer.length >= count * glyphVertexCount * 3
+            && faceBuffer.length >= count * glyphFaceCount * 6)
+            return;
+        int capacity = Math.max(count, glyphStarts.length / 3 + (glyphStarts.length / 6));
+        glyphStarts = Arrays.copyOf(glyphStarts, capacity * 3);
+        glyphEnds = Arrays.copyOf(glyphEnds, capacity * 3);
+        glyphColors = Arrays.copyOf(glyphColors, capacity);
+        pointBuffer = Arrays.copyOf(pointBuffer, capacity * glyphVertexCount * 3);
+        faceBuffer = Arrays.copyOf(faceBuffer, capacity * glyphFaceCount * 6);
+    }
+
+    /**
+     * @return true if the glyph's start or end point changed
+     */
+    private boolean storeGlyph(int g, Point3D p, Point3D e) {
+        int s = g * 3;
+        if (glyphStarts[s] == p.x && glyphStarts[s + 1] == p.y && glyphStarts[s + 2] == p.z
+            && glyphEnds[s] == e.x && glyphEnds[s + 1] == e.y && glyphEnds[s + 2] == e.z)
+            return false;
+        glyphStarts[s] = p.x;
+        glyphStarts[s + 1] = p.y;
+        glyphStarts[s + 2] = p.z;
+        glyphEnds[s] = e.x;
+        glyphEnds[s + 1] = e.y;
+        glyphEnds[s + 2] = e.z;
+        return true;
+    }
+
+    /**
+     * Same arithmetic as DirectedMeshHelper.addMesh: template plus start,
+     * then the end point added to the first vertex.
+     */
+    private void writeGlyphPoints(int g) {
+        int o = g * glyphVertexCount * 3, s = g * 3;
+        for (int i = 0; i < glyphVertexCount * 3; i += 3) {
+            pointBuffer[o + i] = glyphPoints[i] + glyphStarts[s];
+            pointBuffer[o + i + 1] = glyphPoints[i + 1] + glyphStarts[s + 1];
+            pointBuffer[o + i + 2] = glyphPoints[i + 2] + glyphStarts[s + 2];
+        }
+        pointBuffer[o] += glyphEnds[s];
+        pointBuffer[o + 1] += glyphEnds[s + 1];
+        pointBuffer[o + 2] += glyphEnds[s + 2];
+    }
+
+    /**
+     * Every vertex of a glyph carries the glyph's f, so one palette lookup
+     * covers all of its face texture indices.
+     */
+    private void writeGlyphColors(int g, DirectedTexturedMesh dot) {
+        densityProbe.f = glyphColors[g];
+        int tex = dot.mapDensity(densityProbe);
+        int o = g * glyphFaceCount * 6;
+        for (int i = 1; i < glyphFaceCount * 6; i += 2)
+            faceBuffer[o + i] = tex;
+    }
+
+    private void appendGlyphs(int from, int to, List<Point3D> data, List<Point3D> ends,
+                              DirectedTexturedMesh dot, TriangleMesh mesh) {
+        final int V = glyphVertexCount, F = glyphFaceCount;
+        int[] smoothing = new int[(to - from) * F];
+        for (int g = from; g < to; g++) {
+            Point3D p = data.get(g);
+            storeGlyph(g, p, ends.get(g));
+            glyphColors[g] = p.f;
+            writeGlyphPoints(g);
+            int o = g * F * 6;
+            for (int i = 0; i < F * 6; i += 2)
+                faceBuffer[o + i] = glyphFaces[i] + g * V;
+            writeGlyphColors(g, dot);
+            System.arraycopy(glyphSmoothing, 0, smoothing, (g - from) * F, F);
+        }
+        mesh.getPoints().addAll(pointBuffer, from * V * 3, (to - from) * V * 3);
+        mesh.getFaces().addAll(faceBuffer, from * F * 6, (to - from) * F * 6);
+        mesh.getFaceSmoothingGroups().addAll(smoothing);
+    }
+
+    /**
+     * Texture changes recompute faces from the mesh's own vertex and face
+     * lists, which in place patches leave behind, so rebuild first.
+     */
+    private void beforeTextureChange() {
+        if (editedInPlace)
+            updateMesh();
+        inPlaceReady = false;
     }
 
     /**
      * @WIP @EXPERIMENTAL
      */
     public void dirtyUpdate(List<Point3D> startPoints, List<Point3D> endPoints) {
+        invalidateInPlaceState();
         renderOnChange = false;  //temporarily disable automatic rendering
         if (meshes != null) {
             addToMesh(startPoints, endPoints);
@@ -309,71 +562,85 @@ public class DirectedScatterMesh extends Group implements TextureMode {
 
     @Override
     public void setTextureModeNone() {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeNone());
     }
 
     @Override
     public void setTextureModeNone(Color color) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeNone(color));
     }
 
     @Override
     public void setTextureModeNone(Color color, String image) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeNone(color, image));
     }
 
     @Override
     public void setTextureModeImage(String image) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeImage(image));
     }
 
     @Override
     public void setTextureModePattern(Patterns.CarbonPatterns pattern, double scale) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModePattern(pattern, scale));
     }
 
     @Override
     public void setTextureModeVertices3D(int colors, Function<Point3D, Number> dens) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeVertices3D(colors, dens));
     }
 
     @Override
     public void setTextureModeVertices3D(ColorPalette palette, Function<Point3D, Number> dens) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeVertices3D(palette, dens));
     }
 
     @Override
     public void setTextureModeVertices3D(int colors, Function<Point3D, Number> dens, double min, double max) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeVertices3D(colors, dens, min, max));
     }
 
     @Override
     public void setTextureModeVertices1D(int colors, Function<Number, Number> function) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeVertices1D(colors, function));
     }
 
     @Override
     public void setTextureModeVertices1D(ColorPalette palette, Function<Number, Number> function) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeVertices1D(palette, function));
     }
 
     @Override
     public void setTextureModeVertices1D(int colors, Function<Number, Number> function, double min, double max) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeVertices1D(colors, function, min, max));
     }
 
     @Override
     public void setTextureModeFaces(int colors) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeFaces(colors));
     }
 
     @Override
     public void setTextureModeFaces(ColorPalette palette) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.setTextureModeFaces(palette));
     }
 
     @Override
     public void updateF(List<Number> values) {
+        beforeTextureChange();
         meshes.stream().forEach(m -> m.updateF(values));
     }
 
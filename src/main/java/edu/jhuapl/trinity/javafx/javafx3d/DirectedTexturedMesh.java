@@ -466,6 +466,14 @@ public abstract class DirectedTexturedMesh extends MeshView implements TextureMo
         helper.getMaterialWithPalette();
     }
 
+    /**
+     * Palette texture index of a vertex under the current density function and
+     * extremes, the value COLORED_VERTICES_3D faces carry for that vertex.
+     */
+    int mapDensity(Point3D p) {
+        return helper.mapDensity(p);
+    }
+
     public void updateMaterial() {
         helper.getMaterialWithColor(diffuseColor.get());
     }
@@ -158,6 +158,7 @@ public class Hyperspace3DPane extends StackPane implements
     public Color sceneColor = Color.BLACK;
     HyperspaceMenu hyperspaceMenu;
     boolean isDirty = false;
+    private ArrayList<Point3D> fixedEndPoints = null;
     boolean heightChanged = false;
     boolean reflectY = true;
     Sphere highlightedPoint = new Sphere(1, 8);
@@ -1039,7 +1040,6 @@ public class Hyperspace3DPane extends StackPane implements
             trajToTraj3DMap.clear();
             for (Trajectory trajectory : Trajectory.getTrajectories()) {
                 FeatureCollection fc = Trajectory.globalTrajectoryToFeatureCollectionMap.get(trajectory);
-                trajectory.states.clear();
                 ArrayList<double[]> newStates = new ArrayList<>(fc.getFeatures().size());
                 for (FeatureVector fv : fc.getFeatures()) {
                     //scale each point for the hyperspace
@@ -1048,10 +1048,10 @@ public class Hyperspace3DPane extends StackPane implements
                         fv.getData().size() < 2 ? 0.0 : fv.getData().get(yFactorIndex),
                         fv.getData().size() < 3 ? 0.0 : fv.getData().get(zFactorIndex)));
                 }
-                trajectory.states.addAll(newStates);
+                trajectory.setStates(newStates);
                 Trajectory3D traj3D = JavaFX3DUtils.buildPolyLineFromTrajectory(
-                    trajectory, 8.0f, trajectory.getColor(),
-                    trajectory.states.size(), trajectoryScale, sceneWidth, sceneHeight);
+                    trajectory, 8.0f, trajectory.getColor(), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    JavaFX3DUtils.pixelSize(camera, subScene.getHeight()), trajectoryScale);
                 trajectoryGroup.getChildren().add(0, traj3D);
                 trajToTraj3DMap.put(trajectory, traj3D);
                 traj3D.setVisible(trajectory.getVisible());
@@ -1307,12 +1307,20 @@ public class Hyperspace3DPane extends StackPane implements
 
     private void hardDraw() {
         if (heightChanged) { //if it hasn't changed, don't call expensive height change
+            //rescales the existing glyphs in place once the mesh has been built
             scatterMesh3D.setHeight(point3dSize);
             heightChanged = false;
         }
         //long startTime2 = System.nanoTime();
         //if there is data and their end points are bounded
-        //set the start and end points of the mesh
+        //patch only the moved, recolored, appended or dropped points into the
+        //existing mesh buffers; colors come from p.f so the palette mapping holds
+        if (!data.isEmpty() && !endPoints.isEmpty()
+            && scatterMesh3D.updateScatterDataInPlace(data, endPoints)) {
+            isDirty = false;
+            return;
+        }
+        //otherwise set the start and end points of the mesh
         //18 ms for 20k points
         if (!data.isEmpty() && !endPoints.isEmpty())
             scatterMesh3D.setScatterDataAndEndPoints(data, endPoints);
@@ -1378,10 +1386,19 @@ public class Hyperspace3DPane extends StackPane implements
     }
 
     private ArrayList<Point3D> getFixedEndPoints(Perspective3DNode[] pNodes, float fixedSize) {
-        Point3D[] endArray = new Point3D[pNodes.length];
+        //the fixed end points never change, so extend or trim the previous list
+        //instead of allocating one per point on every redraw
+        ArrayList<Point3D> ends = fixedEndPoints;
+        if (null == ends || (!ends.isEmpty() && ends.get(0).x != fixedSize)) {
+            ends = new ArrayList<>(pNodes.length);
+        } else {
+            ends = new ArrayList<>(ends.subList(0, Math.min(ends.size(), pNodes.length)));
+        }
         //Fix endpoints so they are just zero adds
-        Arrays.parallelSetAll(endArray, i -> new Point3D(fixedSize, fixedSize, fixedSize));
-        return new ArrayList<>(Arrays.asList(endArray));
+        while (ends.size() < pNodes.length)
+            ends.add(new Point3D(fixedSize, fixedSize, fixedSize));
+        fixedEndPoints = ends;
+        return ends;
     }
 
     public void updateScatterLimits(double bufferScale, boolean updateModel) {
@@ -1618,14 +1635,22 @@ public class Hyperspace3DPane extends StackPane implements
 
         if (animate) {
             //make sure we have the latest states using the latest feature indices
-            anchorTrajectory.states.clear();
             List<Point3D> p3ds = scatterModel.data;
             if (index < scatterModel.data.size())
                 p3ds = scatterModel.data.subList(0, index + 1);
-            if (!p3ds.isEmpty()) {
+            int count = anchorTrajectory.getStateCount();
+            if (count > 0 && count + 1 == p3ds.size()
+                && Arrays.equals(anchorTrajectory.getStore().state(count - 1), toState(p3ds.get(count - 1)))) {
+                //stepping forward one point: extend the existing store
+                anchorTrajectory.appendState(toState(p3ds.get(count)));
+            } else {
+                List<double[]> anchorStates = new ArrayList<>(p3ds.size());
                 for (Point3D p : p3ds) {
-                    anchorTrajectory.states.add(new double[]{p.x, p.y, p.z});
+                    anchorStates.add(toState(p));
                 }
+                anchorTrajectory.setStates(anchorStates);
+            }
+            if (!p3ds.isEmpty()) {
                 //recreate and add to the scene the 3D trajectory
                 updateTrajectory3D(false);
             }
@@ -1644,6 +1669,10 @@ public class Hyperspace3DPane extends StackPane implements
         }
     }
 
+    private static double[] toState(Point3D p) {
+        return new double[]{p.x, p.y, p.z};
+    }
+
     private double[] scaleXYZ(double x, double y, double z) {
         //pixel ranges we wish to fit our scaling to
         double halfSceneWidth = sceneWidth / 2.0;
@@ -1846,6 +1875,33 @@ public class Hyperspace3DPane extends StackPane implements
     @Override
     public void addFeatureVector(FeatureVector featureVector) {
         featureVectors.add(featureVector);
+        HyperspaceSeed seed = streamedSeed(featureVector);
+        hyperspaceSeeds.add(seed);
+        trimQueueNow();
+        addPNodeFromSeed(seed);
+        cubeWorld.setDirty(true); //signals to animation timer to redraw
+        //rather than directly call updateView() let the rendering thread know there is a change
+        isDirty = true;
+    }
+
+    @Override
+    public void addFeatureVectors(List<FeatureVector> batch) {
+        if (batch.isEmpty()) return;
+        //only the newest queueLimit vectors of an oversized batch would survive the trim
+        int start = Math.max(0, batch.size() - queueLimit);
+        for (FeatureVector featureVector : batch.subList(start, batch.size())) {
+            featureVectors.add(featureVector);
+            HyperspaceSeed seed = streamedSeed(featureVector);
+            hyperspaceSeeds.add(seed);
+            addPNodeFromSeed(seed);
+        }
+        trimQueueNow();
+        //one redraw for the whole batch on the next animation timer tick
+        cubeWorld.setDirty(true);
+        isDirty = true;
+    }
+
+    private HyperspaceSeed streamedSeed(FeatureVector featureVector) {
         double[] features = FeatureVector.mapToStateArray.apply(featureVector);
         HyperspaceSeed seed = new HyperspaceSeed(
             xFactorIndex, yFactorIndex, zFactorIndex,
@@ -1856,12 +1912,7 @@ public class Hyperspace3DPane extends StackPane implements
         seed.pfa = featureVector.getPfa();
         seed.visible = FactorLabel.visibilityByLabel(seed.label)
             && FeatureLayer.visibilityByIndex(seed.layer);
-        hyperspaceSeeds.add(seed);
-        trimQueueNow();
-        addPNodeFromSeed(seed);
-        cubeWorld.setDirty(true); //signals to animation timer to redraw
-        //rather than directly call updateView() let the rendering thread know there is a change
-        isDirty = true;
+        return seed;
     }
 
     @Override
@@ -1996,8 +2047,9 @@ public class Hyperspace3DPane extends StackPane implements
         while (pNodes.size() > queueLimit) {
             pNodes.poll();
         }
-        while (featureVectors.size() > queueLimit) {
-            featureVectors.remove(0);
+        int excess = featureVectors.size() - queueLimit;
+        if (excess > 0) {
+            featureVectors.subList(0, excess).clear(); //one shift instead of one per element
         }
     }
 
@@ -2232,6 +2284,11 @@ public class Hyperspace3DPane extends StackPane implements
         //no/op
     }
 
+    @Override
+    public void transformFeatureVectors(List<FeatureVector> featureVectors) {
+        //no/op
+    }
+
     @Override
     public void setUmapConfig(UmapConfig config) {
         //no/op
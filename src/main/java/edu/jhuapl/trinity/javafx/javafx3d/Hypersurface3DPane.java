@@ -5,6 +5,7 @@ import edu.jhuapl.trinity.data.CoordinateSet;
 import edu.jhuapl.trinity.data.files.FeatureCollectionFile;
 import edu.jhuapl.trinity.data.graph.GraphDirectedCollection;
 import edu.jhuapl.trinity.data.graph.GraphEdge;
+import edu.jhuapl.trinity.data.graph.GraphIndex;
 import edu.jhuapl.trinity.data.graph.GraphNode;
 import edu.jhuapl.trinity.data.messages.bci.SemanticMap;
 import edu.jhuapl.trinity.data.messages.bci.SemanticMapCollection;
@@ -273,6 +274,7 @@ public class Hypersurface3DPane extends StackPane
     private final Group graphLayer = new Group(); // sits in sceneRoot
     private boolean graphVisible = true;
     private GraphDirectedCollection currentGraph = null;
+    private final List<Node> highlightedGraphNodes = new ArrayList<>();
     private Graph3DRenderer.Params graphParams = new Graph3DRenderer.Params()
         .withNodeRadius(20.0)
         .withEdgeWidth(8.0f)
@@ -670,6 +672,7 @@ public class Hypersurface3DPane extends StackPane
         this.scene.addEventHandler(GraphEvent.NEW_GRAPHDIRECTED_COLLECTION, e -> {
             if (!(e.object instanceof GraphDirectedCollection gc)) return;
             currentGraph = gc;
+            highlightedGraphNodes.clear();
             graphLayer.getChildren().clear();
             graphLayer.getChildren().add(Graph3DRenderer.buildGraphGroup(gc, graphParams));
 
@@ -680,10 +683,30 @@ public class Hypersurface3DPane extends StackPane
             fireOnRoot(new GraphEvent(GraphEvent.SET_STYLE_GUI, styleParams));
             fireOnRoot(new GraphEvent(GraphEvent.SET_GRAPH_VISIBILITY_GUI, graphVisible));
             scene.getRoot().fireEvent(new CommandTerminalEvent(
-                "Rendered 3D graph: nodes=" + gc.getNodes().size() + ", edges=" + gc.getEdges().size(),
+                "Rendered 3D graph: nodes=" + gc.getNodes().size() + ", edges=" + gc.getEdges().size()
+                    + ", max degree=" + gc.getIndex().maxDegree()
+                    + String.format(", mean degree=%.2f", gc.getIndex().meanDegree()),
                 new Font("Consolas", 18), Color.LIGHTGREEN));
         });
 
+        // Animate force layout convergence: the first frame of a build shows its layout graph,
+        // later frames of the same build only move its nodes
+        this.scene.addEventHandler(GraphEvent.GRAPH_LAYOUT_PROGRESS, e -> {
+            if (!(e.object instanceof double[][] positions)
+                || !(e.object2 instanceof GraphDirectedCollection layoutGraph)) return;
+            if (layoutGraph != currentGraph) {
+                currentGraph = layoutGraph;
+                highlightedGraphNodes.clear();
+                graphLayer.getChildren().setAll(Graph3DRenderer.buildGraphGroup(layoutGraph, graphParams));
+                applyGraphStyle(styleParams, /*rebuildIfNeeded*/ false);
+            }
+            for (Node n : graphLayer.getChildren()) {
+                if (n instanceof Group g) {
+                    Graph3DRenderer.updateNodePositions(g, layoutGraph, positions, graphParams);
+                }
+            }
+        });
+
         loadSurf3D();
         this.scene.addEventHandler(HyperspaceEvent.HYPERSPACE_BACKGROUND_COLOR, e -> {
             Color color = (Color) e.object;
@@ -1591,6 +1614,8 @@ public class Hypersurface3DPane extends StackPane
         scene.addEventHandler(HypersurfaceEvent.COMPUTE_VECTOR_DISTANCES, e -> computeVectorDistances());
         scene.addEventHandler(HypersurfaceEvent.COMPUTE_COLLECTION_DIFF, e -> computeSurfaceDifference((FeatureCollection) e.object));
         scene.addEventHandler(HypersurfaceEvent.COMPUTE_COSINE_DISTANCE, e -> computeCosineDistance((FeatureCollection) e.object));
+        scene.addEventHandler(HypersurfaceEvent.SET_SURFACE_ROWS, e -> addFeatureCollection((FeatureCollection) e.object, false));
+        scene.addEventHandler(HypersurfaceEvent.APPEND_SURFACE_ROWS, e -> addFeatureVectors(((FeatureCollection) e.object).getFeatures()));
         // Hover a node: emit its similarity row (from graph) and optionally highlight a surface row
         scene.addEventHandler(GraphEvent.GRAPH_NODE_HOVER, e -> {
             if (!(e.object instanceof GraphNode gNode)) return;
@@ -1618,6 +1643,7 @@ public class Hypersurface3DPane extends StackPane
                 "Graph Similarity Row (click): " + gNode,
                 row
             ));
+            highlightGraphNeighbors(gNode);
             highlightSurfaceRowIfPossible(gNode);
         });
 
@@ -1627,7 +1653,7 @@ public class Hypersurface3DPane extends StackPane
 
             Optional<GraphNode> a = currentGraph != null ? currentGraph.findNodeById(ge.getStartID()) : Optional.empty();
             Optional<GraphNode> b = currentGraph != null ? currentGraph.findNodeById(ge.getEndID()) : Optional.empty();
-            double w = getEdgeWeightSafe(ge);
+            double w = GraphIndex.weightOf(ge);
 
             scene.getRoot().fireEvent(new CommandTerminalEvent(
                 "Edge hover: " + a.map(Object::toString).orElse("?") + " → " +
@@ -1639,7 +1665,7 @@ public class Hypersurface3DPane extends StackPane
         // Click an edge: emit a tiny 2-entry vector [w] or a pairwise slice if you prefer
         scene.addEventHandler(GraphEvent.GRAPH_EDGE_CLICK, e -> {
             if (!(e.object instanceof GraphEdge ge)) return;
-            double w = getEdgeWeightSafe(ge);
+            double w = GraphIndex.weightOf(ge);
             scene.getRoot().fireEvent(new FactorAnalysisEvent(
                 FactorAnalysisEvent.ANALYSIS_DATA_VECTOR,
                 "Graph Edge Weight (click): " + ge.getStartID() + " → " + ge.getEndID(),
@@ -1877,6 +1903,18 @@ public class Hypersurface3DPane extends StackPane
         rebuildProcessedGridAndRefresh();
     }
 
+    @Override
+    public void addFeatureVectors(List<FeatureVector> batch) {
+        if (batch.isEmpty()) return;
+        featureVectors.addAll(batch);
+        //append to the unprocessed grid so smoothing/tone mapping are re-derived,
+        //one surface rebuild per batch rather than per vector
+        for (FeatureVector featureVector : batch) {
+            originalGrid.add(new ArrayList<>(featureVector.getData()));
+        }
+        rebuildProcessedGridAndRefresh();
+    }
+
     @Override
     public void locateFeatureVector(FeatureVector featureVector) {
         throw new UnsupportedOperationException("Not supported yet.");
@@ -2042,54 +2080,39 @@ public class Hypersurface3DPane extends StackPane
 
     /**
      * Build a dense similarity/divergence row for a node from the current sparse graph.
+     * Uses the graph's adjacency index, so only the node's own edges are visited.
      */
     private Double[] buildSimilarityRowFromGraph(GraphNode node) {
         if (currentGraph == null || node == null) return new Double[0];
 
-        final List<GraphNode> nodes = currentGraph.getNodes();
-        int n = nodes.size();
-        double[] row = new double[n];
-
-        // map: GraphNode -> index (by reference)
-        // using indexOf is okay for typical sizes; can optimize later with a HashMap
-        for (GraphEdge e : currentGraph.getEdges()) {
-            // outgoing (node -> other)
-            if (currentGraph.findNodeById(e.getStartID()).filter(node::equals).isPresent()) {
-                currentGraph.findNodeById(e.getEndID()).ifPresent(other -> {
-                    int j = nodes.indexOf(other);
-                    if (j >= 0) {
-                        double w = getEdgeWeightSafe(e);
-                        row[j] = w;
-                    }
-                });
-            }
-            // incoming (other -> node) — include if you want undirected row
-            if (currentGraph.findNodeById(e.getEndID()).filter(node::equals).isPresent()) {
-                currentGraph.findNodeById(e.getStartID()).ifPresent(other -> {
-                    int j = nodes.indexOf(other);
-                    if (j >= 0) {
-                        double w = getEdgeWeightSafe(e);
-                        // for undirected behavior, you can take max/avg; here we keep the larger magnitude
-                        row[j] = Math.abs(row[j]) >= Math.abs(w) ? row[j] : w;
-                    }
-                });
-            }
-        }
-
+        GraphIndex index = currentGraph.getIndex();
+        int n = index.size();
         Double[] out = new Double[n];
-        for (int i = 0; i < n; i++) out[i] = row[i];
+        Arrays.fill(out, 0.0);
+        int i = index.indexOf(node);
+        if (i < 0) return out;
+        for (int k = index.neighborsStart(i); k < index.neighborsEnd(i); k++) {
+            int j = index.neighborAt(k);
+            double w = index.weightAt(k);
+            // undirected row: with parallel edges keep the larger magnitude
+            if (Math.abs(w) > Math.abs(out[j])) out[j] = w;
+        }
         return out;
     }
 
     /**
-     * Prefer GraphEdge#getWeight(); fallback to 1.0 if unavailable.
+     * Scale up the clicked node and its neighbors, restoring the previous selection.
      */
-    private double getEdgeWeightSafe(GraphEdge e) {
-        try {
-            // Adjust if your API uses a different accessor
-            return (double) GraphEdge.class.getMethod("getWeight").invoke(e);
-        } catch (Throwable t) {
-            return 1.0; // default if weight not present
+    private void highlightGraphNeighbors(GraphNode node) {
+        Graph3DRenderer.clearHighlight(highlightedGraphNodes);
+        if (currentGraph == null || node == null) return;
+        GraphIndex index = currentGraph.getIndex();
+        int i = index.indexOf(node);
+        if (i < 0) return;
+        for (Node n : graphLayer.getChildren()) {
+            if (n instanceof Group g) {
+                highlightedGraphNodes.addAll(Graph3DRenderer.highlightNeighbors(g, index, i, 1.5));
+            }
         }
     }
 
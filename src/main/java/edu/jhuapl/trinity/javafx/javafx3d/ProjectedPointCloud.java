@@ -0,0 +1,469 @@
+package edu.jhuapl.trinity.javafx.javafx3d;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import edu.jhuapl.trinity.utils.PointKdTree;
+import javafx.application.Platform;
+import javafx.geometry.Point3D;
+import javafx.scene.Group;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.SubScene;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Batched point renderer for projected feature vectors.
+ * <p>
+ * Every point is a small octahedron glyph merged into one of a few large
+ * TriangleMesh chunks, colored through a one row palette texture shared by all
+ * chunks, so a million points cost a handful of scene graph nodes instead of a
+ * million Spheres with their own materials and handlers. The chunks are mouse
+ * transparent; hover and click picking go through {@link #pick} which casts the
+ * camera ray against a {@link PointKdTree} over the point coordinates.
+ * <p>
+ * The tree is built on a background thread from a snapshot of the coordinates and
+ * swapped in when done. Points appended or moved since that snapshot are scanned
+ * directly by pick, and once they pile up the tree is rebuilt, so streaming appends
+ * never block the FX thread on a full rebuild.
+ * <p>
+ * Data calls (add, setColor, setVisible, setPosition...) may come from any thread;
+ * they only update the backing arrays and schedule one coalesced mesh update on the
+ * FX thread. Appends to the last chunk are written incrementally.
+ *
+ * @author Sean Phillips
+ */
+public class ProjectedPointCloud extends Group {
+    public static final int DEFAULT_CHUNK_SIZE = 65_536;
+
+    // unit octahedron: 6 vertices, 8 outward facing triangles
+    private static final float[] GLYPH = {
+        1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1
+    };
+    private static final int[] GLYPH_FACES = {
+        0, 4, 2, 2, 4, 1, 1, 4, 3, 3, 4, 0,
+        0, 2, 5, 2, 1, 5, 1, 3, 5, 3, 0, 5
+    };
+    private static final int GLYPH_VERTS = 6;
+    private static final int GLYPH_TRIS = 8;
+    /**
+     * Unindexed points (appended or moved since the last tree) tolerated before a rebuild,
+     * or a quarter of the indexed count when that is larger.
+     */
+    static final int MIN_REBUILD_BACKLOG = 4096;
+    private static final ExecutorService INDEXER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "projected-point-indexer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * A picked point and the distance from the camera eye to where the ray met it, in
+     * the same space as PickResult.getIntersectedDistance().
+     */
+    public record Hit(int index, double distance) {
+    }
+
+    private final int chunkSize;
+    private final PhongMaterial material = new PhongMaterial(Color.WHITE);
+
+    // backing data, guarded by this
+    private float[] xyz = new float[3 * 1024];
+    private int[] colorIndex = new int[1024];
+    private final BitSet hidden = new BitSet();
+    private final List<FeatureVector> vectors = new ArrayList<>();
+    private int size = 0;
+    private float radius = 10f;
+
+    private final List<Color> palette = new ArrayList<>();
+    private final Map<Color, Integer> paletteLookup = new HashMap<>();
+    private int paletteCapacity = 16;
+    private boolean paletteResized = true;
+
+    // render state, FX thread
+    private final List<MeshView> chunks = new ArrayList<>();
+    private final List<Integer> meshCounts = new ArrayList<>();
+    private final BitSet dirtyChunks = new BitSet(); // guarded by this
+    private boolean updateScheduled = false; // guarded by this
+    private boolean cleared = false; // guarded by this
+    private WritableImage paletteImage;
+    private int paletteWritten = 0;
+
+    // picking index, guarded by this: tree holds points [0, indexed) as they were at its
+    // snapshot, moved marks indexed points changed since then
+    private PointKdTree tree;
+    private int indexed = 0;
+    private BitSet moved = new BitSet();
+    private int movedCount = 0;
+    private BitSet movedDuringBuild = null; // non-null while a rebuild is running
+    private int buildCount = 0;
+    private long treeGeneration = 0;
+
+    public ProjectedPointCloud() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ProjectedPointCloud(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+        setMouseTransparent(true);
+    }
+
+    // ---------------------------------------------------------------------
+    // Data
+    // ---------------------------------------------------------------------
+
+    /**
+     * @return index of the new point
+     */
+    public synchronized int add(double x, double y, double z, Color color, FeatureVector featureVector) {
+        if (size == colorIndex.length) {
+            colorIndex = Arrays.copyOf(colorIndex, size * 2);
+            xyz = Arrays.copyOf(xyz, size * 6);
+        }
+        int i = size++;
+        xyz[3 * i] = (float) x;
+        xyz[3 * i + 1] = (float) y;
+        xyz[3 * i + 2] = (float) z;
+        colorIndex[i] = paletteIndex(color);
+        vectors.add(featureVector);
+        markDirty(i, false);
+        maybeRebuildTree();
+        return i;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized FeatureVector getFeatureVector(int i) {
+        return vectors.get(i);
+    }
+
+    /**
+     * @return a snapshot of the feature vectors in point order
+     */
+    public synchronized List<FeatureVector> getFeatureVectors() {
+        return new ArrayList<>(vectors);
+    }
+
+    /**
+     * @return position of point i in this node's local (and parent's) coordinates
+     */
+    public synchronized Point3D getPosition(int i) {
+        return new Point3D(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]);
+    }
+
+    public synchronized void setPosition(int i, double x, double y, double z) {
+        xyz[3 * i] = (float) x;
+        xyz[3 * i + 1] = (float) y;
+        xyz[3 * i + 2] = (float) z;
+        if (i < indexed && !moved.get(i)) {
+            moved.set(i);
+            movedCount++;
+        }
+        if (null != movedDuringBuild && i < buildCount) movedDuringBuild.set(i);
+        markDirty(i, true);
+        maybeRebuildTree();
+    }
+
+    public synchronized void setColor(int i, Color color) {
+        int c = paletteIndex(color);
+        if (colorIndex[i] != c) {
+            colorIndex[i] = c;
+            markDirty(i, true);
+        }
+    }
+
+    public synchronized Color getColor(int i) {
+        return palette.get(colorIndex[i]);
+    }
+
+    public synchronized void setPointVisible(int i, boolean visible) {
+        if (hidden.get(i) == visible) {
+            hidden.set(i, !visible);
+            markDirty(i, true);
+        }
+    }
+
+    public synchronized boolean isPointVisible(int i) {
+        return !hidden.get(i);
+    }
+
+    public synchronized void setPointRadius(double radius) {
+        if (this.radius != (float) radius) {
+            this.radius = (float) radius;
+            markAllDirty();
+        }
+    }
+
+    public synchronized double getPointRadius() {
+        return radius;
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        vectors.clear();
+        hidden.clear();
+        tree = null;
+        indexed = 0;
+        moved = new BitSet();
+        movedCount = 0;
+        movedDuringBuild = null;
+        treeGeneration++;
+        cleared = true;
+        dirtyChunks.clear();
+        scheduleUpdate();
+    }
+
+    private int paletteIndex(Color color) {
+        Integer c = paletteLookup.get(color);
+        if (c == null) {
+            c = palette.size();
+            palette.add(color);
+            paletteLookup.put(color, c);
+            if (palette.size() > paletteCapacity) {
+                while (palette.size() > paletteCapacity) paletteCapacity *= 2;
+                paletteResized = true;
+            }
+            scheduleUpdate();
+        }
+        return c;
+    }
+
+    private void markDirty(int i, boolean rewrite) {
+        int chunk = i / chunkSize;
+        // appends are written incrementally, anything else rewrites the chunk
+        if (rewrite) dirtyChunks.set(2 * chunk + 1);
+        dirtyChunks.set(2 * chunk);
+        scheduleUpdate();
+    }
+
+    private void markAllDirty() {
+        int n = (size + chunkSize - 1) / chunkSize;
+        for (int c = 0; c < n; c++) {
+            dirtyChunks.set(2 * c);
+            dirtyChunks.set(2 * c + 1);
+        }
+        scheduleUpdate();
+    }
+
+    private void scheduleUpdate() {
+        if (!updateScheduled) {
+            updateScheduled = true;
+            Platform.runLater(this::updateMeshes);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Rendering (FX thread)
+    // ---------------------------------------------------------------------
+
+    private void updateMeshes() {
+        synchronized (this) {
+            updateScheduled = false;
+            if (cleared) {
+                cleared = false;
+                getChildren().clear();
+                chunks.clear();
+                meshCounts.clear();
+            }
+            boolean texCoordsChanged = updatePalette();
+            int needed = (size + chunkSize - 1) / chunkSize;
+            while (chunks.size() < needed) {
+                MeshView view = new MeshView(new TriangleMesh());
+                ((TriangleMesh) view.getMesh()).getTexCoords().setAll(texCoords());
+                view.setMaterial(material);
+                view.setCullFace(CullFace.BACK);
+                view.setMouseTransparent(true);
+                chunks.add(view);
+                meshCounts.add(0);
+                getChildren().add(view);
+            }
+            // chunks beyond the data (after a shrink) are emptied
+            for (int c = needed; c < chunks.size(); c++) {
+                if (meshCounts.get(c) > 0) dirtyChunks.set(2 * c + 1);
+                dirtyChunks.set(2 * c);
+            }
+            for (int c = 0; c < chunks.size(); c++) {
+                TriangleMesh mesh = (TriangleMesh) chunks.get(c).getMesh();
+                if (texCoordsChanged) mesh.getTexCoords().setAll(texCoords());
+                if (!dirtyChunks.get(2 * c)) continue;
+                int from = c * chunkSize;
+                int count = Math.max(0, Math.min(chunkSize, size - from));
+                int written = meshCounts.get(c);
+                if (dirtyChunks.get(2 * c + 1) || count < written) {
+                    mesh.getPoints().setAll(glyphPoints(from, count));
+                    mesh.getFaces().setAll(glyphFaces(from, count, 0));
+                } else if (count > written) {
+                    mesh.getPoints().addAll(glyphPoints(from + written, count - written));
+                    mesh.getFaces().addAll(glyphFaces(from + written, count - written, written));
+                }
+                meshCounts.set(c, count);
+            }
+            dirtyChunks.clear();
+        }
+    }
+
+    private boolean updatePalette() {
+        boolean resized = paletteResized;
+        if (resized) {
+            paletteImage = new WritableImage(paletteCapacity, 1);
+            paletteWritten = 0;
+            paletteResized = false;
+        }
+        if (paletteWritten < palette.size()) {
+            PixelWriter pw = paletteImage.getPixelWriter();
+            for (int k = paletteWritten; k < palette.size(); k++) pw.setColor(k, 0, palette.get(k));
+            paletteWritten = palette.size();
+            material.setDiffuseMap(paletteImage);
+        }
+        return resized;
+    }
+
+    private float[] texCoords() {
+        float[] tc = new float[2 * paletteCapacity];
+        for (int k = 0; k < paletteCapacity; k++) {
+            tc[2 * k] = (k + 0.5f) / paletteCapacity;
+            tc[2 * k + 1] = 0.5f;
+        }
+        return tc;
+    }
+
+    private float[] glyphPoints(int from, int count) {
+        float[] pts = new float[count * GLYPH_VERTS * 3];
+        int o = 0;
+        for (int i = from; i < from + count; i++) {
+            float r = hidden.get(i) ? 0f : radius; // hidden points collapse to nothing
+            float x = xyz[3 * i], y = xyz[3 * i + 1], z = xyz[3 * i + 2];
+            for (int v = 0; v < GLYPH.length; v += 3) {
+                pts[o++] = x + r * GLYPH[v];
+                pts[o++] = y + r * GLYPH[v + 1];
+                pts[o++] = z + r * GLYPH[v + 2];
+            }
+        }
+        return pts;
+    }
+
+    /**
+     * Faces for points [from, from+count) whose glyphs start at glyph slot firstSlot of the chunk.
+     */
+    private int[] glyphFaces(int from, int count, int firstSlot) {
+        int[] faces = new int[count * GLYPH_TRIS * 6];
+        int o = 0;
+        for (int g = 0; g < count; g++) {
+            int base = (firstSlot + g) * GLYPH_VERTS;
+            int t = colorIndex[from + g];
+            for (int v : GLYPH_FACES) {
+                faces[o++] = base + v;
+                faces[o++] = t;
+            }
+        }
+        return faces;
+    }
+
+    // ---------------------------------------------------------------------
+    // Picking
+    // ---------------------------------------------------------------------
+
+    private void maybeRebuildTree() {
+        if (null != movedDuringBuild) return;
+        if (size - indexed + movedCount <= Math.max(MIN_REBUILD_BACKLOG, indexed / 4)) return;
+        float[] snapshot = Arrays.copyOf(xyz, 3 * size);
+        int count = size;
+        long generation = treeGeneration;
+        movedDuringBuild = new BitSet();
+        buildCount = count;
+        INDEXER.execute(() -> {
+            PointKdTree built = new PointKdTree(snapshot, count);
+            synchronized (this) {
+                if (generation != treeGeneration) return; // cleared while building
+                tree = built;
+                indexed = count;
+                moved = movedDuringBuild;
+                movedCount = moved.cardinality();
+                movedDuringBuild = null;
+                // the backlog may have grown past the threshold while building
+                maybeRebuildTree();
+            }
+        });
+    }
+
+    /**
+     * Cast the camera ray through a SubScene pixel and return the nearest visible point
+     * it passes within the glyph radius (times slack) of, or null.
+     *
+     * @param x,y position in SubScene coordinates, e.g. MouseEvent.getX()/getY()
+     */
+    public Hit pick(PerspectiveCamera camera, SubScene subScene, double x, double y, double slack) {
+        if (size() == 0 || !isVisible()) return null;
+        double w = subScene.getWidth(), h = subScene.getHeight();
+        double half = camera.isVerticalFieldOfView() ? h / 2.0 : w / 2.0;
+        double k = Math.tan(Math.toRadians(camera.getFieldOfView() / 2.0)) / half;
+        // ray in camera space: eye at the origin looking down +Z, y down
+        Point3D eye = camera.localToScene(Point3D.ZERO);
+        Point3D through = camera.localToScene((x - w / 2.0) * k, (y - h / 2.0) * k, 1.0);
+        Point3D o = sceneToLocal(eye);
+        Point3D d = sceneToLocal(through).subtract(o).normalize();
+        double ox = o.getX(), oy = o.getY(), oz = o.getZ();
+        double dx = d.getX(), dy = d.getY(), dz = d.getZ();
+        int index = -1;
+        synchronized (this) {
+            double r = radius * slack;
+            double r2 = r * r;
+            double bestT = Double.POSITIVE_INFINITY;
+            if (null != tree) {
+                BitSet stale = moved;
+                index = tree.nearestAlongRay(ox, oy, oz, dx, dy, dz, r,
+                    i -> i < size && !hidden.get(i) && !stale.get(i));
+                if (index >= 0) bestT = PointKdTree.rayHit(xyz, index, ox, oy, oz, dx, dy, dz, r2);
+            }
+            // points the tree does not cover yet: the appended tail, then moved points
+            for (int i = indexed; i < size; i++) {
+                if (hidden.get(i)) continue;
+                double t = PointKdTree.rayHit(xyz, i, ox, oy, oz, dx, dy, dz, r2);
+                if (t < bestT) {
+                    bestT = t;
+                    index = i;
+                }
+            }
+            for (int i = moved.nextSetBit(0); i >= 0 && i < size; i = moved.nextSetBit(i + 1)) {
+                if (hidden.get(i)) continue;
+                double t = PointKdTree.rayHit(xyz, i, ox, oy, oz, dx, dy, dz, r2);
+                if (t < bestT) {
+                    bestT = t;
+                    index = i;
+                }
+            }
+        }
+        if (index < 0) return null;
+        return new Hit(index, eye.distance(localToScene(getPosition(index))));
+    }
+
+    /**
+     * @return indices of visible points whose screen position falls inside the lasso
+     */
+    public List<Integer> lassoSelect(Polygon lassoPolygon) {
+        List<Integer> indices = new ArrayList<>();
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            if (!isPointVisible(i)) continue;
+            Point3D p = getPosition(i);
+            Point3D screen = localToScene(p, true);
+            if (screen != null && lassoPolygon.contains(screen.getX(), screen.getY())) indices.add(i);
+        }
+        return indices;
+    }
+}
@@ -40,7 +40,6 @@ import edu.jhuapl.trinity.javafx.events.ManifoldEvent.ProjectionConfig;
 import edu.jhuapl.trinity.javafx.events.ShadowEvent;
 import edu.jhuapl.trinity.javafx.events.TimelineEvent;
 import edu.jhuapl.trinity.javafx.events.TrajectoryEvent;
-import edu.jhuapl.trinity.javafx.javafx3d.animated.AnimatedSphere;
 import edu.jhuapl.trinity.javafx.javafx3d.animated.CameraOrbiter;
 import edu.jhuapl.trinity.javafx.javafx3d.animated.Opticon;
 import edu.jhuapl.trinity.javafx.javafx3d.animated.RadialGrid;
@@ -65,6 +64,7 @@ import edu.jhuapl.trinity.utils.JavaFX3DUtils;
 import edu.jhuapl.trinity.utils.PCAConfig;
 import edu.jhuapl.trinity.utils.ResourceUtils;
 import edu.jhuapl.trinity.utils.VisibilityMap;
+import edu.jhuapl.trinity.utils.umap.StreamingUmapProjector;
 import edu.jhuapl.trinity.utils.umap.Umap;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
@@ -106,6 +106,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.PickResult;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.input.TransferMode;
 import javafx.scene.layout.Background;
@@ -217,6 +218,8 @@ public class Projections3DPane extends StackPane implements
     public Color sceneColor = Color.BLACK;
     boolean reflectY = true;
     Sphere highlightedPoint = new Sphere(1, 8);
+    //invisible marker moved to whichever projected point is hovered
+    Sphere hoverPoint = new Sphere(1, 8);
 
     Callout anchorCallout;
     TriaxialSpheroidMesh anchorTSM;
@@ -232,7 +235,12 @@ public class Projections3DPane extends StackPane implements
 
     HashMap<FeatureVector, ProjectorNode> featureVectorToProjectorNode = new HashMap<>();
 
-    //This maps each ellipsoid to a GMM
+    //Batched renderer for the projected points, picked through its k-d tree
+    ProjectedPointCloud pointCloud = new ProjectedPointCloud();
+    //Invisible anchors standing in for picked points (callouts, distances)
+    HashMap<Integer, Sphere> pointAnchors = new HashMap<>();
+    int hoveredPointIndex = -1;
+    //This maps each point anchor to its FeatureVector
     HashMap<Sphere, FeatureVector> sphereToFeatureVectorMap = new HashMap<>();
     //This maps each ellipsoid to a GMM
     HashMap<TriaxialSpheroidMesh, GaussianMixture> ellipsoidToGMMessageMap = new HashMap<>();
@@ -295,6 +303,8 @@ public class Projections3DPane extends StackPane implements
     public List<String> featureLabels = new ArrayList<>();
     public Scene scene;
     public Umap latestUmap = null;
+    private StreamingUmapProjector streamingProjector = null;
+    private volatile long streamGeneration = 0;
     Polygon lassoPolygon = new Polygon();
     Rectangle selectionRectangle;
     ProjectileSystem projectileSystem;
@@ -458,12 +468,16 @@ public class Projections3DPane extends StackPane implements
         crosshair3D = new Crosshair3D(javafx.geometry.Point3D.ZERO, sceneWidth / 2.0, 10.0f);
 
         //Add 3D subscene stuff to 3D scene root object
-        sceneRoot.getChildren().addAll(cameraTransform, radialGrid, highlightedPoint,
+        hoverPoint.setVisible(false);
+        hoverPoint.setMouseTransparent(true);
+        sceneRoot.getChildren().addAll(cameraTransform, radialGrid, highlightedPoint, hoverPoint,
             nodeGroup, manifoldGroup, debugGroup, crosshair3D,
             dataXForm, extrasGroup, connectorsGroup, anchorTSM);
         centerLight = new PointLight(Color.WHITE);
         sceneRoot.getChildren().add(centerLight);
         sceneRoot.getChildren().add(ellipsoidGroup);
+        pointCloud.setPointRadius(point3dSize);
+        sceneRoot.getChildren().add(pointCloud);
 
         projectionOpticon = new Opticon(Color.CYAN, 100);
         extrasGroup.getChildren().add(projectionOpticon);
@@ -776,7 +790,7 @@ public class Projections3DPane extends StackPane implements
         subScene.setOnMouseReleased((MouseEvent me) -> {
             if (clusterSelectionMode) {
                 ManifoldClusterTask manifoldClusterTask = new ManifoldClusterTask(scene,
-                    camera, sphereToFeatureVectorMap, lassoPolygon);
+                    camera, pointCloud, lassoPolygon);
                 if (!manifoldClusterTask.isCancelledByUser())
                     manifoldClusterTask.run();
                 lassoPolygon.getPoints().clear();
@@ -943,8 +957,9 @@ public class Projections3DPane extends StackPane implements
         radar.setEffect(glow);
         MenuItem clearProjectionItem = new MenuItem("Clear Projection Data", clearProjection);
         clearProjectionItem.setOnAction(e -> {
+            stopStreamingProjector();
             featureVectors.clear();
-            sphereToFeatureVectorMap.clear();
+            clearProjectedPoints();
             ellipsoidGroup.getChildren().clear();
             projectorNodeGroup.clearAll();
             clearAll();
@@ -988,6 +1003,14 @@ public class Projections3DPane extends StackPane implements
         projectionScalarSpinner.setEditable(true);
         projectionScalarSpinner.valueProperty().addListener(e -> {
             projectionScalar = projectionScalarSpinner.getValue();
+            for (int i = 0; i < pointCloud.size(); i++) {
+                FeatureVector featureVector = pointCloud.getFeatureVector(i);
+                pointCloud.setPosition(i, featureVector.getData().get(0) * projectionScalar,
+                    featureVector.getData().get(1) * -projectionScalar,
+                    featureVector.getData().size() > 2
+                        ? featureVector.getData().get(2) * projectionScalar
+                        : 0.0);
+            }
             sphereToFeatureVectorMap.forEach((sphere, featureVector) -> {
                 sphere.setTranslateX(featureVector.getData().get(0) * projectionScalar);
                 sphere.setTranslateY(featureVector.getData().get(1) * -projectionScalar);
@@ -1056,6 +1079,20 @@ public class Projections3DPane extends StackPane implements
                 e.consume();
             }
         });
+        //Projected points are one batched mesh, so hover and clicks are resolved
+        //against its k-d tree rather than per point event handlers
+        subScene.addEventHandler(MouseEvent.MOUSE_MOVED, e -> {
+            ProjectedPointCloud.Hit hit = pickProjectedPoint(e);
+            if (null != hit && hit.index() != hoveredPointIndex)
+                hoverProjectedPoint(hit.index());
+        });
+        subScene.addEventFilter(MouseEvent.MOUSE_CLICKED, e -> {
+            if (!e.isStillSincePress())
+                return;
+            ProjectedPointCloud.Hit hit = pickProjectedPoint(e);
+            if (null != hit)
+                clickProjectedPoint(hit.index(), e);
+        });
 
         this.scene.addEventHandler(HyperspaceEvent.REMOVED_FEATURE_LAYER, e -> {
             Integer index = ((FeatureLayer) e.object).getIndex();
@@ -1443,6 +1480,7 @@ public class Projections3DPane extends StackPane implements
         manifoldGroup.setVisible(!projectileSystem.isRunning());
         connectorsGroup.setVisible(!projectileSystem.isRunning());
         ellipsoidGroup.setVisible(!projectileSystem.isRunning());
+        pointCloud.setVisible(!projectileSystem.isRunning());
         highlighterNeonCircle.setVisible(!projectileSystem.isRunning());
         anchorTrajectory.setVisible(!projectileSystem.isRunning());
         anchorTraj3D.setVisible(!projectileSystem.isRunning());
@@ -1475,12 +1513,12 @@ public class Projections3DPane extends StackPane implements
 
     public void updateOnLabelChange(List<FactorLabel> labels) {
         labels.forEach(factorLabel -> {
-            sphereToFeatureVectorMap.forEach((s, fv) -> {
-                if (fv.getLabel().contentEquals(factorLabel.getLabel())) {
-                    s.setVisible(factorLabel.getVisible());
-                    ((PhongMaterial) s.getMaterial()).setDiffuseColor(factorLabel.getColor());
+            for (int i = 0; i < pointCloud.size(); i++) {
+                if (pointCloud.getFeatureVector(i).getLabel().contentEquals(factorLabel.getLabel())) {
+                    pointCloud.setPointVisible(i, factorLabel.getVisible());
+                    pointCloud.setColor(i, factorLabel.getColor());
                 }
-            });
+            }
             ellipsoidToGMMessageMap.forEach((TriaxialSpheroidMesh t, GaussianMixture u) -> {
                 PhongMaterial mat = (PhongMaterial) t.getMaterial();
                 Color color = FactorLabel.getColorByLabel(u.getLabel()).deriveColor(1, 1, 1, 0.01);
@@ -1522,15 +1560,12 @@ public class Projections3DPane extends StackPane implements
             //Maybe short cut for now is a simple boolean variable blocking all updates
             for (Trajectory trajectory : Trajectory.getTrajectories()) {
                 FeatureCollection fc = Trajectory.globalTrajectoryToFeatureCollectionMap.get(trajectory);
-                trajectory.states.clear();
                 //These are the original feature values.
                 //They need to be transformed using the current UMAP transformation matrix
-                ArrayList<double[]> newStates = transformXYZ(fc);
-
-                trajectory.states.addAll(newStates);
+                trajectory.setStates(transformXYZ(fc));
                 Trajectory3D traj3D = JavaFX3DUtils.buildPolyLineFromTrajectory(
-                    trajectory, 8.0f, trajectory.getColor(),
-                    trajectory.states.size(), trajectoryScale, sceneWidth, sceneHeight);
+                    trajectory, 8.0f, trajectory.getColor(), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    JavaFX3DUtils.pixelSize(camera, subScene.getHeight()), trajectoryScale);
                 trajectoryGroup.getChildren().add(0, traj3D);
                 trajToTraj3DMap.put(trajectory, traj3D);
                 traj3D.setVisible(trajectory.getVisible());
@@ -1575,25 +1610,26 @@ public class Projections3DPane extends StackPane implements
     }
 
     private void updateDataColors() {
-        sphereToFeatureVectorMap.forEach((s, fv) -> {
+        for (int i = 0; i < pointCloud.size(); i++) {
+            FeatureVector fv = pointCloud.getFeatureVector(i);
             if (null != fv.getLabel()) {
                 FactorLabel fl = FactorLabel.getFactorLabel(fv.getLabel());
                 if (null != fl) {
-                    s.setVisible(fl.getVisible());
-                    ((PhongMaterial) s.getMaterial()).setDiffuseColor(fl.getColor());
-                    ((PhongMaterial) s.getMaterial()).setSpecularColor(fl.getColor());
+                    pointCloud.setPointVisible(i, fl.getVisible());
+                    pointCloud.setColor(i, fl.getColor());
                 }
             }
-        });
+        }
     }
 
     private void changeFactorLabels(FactorLabel factorLabel) {
-        sphereToFeatureVectorMap.forEach((s, fv) -> {
+        for (int i = 0; i < pointCloud.size(); i++) {
+            FeatureVector fv = pointCloud.getFeatureVector(i);
             if (null != fv.getLabel() && fv.getLabel().contentEquals(factorLabel.getLabel())) {
-                s.setVisible(factorLabel.getVisible());
-                ((PhongMaterial) s.getMaterial()).setDiffuseColor(factorLabel.getColor());
+                pointCloud.setPointVisible(i, factorLabel.getVisible());
+                pointCloud.setColor(i, factorLabel.getColor());
             }
-        });
+        }
         ellipsoidToGMMessageMap.forEach((TriaxialSpheroidMesh t, GaussianMixture u) -> {
             PhongMaterial mat = (PhongMaterial) t.getMaterial();
             Color color = FactorLabel.getColorByLabel(
@@ -1817,6 +1853,7 @@ public class Projections3DPane extends StackPane implements
     }
 
     public void clearAll() {
+        stopStreamingProjector();
         xFactorIndex = 0;
         yFactorIndex = 1;
         zFactorIndex = 2;
@@ -1825,6 +1862,7 @@ public class Projections3DPane extends StackPane implements
                 new CoordinateSet(xFactorIndex, yFactorIndex, zFactorIndex))));
         notifyIndexChange();
         ellipsoidGroup.getChildren().clear();
+        clearProjectedPoints();
         ellipsoidToGMMessageMap.clear();
         ellipsoidToGMDataMap.clear();
         clearFeatureVectors();
@@ -1861,14 +1899,15 @@ public class Projections3DPane extends StackPane implements
         anchorTSM.setTranslateZ(p3d.z);
 
         //make sure we have the latest states using the latest feature indices
-        anchorTrajectory.states.clear();
+        List<double[]> anchorStates = new ArrayList<>(featureVectors.size());
         for (FeatureVector fv : featureVectors) {
-            anchorTrajectory.states.add(new double[]{
+            anchorStates.add(new double[]{
                 fv.getData().get(0) * projectionScalar,
                 fv.getData().get(1) * -projectionScalar,
                 fv.getData().get(2) * projectionScalar
             });
         }
+        anchorTrajectory.setStates(anchorStates);
         updateTrajectory3D(false);
         if (index < featureVectors.size()) {
             scene.getRoot().fireEvent(new FeatureVectorEvent(
@@ -1990,6 +2029,7 @@ public class Projections3DPane extends StackPane implements
     }
 
     private void updateDataRadius() {
+        pointCloud.setPointRadius(point3dSize);
         ellipsoidGroup.getChildren().filtered(n -> n instanceof Sphere).forEach(s -> {
             ((Sphere) s).setRadius(point3dSize);
         });
@@ -2069,6 +2109,12 @@ public class Projections3DPane extends StackPane implements
         trimQueueNow();
     }
 
+    @Override
+    public void addFeatureVectors(List<FeatureVector> batch) {
+        featureVectors.addAll(batch);
+        trimQueueNow();
+    }
+
     @Override
     public void addFeatureCollection(FeatureCollection featureCollection, boolean clearQueue) {
         Platform.runLater(() -> {
@@ -2078,13 +2124,12 @@ public class Projections3DPane extends StackPane implements
         });
         clearAll();
         ellipsoidGroup.getChildren().clear();
-        sphereToFeatureVectorMap.clear();
         Platform.runLater(() -> {
             getScene().getRoot().fireEvent(
                 new CommandTerminalEvent("Projecting Feature Collection... ",
                     new Font("Consolas", 20), Color.GREEN));
         });
-        //Make a 3D sphere for each projected feature vector
+        //Add a point to the batched point cloud for each projected feature vector
         //@DEBUG SMP
         //System.out.println("Total Features to project: " + featureCollection.getFeatures().size());
         for (int i = 0; i < featureCollection.getFeatures().size(); i++) {
@@ -2115,98 +2160,131 @@ public class Projections3DPane extends StackPane implements
 
     public void addProjectedFeatureVector(FeatureVector featureVector) {
         Color labelColor = FactorLabel.getColorByLabel(featureVector.getLabel());
-        PhongMaterial mat = new PhongMaterial(labelColor);
-        mat.setSpecularColor(labelColor); //fix for aarch64 Mac Ventura
-        Sphere sphere = new AnimatedSphere(mat, point3dSize, 32, true);
-
-        sphere.setMaterial(mat);
-        sphere.setTranslateX(featureVector.getData().get(0) * projectionScalar);
-        sphere.setTranslateY(featureVector.getData().get(1) * -projectionScalar);
-        sphere.setTranslateZ(featureVector.getData().size() > 2
-            ? featureVector.getData().get(2) * projectionScalar
-            : 0.0);
-        Platform.runLater(() -> {
-            ellipsoidGroup.getChildren().add(sphere);
-            if (animatingProjections) {
-                highlightedPoint = sphere;
+        int index = pointCloud.add(featureVector.getData().get(0) * projectionScalar,
+            featureVector.getData().get(1) * -projectionScalar,
+            featureVector.getData().size() > 2
+                ? featureVector.getData().get(2) * projectionScalar
+                : 0.0,
+            labelColor, featureVector);
+        if (animatingProjections) {
+            Platform.runLater(() -> {
+                moveHoverPoint(index);
                 //System.out.println("Found matching Feature Vector...");
                 updateHighlighterCircle(); //Will transform location of circle
-            }
-        });
-        sphereToFeatureVectorMap.put(sphere, featureVector);
+            });
+        }
+        featureVectors.add(featureVector);
+    }
 
-        //Add Circle as highlight when mouse hovering
-        sphere.addEventHandler(MouseEvent.MOUSE_ENTERED, e -> {
-            highlightedPoint = sphere;
-            updateFloatingNodes(); //Will transform location of all floating 2D nodes
-            javafx.geometry.Point3D p1 = new javafx.geometry.Point3D(
-                sphere.getTranslateX(), sphere.getTranslateY(), sphere.getTranslateZ());
-            scene.getRoot().fireEvent(new ManifoldEvent(
-                ManifoldEvent.SELECT_PROJECTION_POINT3D, p1));
-            miniCrosshair.size = point3dSize * 4.0;
-            miniCrosshair.setCenter(p1);
-            setCircleRadiusByDistance(highlighterNeonCircle, sphere);
-            //update selection listeners with original hyper dimensions (eg RADAR plot)
-            FeatureVector fv = sphereToFeatureVectorMap.get(sphere);
-            if (null != fv) {
-                scene.getRoot().fireEvent(new FeatureVectorEvent(
-                    FeatureVectorEvent.SELECT_FEATURE_VECTOR, fv, featureLabels));
-                if (animatingProjections) {
-                    ProjectorNode pn = featureVectorToProjectorNode.get(fv);
-                    if (null != pn) {
-                        extrasGroup.getChildren().remove(projectorConnector);
-                        Trajectory trajectory = new Trajectory("Projector Connector");
-                        trajectory.states.clear();
-                        //These are the original feature values.
-                        //They need to be transformed using the current UMAP transformation matrix
-                        trajectory.states.add(new double[]{sphere.getTranslateX(),
-                            sphere.getTranslateY(), sphere.getTranslateZ()});
-                        trajectory.states.add(new double[]{pn.node.getTranslateX(),
-                            pn.node.getTranslateY(), pn.node.getTranslateZ()});
-                        projectorConnector = JavaFX3DUtils.buildPolyLineFromTrajectory(
-                            trajectory, 8.0f, trajectory.getColor(),
-                            trajectory.states.size(), trajectoryScale, sceneWidth, sceneHeight);
-                        extrasGroup.getChildren().add(projectorConnector);
-                        projectorConnector.setVisible(true);
-                    }
+    private void clearProjectedPoints() {
+        pointCloud.clear();
+        pointAnchors.values().forEach(s -> ellipsoidGroup.getChildren().remove(s));
+        pointAnchors.clear();
+        sphereToFeatureVectorMap.clear();
+        hoveredPointIndex = -1;
+    }
+
+    /**
+     * Ray pick against the point cloud, unless some other node is hit in front of the point.
+     */
+    private ProjectedPointCloud.Hit pickProjectedPoint(MouseEvent e) {
+        ProjectedPointCloud.Hit hit = pointCloud.pick(camera, subScene, e.getX(), e.getY(), 1.5);
+        if (null == hit)
+            return null;
+        PickResult pr = e.getPickResult();
+        if (null != pr && null != pr.getIntersectedNode() && pr.getIntersectedNode() != subScene
+            && pr.getIntersectedDistance() < hit.distance())
+            return null;
+        return hit;
+    }
+
+    /**
+     * Invisible sphere at a projected point, so node based overlays (callouts,
+     * distance measurements) can anchor to it. Created once per point on demand.
+     */
+    private Sphere anchorFor(int index) {
+        Sphere anchor = pointAnchors.get(index);
+        if (null == anchor) {
+            anchor = new Sphere(point3dSize, 8);
+            anchor.setVisible(false);
+            anchor.setMouseTransparent(true);
+            javafx.geometry.Point3D p = pointCloud.getPosition(index);
+            anchor.setTranslateX(p.getX());
+            anchor.setTranslateY(p.getY());
+            anchor.setTranslateZ(p.getZ());
+            pointAnchors.put(index, anchor);
+            sphereToFeatureVectorMap.put(anchor, pointCloud.getFeatureVector(index));
+            ellipsoidGroup.getChildren().add(anchor);
+        }
+        return anchor;
+    }
+
+    private void moveHoverPoint(int index) {
+        javafx.geometry.Point3D p = pointCloud.getPosition(index);
+        hoverPoint.setTranslateX(p.getX());
+        hoverPoint.setTranslateY(p.getY());
+        hoverPoint.setTranslateZ(p.getZ());
+        highlightedPoint = hoverPoint;
+    }
+
+    private void hoverProjectedPoint(int index) {
+        hoveredPointIndex = index;
+        moveHoverPoint(index);
+        updateFloatingNodes(); //Will transform location of all floating 2D nodes
+        javafx.geometry.Point3D p1 = pointCloud.getPosition(index);
+        scene.getRoot().fireEvent(new ManifoldEvent(
+            ManifoldEvent.SELECT_PROJECTION_POINT3D, p1));
+        miniCrosshair.size = point3dSize * 4.0;
+        miniCrosshair.setCenter(p1);
+        setCircleRadiusByDistance(highlighterNeonCircle, hoverPoint);
+        //update selection listeners with original hyper dimensions (eg RADAR plot)
+        FeatureVector fv = pointCloud.getFeatureVector(index);
+        if (null != fv) {
+            scene.getRoot().fireEvent(new FeatureVectorEvent(
+                FeatureVectorEvent.SELECT_FEATURE_VECTOR, fv, featureLabels));
+            if (animatingProjections) {
+                ProjectorNode pn = featureVectorToProjectorNode.get(fv);
+                if (null != pn) {
+                    extrasGroup.getChildren().remove(projectorConnector);
+                    Trajectory trajectory = new Trajectory("Projector Connector");
+                    //These are the original feature values.
+                    //They need to be transformed using the current UMAP transformation matrix
+                    trajectory.setStates(List.of(new double[]{p1.getX(), p1.getY(), p1.getZ()},
+                        new double[]{pn.node.getTranslateX(),
+                            pn.node.getTranslateY(), pn.node.getTranslateZ()}));
+                    projectorConnector = JavaFX3DUtils.buildPolyLineFromTrajectory(
+                        trajectory, 8.0f, trajectory.getColor(),
+                        trajectory.getStateCount(), trajectoryScale, sceneWidth, sceneHeight);
+                    extrasGroup.getChildren().add(projectorConnector);
+                    projectorConnector.setVisible(true);
                 }
-            } else {
-                projectorConnector.setVisible(false);
             }
-        });
+        } else {
+            projectorConnector.setVisible(false);
+        }
+    }
 
-        //Add click handler to popup callout or point distance measurements
-        sphere.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
-            if (e.getButton() == MouseButton.PRIMARY && !e.isControlDown())
-                radialOverlayPane.createCallout(sphere, featureVector, subScene);
-            else if ((e.getButton() == MouseButton.PRIMARY && e.isControlDown())
-                || (e.getButton() == MouseButton.PRIMARY && pointToPointDistanceMode)) {
-                processDistanceClick(sphere);
-            }
+    //Popup callout or point distance measurements
+    private void clickProjectedPoint(int index, MouseEvent e) {
+        if (e.getButton() == MouseButton.PRIMARY && !e.isControlDown() && !pointToPointDistanceMode)
+            radialOverlayPane.createCallout(anchorFor(index), pointCloud.getFeatureVector(index), subScene);
+        else if ((e.getButton() == MouseButton.PRIMARY && e.isControlDown())
+            || (e.getButton() == MouseButton.PRIMARY && pointToPointDistanceMode)) {
+            processDistanceClick(anchorFor(index));
+        }
 
+        if (e.getButton() == MouseButton.SECONDARY) {
             MenuItem orbitItem = new MenuItem("Orbit On Point");
-            orbitItem.setOnAction(o -> {
-                javafx.geometry.Point3D orbitPoint3D = new javafx.geometry.Point3D(
-                    sphere.getTranslateX(), sphere.getTranslateY(), sphere.getTranslateZ());
-                JavaFX3DUtils.orbitAt(camera, cameraTransform, orbitPoint3D, true);
-            });
+            orbitItem.setOnAction(o -> JavaFX3DUtils.orbitAt(camera, cameraTransform,
+                pointCloud.getPosition(index), true));
             ContextMenu cm = new ContextMenu(orbitItem);
             cm.setAutoFix(true);
             cm.setAutoHide(true);
             cm.setHideOnEscape(true);
             cm.setOpacity(0.85);
-
-            if (e.getButton() == MouseButton.SECONDARY) {
-                if (null != cm)
-                    if (!cm.isShowing())
-                        cm.show(this.getParent(), e.getScreenX(), e.getScreenY());
-                    else
-                        cm.hide();
-                e.consume();
-            }
-        });
-
-        featureVectors.add(featureVector);
+            cm.show(this.getParent(), e.getScreenX(), e.getScreenY());
+            e.consume(); //keeps the general scene context menu away
+        }
     }
 
     private void pointToManifold(Manifold3D manifold3D) {
@@ -2328,18 +2406,14 @@ public class Projections3DPane extends StackPane implements
         }
         //Build trajectory by 3D coordinate states
         Trajectory distanceTrajectory = new Trajectory("Distance Line");
-        distanceTrajectory.states.clear();
-        distanceTrajectory.states.add(
-            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()});
         //add midpoint so we can anchor a numeric distance label
         javafx.geometry.Point3D midpoint = distance.getPoint1().midpoint(distance.getPoint2());
-        distanceTrajectory.states.add(
-            new double[]{midpoint.getX(), midpoint.getY(), midpoint.getZ()});
-        distanceTrajectory.states.add(
-            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()});
-        distanceTrajectory.states.add(
+        distanceTrajectory.setStates(List.of(
+            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()},
+            new double[]{midpoint.getX(), midpoint.getY(), midpoint.getZ()},
+            new double[]{distance.getPoint1().getX(), distance.getPoint1().getY(), distance.getPoint1().getZ()},
             new double[]{distance.getPoint2().getX(), distance.getPoint2().getY(), distance.getPoint2().getZ()}
-        );
+        ));
         //Add 2D distance label overlay at midpoint
         Sphere midpointSphere = new Sphere(1);
 
@@ -2417,8 +2491,9 @@ public class Projections3DPane extends StackPane implements
     }
 
     public void trimQueueNow() {
-        while (featureVectors.size() > queueLimit) {
-            featureVectors.remove(0);
+        int excess = featureVectors.size() - queueLimit;
+        if (excess > 0) {
+            featureVectors.subList(0, excess).clear(); //one shift instead of one per element
         }
     }
 
@@ -2504,10 +2579,8 @@ public class Projections3DPane extends StackPane implements
 
     @Override
     public void setColorByIndex(int i, Color color) {
-        //I'm thinking this is the ugliest thing I've ever written
-        ((PhongMaterial) sphereToFeatureVectorMap.keySet()
-            .toArray(Sphere[]::new)[i]
-            .getMaterial()).setDiffuseColor(color);
+        if (i >= 0 && i < pointCloud.size())
+            pointCloud.setColor(i, color);
     }
 
     @Override
@@ -2654,21 +2727,11 @@ public class Projections3DPane extends StackPane implements
             double[][] transformInstances = new double[2][stateArray.length];
             System.arraycopy(stateArray, 0, transformInstances[0], 0, stateArray.length);
             System.arraycopy(stateArray, 0, transformInstances[1], 0, stateArray.length);
-            double[][] projections = latestUmap.transform(transformInstances);
-            FeatureVector projectedFV = FeatureVector.fromData(projections[0],
-                projections[0].length, 1.0);
-            projectedFV.setLayer(featureVector.getLayer());
-            projectedFV.setLabel(featureVector.getLabel());
-            projectedFV.setImageURL(featureVector.getImageURL());
-            projectedFV.setMediaURL(featureVector.getMediaURL());
-            projectedFV.setText(featureVector.getText());
-            //Convert projected point to sphere
-            //set color according to label and projection status
-            //add feature vector to sphere lookup
-            //add to scene in projected group
-            addProjectedFeatureVector(projectedFV);
-            return new Point3D(projectedFV.getData().get(0),
-                projectedFV.getData().get(1), projectedFV.getData().get(2));
+            double[][] projections;
+            synchronized (latestUmap) {
+                projections = latestUmap.transform(transformInstances);
+            }
+            return addProjection(featureVector, projections[0]);
 //@TODO SMP
 //            if in auto measurement mode, do distance check to all known manifolds
 //            update spark line views with distance and threshold checks
@@ -2677,10 +2740,92 @@ public class Projections3DPane extends StackPane implements
     }
 
 
+    private Point3D addProjection(FeatureVector featureVector, double[] projection) {
+        FeatureVector projectedFV = FeatureVector.fromData(projection,
+            projection.length, 1.0);
+        projectedFV.setLayer(featureVector.getLayer());
+        projectedFV.setLabel(featureVector.getLabel());
+        projectedFV.setImageURL(featureVector.getImageURL());
+        projectedFV.setMediaURL(featureVector.getMediaURL());
+        projectedFV.setText(featureVector.getText());
+        //Convert projected point to sphere
+        //set color according to label and projection status
+        //add feature vector to sphere lookup
+        //add to scene in projected group
+        addProjectedFeatureVector(projectedFV);
+        return new Point3D(projectedFV.getData().get(0),
+            projectedFV.getData().get(1),
+            projectedFV.getData().size() > 2 ? projectedFV.getData().get(2) : 0.0);
+    }
+
+    /**
+     * Streamed vectors are micro-batched against the latest fitted UMAP so
+     * high rate feeds are placed without one transform call per vector.
+     */
     @Override
     public void transformFeatureVector(FeatureVector featureVector) {
-        Point3D transformedPoint = projectVector(featureVector);
-        addProjectorNode(featureVector);
+        if (null == latestUmap || null == latestUmap.getmEmbedding()) {
+            addProjectorNode(featureVector);
+            return;
+        }
+        currentStreamingProjector().submit(featureVector);
+    }
+
+    /**
+     * Coalesced batches go straight into the streaming projector's queue, so a
+     * frame's worth of vectors is placed by one transform rather than one per event.
+     */
+    @Override
+    public void transformFeatureVectors(List<FeatureVector> batch) {
+        if (batch.isEmpty()) return;
+        if (null == latestUmap || null == latestUmap.getmEmbedding()) {
+            batch.forEach(this::addProjectorNode);
+            return;
+        }
+        StreamingUmapProjector projector = currentStreamingProjector();
+        batch.forEach(projector::submit);
+    }
+
+    private StreamingUmapProjector currentStreamingProjector() {
+        if (null == streamingProjector) {
+            long generation = streamGeneration;
+            streamingProjector = new StreamingUmapProjector(latestUmap, (batch, projections) ->
+                Platform.runLater(() -> {
+                    //batches still in flight when the projection was cleared are dropped
+                    if (generation == streamGeneration)
+                        addStreamedProjections(batch, projections);
+                }));
+            streamingProjector.start();
+        } else if (streamingProjector.getUmap() != latestUmap) {
+            streamingProjector.setUmap(latestUmap);
+        }
+        return streamingProjector;
+    }
+
+    /**
+     * Drops queued vectors and discards any batch already being transformed.
+     * The next streamed vector starts a fresh projector.
+     */
+    private void stopStreamingProjector() {
+        streamGeneration++;
+        if (null != streamingProjector) {
+            streamingProjector.stop();
+            streamingProjector = null;
+        }
+    }
+
+    private void addStreamedProjections(List<FeatureVector> batch, double[][] projections) {
+        Point3D transformedPoint = null;
+        for (int i = 0; i < batch.size(); i++) {
+            transformedPoint = addProjection(batch.get(i), projections[i]);
+            addProjectorNode(batch.get(i));
+        }
+        //only the most recent vector of a batch is announced and animated
+        FeatureVector featureVector = batch.get(batch.size() - 1);
+        animateTransformedPoint(featureVector, transformedPoint);
+    }
+
+    private void animateTransformedPoint(FeatureVector featureVector, Point3D transformedPoint) {
         if (animatingProjections && null != transformedPoint) {
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(new FeatureVectorEvent(
@@ -2874,15 +3019,10 @@ public class Projections3DPane extends StackPane implements
                         fv.setLabel(pointCluster.getClusterName());
                         fv.getData().addAll(p);
                         featureVectors.add(fv);
-                        PhongMaterial mat = new PhongMaterial(Color.ALICEBLUE);
-                        Sphere sphere = new AnimatedSphere(mat, point3dSize, 32, true);
-                        mat.setSpecularColor(Color.AQUA);
-                        sphere.setMaterial(mat);
-                        sphere.setTranslateX(fv.getData().get(0) * projectionScalar);
-                        sphere.setTranslateY(fv.getData().get(1) * -projectionScalar);
-                        sphere.setTranslateZ(fv.getData().get(2) * projectionScalar);
-                        ellipsoidGroup.getChildren().add(sphere);
-                        sphereToFeatureVectorMap.put(sphere, fv);
+                        pointCloud.add(fv.getData().get(0) * projectionScalar,
+                            fv.getData().get(1) * -projectionScalar,
+                            fv.getData().get(2) * projectionScalar,
+                            Color.ALICEBLUE, fv);
                     });
                 }
             });
@@ -10,9 +10,7 @@ import javafx.scene.paint.PhongMaterial;
 import org.fxyz3d.geometry.Point3D;
 import org.fxyz3d.shapes.composites.PolyLine3D;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
 
 /**
  * @author Sean Phillips
@@ -66,12 +64,4 @@ public class Trajectory3D extends PolyLine3D {
         return basePoly.points;
     }
 
-    private static Function<List<double[]>, List<Point3D>> statesToPoints = (states) -> {
-        List<Point3D> newList = new ArrayList<>();
-        for (double[] state : states) {
-            newList.add(new Point3D(state[0], state[1], state[2]));
-        }
-        return newList;
-    };
-
 }
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static edu.jhuapl.trinity.utils.Utils.totalTimeString;
 
@@ -32,7 +33,10 @@ import static edu.jhuapl.trinity.utils.Utils.totalTimeString;
  * - FORCE_FR (Fruchterman–Reingold 3D),
  * - or a static layout (CIRCLE_XZ/CIRCLE_XY/SPHERE).
  * <p>
- * Emits GraphEvent.NEW_GRAPHDIRECTED_COLLECTION on success.
+ * Emits GraphEvent.NEW_GRAPHDIRECTED_COLLECTION on success. For FORCE_FR with
+ * {@link GraphLayoutParams#reportEvery} set, also emits GraphEvent.GRAPH_LAYOUT_PROGRESS
+ * (positions, layout graph) while the layout converges; the layout graph is the
+ * same instance for every frame of one build.
  *
  * @author Sean Phillips
  */
@@ -91,6 +95,21 @@ public class BuildGraphFromMatrixTask extends Task<GraphDirectedCollection> {
             mds3d = new SuperMdsEmbedding3D(p);
         }
 
+        // Stream intermediate force layout positions so the renderer can animate convergence.
+        // A frame is dropped while the previous one is still waiting on the FX thread.
+        MatrixToGraphAdapter.LayoutProgress progress = null;
+        if (layoutParams.kind == GraphLayoutParams.LayoutKind.FORCE_FR && layoutParams.reportEvery > 0) {
+            AtomicBoolean framePending = new AtomicBoolean(false);
+            progress = (layoutGraph, iteration, positions) -> {
+                updateProgress(iteration, layoutParams.iterations);
+                if (!framePending.compareAndSet(false, true)) return;
+                Platform.runLater(() -> {
+                    framePending.set(false);
+                    scene.getRoot().fireEvent(new GraphEvent(GraphEvent.GRAPH_LAYOUT_PROGRESS, positions, layoutGraph));
+                });
+            };
+        }
+
         updateMessage("Building graph from matrix...");
         GraphDirectedCollection gc = MatrixToGraphAdapter.build(
             matrix,
@@ -98,7 +117,8 @@ public class BuildGraphFromMatrixTask extends Task<GraphDirectedCollection> {
             kind,
             layoutParams,
             weightMode,
-            mds3d
+            mds3d,
+            progress
         );
 
         String elapsed = totalTimeString(start);
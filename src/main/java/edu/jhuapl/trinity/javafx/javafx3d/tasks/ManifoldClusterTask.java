@@ -11,6 +11,7 @@ import edu.jhuapl.trinity.javafx.events.ApplicationEvent;
 import edu.jhuapl.trinity.javafx.events.CommandTerminalEvent;
 import edu.jhuapl.trinity.javafx.events.ManifoldEvent;
 import edu.jhuapl.trinity.javafx.javafx3d.Manifold3D;
+import edu.jhuapl.trinity.javafx.javafx3d.ProjectedPointCloud;
 import edu.jhuapl.trinity.utils.JavaFX3DUtils;
 import edu.jhuapl.trinity.utils.ResourceUtils;
 import javafx.application.Platform;
@@ -56,6 +57,7 @@ public class ManifoldClusterTask extends ClusterTask {
     private static final Logger LOG = LoggerFactory.getLogger(ManifoldClusterTask.class);
 
     HashMap<Sphere, FeatureVector> currentMap;
+    ProjectedPointCloud pointCloud = null;
     Polygon lassoPolygon;
     Boolean export = false;
     Boolean create = false;
@@ -135,6 +137,12 @@ public class ManifoldClusterTask extends ClusterTask {
         }
     }
 
+    public ManifoldClusterTask(Scene scene, PerspectiveCamera camera,
+                               ProjectedPointCloud pointCloud, Polygon lassoPolygon) {
+        this(scene, camera, (HashMap<Sphere, FeatureVector>) null, lassoPolygon);
+        this.pointCloud = pointCloud;
+    }
+
     @Override
     protected void processTask() throws Exception {
         Platform.runLater(() -> {
@@ -142,17 +150,23 @@ public class ManifoldClusterTask extends ClusterTask {
             scene.getRoot().fireEvent(
                 new ApplicationEvent(ApplicationEvent.SHOW_BUSY_INDICATOR, ps));
         });
-        List<Sphere> spheres = currentMap.keySet().stream().toList();
-        List<Integer> indices =
-            JavaFX3DUtils.performLassoSelection(lassoPolygon, spheres);
+        List<Sphere> spheres = null != pointCloud ? List.of()
+            : currentMap.keySet().stream().toList();
+        List<Integer> indices = null != pointCloud
+            ? pointCloud.lassoSelect(lassoPolygon)
+            : JavaFX3DUtils.performLassoSelection(lassoPolygon, spheres);
         //find all the point3Ds and featurevectors
         ArrayList<javafx.geometry.Point3D> manPoints = new ArrayList<>();
         List<Point3D> labelMatchedPoints = new ArrayList<>();
         List<FeatureVector> labelMatchedFeatureVectors = new ArrayList<>();
         for (int index : indices) {
-            javafx.geometry.Point3D p3D = JavaFX3DUtils.mapShape3DToPoint3D.apply(spheres.get(index));
+            javafx.geometry.Point3D p3D = null != pointCloud
+                ? pointCloud.getPosition(index)
+                : JavaFX3DUtils.mapShape3DToPoint3D.apply(spheres.get(index));
             manPoints.add(p3D);
-            FeatureVector fv = currentMap.get(spheres.get(index));
+            FeatureVector fv = null != pointCloud
+                ? pointCloud.getFeatureVector(index)
+                : currentMap.get(spheres.get(index));
             if (!filterByLabel || (null != fv && filterLabel.contentEquals(fv.getLabel()))) {
                 labelMatchedPoints.add(JavaFX3DUtils.toFXYZ3D.apply(p3D));
                 labelMatchedFeatureVectors.add(fv);
@@ -9,6 +9,7 @@ import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 import edu.jhuapl.trinity.javafx.components.radial.ProgressStatus;
 import edu.jhuapl.trinity.javafx.events.ApplicationEvent;
+import edu.jhuapl.trinity.utils.LandmarkMds;
 import edu.jhuapl.trinity.utils.ResourceUtils;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
@@ -109,52 +110,57 @@ public class ProjectMdsFeaturesTask extends Task {
         LOG.info("Preparing MDS Process...");
         long startTime = System.nanoTime();
         double[][] originalData = originalFC.convertFeaturesToArray();
-        double[][] weights = new double[originalData.length][originalData.length];
-        for (int i = 0; i < originalData.length; i++) {
-            Arrays.fill(weights[i], 1.0);
-        }
-        String totesTime = totalTimeString(startTime);
-        LOG.info(totesTime);
-        Platform.runLater(() -> {
-            scene.getRoot().fireEvent(new ApplicationEvent(
-                ApplicationEvent.SHOW_TEXT_CONSOLE, totesTime, true));
-        });
+        double[][] mdsEmbedding;
+        if (params.mode == SuperMDS.Mode.LANDMARK || originalData.length > LandmarkMds.MAX_FULL_MATRIX_POINTS) {
+            mdsEmbedding = runLandmarkMds(originalData);
+        } else {
+            double[][] weights = new double[originalData.length][originalData.length];
+            for (int i = 0; i < originalData.length; i++) {
+                Arrays.fill(weights[i], 1.0);
+            }
+            String totesTime = totalTimeString(startTime);
+            LOG.info(totesTime);
+            Platform.runLater(() -> {
+                scene.getRoot().fireEvent(new ApplicationEvent(
+                    ApplicationEvent.SHOW_TEXT_CONSOLE, totesTime, true));
+            });
 
-        LOG.info("Symmetrizing and Normalizing Matrix...");
-        startTime = System.nanoTime();
-        Platform.runLater(() -> {
-            ProgressStatus ps = new ProgressStatus("Symmetrizing and Normalizing Matrix...", 0.5);
-            ps.fillStartColor = Color.AZURE;
-            ps.fillEndColor = Color.LIME;
-            ps.innerStrokeColor = Color.AZURE;
-            ps.outerStrokeColor = Color.LIME;
-            scene.getRoot().fireEvent(
-                new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
-            scene.getRoot().fireEvent(new ApplicationEvent(
-                ApplicationEvent.SHOW_TEXT_CONSOLE, "Symmetrizing and Normalizing Matrix...", true));
-        });
-        double[][] symmetricDistanceMatrix = SuperMDS.ensureSymmetricDistanceMatrix(originalData);
-        double[][] normalizedDistanceMatrix = SuperMDSHelper.normalizeDistancesParallel(symmetricDistanceMatrix);
-        String totesTime2 = totalTimeString(startTime);
-        LOG.info(totesTime2);
-        Platform.runLater(() -> {
-            scene.getRoot().fireEvent(new ApplicationEvent(
-                ApplicationEvent.SHOW_TEXT_CONSOLE, totesTime2, true));
-            scene.getRoot().fireEvent(new ApplicationEvent(
-                ApplicationEvent.SHOW_TEXT_CONSOLE, "Running MDS: " + params.mode.name(), true));
-        });
-        LOG.info("Running MDS: " + params.mode.name());
-        startTime = System.nanoTime();
-        double[][] mdsEmbedding = SuperMDS.runMDS(normalizedDistanceMatrix, params);
-        String totesTime3 = totalTimeString(startTime);
-        LOG.info(totesTime3);
-        Platform.runLater(() -> {
-            scene.getRoot().fireEvent(new ApplicationEvent(
-                ApplicationEvent.SHOW_TEXT_CONSOLE, totesTime3, true));
-        });
+            LOG.info("Symmetrizing and Normalizing Matrix...");
+            startTime = System.nanoTime();
+            Platform.runLater(() -> {
+                ProgressStatus ps = new ProgressStatus("Symmetrizing and Normalizing Matrix...", 0.5);
+                ps.fillStartColor = Color.AZURE;
+                ps.fillEndColor = Color.LIME;
+                ps.innerStrokeColor = Color.AZURE;
+                ps.outerStrokeColor = Color.LIME;
+                scene.getRoot().fireEvent(
+                    new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
+                scene.getRoot().fireEvent(new ApplicationEvent(
+                    ApplicationEvent.SHOW_TEXT_CONSOLE, "Symmetrizing and Normalizing Matrix...", true));
+            });
+            double[][] symmetricDistanceMatrix = SuperMDS.ensureSymmetricDistanceMatrix(originalData);
+            double[][] normalizedDistanceMatrix = SuperMDSHelper.normalizeDistancesParallel(symmetricDistanceMatrix);
+            String totesTime2 = totalTimeString(startTime);
+            LOG.info(totesTime2);
+            Platform.runLater(() -> {
+                scene.getRoot().fireEvent(new ApplicationEvent(
+                    ApplicationEvent.SHOW_TEXT_CONSOLE, totesTime2, true));
+                scene.getRoot().fireEvent(new ApplicationEvent(
+                    ApplicationEvent.SHOW_TEXT_CONSOLE, "Running MDS: " + params.mode.name(), true));
+            });
+            LOG.info("Running MDS: " + params.mode.name());
+            startTime = System.nanoTime();
+            mdsEmbedding = SuperMDS.runMDS(normalizedDistanceMatrix, params);
+            String totesTime3 = totalTimeString(startTime);
+            LOG.info(totesTime3);
+            Platform.runLater(() -> {
+                scene.getRoot().fireEvent(new ApplicationEvent(
+                    ApplicationEvent.SHOW_TEXT_CONSOLE, totesTime3, true));
+            });
 
-        if (isComputeMetrics()) {
-            computeStressMetrics(normalizedDistanceMatrix, weights, mdsEmbedding);
+            if (isComputeMetrics()) {
+                computeStressMetrics(normalizedDistanceMatrix, weights, mdsEmbedding);
+            }
         }
         Platform.runLater(() -> {
             ProgressStatus ps = new ProgressStatus("Converting to FeatureCollection...", 0.5);
@@ -184,6 +190,40 @@ public class ProjectMdsFeaturesTask extends Task {
         return projectedFC;
     }
 
+    /**
+     * Landmark MDS straight from the feature rows; only N x L distances are held.
+     */
+    private double[][] runLandmarkMds(double[][] originalData) {
+        int landmarks = params.mode == SuperMDS.Mode.LANDMARK
+            ? Math.max(params.numLandmarks, params.outputDim + 1)
+            : Math.max(params.numLandmarks, LandmarkMds.DEFAULT_LANDMARKS);
+        String message = "Running Landmark MDS: " + originalData.length
+            + " points, " + landmarks + " landmarks";
+        LOG.info(message);
+        Platform.runLater(() -> {
+            ProgressStatus ps = new ProgressStatus("Running Landmark MDS...", -1);
+            ps.fillStartColor = Color.AZURE;
+            ps.fillEndColor = Color.LIME;
+            ps.innerStrokeColor = Color.AZURE;
+            ps.outerStrokeColor = Color.LIME;
+            scene.getRoot().fireEvent(
+                new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
+            scene.getRoot().fireEvent(new ApplicationEvent(
+                ApplicationEvent.SHOW_TEXT_CONSOLE, message, true));
+        });
+        long startTime = System.nanoTime();
+        LandmarkMds.Result result = new LandmarkMds(params.outputDim, landmarks)
+            .embed(LandmarkMds.euclidean(originalData));
+        String summary = String.format("%s%nLandmarks used: %d%nSampled stress-1: %.6f",
+            totalTimeString(startTime), result.landmarks().length, result.stress());
+        LOG.info(summary);
+        Platform.runLater(() -> {
+            scene.getRoot().fireEvent(new ApplicationEvent(
+                ApplicationEvent.SHOW_TEXT_CONSOLE, summary, true));
+        });
+        return result.embedding();
+    }
+
     private void computeStressMetrics(double[][] normalizedDistanceMatrix, double[][] weights, double[][] embeddings) {
         Platform.runLater(() -> {
             ProgressStatus ps = new ProgressStatus("Computing Error and Stress Metrics...", 0.5);
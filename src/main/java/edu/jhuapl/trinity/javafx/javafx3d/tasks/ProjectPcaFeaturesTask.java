@@ -91,13 +91,12 @@ public class ProjectPcaFeaturesTask extends Task {
                 new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
         });
 
-        double[][] featureArray = originalFC.getFeatures().stream()
-            .map(FeatureVector.mapToStateArray)
-            .toArray(double[][]::new);
-        LOG.info("featureArray sizes: {} {}", featureArray.length, featureArray[0].length);
+        int featureCount = originalFC.getFeatures().size();
+        int featureWidth = FeatureVector.mapToStateArray.apply(originalFC.getFeatures().get(0)).length;
+        LOG.info("featureArray sizes: {} {}", featureCount, featureWidth);
 
         int start = config.startIndex;
-        if (start < 0 || start >= featureArray.length) {
+        if (start < 0 || start >= featureCount) {
             LOG.info("PCA Start index no bueno... setting to Zero.");
             start = 0;
         }
@@ -109,14 +108,12 @@ public class ProjectPcaFeaturesTask extends Task {
             end = originalFC.getFeatures().size() - 1;
         }
 
-        int truncSize = featureArray[0].length;
+        int truncSize = featureWidth;
         double[][] truncArray = originalFC.getFeatures().stream()
             .skip(start).limit(end)
             .map((FeatureVector t) -> {
                 double[] states = new double[truncSize];
-                for (int i = 0; i < truncSize && i < states.length; i++) {
-                    states[i] = t.getData().get(i);
-                }
+                t.getData().copyInto(states, 0);
                 return states;
             })
             .toArray(double[][]::new);
@@ -125,10 +122,12 @@ public class ProjectPcaFeaturesTask extends Task {
         LOG.info("PCA... ");
         long startTime = System.nanoTime();
         double[][] pcaProjection = null;
+        //only the requested axes are computed; no D x D covariance
+        int components = Math.max(1, Math.min(config.pcaDimensions, truncSize));
         if (config.method == AnalysisUtils.ANALYSIS_METHOD.SVD)
-            pcaProjection = AnalysisUtils.doCommonsSVD(truncArray);
+            pcaProjection = AnalysisUtils.doRandomizedSVD(truncArray, components);
         else
-            pcaProjection = AnalysisUtils.doCommonsPCA(truncArray);
+            pcaProjection = AnalysisUtils.doRandomizedPCA(truncArray, components);
         Utils.printTotalTime(startTime);
 
         LOG.info("mapping projected PCA data back to FeatureVectors...");
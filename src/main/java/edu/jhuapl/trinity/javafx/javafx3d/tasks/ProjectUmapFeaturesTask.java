@@ -97,7 +97,9 @@ public class ProjectUmapFeaturesTask extends Task {
                 new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
         });
         Thread.sleep(Duration.ofSeconds(1));
-        double[][] umapMatrix = AnalysisUtils.fitUMAP(originalFC, umap);
+        //lock-free parallel layout for this fit only, unless the caller asked for more threads
+        int layoutThreads = Math.max(umap.getThreads(), Runtime.getRuntime().availableProcessors());
+        double[][] umapMatrix = AnalysisUtils.fitUMAP(originalFC, umap, layoutThreads);
         Platform.runLater(() -> {
             ProgressStatus ps = new ProgressStatus("Converting to FeatureCollection...", 0.5);
             ps.fillStartColor = Color.CYAN;
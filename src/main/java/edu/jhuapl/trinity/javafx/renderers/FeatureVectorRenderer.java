@@ -14,6 +14,11 @@ public interface FeatureVectorRenderer {
 
     public void addFeatureVector(FeatureVector featureVector);
 
+    /**
+     * Adds a micro-batch of streamed vectors with a single view refresh.
+     */
+    public void addFeatureVectors(List<FeatureVector> featureVectors);
+
     public List<FeatureVector> getAllFeatureVectors();
 
     public void locateFeatureVector(FeatureVector featureVector);
@@ -2,12 +2,14 @@ package edu.jhuapl.trinity.javafx.renderers;
 
 import edu.jhuapl.trinity.data.graph.GraphDirectedCollection;
 import edu.jhuapl.trinity.data.graph.GraphEdge;
+import edu.jhuapl.trinity.data.graph.GraphIndex;
 import edu.jhuapl.trinity.data.graph.GraphNode;
 import edu.jhuapl.trinity.javafx.events.GraphEvent;
 import edu.jhuapl.trinity.javafx.javafx3d.animated.AnimatedSphere;
 import edu.jhuapl.trinity.javafx.javafx3d.animated.Tracer;
 import edu.jhuapl.trinity.utils.JavaFX3DUtils;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.PhongMaterial;
@@ -122,24 +124,7 @@ public final class Graph3DRenderer {
             Point3D pa = JavaFX3DUtils.getGraphNodePoint3D(a.get(), p.positionScalar);
             Point3D pb = JavaFX3DUtils.getGraphNodePoint3D(b.get(), p.positionScalar);
             Color ec = (ge.getColor() != null) ? Color.valueOf(ge.getColor()) : edgeDefault;
-            Tracer t = new Tracer(pa, pb, p.edgeWidth, ec);
-            t.setUserData(ge);
-
-            // --- Inspect events
-            t.setOnMouseMoved(e -> {
-                Scene sc = t.getScene();
-                if (sc != null && sc.getRoot() != null) {
-                    sc.getRoot().fireEvent(new GraphEvent(GraphEvent.GRAPH_EDGE_HOVER, ge));
-                }
-            });
-            t.setOnMouseClicked(e -> {
-                Scene sc = t.getScene();
-                if (sc != null && sc.getRoot() != null) {
-                    sc.getRoot().fireEvent(new GraphEvent(GraphEvent.GRAPH_EDGE_CLICK, ge));
-                }
-            });
-
-            edges.add(t);
+            edges.add(buildEdge(ge, pa, pb, p.edgeWidth, ec));
         }
 
         root.getChildren().addAll(nodes);
@@ -147,4 +132,100 @@ public final class Graph3DRenderer {
         return root;
     }
 
+    /**
+     * Move the nodes of a group built by {@link #buildGraphGroup} to intermediate
+     * layout positions (e.g. force layout progress) without touching the graph itself.
+     * Edges are hidden rather than re-strung each frame; rendering the finished
+     * graph builds them at their final positions.
+     *
+     * @param root      group returned by buildGraphGroup for this graph
+     * @param graph     the graph the group was built from
+     * @param positions double[n][3] positions in node order
+     * @param params    the renderer params used to build the group
+     */
+    public static void updateNodePositions(Group root, GraphDirectedCollection graph,
+                                           double[][] positions, Params params) {
+        if (root == null || graph == null || positions == null
+            || positions.length != graph.getNodes().size()) {
+            return;
+        }
+        Params p = (params != null) ? params : new Params();
+        GraphIndex index = graph.getIndex();
+        for (Node child : root.getChildren()) {
+            if (child instanceof AnimatedSphere s && s.getUserData() instanceof GraphNode gN) {
+                int i = index.indexOf(gN);
+                if (i >= 0) {
+                    s.setTranslateX(positions[i][0] * p.positionScalar);
+                    s.setTranslateY(positions[i][1] * p.positionScalar);
+                    s.setTranslateZ(positions[i][2] * p.positionScalar);
+                }
+            } else if (child instanceof Tracer t && t.isVisible()) {
+                t.setVisible(false);
+            }
+        }
+    }
+
+    /**
+     * Scale a node and its direct neighbors up so they stand out. Spheres are found by
+     * node index (buildGraphGroup adds them first, in node order), so this is O(degree).
+     *
+     * @param root  group returned by buildGraphGroup
+     * @param index the graph's adjacency index
+     * @param node  node index to highlight
+     * @param scale scale applied to the node and its neighbors
+     * @return the scaled spheres, for {@link #clearHighlight(List)}
+     */
+    public static List<Node> highlightNeighbors(Group root, GraphIndex index, int node, double scale) {
+        List<Node> scaled = new ArrayList<>();
+        if (root == null || index == null || node < 0 || node >= index.size()) return scaled;
+        List<Node> children = root.getChildren();
+        if (children.size() < index.size()) return scaled;
+        scaleSphere(children.get(node), scale * 1.25, scaled);
+        for (int k = index.neighborsStart(node); k < index.neighborsEnd(node); k++) {
+            scaleSphere(children.get(index.neighborAt(k)), scale, scaled);
+        }
+        return scaled;
+    }
+
+    /**
+     * Undo {@link #highlightNeighbors}.
+     */
+    public static void clearHighlight(List<Node> highlighted) {
+        for (Node n : highlighted) {
+            n.setScaleX(1.0);
+            n.setScaleY(1.0);
+            n.setScaleZ(1.0);
+        }
+        highlighted.clear();
+    }
+
+    private static void scaleSphere(Node n, double scale, List<Node> scaled) {
+        if (n instanceof AnimatedSphere) {
+            n.setScaleX(scale);
+            n.setScaleY(scale);
+            n.setScaleZ(scale);
+            scaled.add(n);
+        }
+    }
+
+    private static Tracer buildEdge(GraphEdge ge, Point3D pa, Point3D pb, float width, Color ec) {
+        Tracer t = new Tracer(pa, pb, width, ec);
+        t.setUserData(ge);
+
+        // --- Inspect events
+        t.setOnMouseMoved(e -> {
+            Scene sc = t.getScene();
+            if (sc != null && sc.getRoot() != null) {
+                sc.getRoot().fireEvent(new GraphEvent(GraphEvent.GRAPH_EDGE_HOVER, ge));
+            }
+        });
+        t.setOnMouseClicked(e -> {
+            Scene sc = t.getScene();
+            if (sc != null && sc.getRoot() != null) {
+                sc.getRoot().fireEvent(new GraphEvent(GraphEvent.GRAPH_EDGE_CLICK, ge));
+            }
+        });
+        return t;
+    }
+
 }
@@ -20,6 +20,8 @@ public interface ManifoldRenderer {
 
     public void transformFeatureVector(FeatureVector featureVector);
 
+    public void transformFeatureVectors(List<FeatureVector> featureVectors);
+
     public void clearAllManifolds();
 
     public void addManifold(Manifold manifold, Manifold3D manifold3D);
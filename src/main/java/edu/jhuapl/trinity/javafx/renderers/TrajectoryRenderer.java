@@ -1,7 +1,10 @@
 package edu.jhuapl.trinity.javafx.renderers;
 
+import edu.jhuapl.trinity.data.Trajectory;
 import edu.jhuapl.trinity.javafx.javafx3d.Trajectory3D;
+import edu.jhuapl.trinity.utils.JavaFX3DUtils;
 import javafx.scene.Group;
+import javafx.scene.paint.Color;
 
 /**
  * @author Sean Phillips
@@ -11,6 +14,20 @@ public interface TrajectoryRenderer {
 
     public void addTrajectoryGroup(Group newTrajGroup, Group newTrajPointGroup);
 
+    /**
+     * Renders the t0..t1 window of a trajectory from its store, decimated so no
+     * dropped state is further than maxError scene units from the drawn line.
+     */
+    public default Trajectory3D addTrajectory(Group trajGroup, Group pointGroup, Trajectory trajectory,
+                                              float width, Color color, double t0, double t1,
+                                              double maxError, double scale) {
+        Trajectory3D trajectory3D = JavaFX3DUtils.buildPolyLineFromTrajectory(
+            trajectory, width, color, t0, t1, maxError, scale);
+        if (null != trajectory3D)
+            addTrajectory(trajGroup, pointGroup, trajectory3D);
+        return trajectory3D;
+    }
+
     //    public Trajectory
     public void clearTrajectories();
 }
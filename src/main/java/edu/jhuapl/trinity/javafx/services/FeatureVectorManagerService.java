@@ -2,6 +2,7 @@ package edu.jhuapl.trinity.javafx.services;
 
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ObservableList;
 import javafx.event.EventTarget;
@@ -9,6 +10,7 @@ import javafx.event.EventTarget;
 import java.io.File;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Central manager API for FeatureVectors grouped as named collections.
@@ -46,6 +48,23 @@ public interface FeatureVectorManagerService {
      */
     StringProperty textFilterProperty();
 
+    /**
+     * Number of vectors that passed the filter and sampling, which can exceed the
+     * displayed list when the view of a large collection is capped.
+     */
+    ReadOnlyIntegerProperty matchingCountProperty();
+
+    /**
+     * Status line for the displayed list, noting when it shows fewer vectors than matched.
+     */
+    default String displayedSummary() {
+        int shown = getDisplayedVectors().size();
+        int matching = matchingCountProperty().get();
+        return matching > shown
+            ? "Showing first " + shown + " of " + matching + " vectors (display limit)."
+            : "Showing " + shown + " vectors.";
+    }
+
     /**
      * Convenience setter for the text filter.
      */
@@ -54,19 +73,27 @@ public interface FeatureVectorManagerService {
     }
 
     /**
-     * Add a new collection (or replace existing if same name), selecting it active.
+     * Add a new collection under a unique name derived from proposedName, selecting it active.
+     * The vectors are snapshotted before returning, so the caller may reuse its list.
+     *
+     * @return completes with the collection name once the vectors are stored; do not block
+     * the FX thread on it, since disk-backed repositories finish there
      */
-    void addCollection(String proposedName, List<FeatureVector> vectors);
+    CompletableFuture<String> addCollection(String proposedName, List<FeatureVector> vectors);
 
     /**
-     * Append vectors to the currently active collection.
+     * Append vectors to the collection active when this is called (creating one if none is).
+     *
+     * @return completes with the collection name once the vectors are stored
      */
-    void appendVectorsToActive(List<FeatureVector> vectors);
+    CompletableFuture<String> appendVectorsToActive(List<FeatureVector> vectors);
 
     /**
-     * Replace the vectors in the currently active collection.
+     * Replace the vectors in the collection active when this is called.
+     *
+     * @return completes with the collection name once the vectors are stored
      */
-    void replaceActiveVectors(List<FeatureVector> vectors);
+    CompletableFuture<String> replaceActiveVectors(List<FeatureVector> vectors);
 
     /**
      * Rename a collection.
@@ -132,6 +159,13 @@ public interface FeatureVectorManagerService {
         applyAllToWorkspace(false);
     }
 
+    /**
+     * Exact content fingerprint of a collection, maintained as it is edited;
+     * stable across sessions, so it can key a DensityCache (datasetId).
+     * Returns null for unknown collections.
+     */
+    String getFingerprint(String collectionName);
+
     /**
      * Optional: Where events should be fired (e.g., scene.getRoot()).
      */
@@ -4,8 +4,11 @@ import edu.jhuapl.trinity.data.files.FeatureCollectionFile;
 import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 import edu.jhuapl.trinity.javafx.events.FeatureVectorEvent;
+import edu.jhuapl.trinity.utils.statistics.DatasetFingerprint;
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -17,33 +20,76 @@ import javafx.scene.Scene;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * In-memory implementation; keeps a map of named collections and exposes a sampled/filtered "displayed" list.
+ * Keeps named collections in a {@link FeatureVectorRepository} and exposes a sampled/filtered "displayed" list.
+ * Copy/view semantics (deep copies in memory, shared segments on disk) are left to the repository.
+ * <p>
+ * A {@link DatasetFingerprint} per collection is updated alongside every mutation made through this
+ * service, so {@link #getFingerprint(String)} is O(1). Collections this service has not seen being
+ * built (e.g. reopened from a mapped store) are fingerprinted by a parallel full scan on first request.
+ * <p>
+ * Adding, replacing and appending vectors snapshot the caller's list and choose the target collection
+ * before returning. Repositories that write to disk then stage and fingerprint the rows on a background
+ * thread, and only the cheap bookkeeping is marshalled back to the FX thread; in-memory repositories
+ * do it all right away. The displayed list is filtered and sampled on the background thread; for a
+ * disk-backed repository it holds at most {@link #MAX_DISPLAYED_ON_DISK} vectors, and
+ * {@link #matchingCountProperty()} tells the view how many matched.
  */
 public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerService {
+    /**
+     * Rows of a disk-backed collection materialized for the table at most.
+     */
+    public static final int MAX_DISPLAYED_ON_DISK = 50_000;
 
-    private final ObservableList<String> collectionNames = FXCollections.observableArrayList();
-    private final Map<String, List<FeatureVector>> collections = new LinkedHashMap<>();
+    private final FeatureVectorRepository repository;
+    private final ObservableList<String> collectionNames;
     private final StringProperty activeCollectionName = new SimpleStringProperty();
     private final ObservableList<FeatureVector> displayedVectors = FXCollections.observableArrayList();
     private final ObjectProperty<SamplingMode> samplingMode = new SimpleObjectProperty<>(SamplingMode.ALL);
     private final StringProperty textFilter = new SimpleStringProperty("");
+    private final ReadOnlyIntegerWrapper matchingCount = new ReadOnlyIntegerWrapper(0);
+    private final Map<String, DatasetFingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "feature-vector-manager");
+        t.setDaemon(true);
+        return t;
+    });
+    private long displayGeneration;
+    // guarded by this: names handed out but not yet in the repository, and the
+    // collection that is active as of the latest call (ahead of activeCollectionName)
+    private final Set<String> reservedNames = new HashSet<>();
+    private String targetActive;
+    private boolean applyingActive; // FX thread
 
     // we store the target as Node or Scene to be able to call fireEvent
     private Node eventNode;
     private Scene eventScene;
 
-    public FeatureVectorManagerServiceImpl(InMemoryFeatureVectorRepository ignoredRepo) {
+    public FeatureVectorManagerServiceImpl(FeatureVectorRepository repository) {
+        this.repository = repository;
+        this.collectionNames = repository.getCollectionNames();
         // keep displayedVectors in sync whenever active name, sampling mode, or filter changes
-        activeCollectionName.addListener((obs, o, n) -> refreshDisplayedFromActive());
+        activeCollectionName.addListener((obs, o, n) -> {
+            if (!applyingActive) {
+                synchronized (this) {
+                    targetActive = n;
+                }
+            }
+            refreshDisplayedFromActive();
+        });
         samplingMode.addListener((obs, o, n) -> refreshDisplayedFromActive());
         textFilter.addListener((obs, o, n) -> refreshDisplayedFromActive());
     }
@@ -74,36 +120,60 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
     }
 
     @Override
-    public void addCollection(String proposedName, List<FeatureVector> vectors) {
-        if (vectors == null) vectors = List.of();
-        final String clean = FeatureVectorUtils.cleanName(proposedName);
-        final String name = uniquify(clean);
-        final List<FeatureVector> payload = FeatureVectorUtils.copyVectors(vectors);
+    public ReadOnlyIntegerProperty matchingCountProperty() {
+        return matchingCount.getReadOnlyProperty();
+    }
 
-        runFx(() -> {
-            collections.put(name, payload);
-            if (!collectionNames.contains(name)) collectionNames.add(name);
-            activeCollectionName.set(name);
-            refreshDisplayedFromActive();
+    @Override
+    public CompletableFuture<String> addCollection(String proposedName, List<FeatureVector> vectors) {
+        final List<FeatureVector> payload = vectors == null ? List.of() : List.copyOf(vectors);
+        final String name;
+        synchronized (this) {
+            name = reserveName(FeatureVectorUtils.cleanName(proposedName));
+            targetActive = name;
+        }
+        return store(null, name, payload, (staged, fp) -> {
+            repository.put(name, staged);
+            fingerprints.put(name, fp);
+            activate(name);
         });
     }
 
     @Override
-    public void appendVectorsToActive(List<FeatureVector> vectors) {
-        if (vectors == null || vectors.isEmpty()) return;
-        runFx(() -> {
-            String name = ensureActiveCollection();
-            collections.computeIfAbsent(name, k -> new ArrayList<>()).addAll(FeatureVectorUtils.copyVectors(vectors));
-            refreshDisplayedFromActive();
+    public CompletableFuture<String> appendVectorsToActive(List<FeatureVector> vectors) {
+        final List<FeatureVector> payload = vectors == null ? List.of() : List.copyOf(vectors);
+        final String name;
+        final boolean create;
+        synchronized (this) {
+            create = targetActive == null;
+            if (create) targetActive = reserveName("Collection");
+            name = targetActive;
+        }
+        if (payload.isEmpty() && !create) return CompletableFuture.completedFuture(name);
+        return store(name, name, payload, (staged, delta) -> {
+            boolean existed = repository.contains(name);
+            repository.append(name, staged);
+            DatasetFingerprint fp = fingerprints.get(name);
+            if (!existed) fingerprints.put(name, delta);
+            else if (fp != null) fp.merge(delta);
+            if (create) activate(name);
         });
     }
 
     @Override
-    public void replaceActiveVectors(List<FeatureVector> vectors) {
-        runFx(() -> {
-            String name = ensureActiveCollection();
-            collections.put(name, FeatureVectorUtils.copyVectors(vectors == null ? List.of() : vectors));
-            refreshDisplayedFromActive();
+    public CompletableFuture<String> replaceActiveVectors(List<FeatureVector> vectors) {
+        final List<FeatureVector> payload = vectors == null ? List.of() : List.copyOf(vectors);
+        final String name;
+        final boolean create;
+        synchronized (this) {
+            create = targetActive == null;
+            if (create) targetActive = reserveName("Collection");
+            name = targetActive;
+        }
+        return store(null, name, payload, (staged, fp) -> {
+            repository.put(name, staged);
+            fingerprints.put(name, fp);
+            if (create) activate(name);
         });
     }
 
@@ -112,11 +182,10 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
         if (oldName == null || newName == null) return;
         final String cleanNew = uniquify(FeatureVectorUtils.cleanName(newName));
         runFx(() -> {
-            List<FeatureVector> existing = collections.remove(oldName);
-            if (existing == null) return;
-            collections.put(cleanNew, existing);
-            int idx = collectionNames.indexOf(oldName);
-            if (idx >= 0) collectionNames.set(idx, cleanNew);
+            if (!repository.contains(oldName)) return;
+            repository.rename(oldName, cleanNew);
+            DatasetFingerprint fp = fingerprints.remove(oldName);
+            if (fp != null) fingerprints.put(cleanNew, fp);
             if (Objects.equals(activeCollectionName.get(), oldName)) {
                 activeCollectionName.set(cleanNew);
             }
@@ -126,15 +195,13 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
 
     @Override
     public String duplicateCollection(String sourceName, String proposedName) {
-        if (sourceName == null) return null;
-        List<FeatureVector> src = collections.get(sourceName);
-        if (src == null) return null;
+        if (sourceName == null || !repository.contains(sourceName)) return null;
         final String newName = uniquify(FeatureVectorUtils.cleanName(
             (proposedName == null || proposedName.isBlank()) ? ("Copy of " + sourceName) : proposedName));
-        final List<FeatureVector> payload = FeatureVectorUtils.copyVectors(src);
         runFx(() -> {
-            collections.put(newName, payload);
-            collectionNames.add(newName);
+            repository.duplicate(sourceName, newName);
+            DatasetFingerprint fp = fingerprints.get(sourceName);
+            if (fp != null) fingerprints.put(newName, fp.copy());
             activeCollectionName.set(newName);
             refreshDisplayedFromActive();
         });
@@ -145,13 +212,14 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
     public void deleteCollection(String name) {
         if (name == null) return;
         runFx(() -> {
-            collections.remove(name);
-            collectionNames.remove(name);
+            repository.remove(name);
+            fingerprints.remove(name);
             if (Objects.equals(activeCollectionName.get(), name)) {
                 if (!collectionNames.isEmpty()) {
                     activeCollectionName.set(collectionNames.get(0));
                 } else {
                     activeCollectionName.set(null);
+                    ++displayGeneration;
                     displayedVectors.clear();
                 }
             } else {
@@ -164,25 +232,10 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
     public void mergeInto(String targetName, String sourceName, boolean dedupByEntityId) {
         if (targetName == null || sourceName == null) return;
         runFx(() -> {
-            List<FeatureVector> tgt = collections.computeIfAbsent(targetName, k -> new ArrayList<>());
-            List<FeatureVector> src = collections.getOrDefault(sourceName, List.of());
-            if (src.isEmpty()) return;
-
-            if (dedupByEntityId) {
-                Set<String> existingIds = tgt.stream()
-                    .map(FeatureVector::getEntityId)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toCollection(LinkedHashSet::new));
-                for (FeatureVector fv : src) {
-                    String id = fv.getEntityId();
-                    if (id == null || !existingIds.contains(id)) {
-                        tgt.add(FeatureVectorUtils.cloneVector(fv));
-                        if (id != null) existingIds.add(id);
-                    }
-                }
-            } else {
-                tgt.addAll(FeatureVectorUtils.copyVectors(src));
-            }
+            if (repository.get(sourceName).isEmpty()) return;
+            int before = repository.contains(targetName) ? repository.get(targetName).size() : 0;
+            repository.merge(targetName, sourceName, dedupByEntityId);
+            trackAppended(targetName, before);
             refreshDisplayedFromActive();
         });
     }
@@ -190,10 +243,10 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
     @Override
     public void exportCollection(String name, File file, ExportFormat format) throws Exception {
         if (name == null || file == null || format == null) return;
-        List<FeatureVector> src = collections.getOrDefault(name, List.of());
+        List<FeatureVector> src = repository.get(name);
         if (format == ExportFormat.JSON) {
             FeatureCollection fc = new FeatureCollection();
-            fc.setFeatures(FeatureVectorUtils.copyVectors(src));
+            fc.setFeatures(src);
             FeatureCollectionFile out = new FeatureCollectionFile(file.getAbsolutePath(), false);
             out.featureCollection = fc;
             out.writeContent();
@@ -207,17 +260,19 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
         if (toRemove == null || toRemove.isEmpty()) return;
         runFx(() -> {
             String name = activeCollectionName.get();
-            if (name == null) return;
-            List<FeatureVector> list = collections.get(name);
-            if (list == null) return;
+            if (name == null || !repository.contains(name)) return;
             Set<String> ids = toRemove.stream()
                 .map(FeatureVector::getEntityId)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
+            DatasetFingerprint fp = fingerprints.get(name);
             if (!ids.isEmpty()) {
-                list.removeIf(fv -> fv.getEntityId() != null && ids.contains(fv.getEntityId()));
+                if (fp != null) fp.removeAll(repository.get(name).stream()
+                    .filter(fv -> fv.getEntityId() != null && ids.contains(fv.getEntityId())).toList());
+                repository.removeEntityIds(name, ids);
             } else {
-                list.removeAll(toRemove);
+                if (fp != null) fp.removeAll(repository.get(name).stream().filter(toRemove::contains).toList());
+                repository.removeIf(name, toRemove::contains);
             }
             refreshDisplayedFromActive();
         });
@@ -230,10 +285,9 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
             String target = (collectionNames.contains(targetCollection))
                 ? targetCollection
                 : uniquify(targetCollection);
-            collections.computeIfAbsent(target, k -> {
-                if (!collectionNames.contains(target)) collectionNames.add(target);
-                return new ArrayList<>();
-            }).addAll(FeatureVectorUtils.copyVectors(toCopy));
+            int before = repository.contains(target) ? repository.get(target).size() : 0;
+            repository.append(target, toCopy);
+            trackAppended(target, before);
             refreshDisplayedFromActive();
         });
     }
@@ -243,15 +297,8 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
         if (targets == null || targets.isEmpty()) return;
         runFx(() -> {
             String name = activeCollectionName.get();
-            if (name == null) return;
-            List<FeatureVector> list = collections.get(name);
-            if (list == null) return;
-            Set<String> ids = targets.stream().map(FeatureVector::getEntityId).filter(Objects::nonNull).collect(Collectors.toSet());
-            for (FeatureVector fv : list) {
-                if ((fv.getEntityId() != null && ids.contains(fv.getEntityId())) || targets.contains(fv)) {
-                    fv.setLabel(newLabel);
-                }
-            }
+            if (name == null || !repository.contains(name)) return;
+            editTargets(name, targets, fv -> fv.setLabel(newLabel));
             refreshDisplayedFromActive();
         });
     }
@@ -261,17 +308,12 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
         if (targets == null || targets.isEmpty() || kv == null || kv.isEmpty()) return;
         runFx(() -> {
             String name = activeCollectionName.get();
-            if (name == null) return;
-            List<FeatureVector> list = collections.get(name);
-            if (list == null) return;
-            Set<String> ids = targets.stream().map(FeatureVector::getEntityId).filter(Objects::nonNull).collect(Collectors.toSet());
-            for (FeatureVector fv : list) {
-                if ((fv.getEntityId() != null && ids.contains(fv.getEntityId())) || targets.contains(fv)) {
-                    if (fv.getMetaData() != null) {
-                        kv.forEach((k, v) -> fv.getMetaData().put(k, v));
-                    }
+            if (name == null || !repository.contains(name)) return;
+            editTargets(name, targets, fv -> {
+                if (fv.getMetaData() != null) {
+                    kv.forEach((k, v) -> fv.getMetaData().put(k, v));
                 }
-            }
+            });
             refreshDisplayedFromActive();
         });
     }
@@ -280,12 +322,11 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
     public void applyActiveToWorkspace(boolean replace) {
         runFx(() -> {
             String name = activeCollectionName.get();
-            List<FeatureVector> active = (name == null) ? List.of()
-                : collections.getOrDefault(name, List.of());
+            List<FeatureVector> active = (name == null) ? List.of() : repository.get(name);
             if (active == null || active.isEmpty()) return;
 
             var fc = new FeatureCollection();
-            fc.setFeatures(active);
+            fc.setFeatures(new ArrayList<>(active));
 
             var evt = new FeatureVectorEvent(
                 FeatureVectorEvent.NEW_FEATURE_COLLECTION,
@@ -293,6 +334,7 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
             );
             evt.object2 = MANAGER_APPLY_TAG;   // guard against re-mirroring
             evt.clearExisting = replace;       // replace vs. append
+            evt.datasetFingerprint = getFingerprint(name);
 
             if (eventNode != null) eventNode.fireEvent(evt);
             else if (eventScene != null) eventScene.getRoot().fireEvent(evt);
@@ -303,7 +345,14 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
     public void applyAllToWorkspace(boolean replace) {
         runFx(() -> {
             List<FeatureVector> all = new ArrayList<>();
-            collections.values().forEach(all::addAll);
+            // fingerprints are multiset sums, so the union's is the sum of the collections'
+            DatasetFingerprint union = new DatasetFingerprint();
+            for (String n : collectionNames) {
+                all.addAll(repository.get(n));
+                DatasetFingerprint fp = fingerprints.get(n);
+                if (fp == null) union = null;
+                else if (union != null) union.merge(fp);
+            }
             var fc = new FeatureCollection();
             fc.setFeatures(all);
 
@@ -313,12 +362,24 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
             );
             evt.object2 = MANAGER_APPLY_TAG;   // guard against re-mirroring
             evt.clearExisting = replace;       // replace vs. append
+            evt.datasetFingerprint = (union == null) ? null : union.toString();
 
             if (eventNode != null) eventNode.fireEvent(evt);
             else if (eventScene != null) eventScene.getRoot().fireEvent(evt);
         });
     }
 
+    @Override
+    public String getFingerprint(String collectionName) {
+        if (collectionName == null) return null;
+        DatasetFingerprint fp = fingerprints.get(collectionName);
+        if (fp == null) {
+            if (!repository.contains(collectionName)) return null;
+            fp = fingerprints.computeIfAbsent(collectionName, n -> DatasetFingerprint.of(repository.get(n)));
+        }
+        return fp.toString();
+    }
+
     @Override
     public void setEventTarget(EventTarget target) {
         if (target instanceof Node n) {
@@ -334,46 +395,139 @@ public class FeatureVectorManagerServiceImpl implements FeatureVectorManagerServ
     }
 
     // ---------- internals ----------
+
+    /**
+     * Called on the FX thread. Snapshots the active collection here and filters/samples it on the
+     * worker; a newer refresh supersedes one still in flight.
+     */
     private void refreshDisplayedFromActive() {
         String name = activeCollectionName.get();
-        List<FeatureVector> src = (name == null) ? List.of() : collections.getOrDefault(name, List.of());
-
+        List<FeatureVector> src = (name == null) ? List.of() : repository.snapshot(name);
         // normalize the query once
-        String q = edu.jhuapl.trinity.javafx.services.FeatureVectorUtils.normalize(textFilter.get());
-
-        // filter by label/text/metadata if query present
-        List<FeatureVector> filtered = (q == null || q.isEmpty())
-            ? src
-            : src.stream()
-            .filter(fv -> edu.jhuapl.trinity.javafx.services.FeatureVectorUtils.matchesTextFilter(fv, q))
-            .collect(java.util.stream.Collectors.toList());
-
-        // then apply sampling
-        List<FeatureVector> sampled =
-            edu.jhuapl.trinity.javafx.services.FeatureVectorUtils.applySampling(filtered, samplingMode.get());
-
-        displayedVectors.setAll(sampled);
+        String q = FeatureVectorUtils.normalize(textFilter.get());
+        SamplingMode mode = samplingMode.get();
+        long generation = ++displayGeneration;
+
+        worker.execute(() -> {
+            // filter by label/text/metadata if query present
+            List<FeatureVector> filtered = (q == null || q.isEmpty())
+                ? src
+                : src.stream()
+                .filter(fv -> FeatureVectorUtils.matchesTextFilter(fv, q))
+                .collect(Collectors.toList());
+
+            // then apply sampling; rows of a disk-backed collection are only materialized up to the cap
+            List<FeatureVector> sampled = FeatureVectorUtils.applySampling(filtered, mode);
+            int limit = repository.stagesToDisk() ? MAX_DISPLAYED_ON_DISK : Integer.MAX_VALUE;
+            List<FeatureVector> shown = new ArrayList<>(sampled.subList(0, Math.min(sampled.size(), limit)));
+            int matching = sampled.size();
+            Platform.runLater(() -> {
+                if (generation != displayGeneration) return;
+                matchingCount.set(matching);
+                displayedVectors.setAll(shown);
+            });
+        });
     }
 
-    private String uniquify(String base) {
+    private synchronized String uniquify(String base) {
         String b = (base == null || base.isBlank()) ? "Collection" : base.trim();
         String name = b;
         int i = 2;
-        while (collectionNames.contains(name)) {
+        while (collectionNames.contains(name) || reservedNames.contains(name)) {
             name = b + "-" + i++;
         }
         return name;
     }
 
-    private String ensureActiveCollection() {
-        String name = activeCollectionName.get();
-        if (name == null) {
-            name = uniquify("Collection");
-            collections.put(name, new ArrayList<>());
-            collectionNames.add(name);
+    /**
+     * A unique name that later calls will not hand out again until it is stored or released.
+     */
+    private synchronized String reserveName(String base) {
+        String name = uniquify(base);
+        reservedNames.add(name);
+        return name;
+    }
+
+    private synchronized void releaseName(String name) {
+        reservedNames.remove(name);
+    }
+
+    /**
+     * Stages the payload and fingerprints it, on the worker when the repository writes to disk and
+     * here otherwise, then applies the staged rows on the FX thread. Calls are applied in order.
+     *
+     * @return completes with name after apply has run
+     */
+    private CompletableFuture<String> store(String stageHint, String name, List<FeatureVector> payload,
+                                            BiConsumer<List<FeatureVector>, DatasetFingerprint> apply) {
+        CompletableFuture<String> done = new CompletableFuture<>();
+        Runnable stageAndApply = () -> {
+            try {
+                List<FeatureVector> staged = repository.stage(stageHint, payload);
+                DatasetFingerprint fp = DatasetFingerprint.of(payload);
+                runFx(() -> {
+                    try {
+                        apply.accept(staged, fp);
+                        refreshDisplayedFromActive();
+                        done.complete(name);
+                    } catch (RuntimeException ex) {
+                        done.completeExceptionally(ex);
+                    } finally {
+                        releaseName(name);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                releaseName(name);
+                done.completeExceptionally(ex);
+            }
+        };
+        if (repository.stagesToDisk()) worker.execute(stageAndApply);
+        else stageAndApply.run();
+        return done;
+    }
+
+    private void activate(String name) {
+        applyingActive = true;
+        try {
             activeCollectionName.set(name);
+        } finally {
+            applyingActive = false;
+        }
+    }
+
+    /**
+     * Edits matching vectors by entityId when the targets carry IDs, otherwise by instance.
+     */
+    private void editTargets(String name, List<FeatureVector> targets, Consumer<FeatureVector> edit) {
+        DatasetFingerprint fp = fingerprints.get(name);
+        if (fp != null) {
+            // edits normally touch only labels/metadata, but keep the fingerprint exact if one rewrites data
+            Consumer<FeatureVector> inner = edit;
+            edit = fv -> {
+                fp.remove(fv);
+                inner.accept(fv);
+                fp.add(fv);
+            };
+        }
+        Set<String> ids = targets.stream().map(FeatureVector::getEntityId).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!ids.isEmpty()) {
+            repository.updateEntityIds(name, ids, edit);
+        } else {
+            repository.update(name, targets::contains, edit);
+        }
+    }
+
+    /**
+     * Adds the vectors appended to a collection since it held {@code before} vectors.
+     */
+    private void trackAppended(String name, int before) {
+        DatasetFingerprint fp = fingerprints.get(name);
+        if (fp == null && before == 0) {
+            fingerprints.put(name, DatasetFingerprint.of(repository.get(name)));
+        } else if (fp != null) {
+            List<FeatureVector> all = repository.get(name);
+            fp.addAll(all.subList(Math.min(before, all.size()), all.size()));
         }
-        return name;
     }
 
     private static void runFx(Runnable r) {
@@ -3,7 +3,14 @@ package edu.jhuapl.trinity.javafx.services;
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public interface FeatureVectorRepository {
     ObservableList<String> getCollectionNames();
@@ -17,4 +24,133 @@ public interface FeatureVectorRepository {
     List<FeatureVector> get(String name);
 
     void clear();
+
+    /**
+     * Does the expensive part of storing vectors (copying them, or writing them
+     * to disk) without touching the collection names, so it can run off the FX
+     * thread. {@link #put} and {@link #append} take the result without redoing
+     * that work.
+     *
+     * @param name    collection the vectors will be appended to, or null for a new collection
+     * @param vectors vectors to store
+     */
+    default List<FeatureVector> stage(String name, List<FeatureVector> vectors) {
+        return FeatureVectorUtils.copyVectors(vectors == null ? List.of() : vectors);
+    }
+
+    /**
+     * Whether {@link #stage} writes to disk and is worth running off the calling thread.
+     */
+    default boolean stagesToDisk() {
+        return false;
+    }
+
+    /**
+     * A list of the collection as it is now that later mutations do not affect,
+     * safe to read from another thread.
+     */
+    default List<FeatureVector> snapshot(String name) {
+        return new ArrayList<>(get(name));
+    }
+
+    /**
+     * Append vectors to a collection, creating it if missing.
+     */
+    default void append(String name, List<FeatureVector> vectors) {
+        if (name == null || vectors == null) return;
+        List<FeatureVector> all = new ArrayList<>(get(name));
+        all.addAll(vectors);
+        put(name, all);
+    }
+
+    /**
+     * Rename a collection, keeping its position in the name list.
+     */
+    default void rename(String oldName, String newName) {
+        if (oldName == null || newName == null || !contains(oldName)) return;
+        List<FeatureVector> existing = get(oldName);
+        int idx = getCollectionNames().indexOf(oldName);
+        put(newName, existing);
+        remove(oldName);
+        ObservableList<String> names = getCollectionNames();
+        if (idx >= 0 && idx < names.size() && names.remove(newName)) names.add(idx, newName);
+    }
+
+    /**
+     * Create targetName holding the same vectors as sourceName.
+     */
+    default void duplicate(String sourceName, String targetName) {
+        if (sourceName == null || targetName == null || !contains(sourceName)) return;
+        put(targetName, get(sourceName));
+    }
+
+    /**
+     * Append the vectors of sourceName to targetName. Optionally skip source vectors
+     * whose entityId already exists in the target (null IDs are always appended).
+     */
+    default void merge(String targetName, String sourceName, boolean dedupByEntityId) {
+        if (targetName == null || sourceName == null) return;
+        List<FeatureVector> src = get(sourceName);
+        if (src.isEmpty()) return;
+        if (!dedupByEntityId) {
+            append(targetName, src);
+            return;
+        }
+        Set<String> existingIds = get(targetName).stream()
+            .map(FeatureVector::getEntityId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<FeatureVector> toAdd = new ArrayList<>();
+        for (FeatureVector fv : src) {
+            String id = fv.getEntityId();
+            if (id == null || existingIds.add(id)) toAdd.add(fv);
+        }
+        append(targetName, toAdd);
+    }
+
+    /**
+     * Create targetName from the vectors at the given positions of sourceName.
+     */
+    default void sample(String sourceName, String targetName, int[] positions) {
+        if (sourceName == null || targetName == null || positions == null) return;
+        List<FeatureVector> src = get(sourceName);
+        List<FeatureVector> out = new ArrayList<>(positions.length);
+        for (int p : positions) out.add(src.get(p));
+        put(targetName, out);
+    }
+
+    /**
+     * Remove every vector of the collection matching the filter.
+     */
+    default void removeIf(String name, Predicate<FeatureVector> filter) {
+        if (name == null || filter == null || !contains(name)) return;
+        List<FeatureVector> kept = new ArrayList<>(get(name));
+        if (kept.removeIf(filter)) put(name, kept);
+    }
+
+    /**
+     * Remove every vector of the collection whose entityId is in ids.
+     */
+    default void removeEntityIds(String name, Set<String> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        removeIf(name, fv -> fv.getEntityId() != null && ids.contains(fv.getEntityId()));
+    }
+
+    /**
+     * Apply an in-place edit (label/metadata) to every vector of the collection matching the filter.
+     */
+    default void update(String name, Predicate<FeatureVector> filter, Consumer<FeatureVector> edit) {
+        if (name == null || filter == null || edit == null) return;
+        for (FeatureVector fv : get(name)) {
+            if (filter.test(fv)) edit.accept(fv);
+        }
+    }
+
+    /**
+     * Apply an in-place edit (label/metadata) to every vector of the collection whose entityId is in ids.
+     */
+    default void updateEntityIds(String name, Set<String> ids, Consumer<FeatureVector> edit) {
+        if (ids == null || ids.isEmpty()) return;
+        update(name, fv -> fv.getEntityId() != null && ids.contains(fv.getEntityId()), edit);
+    }
 }
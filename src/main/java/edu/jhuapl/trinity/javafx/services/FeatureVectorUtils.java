@@ -235,15 +235,20 @@ public final class FeatureVectorUtils {
                 return all.subList(n - k, n);
             case RANDOM_1000:
                 if (n <= k) return all;
+                //partial Fisher-Yates over indices; only k vectors are touched,
+                //which matters when the source is a lazily materialized view
                 ThreadLocalRandom rnd = ThreadLocalRandom.current();
-                ArrayList<FeatureVector> copy = new ArrayList<>(all);
-                for (int i = n - 1; i > 0; i--) {
-                    int j = rnd.nextInt(i + 1);
-                    var tmp = copy.get(i);
-                    copy.set(i, copy.get(j));
-                    copy.set(j, tmp);
+                int[] idx = new int[n];
+                for (int i = 0; i < n; i++) idx[i] = i;
+                ArrayList<FeatureVector> picked = new ArrayList<>(k);
+                for (int i = 0; i < k; i++) {
+                    int j = i + rnd.nextInt(n - i);
+                    int tmp = idx[i];
+                    idx[i] = idx[j];
+                    idx[j] = tmp;
+                    picked.add(all.get(idx[i]));
                 }
-                return copy.subList(0, k);
+                return picked;
             default:
                 return all;
         }
@@ -9,7 +9,11 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
+/**
+ * Heap backed repository. Vectors are deep copied on the way in so collections never share instances.
+ */
 public class InMemoryFeatureVectorRepository implements FeatureVectorRepository {
     private final Map<String, List<FeatureVector>> map = new LinkedHashMap<>();
     private final ObservableList<String> collectionNames = FXCollections.observableArrayList();
@@ -19,10 +23,25 @@ public class InMemoryFeatureVectorRepository implements FeatureVectorRepository
         return collectionNames;
     }
 
+    /**
+     * Copies made by {@link #stage}, owned by the repository from then on.
+     */
+    private static final class Staged extends ArrayList<FeatureVector> {
+        Staged(List<FeatureVector> copies) {
+            super(copies);
+        }
+    }
+
+    @Override
+    public List<FeatureVector> stage(String name, List<FeatureVector> vectors) {
+        return new Staged(FeatureVectorUtils.copyVectors(vectors == null ? List.of() : vectors));
+    }
+
     @Override
     public void put(String name, List<FeatureVector> vectors) {
         if (name == null) return;
-        map.put(name, (vectors == null) ? new ArrayList<>() : new ArrayList<>(vectors));
+        map.put(name, (vectors == null) ? new ArrayList<>()
+            : new ArrayList<>(vectors instanceof Staged ? vectors : FeatureVectorUtils.copyVectors(vectors)));
         if (!collectionNames.contains(name)) collectionNames.add(name);
     }
 
@@ -48,4 +67,32 @@ public class InMemoryFeatureVectorRepository implements FeatureVectorRepository
         map.clear();
         collectionNames.clear();
     }
+
+    @Override
+    public void append(String name, List<FeatureVector> vectors) {
+        if (name == null || vectors == null) return;
+        List<FeatureVector> copies = vectors instanceof Staged ? vectors : FeatureVectorUtils.copyVectors(vectors);
+        map.computeIfAbsent(name, k -> {
+            if (!collectionNames.contains(k)) collectionNames.add(k);
+            return new ArrayList<>();
+        }).addAll(copies);
+    }
+
+    @Override
+    public void rename(String oldName, String newName) {
+        if (oldName == null || newName == null || !map.containsKey(oldName)) return;
+        Map<String, List<FeatureVector>> reordered = new LinkedHashMap<>();
+        map.forEach((k, v) -> reordered.put(k.equals(oldName) ? newName : k, v));
+        map.clear();
+        map.putAll(reordered);
+        int idx = collectionNames.indexOf(oldName);
+        if (idx >= 0) collectionNames.set(idx, newName);
+        else collectionNames.add(newName);
+    }
+
+    @Override
+    public void removeIf(String name, Predicate<FeatureVector> filter) {
+        List<FeatureVector> list = map.get(name);
+        if (list != null && filter != null) list.removeIf(filter);
+    }
 }
@@ -0,0 +1,272 @@
+package edu.jhuapl.trinity.javafx.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.jhuapl.trinity.data.messages.xai.PrimitiveDoubleList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only, fixed capacity block of feature vectors on disk.
+ * <p>
+ * Components are stored as float32, column-major: dimension d occupies
+ * capacity consecutive floats, so a whole column is one contiguous read and
+ * a row is a strided gather. The column file is memory-mapped in chunks of
+ * whole columns (each chunk under 2 GB). Labels, entityIds and the remaining
+ * per-row attributes (JSON) live in append-only string side tables.
+ * <p>
+ * The number of committed rows is recovered from the entityId index on open,
+ * so a store needs no separate row count and a torn append is discarded.
+ * Appends are serialized; reads of committed rows are lock free.
+ */
+final class MappedFeatureStore implements Closeable {
+    static final String INFO_FILE = "store.json";
+    static final String COLUMN_FILE = "columns.f32";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    record StoreInfo(int dims, int capacity) {
+    }
+
+    final String id;
+    final Path dir;
+    final int dims;
+    final int capacity;
+    private final FileChannel columnChannel;
+    private final MappedByteBuffer[] chunks;
+    private final int columnsPerChunk;
+    private final StringColumn labels;
+    private final StringColumn attributes;
+    private final StringColumn entityIds; //appended last, commits the row
+    private volatile int size;
+
+    private MappedFeatureStore(String id, Path dir, int dims, int capacity) throws IOException {
+        this.id = id;
+        this.dir = dir;
+        this.dims = dims;
+        this.capacity = capacity;
+        long columnBytes = (long) capacity * Float.BYTES;
+        if (columnBytes > Integer.MAX_VALUE)
+            throw new IOException("Store capacity too large for a single mapped column: " + capacity);
+        columnChannel = FileChannel.open(dir.resolve(COLUMN_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        columnsPerChunk = (int) Math.max(1, Integer.MAX_VALUE / Math.max(1, columnBytes));
+        int chunkCount = (dims + columnsPerChunk - 1) / columnsPerChunk;
+        chunks = new MappedByteBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            int cols = Math.min(columnsPerChunk, dims - c * columnsPerChunk);
+            MappedByteBuffer chunk = columnChannel.map(FileChannel.MapMode.READ_WRITE,
+                (long) c * columnsPerChunk * columnBytes, cols * columnBytes);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            chunks[c] = chunk;
+        }
+        labels = new StringColumn(dir, "label");
+        attributes = new StringColumn(dir, "attributes");
+        entityIds = new StringColumn(dir, "entity");
+        int committed = (int) Math.min(capacity, entityIds.count());
+        labels.truncate(committed);
+        attributes.truncate(committed);
+        entityIds.truncate(committed);
+        size = committed;
+    }
+
+    static MappedFeatureStore create(Path dir, String id, int dims, int capacity) throws IOException {
+        Files.createDirectories(dir);
+        MAPPER.writeValue(dir.resolve(INFO_FILE).toFile(), new StoreInfo(dims, capacity));
+        return new MappedFeatureStore(id, dir, dims, capacity);
+    }
+
+    static MappedFeatureStore open(Path dir, String id) throws IOException {
+        StoreInfo info = MAPPER.readValue(dir.resolve(INFO_FILE).toFile(), StoreInfo.class);
+        return new MappedFeatureStore(id, dir, info.dims(), info.capacity());
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size >= capacity;
+    }
+
+    /**
+     * Appends one row and returns its index.
+     */
+    synchronized int append(List<Double> data, String label, String entityId, String attributesJson) throws IOException {
+        if (isFull()) throw new IOException("Store " + id + " is full");
+        int row = size;
+        PrimitiveDoubleList primitive = data instanceof PrimitiveDoubleList p ? p : null;
+        int n = Math.min(dims, data == null ? 0 : data.size());
+        for (int d = 0; d < dims; d++) {
+            float v = d >= n ? 0f : (float) (primitive != null ? primitive.getDouble(d) : data.get(d));
+            chunks[d / columnsPerChunk].putFloat(offset(d, row), v);
+        }
+        labels.append(label);
+        attributes.append(attributesJson);
+        entityIds.append(entityId);
+        size = row + 1;
+        return row;
+    }
+
+    float get(int row, int dim) {
+        return chunks[dim / columnsPerChunk].getFloat(offset(dim, row));
+    }
+
+    /**
+     * Gathers one row into out (length dims).
+     */
+    void readRow(int row, float[] out) {
+        for (int d = 0; d < dims; d++) {
+            out[d] = chunks[d / columnsPerChunk].getFloat(offset(d, row));
+        }
+    }
+
+    /**
+     * Gathers rows [from, from + out.length) into out, one column at a time so
+     * each chunk is walked sequentially.
+     */
+    void readRows(int from, float[][] out) {
+        for (int d = 0; d < dims; d++) {
+            MappedByteBuffer chunk = chunks[d / columnsPerChunk];
+            int base = offset(d, from);
+            for (int r = 0; r < out.length; r++) {
+                out[r][d] = chunk.getFloat(base + r * Float.BYTES);
+            }
+        }
+    }
+
+    /**
+     * Copies rows [from, to) of one column into out starting at outOffset.
+     */
+    void readColumn(int dim, int from, int to, double[] out, int outOffset) {
+        MappedByteBuffer chunk = chunks[dim / columnsPerChunk];
+        int base = offset(dim, 0);
+        for (int r = from; r < to; r++) {
+            out[outOffset++] = chunk.getFloat(base + r * Float.BYTES);
+        }
+    }
+
+    String label(int row) throws IOException {
+        return labels.get(row);
+    }
+
+    String entityId(int row) throws IOException {
+        return entityIds.get(row);
+    }
+
+    String attributes(int row) throws IOException {
+        return attributes.get(row);
+    }
+
+    void force() throws IOException {
+        for (MappedByteBuffer chunk : chunks) chunk.force();
+        labels.force();
+        attributes.force();
+        entityIds.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        columnChannel.close();
+        labels.close();
+        attributes.close();
+        entityIds.close();
+    }
+
+    private int offset(int dim, int row) {
+        return ((dim % columnsPerChunk) * capacity + row) * Float.BYTES;
+    }
+
+    /**
+     * Append-only UTF-8 string table: an index of long start offsets (count + 1
+     * entries, first is 0) and a data file. Each entry has a one byte null flag.
+     */
+    private static final class StringColumn implements Closeable {
+        private final FileChannel index;
+        private final FileChannel data;
+        private long dataEnd;
+
+        StringColumn(Path dir, String name) throws IOException {
+            index = FileChannel.open(dir.resolve(name + ".idx"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            data = FileChannel.open(dir.resolve(name + ".dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (index.size() < Long.BYTES) {
+                writeLong(0, 0L);
+            }
+        }
+
+        long count() {
+            try {
+                return index.size() / Long.BYTES - 1;
+            } catch (IOException ex) {
+                return 0;
+            }
+        }
+
+        void truncate(int rows) throws IOException {
+            dataEnd = readLong((long) rows * Long.BYTES);
+            index.truncate((long) (rows + 1) * Long.BYTES);
+            data.truncate(dataEnd);
+        }
+
+        void append(String value) throws IOException {
+            byte[] bytes = null == value ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buf = ByteBuffer.allocate(bytes.length + 1);
+            buf.put((byte) (null == value ? 0 : 1)).put(bytes).flip();
+            long pos = dataEnd;
+            while (buf.hasRemaining()) pos += data.write(buf, pos);
+            dataEnd = pos;
+            writeLong(index.size(), dataEnd);
+        }
+
+        String get(int row) throws IOException {
+            ByteBuffer span = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(index, span, (long) row * Long.BYTES);
+            long start = span.getLong(0);
+            long end = span.getLong(Long.BYTES);
+            ByteBuffer buf = ByteBuffer.allocate((int) (end - start));
+            readFully(data, buf, start);
+            if (buf.capacity() == 0 || buf.get(0) == 0) return null;
+            return new String(buf.array(), 1, buf.capacity() - 1, StandardCharsets.UTF_8);
+        }
+
+        void force() throws IOException {
+            data.force(false);
+            index.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            index.close();
+            data.close();
+        }
+
+        private long readLong(long position) throws IOException {
+            ByteBuffer buf = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(index, buf, position);
+            return buf.getLong(0);
+        }
+
+        private void writeLong(long position, long value) throws IOException {
+            ByteBuffer buf = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putLong(value).flip();
+            while (buf.hasRemaining()) position += index.write(buf, position);
+        }
+
+        private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+            while (buf.hasRemaining()) {
+                int n = channel.read(buf, position + buf.position());
+                if (n < 0) throw new IOException("Unexpected end of string table");
+            }
+        }
+    }
+}
@@ -0,0 +1,926 @@
+package edu.jhuapl.trinity.javafx.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import edu.jhuapl.trinity.data.messages.xai.PrimitiveDoubleList;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Disk backed repository for large collections.
+ * <p>
+ * Vectors are written once into append-only {@link MappedFeatureStore} blocks
+ * (float32, column-major, memory-mapped, with label/entityId/attribute side
+ * tables). A named collection is only a list of segments over those blocks,
+ * either a row range or a row index file, plus a small overlay of label and
+ * metadata edits. Duplicate, merge, sample and remove therefore build new
+ * segment lists instead of copying vectors, and {@link #get(String)} returns
+ * a read-only list that materializes a FeatureVector per access, so heap use
+ * does not grow with the number or size of collections.
+ * <p>
+ * The segment catalog is persisted as JSON under the root directory; reopening
+ * a repository reads the catalog and maps blocks lazily on first access.
+ * Methods are synchronized; the name list should be observed on the FX thread
+ * like the other repositories. Views handed out by {@link #get(String)} or
+ * {@link #stage} pin their blocks, so a block is only closed and deleted once
+ * no collection and no reachable list refers to it.
+ */
+public class MappedFeatureVectorRepository implements FeatureVectorRepository, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFeatureVectorRepository.class);
+    public static final String CATALOG_FILE = "catalog.json";
+    private static final String STORES_DIR = "stores";
+    private static final String ROWS_DIR = "rows";
+    private static final int APPEND_CAPACITY = 4096;
+    private static final long SAVE_DELAY_MS = 250;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final TypeReference<LinkedHashMap<String, String>> META_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Rows of one store: a range [start, end) or an explicit row index file.
+     */
+    record Segment(String store, int start, int end, String rowsFile, IntBuffer rows) {
+        int size() {
+            return rows == null ? end - start : rows.limit();
+        }
+
+        int row(int i) {
+            return rows == null ? start + i : rows.get(i);
+        }
+    }
+
+    record RowKey(String store, int row) {
+    }
+
+    record RowEdit(String label, Map<String, String> metaData) {
+    }
+
+    /**
+     * Immutable description of one collection.
+     */
+    static final class View {
+        final List<Segment> segments;
+        final Map<RowKey, RowEdit> edits;
+        final int[] offsets; //offsets[i] = first position of segments[i]
+        final int size;
+
+        View(List<Segment> segments, Map<RowKey, RowEdit> edits) {
+            this.segments = List.copyOf(segments);
+            this.edits = Collections.unmodifiableMap(new HashMap<>(edits));
+            offsets = new int[this.segments.size()];
+            long total = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = (int) total;
+                total += this.segments.get(i).size();
+            }
+            if (total > Integer.MAX_VALUE) throw new IllegalStateException("Collection exceeds 2^31 vectors");
+            size = (int) total;
+        }
+
+        static final View EMPTY = new View(List.of(), Map.of());
+
+        int segmentOf(int position) {
+            int lo = 0, hi = offsets.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (offsets[mid] <= position) lo = mid;
+                else hi = mid - 1;
+            }
+            return lo;
+        }
+    }
+
+    private final Path root;
+    private final Map<String, MappedFeatureStore> openStores = new HashMap<>();
+    private final Map<String, View> views = new LinkedHashMap<>();
+    private final Set<View> pinned = Collections.newSetFromMap(new WeakHashMap<>());
+    private final ObservableList<String> collectionNames = FXCollections.observableArrayList();
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "feature-store-catalog");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> pendingSave;
+
+    /**
+     * Opens (or creates) a repository rooted at the given directory.
+     */
+    public MappedFeatureVectorRepository(Path root) throws IOException {
+        this.root = root;
+        Files.createDirectories(root.resolve(STORES_DIR));
+        Files.createDirectories(root.resolve(ROWS_DIR));
+        loadCatalog();
+        deleteUnreferenced();
+    }
+
+    @Override
+    public synchronized ObservableList<String> getCollectionNames() {
+        return collectionNames;
+    }
+
+    @Override
+    public synchronized void put(String name, List<FeatureVector> vectors) {
+        if (name == null) return;
+        View view = (vectors instanceof MappedList mapped && mapped.owner() == this)
+            ? mapped.view
+            : appendRows(View.EMPTY, vectors == null ? List.of() : vectors);
+        setView(name, view);
+        collectGarbage();
+    }
+
+    @Override
+    public boolean stagesToDisk() {
+        return true;
+    }
+
+    /**
+     * Writes the vectors to disk now. For an append the rows extend the
+     * collection's last block when it owns it, so streamed batches stay
+     * contiguous; the returned list holds only the new rows.
+     */
+    @Override
+    public synchronized List<FeatureVector> stage(String name, List<FeatureVector> vectors) {
+        if (vectors instanceof MappedList mapped && mapped.owner() == this) return mapped;
+        View current = name == null ? View.EMPTY : views.getOrDefault(name, View.EMPTY);
+        View extended = appendRows(current, vectors == null ? List.of() : vectors);
+        return new MappedList(rowsFrom(extended, current.size));
+    }
+
+    @Override
+    public synchronized List<FeatureVector> snapshot(String name) {
+        return get(name);
+    }
+
+    @Override
+    public synchronized void remove(String name) {
+        if (name == null || views.remove(name) == null) return;
+        collectionNames.remove(name);
+        scheduleSave();
+        collectGarbage();
+    }
+
+    @Override
+    public synchronized boolean contains(String name) {
+        return views.containsKey(name);
+    }
+
+    @Override
+    public synchronized List<FeatureVector> get(String name) {
+        View view = views.get(name);
+        return view == null ? Collections.emptyList() : new MappedList(view);
+    }
+
+    @Override
+    public synchronized void clear() {
+        views.clear();
+        collectionNames.clear();
+        scheduleSave();
+        collectGarbage();
+    }
+
+    @Override
+    public synchronized void append(String name, List<FeatureVector> vectors) {
+        if (name == null || vectors == null) return;
+        View current = views.getOrDefault(name, View.EMPTY);
+        View next;
+        if (vectors instanceof MappedList mapped && mapped.owner() == this) {
+            next = concat(current, mapped.view);
+        } else {
+            next = appendRows(current, vectors);
+        }
+        setView(name, next);
+    }
+
+    @Override
+    public synchronized void rename(String oldName, String newName) {
+        if (oldName == null || newName == null || !views.containsKey(oldName)) return;
+        Map<String, View> reordered = new LinkedHashMap<>();
+        views.forEach((k, v) -> reordered.put(k.equals(oldName) ? newName : k, v));
+        views.clear();
+        views.putAll(reordered);
+        int idx = collectionNames.indexOf(oldName);
+        if (idx >= 0) collectionNames.set(idx, newName);
+        else collectionNames.add(newName);
+        scheduleSave();
+    }
+
+    @Override
+    public synchronized void duplicate(String sourceName, String targetName) {
+        View src = views.get(sourceName);
+        if (src == null || targetName == null) return;
+        setView(targetName, src);
+    }
+
+    @Override
+    public synchronized void merge(String targetName, String sourceName, boolean dedupByEntityId) {
+        if (targetName == null || sourceName == null) return;
+        View src = views.get(sourceName);
+        if (src == null || src.size == 0) return;
+        View tgt = views.getOrDefault(targetName, View.EMPTY);
+        if (!dedupByEntityId) {
+            setView(targetName, concat(tgt, src));
+            return;
+        }
+        Set<String> seen = new HashSet<>();
+        forEachRow(tgt, (store, row) -> {
+            String id = store.entityId(row);
+            if (id != null) seen.add(id);
+            return true;
+        });
+        View kept = filterRows(src, (store, row) -> {
+            String id = store.entityId(row);
+            return id == null || seen.add(id);
+        });
+        setView(targetName, concat(tgt, kept));
+    }
+
+    @Override
+    public synchronized void sample(String sourceName, String targetName, int[] positions) {
+        View src = views.get(sourceName);
+        if (src == null || targetName == null || positions == null) return;
+        List<Segment> segments = new ArrayList<>();
+        Map<RowKey, RowEdit> edits = new HashMap<>();
+        int[] rows = new int[positions.length];
+        int runStart = 0;
+        while (runStart < positions.length) {
+            //group consecutive positions that fall in the same store
+            Segment first = src.segments.get(src.segmentOf(positions[runStart]));
+            int runEnd = runStart;
+            while (runEnd < positions.length) {
+                int p = positions[runEnd];
+                int s = src.segmentOf(p);
+                Segment seg = src.segments.get(s);
+                if (!seg.store().equals(first.store())) break;
+                rows[runEnd - runStart] = seg.row(p - src.offsets[s]);
+                runEnd++;
+            }
+            int[] run = Arrays.copyOf(rows, runEnd - runStart);
+            segments.addAll(compress(first.store(), run));
+            for (int r : run) {
+                RowEdit edit = src.edits.get(new RowKey(first.store(), r));
+                if (edit != null) edits.put(new RowKey(first.store(), r), edit);
+            }
+            runStart = runEnd;
+        }
+        setView(targetName, new View(segments, edits));
+    }
+
+    @Override
+    public synchronized void removeIf(String name, Predicate<FeatureVector> filter) {
+        View view = views.get(name);
+        if (view == null || filter == null) return;
+        View kept = filterRows(view, (store, row) -> !filter.test(materialize(view, store, row)));
+        if (kept.size != view.size) {
+            setView(name, kept);
+            collectGarbage();
+        }
+    }
+
+    @Override
+    public synchronized void removeEntityIds(String name, Set<String> ids) {
+        View view = views.get(name);
+        if (view == null || ids == null || ids.isEmpty()) return;
+        View kept = filterRows(view, (store, row) -> {
+            String id = store.entityId(row);
+            return id == null || !ids.contains(id);
+        });
+        if (kept.size != view.size) {
+            setView(name, kept);
+            collectGarbage();
+        }
+    }
+
+    @Override
+    public synchronized void update(String name, Predicate<FeatureVector> filter, Consumer<FeatureVector> edit) {
+        View view = views.get(name);
+        if (view == null || filter == null || edit == null) return;
+        applyEdits(name, view, (store, row) -> true, filter, edit);
+    }
+
+    @Override
+    public synchronized void updateEntityIds(String name, Set<String> ids, Consumer<FeatureVector> edit) {
+        View view = views.get(name);
+        if (view == null || ids == null || ids.isEmpty() || edit == null) return;
+        //only rows whose entityId matches are materialized
+        applyEdits(name, view, (store, row) -> ids.contains(store.entityId(row)), fv -> true, edit);
+    }
+
+    private void applyEdits(String name, View view, RowVisitor candidate,
+                            Predicate<FeatureVector> filter, Consumer<FeatureVector> edit) {
+        Map<RowKey, RowEdit> edits = new HashMap<>(view.edits);
+        forEachRow(view, (store, row) -> {
+            if (!candidate.visit(store, row)) return true;
+            FeatureVector fv = materialize(view, store, row);
+            if (filter.test(fv)) {
+                edit.accept(fv);
+                edits.put(new RowKey(store.id, row), new RowEdit(fv.getLabel(), fv.getMetaData()));
+            }
+            return true;
+        });
+        setView(name, new View(view.segments, edits));
+    }
+
+    /**
+     * Reads one dimension of a collection as a contiguous column without
+     * materializing any FeatureVector.
+     */
+    public synchronized double[] column(String name, int dimension) {
+        View view = views.getOrDefault(name, View.EMPTY);
+        double[] out = new double[view.size];
+        for (int s = 0; s < view.segments.size(); s++) {
+            Segment seg = view.segments.get(s);
+            MappedFeatureStore store = store(seg.store());
+            if (dimension >= store.dims) continue;
+            if (seg.rows() == null) {
+                store.readColumn(dimension, seg.start(), seg.end(), out, view.offsets[s]);
+            } else {
+                for (int i = 0; i < seg.size(); i++)
+                    out[view.offsets[s] + i] = store.get(seg.row(i), dimension);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Writes the catalog and forces all blocks to disk.
+     */
+    public synchronized void flush() throws IOException {
+        if (pendingSave != null) pendingSave.cancel(false);
+        pendingSave = null;
+        saveCatalog();
+        for (MappedFeatureStore store : openStores.values()) store.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        saver.shutdownNow();
+        for (MappedFeatureStore store : openStores.values()) store.close();
+        openStores.clear();
+    }
+
+    /* ---------------- views ---------------- */
+
+    private void setView(String name, View view) {
+        views.put(name, view);
+        if (!collectionNames.contains(name)) collectionNames.add(name);
+        scheduleSave();
+    }
+
+    private View concat(View a, View b) {
+        List<Segment> segments = new ArrayList<>(a.segments);
+        int first = 0;
+        if (!segments.isEmpty() && !b.segments.isEmpty()) {
+            //rejoin a range split by staging an append
+            Segment last = segments.get(segments.size() - 1), next = b.segments.get(0);
+            if (last.rows() == null && next.rows() == null && last.store().equals(next.store())
+                && last.end() == next.start()) {
+                segments.set(segments.size() - 1, new Segment(last.store(), last.start(), next.end(), null, null));
+                first = 1;
+            }
+        }
+        segments.addAll(b.segments.subList(first, b.segments.size()));
+        Map<RowKey, RowEdit> edits = new HashMap<>(b.edits);
+        edits.putAll(a.edits);
+        return new View(segments, edits);
+    }
+
+    /**
+     * The rows of a view from the given position on.
+     */
+    private View rowsFrom(View view, int from) {
+        if (from <= 0) return view;
+        List<Segment> segments = new ArrayList<>();
+        for (int s = 0; s < view.segments.size(); s++) {
+            Segment seg = view.segments.get(s);
+            int skip = from - view.offsets[s];
+            if (skip >= seg.size()) continue;
+            if (skip <= 0) {
+                segments.add(seg);
+            } else if (seg.rows() == null) {
+                segments.add(new Segment(seg.store(), seg.start() + skip, seg.end(), null, null));
+            } else {
+                int[] rows = new int[seg.size() - skip];
+                for (int i = 0; i < rows.length; i++) rows[i] = seg.row(skip + i);
+                segments.addAll(compress(seg.store(), rows));
+            }
+        }
+        return new View(segments, view.edits);
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        boolean visit(MappedFeatureStore store, int row) throws IOException;
+    }
+
+    private void forEachRow(View view, RowVisitor visitor) {
+        try {
+            for (Segment seg : view.segments) {
+                MappedFeatureStore store = store(seg.store());
+                for (int i = 0; i < seg.size(); i++) {
+                    if (!visitor.visit(store, seg.row(i))) return;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Keeps the rows accepted by the visitor; untouched segments are reused as is.
+     */
+    private View filterRows(View view, RowVisitor keep) {
+        List<Segment> segments = new ArrayList<>();
+        Map<RowKey, RowEdit> edits = new HashMap<>();
+        try {
+            for (Segment seg : view.segments) {
+                MappedFeatureStore store = store(seg.store());
+                int[] kept = new int[seg.size()];
+                int n = 0;
+                for (int i = 0; i < seg.size(); i++) {
+                    int row = seg.row(i);
+                    if (keep.visit(store, row)) {
+                        kept[n++] = row;
+                        RowEdit edit = view.edits.get(new RowKey(seg.store(), row));
+                        if (edit != null) edits.put(new RowKey(seg.store(), row), edit);
+                    }
+                }
+                if (n == seg.size()) segments.add(seg);
+                else if (n > 0) segments.addAll(compress(seg.store(), Arrays.copyOf(kept, n)));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new View(segments, edits);
+    }
+
+    /**
+     * Turns a row list into range segments when it is mostly contiguous,
+     * otherwise into one segment backed by a row index file.
+     */
+    private List<Segment> compress(String store, int[] rows) {
+        List<Segment> ranges = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= rows.length; i++) {
+            if (i == rows.length || rows[i] != rows[i - 1] + 1) {
+                ranges.add(new Segment(store, rows[start], rows[i - 1] + 1, null, null));
+                start = i;
+            }
+        }
+        if (ranges.size() <= 1 + rows.length / 64) return ranges;
+        try {
+            String file = UUID.randomUUID() + ".rows";
+            Path path = root.resolve(ROWS_DIR).resolve(file);
+            ByteBuffer buf = ByteBuffer.allocate(rows.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buf.asIntBuffer().put(rows);
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            return List.of(new Segment(store, 0, 0, file, mapRows(path)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static IntBuffer mapRows(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+
+    /* ---------------- rows ---------------- */
+
+    /**
+     * Writes vectors after the view's rows, extending the last block in place
+     * when this view owns its tail, and returns the extended view.
+     */
+    private View appendRows(View view, List<FeatureVector> vectors) {
+        List<Segment> segments = new ArrayList<>(view.segments);
+        try {
+            MappedFeatureStore tail = null;
+            int tailStart = 0;
+            if (!segments.isEmpty()) {
+                Segment last = segments.get(segments.size() - 1);
+                MappedFeatureStore store = store(last.store());
+                if (last.rows() == null && last.end() == store.size() && !store.isFull()) {
+                    segments.remove(segments.size() - 1);
+                    tail = store;
+                    tailStart = last.start();
+                }
+            }
+            int remaining = vectors.size();
+            for (FeatureVector fv : vectors) {
+                int dims = fv.getData() == null ? 0 : fv.getData().size();
+                if (tail == null || tail.isFull() || tail.dims != dims) {
+                    if (tail != null && tail.size() > tailStart)
+                        segments.add(new Segment(tail.id, tailStart, tail.size(), null, null));
+                    tail = createStore(dims, Math.max(APPEND_CAPACITY, remaining));
+                    tailStart = 0;
+                }
+                tail.append(fv.getData(), fv.getLabel(), fv.getEntityId(), encodeAttributes(fv));
+                remaining--;
+            }
+            if (tail != null && tail.size() > tailStart)
+                segments.add(new Segment(tail.id, tailStart, tail.size(), null, null));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new View(segments, view.edits);
+    }
+
+    private FeatureVector materialize(View view, MappedFeatureStore store, int row) {
+        float[] data = new float[store.dims];
+        store.readRow(row, data);
+        return materialize(view, store, row, data);
+    }
+
+    private static FeatureVector materialize(View view, MappedFeatureStore store, int row, float[] data) {
+        try {
+            FeatureVector fv = new FeatureVector();
+            fv.wrapData(PrimitiveDoubleList.wrap(data));
+            fv.setEntityId(store.entityId(row));
+            fv.setLabel(store.label(row));
+            decodeAttributes(store.attributes(row), fv);
+            RowEdit edit = view.edits.get(new RowKey(store.id, row));
+            if (edit != null) {
+                fv.setLabel(edit.label());
+                fv.setMetaData(edit.metaData() == null ? null : new HashMap<>(edit.metaData()));
+            }
+            return fv;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String encodeAttributes(FeatureVector fv) throws IOException {
+        ObjectNode node = MAPPER.createObjectNode();
+        if (fv.getMetaData() != null) node.set("metaData", MAPPER.valueToTree(fv.getMetaData()));
+        if (fv.getText() != null && !fv.getText().isEmpty()) node.put("text", fv.getText());
+        if (fv.getScore() != 0.0) node.put("score", fv.getScore());
+        if (fv.getPfa() != 0.0) node.put("pfa", fv.getPfa());
+        if (fv.getLayer() != 0) node.put("layer", fv.getLayer());
+        if (fv.getImageId() != 0) node.put("imageId", fv.getImageId());
+        if (fv.getFrameId() != 0) node.put("frameId", fv.getFrameId());
+        if (fv.getMessageId() != 0) node.put("messageId", fv.getMessageId());
+        if (fv.getImageURL() != null) node.put("imageURL", fv.getImageURL());
+        if (fv.getMediaURL() != null) node.put("mediaURL", fv.getMediaURL());
+        if (fv.getTopic() != null) node.put("topic", fv.getTopic());
+        if (fv.getBbox() != null) {
+            ArrayNode bbox = node.putArray("bbox");
+            fv.getBbox().forEach(bbox::add);
+        }
+        return MAPPER.writeValueAsString(node);
+    }
+
+    private static void decodeAttributes(String json, FeatureVector fv) throws IOException {
+        if (json == null || json.isEmpty()) return;
+        ObjectNode node = (ObjectNode) MAPPER.readTree(json);
+        fv.setMetaData(node.has("metaData") ? MAPPER.convertValue(node.get("metaData"), META_TYPE) : null);
+        if (node.has("text")) fv.setText(node.get("text").asText());
+        fv.setScore(node.path("score").asDouble(0.0));
+        fv.setPfa(node.path("pfa").asDouble(0.0));
+        fv.setLayer(node.path("layer").asInt(0));
+        fv.setImageId(node.path("imageId").asLong(0));
+        fv.setFrameId(node.path("frameId").asLong(0));
+        fv.setMessageId(node.path("messageId").asLong(0));
+        if (node.has("imageURL")) fv.setImageURL(node.get("imageURL").asText());
+        if (node.has("mediaURL")) fv.setMediaURL(node.get("mediaURL").asText());
+        if (node.has("topic")) fv.setTopic(node.get("topic").asText());
+        if (node.has("bbox")) {
+            List<Double> bbox = new ArrayList<>();
+            node.get("bbox").forEach(n -> bbox.add(n.asDouble()));
+            fv.setBbox(bbox);
+        }
+    }
+
+    /* ---------------- stores ---------------- */
+
+    private MappedFeatureStore createStore(int dims, int capacity) throws IOException {
+        String id = UUID.randomUUID().toString();
+        MappedFeatureStore store = MappedFeatureStore.create(root.resolve(STORES_DIR).resolve(id), id, dims, capacity);
+        openStores.put(id, store);
+        return store;
+    }
+
+    private MappedFeatureStore store(String id) {
+        return openStores.computeIfAbsent(id, k -> {
+            try {
+                return MappedFeatureStore.open(root.resolve(STORES_DIR).resolve(k), k);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Closes and deletes blocks and row files no collection refers to.
+     */
+    private void collectGarbage() {
+        Set<String> liveStores = new HashSet<>();
+        Set<String> liveRows = new HashSet<>();
+        List<View> referenced = new ArrayList<>(views.values());
+        referenced.addAll(pinned);
+        for (View view : referenced) {
+            for (Segment seg : view.segments) {
+                liveStores.add(seg.store());
+                if (seg.rowsFile() != null) liveRows.add(seg.rowsFile());
+            }
+        }
+        openStores.entrySet().removeIf(e -> {
+            if (liveStores.contains(e.getKey())) return false;
+            try {
+                e.getValue().close();
+            } catch (IOException ex) {
+                LOG.warn("Unable to close feature store {}", e.getKey(), ex);
+            }
+            return true;
+        });
+        deleteUnreferenced(liveStores, liveRows);
+    }
+
+    private void deleteUnreferenced() {
+        Set<String> liveStores = new HashSet<>();
+        Set<String> liveRows = new HashSet<>();
+        views.values().forEach(v -> v.segments.forEach(seg -> {
+            liveStores.add(seg.store());
+            if (seg.rowsFile() != null) liveRows.add(seg.rowsFile());
+        }));
+        deleteUnreferenced(liveStores, liveRows);
+    }
+
+    private void deleteUnreferenced(Set<String> liveStores, Set<String> liveRows) {
+        //stores still open are live (e.g. a block just created for a pending append)
+        try (Stream<Path> dirs = Files.list(root.resolve(STORES_DIR))) {
+            dirs.filter(p -> !liveStores.contains(p.getFileName().toString())
+                    && !openStores.containsKey(p.getFileName().toString()))
+                .forEach(MappedFeatureVectorRepository::deleteTree);
+        } catch (IOException ex) {
+            LOG.warn("Unable to clean feature stores", ex);
+        }
+        try (Stream<Path> files = Files.list(root.resolve(ROWS_DIR))) {
+            files.filter(p -> !liveRows.contains(p.getFileName().toString()))
+                .forEach(MappedFeatureVectorRepository::deleteTree);
+        } catch (IOException ex) {
+            LOG.warn("Unable to clean row files", ex);
+        }
+    }
+
+    private static void deleteTree(Path path) {
+        try (Stream<Path> walk = Files.walk(path)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ex) {
+            LOG.warn("Unable to delete {}", path, ex);
+        }
+    }
+
+    /* ---------------- catalog ---------------- */
+
+    private void scheduleSave() {
+        if (pendingSave != null && !pendingSave.isDone()) return;
+        pendingSave = saver.schedule(() -> {
+            synchronized (MappedFeatureVectorRepository.this) {
+                try {
+                    saveCatalog();
+                } catch (IOException ex) {
+                    LOG.error("Unable to save feature store catalog", ex);
+                }
+            }
+        }, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void saveCatalog() throws IOException {
+        ObjectNode catalog = MAPPER.createObjectNode();
+        ArrayNode collections = catalog.putArray("collections");
+        views.forEach((name, view) -> {
+            ObjectNode c = collections.addObject();
+            c.put("name", name);
+            ArrayNode segs = c.putArray("segments");
+            for (Segment seg : view.segments) {
+                ObjectNode s = segs.addObject();
+                s.put("store", seg.store());
+                if (seg.rowsFile() != null) {
+                    s.put("rows", seg.rowsFile());
+                } else {
+                    s.put("start", seg.start());
+                    s.put("end", seg.end());
+                }
+            }
+            ArrayNode edits = c.putArray("edits");
+            view.edits.forEach((key, edit) -> {
+                ObjectNode e = edits.addObject();
+                e.put("store", key.store());
+                e.put("row", key.row());
+                if (edit.label() != null) e.put("label", edit.label());
+                if (edit.metaData() != null) e.set("metaData", MAPPER.valueToTree(edit.metaData()));
+            });
+        });
+        Path tmp = root.resolve(CATALOG_FILE + ".tmp");
+        MAPPER.writeValue(tmp.toFile(), catalog);
+        Files.move(tmp, root.resolve(CATALOG_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void loadCatalog() throws IOException {
+        Path path = root.resolve(CATALOG_FILE);
+        if (!Files.exists(path)) return;
+        ObjectNode catalog = (ObjectNode) MAPPER.readTree(path.toFile());
+        for (var c : catalog.path("collections")) {
+            List<Segment> segments = new ArrayList<>();
+            for (var s : c.path("segments")) {
+                String store = s.get("store").asText();
+                if (!Files.isDirectory(root.resolve(STORES_DIR).resolve(store))
+                    || (s.has("rows") && !Files.exists(root.resolve(ROWS_DIR).resolve(s.get("rows").asText())))) {
+                    //catalog written before an interrupted cleanup, drop what is gone
+                    LOG.warn("Feature store {} referenced by {} is missing", store, c.path("name").asText());
+                    continue;
+                }
+                if (s.has("rows")) {
+                    String file = s.get("rows").asText();
+                    segments.add(new Segment(store, 0, 0, file, mapRows(root.resolve(ROWS_DIR).resolve(file))));
+                } else {
+                    segments.add(new Segment(store, s.get("start").asInt(), s.get("end").asInt(), null, null));
+                }
+            }
+            Map<RowKey, RowEdit> edits = new HashMap<>();
+            for (var e : c.path("edits")) {
+                edits.put(new RowKey(e.get("store").asText(), e.get("row").asInt()),
+                    new RowEdit(e.has("label") ? e.get("label").asText() : null,
+                        e.has("metaData") ? MAPPER.convertValue(e.get("metaData"), META_TYPE) : null));
+            }
+            String name = c.get("name").asText();
+            views.put(name, new View(segments, edits));
+            collectionNames.add(name);
+        }
+        LOG.info("Reopened {} feature collections from {}", views.size(), root);
+    }
+
+    /* ---------------- list view ---------------- */
+
+    /**
+     * Read-only list over a view snapshot. Reads go straight to the mapped
+     * blocks without the repository lock: the list pins its view, so none of
+     * its blocks is closed while the list is reachable, and each block is
+     * resolved once per segment. Recently read positions are cached so repeated
+     * gets return the same instance, and iteration materializes a page of rows
+     * at a time with {@link #range(int, int)}.
+     */
+    private final class MappedList extends AbstractList<FeatureVector> implements RandomAccess {
+        private static final int ROW_CACHE = 256;
+        private static final int PAGE = 256;
+        private final View view;
+        private final AtomicReferenceArray<MappedFeatureStore> stores;
+        private final AtomicReferenceArray<Cached> recent = new AtomicReferenceArray<>(ROW_CACHE);
+
+        MappedList(View view) {
+            this.view = view;
+            this.stores = new AtomicReferenceArray<>(view.segments.size());
+            pinned.add(view);
+        }
+
+        MappedFeatureVectorRepository owner() {
+            return MappedFeatureVectorRepository.this;
+        }
+
+        private MappedFeatureStore storeOf(int segment) {
+            MappedFeatureStore store = stores.get(segment);
+            if (store == null) {
+                //first touch maps the block; openStores is only safe under the lock
+                synchronized (MappedFeatureVectorRepository.this) {
+                    store = store(view.segments.get(segment).store());
+                }
+                stores.set(segment, store);
+            }
+            return store;
+        }
+
+        @Override
+        public FeatureVector get(int index) {
+            Objects.checkIndex(index, view.size);
+            int slot = index & (ROW_CACHE - 1);
+            Cached cached = recent.get(slot);
+            if (cached != null && cached.index() == index) return cached.vector();
+            try {
+                int s = view.segmentOf(index);
+                FeatureVector fv = materialize(view, storeOf(s), view.segments.get(s).row(index - view.offsets[s]));
+                recent.set(slot, new Cached(index, fv));
+                return fv;
+            } finally {
+                Reference.reachabilityFence(this);
+            }
+        }
+
+        /**
+         * Materializes positions [from, to) in one pass. Rows of a contiguous
+         * segment are read column by column instead of gathered row by row.
+         */
+        List<FeatureVector> range(int from, int to) {
+            Objects.checkFromToIndex(from, to, view.size);
+            List<FeatureVector> out = new ArrayList<>(to - from);
+            try {
+                int p = from;
+                while (p < to) {
+                    int s = view.segmentOf(p);
+                    Segment seg = view.segments.get(s);
+                    MappedFeatureStore store = storeOf(s);
+                    int local = p - view.offsets[s];
+                    int n = Math.min(to, view.offsets[s] + seg.size()) - p;
+                    float[][] rows = new float[n][store.dims];
+                    if (seg.rows() == null) {
+                        store.readRows(seg.row(local), rows);
+                    } else {
+                        for (int i = 0; i < n; i++) store.readRow(seg.row(local + i), rows[i]);
+                    }
+                    for (int i = 0; i < n; i++) out.add(materialize(view, store, seg.row(local + i), rows[i]));
+                    p += n;
+                }
+                return out;
+            } finally {
+                Reference.reachabilityFence(this);
+            }
+        }
+
+        @Override
+        public Iterator<FeatureVector> iterator() {
+            return new Iterator<>() {
+                private List<FeatureVector> page = List.of();
+                private int pageStart;
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < view.size;
+                }
+
+                @Override
+                public FeatureVector next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    if (next >= pageStart + page.size()) {
+                        pageStart = next;
+                        page = range(next, Math.min(view.size, next + PAGE));
+                    }
+                    return page.get(next++ - pageStart);
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<FeatureVector> spliterator() {
+            return Spliterators.spliterator(iterator(), view.size, Spliterator.ORDERED);
+        }
+
+        @Override
+        public int size() {
+            return view.size;
+        }
+    }
+
+    private record Cached(int index, FeatureVector vector) {
+    }
+}
@@ -0,0 +1,228 @@
+package edu.jhuapl.trinity.messages;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import edu.jhuapl.trinity.javafx.events.FeatureVectorEvent;
+import edu.jhuapl.trinity.javafx.events.ManifoldEvent;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces streamed feature vectors into frame rate micro-batches for the
+ * JavaFX thread.
+ * <p>
+ * Any number of receive threads {@link #offer(FeatureVector)} decoded vectors
+ * without touching the scene. An AnimationTimer drains them on the FX thread
+ * and hands at most one batch per animation pulse to the sink. A pulse flushes
+ * when maxBatch vectors are pending or the oldest pending vector has waited
+ * maxLatencyMillis; with the default latency of 0 every pulse flushes what has
+ * arrived since the previous one. A backlog larger than maxBatch drains one
+ * batch per pulse, so the FX thread never stalls on a single huge batch.
+ * <p>
+ * Pending vectors are bounded by maxPending; past that the oldest are dropped
+ * and counted, so a stalled UI sheds stale data instead of growing without limit.
+ *
+ * @author Sean Phillips
+ */
+public class IngestCoalescer {
+    private static final Logger LOG = LoggerFactory.getLogger(IngestCoalescer.class);
+    public static final int DEFAULT_MAX_BATCH = 4096;
+    public static final long DEFAULT_MAX_LATENCY_MILLIS = 0;
+    public static final int DEFAULT_MAX_PENDING = 1 << 18;
+
+    private static final Map<Scene, IngestCoalescer> SCENE_COALESCERS = new WeakHashMap<>();
+
+    private final ConcurrentLinkedQueue<FeatureVector> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Consumer<List<FeatureVector>> sink;
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile int maxBatch = DEFAULT_MAX_BATCH;
+    private volatile long maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_LATENCY_MILLIS);
+    private volatile int maxPending = DEFAULT_MAX_PENDING;
+    private volatile long oldestNanos = 0;
+    private AnimationTimer timer;
+
+    /**
+     * @param sink receives each batch on the thread calling {@link #pulse(long)}
+     *             (the FX thread once started); the list is not reused
+     */
+    public IngestCoalescer(Consumer<List<FeatureVector>> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Shared, started coalescer for a scene. Batches are fired on the scene root
+     * as FeatureVectorEvent.NEW_FEATURE_VECTOR_BATCH followed by
+     * ManifoldEvent.NEW_PROJECTION_VECTOR_BATCH, so every message source
+     * feeding the same scene shares one flush per pulse.
+     */
+    public static IngestCoalescer forScene(Scene scene) {
+        synchronized (SCENE_COALESCERS) {
+            return SCENE_COALESCERS.computeIfAbsent(scene, s -> {
+                IngestCoalescer coalescer = new IngestCoalescer(batch -> {
+                    s.getRoot().fireEvent(new FeatureVectorEvent(
+                        FeatureVectorEvent.NEW_FEATURE_VECTOR_BATCH, batch));
+                    s.getRoot().fireEvent(new ManifoldEvent(
+                        ManifoldEvent.NEW_PROJECTION_VECTOR_BATCH, batch));
+                });
+                coalescer.start();
+                return coalescer;
+            });
+        }
+    }
+
+    /**
+     * Starts draining on every animation pulse. Safe to call from any thread.
+     */
+    public void start() {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(this::start);
+            return;
+        }
+        if (null != timer) return;
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                pulse(now);
+            }
+        };
+        timer.start();
+    }
+
+    /**
+     * Stops the pulse driven flush; pending vectors stay queued.
+     */
+    public void stop() {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(this::stop);
+            return;
+        }
+        if (null != timer) {
+            timer.stop();
+            timer = null;
+        }
+    }
+
+    /**
+     * Queue a vector for the next flush. Never blocks.
+     *
+     * @return false if the vector was null
+     */
+    public boolean offer(FeatureVector featureVector) {
+        if (null == featureVector) return false;
+        received.incrementAndGet();
+        pending.add(featureVector);
+        if (depth.getAndIncrement() == 0) {
+            oldestNanos = System.nanoTime();
+        }
+        while (depth.get() > maxPending && null != pending.poll()) {
+            depth.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * One flush opportunity, called by the animation timer with the pulse
+     * timestamp (System.nanoTime based).
+     *
+     * @return number of vectors delivered to the sink, 0 if nothing was flushed
+     */
+    public int pulse(long now) {
+        int queued = depth.get();
+        if (queued <= 0) return 0;
+        final int limit = maxBatch;
+        if (queued < limit && now - oldestNanos < maxLatencyNanos) return 0;
+        List<FeatureVector> batch = new ArrayList<>(Math.min(queued, limit));
+        FeatureVector fv;
+        while (batch.size() < limit && null != (fv = pending.poll())) {
+            batch.add(fv);
+        }
+        if (batch.isEmpty()) return 0;
+        // a remaining backlog keeps oldestNanos, so it is already due on the next pulse
+        depth.addAndGet(-batch.size());
+        batches.incrementAndGet();
+        delivered.addAndGet(batch.size());
+        try {
+            sink.accept(batch);
+        } catch (RuntimeException ex) {
+            LOG.error("Unable to deliver ingest batch of {} vectors.", batch.size(), ex);
+        }
+        return batch.size();
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    /**
+     * @param maxBatch most vectors delivered per pulse (&gt;= 1)
+     */
+    public void setMaxBatch(int maxBatch) {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be positive");
+        this.maxBatch = maxBatch;
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos);
+    }
+
+    /**
+     * @param maxLatencyMillis longest a vector is held back waiting for a fuller
+     *                         batch; 0 flushes on every pulse
+     */
+    public void setMaxLatencyMillis(long maxLatencyMillis) {
+        if (maxLatencyMillis < 0) throw new IllegalArgumentException("maxLatencyMillis must not be negative");
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * @param maxPending vectors kept waiting before the oldest are dropped (&gt;= 1)
+     */
+    public void setMaxPending(int maxPending) {
+        if (maxPending < 1) throw new IllegalArgumentException("maxPending must be positive");
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * @return vectors waiting for a flush
+     */
+    public int getPendingCount() {
+        return Math.max(0, depth.get());
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+}
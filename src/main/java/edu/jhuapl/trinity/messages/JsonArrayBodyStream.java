@@ -0,0 +1,151 @@
+package edu.jhuapl.trinity.messages;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Streams a JSON request body whose one array is filled from futures, so the
+ * HTTP upload can begin while later elements are still being encoded.
+ * <p>
+ * The body is {@code head + item0 + "," + item1 + ... + tail}; each item must be a
+ * complete serialized JSON value. Reading blocks until the next item's future
+ * completes. Items that complete with null or exceptionally are left out;
+ * {@link #written(List, List)} gives the matching subset of per-item IDs so a
+ * response can be lined up with what was actually sent.
+ *
+ * @author Sean Phillips
+ */
+public class JsonArrayBodyStream extends InputStream {
+    private static final Logger LOG = LoggerFactory.getLogger(JsonArrayBodyStream.class);
+    private static final byte[] COMMA = {','};
+    private static final byte[] EMPTY = {};
+
+    private final List<CompletableFuture<byte[]>> items;
+    private final byte[] tail;
+
+    // stage -1 = head, 0..n-1 = items, n = tail, n+1 = done; head is the first chunk
+    private int stage = -1;
+    private byte[] chunk;
+    private int pos = 0;
+    private byte[] queued; // element waiting behind its comma
+    private boolean wroteItem = false;
+
+    public JsonArrayBodyStream(byte[] head, List<CompletableFuture<byte[]>> items, byte[] tail) {
+        this.items = items;
+        this.tail = tail;
+        this.chunk = head;
+    }
+
+    /**
+     * Split a serialized template object around its (empty) array property, e.g.
+     * {@code {"model":"m","input":[],"user":"u"}} around {@code "input":[]}.
+     *
+     * @return {head, tail} where head ends with '[' and tail starts with ']'
+     */
+    public static byte[][] splitTemplate(String templateJson, String arrayProperty) {
+        String token = "\"" + arrayProperty + "\":[]";
+        int at = templateJson.indexOf(token);
+        if (at < 0) {
+            throw new IllegalArgumentException("Template has no empty array property " + arrayProperty);
+        }
+        int open = at + token.length() - 1; // index of ']'
+        return new byte[][]{
+            templateJson.substring(0, open).getBytes(StandardCharsets.UTF_8),
+            templateJson.substring(open).getBytes(StandardCharsets.UTF_8)
+        };
+    }
+
+    /**
+     * The ids whose items were written to the body, in order. Call once the
+     * body has been sent, when every item future is complete.
+     *
+     * @param ids   one id per item, same order as items
+     * @param items the futures the body was streamed from
+     */
+    public static <T> List<T> written(List<T> ids, List<CompletableFuture<byte[]>> items) {
+        if (ids.size() != items.size())
+            throw new IllegalArgumentException(ids.size() + " ids for " + items.size() + " items");
+        List<T> out = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (isWritten(resolve(items.get(i)))) out.add(ids.get(i));
+        }
+        return out;
+    }
+
+    private static boolean isWritten(byte[] item) {
+        return item != null && item.length > 0;
+    }
+
+    private static byte[] resolve(CompletableFuture<byte[]> f) {
+        try {
+            return f.join();
+        } catch (CompletionException | CancellationException ex) {
+            return null;
+        }
+    }
+
+    private boolean advance() {
+        while (pos >= chunk.length) {
+            pos = 0;
+            if (queued != null) {
+                chunk = queued;
+                queued = null;
+                continue;
+            }
+            stage++;
+            if (stage < items.size()) {
+                byte[] item = await(items.get(stage));
+                if (!isWritten(item)) {
+                    chunk = EMPTY;
+                    continue;
+                }
+                if (wroteItem) {
+                    // the comma is only emitted once the element after it is known to exist
+                    chunk = COMMA;
+                    queued = item;
+                } else {
+                    chunk = item;
+                }
+                wroteItem = true;
+            } else if (stage == items.size()) {
+                chunk = tail;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] await(CompletableFuture<byte[]> f) {
+        try {
+            return f.join();
+        } catch (CompletionException | CancellationException ex) {
+            LOG.error("Skipping array element that failed to encode: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public int read() {
+        if (!advance()) return -1;
+        return chunk[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) return 0;
+        if (!advance()) return -1;
+        int n = Math.min(len, chunk.length - pos);
+        System.arraycopy(chunk, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.jhuapl.trinity.messages;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import edu.jhuapl.trinity.data.FactorAnalysisState;
+import edu.jhuapl.trinity.data.messages.CommandRequest;
+import edu.jhuapl.trinity.data.messages.bci.ChannelFrame;
+import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import edu.jhuapl.trinity.data.messages.xai.GaussianMixture;
+import edu.jhuapl.trinity.data.messages.xai.LabelConfig;
+import edu.jhuapl.trinity.data.messages.xai.UmapConfig;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single pass type dispatch for inbound JSON messages.
+ * <p>
+ * Streams the leading top-level fields of a message looking for its
+ * "messageType" (or "type") discriminator. When found, the rest of the same
+ * token stream is bound to the matching class through a cached ObjectReader,
+ * so the payload is tokenized once instead of being rescanned by each
+ * String.contains check and then parsed again.
+ * <p>
+ * Scalar fields that precede the discriminator (topic, messageId, ...) are
+ * buffered and replayed in front of the remaining stream. If the discriminator
+ * is missing, unknown, or only appears after an array/object field, decode
+ * returns null and the caller falls back to content sniffing.
+ *
+ * @author Sean Phillips
+ */
+public class MessageDispatcher {
+    /**
+     * Leading scalar fields examined before giving up on the discriminator.
+     */
+    public static final int MAX_LEADING_FIELDS = 8;
+
+    private final ObjectMapper mapper;
+    private final Map<String, ObjectReader> readers = new HashMap<>();
+
+    public MessageDispatcher(ObjectMapper mapper) {
+        this.mapper = mapper;
+        register(CommandRequest.TYPESTRING, CommandRequest.class);
+        register(FeatureCollection.TYPESTRING, FeatureCollection.class);
+        register(FeatureVector.TYPESTRING, FeatureVector.class);
+        register(GaussianMixture.TYPESTRING, GaussianMixture.class);
+        register(LabelConfig.TYPESTRING, LabelConfig.class);
+        register(UmapConfig.TYPESTRING, UmapConfig.class);
+        register(ChannelFrame.TYPESTRING, ChannelFrame.class);
+        register(FactorAnalysisState.TYPESTRING, FactorAnalysisState.class);
+    }
+
+    private void register(String typeString, Class<?> type) {
+        readers.put(typeString, mapper.readerFor(type));
+    }
+
+    /**
+     * @return the decoded message, or null when the discriminator could not be
+     * resolved from the leading fields or the input is not well-formed JSON
+     * (the fallback then reports any binding error with the full payload)
+     * @throws IOException on read failures other than malformed or mismatched JSON
+     */
+    public Object decode(String message) throws IOException {
+        if (message == null || message.isEmpty()) return null;
+        JsonParser parser = null;
+        TokenBuffer leading = null;
+        try {
+            parser = mapper.getFactory().createParser(message);
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            for (int field = 0; field < MAX_LEADING_FIELDS; field++) {
+                if (parser.nextToken() != JsonToken.FIELD_NAME) return null;
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING && ("messageType".equals(name) || "type".equals(name))) {
+                    ObjectReader reader = readers.get(parser.getText());
+                    if (reader == null) return null;
+                    return bind(reader, parser, leading);
+                }
+                if (value.isStructStart()) return null; //large payload ahead of the type, let the fallback scan
+                if (leading == null) {
+                    leading = new TokenBuffer(parser);
+                    leading.writeStartObject();
+                }
+                leading.writeFieldName(name);
+                leading.copyCurrentEvent(parser);
+            }
+            return null;
+        } catch (JsonProcessingException ex) {
+            // not JSON (or truncated before the discriminator): leave it to the fallback
+            return null;
+        } finally {
+            if (parser != null) parser.close();
+            if (leading != null) leading.close();
+        }
+    }
+
+    private static Object bind(ObjectReader reader, JsonParser parser, TokenBuffer leading) throws IOException {
+        Object value;
+        if (leading == null) {
+            JsonToken next = parser.nextToken(); // first field after the discriminator, or END_OBJECT
+            value = next == JsonToken.END_OBJECT
+                ? reader.readValue("{}")
+                : reader.readValue(parser);
+        } else {
+            // replay the buffered fields, then continue with the field after the discriminator
+            JsonParser replay = leading.asParser(parser.getCodec());
+            replay.nextToken(); // START_OBJECT of the buffered leading fields
+            replay.nextToken(); // first buffered FIELD_NAME
+            value = reader.readValue(JsonParserSequence.createFlattened(false, replay, parser));
+        }
+        if (value instanceof FeatureCollection fc) {
+            fc.setType(FeatureCollection.TYPESTRING);
+        }
+        return value;
+    }
+}
@@ -33,10 +33,18 @@ public class MessageProcessor {
      * Provides deserializaton support for JSON messages
      */
     private ObjectMapper mapper;
+    /**
+     * Reads the message type once and binds through cached readers
+     */
+    private MessageDispatcher dispatcher;
     /**
      * Scene reference that enables the processor to route data to events
      */
     private Scene scene;
+    /**
+     * Batches streamed FeatureVectors into at most one scene update per animation pulse
+     */
+    private IngestCoalescer coalescer;
 
     public MessageProcessor() {
         this(null);
@@ -47,62 +55,100 @@ public class MessageProcessor {
         ai = new AtomicInteger();
         mapper = new ObjectMapper();
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        dispatcher = new MessageDispatcher(mapper);
         // force serialization of timestamps as ISO-8601 standard. Assumption is most formats are ISO-8601 standard.
         // Also used later during conversion from objects by jackson.
 //        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
 //        mapper.registerModule(new JavaTimeModule());
     }
 
+    /**
+     * @return the coalescer shared by every processor feeding this scene
+     */
+    public synchronized IngestCoalescer getCoalescer() {
+        if (null == coalescer) {
+            coalescer = IngestCoalescer.forScene(scene);
+        }
+        return coalescer;
+    }
+
     public void process(String message) throws IOException {
+        Object decoded = dispatcher.decode(message);
+        if (null != decoded) {
+            route(decoded);
+        } else {
+            processBySniffing(message);
+        }
+        if (message.equalsIgnoreCase("howdy")) {
+            LOG.info("Well hello...");
+        }
+    }
+
+    /**
+     * Fallback for messages whose type could not be read from their leading fields:
+     * identify the type by content and parse the whole message.
+     */
+    private void processBySniffing(String message) throws IOException {
         if (CommandRequest.isCommandRequest(message)) {
-            CommandRequest command = mapper.readValue(message, CommandRequest.class);
+            route(mapper.readValue(message, CommandRequest.class));
+        }
+        if (FeatureCollection.isFeatureCollection(message)) {
+            route(mapper.readValue(message, FeatureCollection.class));
+        } else if (FeatureVector.isFeatureVector(message)) {
+            route(getMapper().readValue(message, FeatureVector.class));
+        } else if (GaussianMixture.isGaussianMixture(message)) {
+            route(getMapper().readValue(message, GaussianMixture.class));
+        } else if (LabelConfig.isLabelConfig(message)) {
+            route(getMapper().readValue(message, LabelConfig.class));
+        } else if (UmapConfig.isUmapConfig(message)) {
+            route(getMapper().readValue(message, UmapConfig.class));
+        } else if (ChannelFrame.isChannelFrame(message)) {
+            route(getMapper().readValue(message, ChannelFrame.class));
+        } else if (FactorAnalysisState.isFactorAnalysisState(message)) {
+            route(getMapper().readValue(message, FactorAnalysisState.class));
+        }
+    }
+
+    /**
+     * Routes a decoded message to its task or GUI event.
+     */
+    private void route(Object decoded) {
+        if (decoded instanceof CommandRequest command) {
             CommandTask commandTask = new CommandTask(command, scene);
             Thread t = new Thread(commandTask, "Trinity Command Task " + ai.incrementAndGet());
             t.setDaemon(true);
             t.start();
-        }
-        if (FeatureCollection.isFeatureCollection(message)) {
-            FeatureCollection featureCollection = mapper.readValue(message, FeatureCollection.class);
+        } else if (decoded instanceof FeatureCollection featureCollection) {
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(new FeatureVectorEvent(
                     FeatureVectorEvent.NEW_FEATURE_COLLECTION, featureCollection));
             });
-        } else if (FeatureVector.isFeatureVector(message)) {
-            FeatureVector featureVector = getMapper().readValue(message, FeatureVector.class);
-            //fire event to load data in JavaFX Scenes
-            scene.getRoot().fireEvent(new FeatureVectorEvent(
-                FeatureVectorEvent.NEW_FEATURE_VECTOR, featureVector));
-            scene.getRoot().fireEvent(new ManifoldEvent(
-                ManifoldEvent.NEW_PROJECTION_VECTOR, featureVector));
-
-        } else if (GaussianMixture.isGaussianMixture(message)) {
-            GaussianMixture gaussianMixture = getMapper().readValue(message, GaussianMixture.class);
+        } else if (decoded instanceof FeatureVector featureVector) {
+            //queue for the next frame's batch rather than firing per vector events
+            getCoalescer().offer(featureVector);
+        } else if (decoded instanceof GaussianMixture gaussianMixture) {
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(new GaussianMixtureEvent(
                     GaussianMixtureEvent.NEW_GAUSSIAN_MIXTURE, gaussianMixture));
             });
-        } else if (LabelConfig.isLabelConfig(message)) {
-            LabelConfig labelConfig = getMapper().readValue(message, LabelConfig.class);
+        } else if (decoded instanceof LabelConfig labelConfig) {
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(new FeatureVectorEvent(
                     FeatureVectorEvent.NEW_LABEL_CONFIG, labelConfig));
             });
-        } else if (UmapConfig.isUmapConfig(message)) {
-            UmapConfig umapConfig = getMapper().readValue(message, UmapConfig.class);
+        } else if (decoded instanceof UmapConfig umapConfig) {
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(new ManifoldEvent(
                     ManifoldEvent.NEW_UMAP_CONFIG, umapConfig));
             });
-        } else if (ChannelFrame.isChannelFrame(message)) {
-            ChannelFrame frame = getMapper().readValue(message, ChannelFrame.class);
+        } else if (decoded instanceof ChannelFrame frame) {
             LOG.info("Frame: {}", frame.getFrameId());
             LOG.info("Channel Values: {}", frame.getChannelData());
             //@fire event to load data in JavaFX Scene
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(new ChannelFrameDataEvent(frame));
             });
-        } else if (FactorAnalysisState.isFactorAnalysisState(message)) {
-            FactorAnalysisState fas = getMapper().readValue(message, FactorAnalysisState.class);
+        } else if (decoded instanceof FactorAnalysisState fas) {
             LOG.info("Frame ID: {}", fas.getFrameId());
             LOG.info("Factor Values: {}", fas.getFactors());
             //@fire event to load data in JavaFX Scene
@@ -110,9 +156,6 @@ public class MessageProcessor {
                 scene.getRoot().fireEvent(new FactorAnalysisDataEvent(fas));
             });
         }
-        if (message.equalsIgnoreCase("howdy")) {
-            LOG.info("Well hello...");
-        }
     }
 
     /**
@@ -127,6 +170,7 @@ public class MessageProcessor {
      */
     public void setMapper(ObjectMapper mapper) {
         this.mapper = mapper;
+        this.dispatcher = new MessageDispatcher(mapper);
     }
 
     /**
@@ -28,6 +28,7 @@ import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Files;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -167,6 +168,42 @@ public enum RestAccessLayer {
             });
     }
 
+    /**
+     * Streaming variant: the template's (empty) input list is filled from already
+     * serialized EmbeddingsImageUrl elements as their futures complete, so the upload
+     * overlaps with client side image encoding and no single large JSON string is built.
+     */
+    public static void requestImageEmbeddings(EmbeddingsImageBatchInput template,
+                                              List<CompletableFuture<byte[]>> encodedInputs,
+                                              Scene scene, List<Integer> inputIDs, int requestNumber) throws JsonProcessingException {
+        if (restServiceFailed(scene)) return;
+        byte[][] parts = JsonArrayBodyStream.splitTemplate(objectMapper.writeValueAsString(template), "input");
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(restAccessLayerconfig.getBaseRestURL() + restAccessLayerconfig.getImageEmbeddingsEndpoint()))
+            .timeout(Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS))
+            .header(CONTENT_TYPE, JSON)
+            .POST(BodyPublishers.ofInputStream(() -> new JsonArrayBodyStream(parts[0], encodedInputs, parts[1])))
+            .build();
+        httpClient.sendAsync(request, BodyHandlers.ofString())
+            .thenAcceptAsync(resp -> {
+                if (resp.statusCode() != SUCCESS_STATUS_CODE) {
+                    new EmbeddingsImageCallback(scene, inputIDs, requestNumber).onFailure();
+                } else {
+                    //images that failed to encode were left out of the body, so drop their ids too
+                    List<Integer> sentIDs = JsonArrayBodyStream.written(inputIDs, encodedInputs);
+                    if (sentIDs.size() < inputIDs.size())
+                        LOG.warn("Image embedding request {}: {} of {} images could not be encoded",
+                            requestNumber, inputIDs.size() - sentIDs.size(), inputIDs.size());
+                    new EmbeddingsImageCallback(scene, sentIDs, requestNumber).processResponse(resp.body());
+                }
+            })
+            .exceptionally(ex -> {
+                LOG.error("Image embedding request {} failed: {}", requestNumber, ex.getMessage());
+                new EmbeddingsImageCallback(scene, inputIDs, requestNumber).onFailure();
+                return null;
+            });
+    }
+
     public static void requestLandmarkImageEmbeddings(EmbeddingsImageBatchInput input,
                                                       Scene scene, List<Integer> inputIDs, int requestNumber) throws JsonProcessingException {
         if (restServiceFailed(scene)) return;
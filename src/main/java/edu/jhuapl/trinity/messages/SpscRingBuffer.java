@@ -0,0 +1,209 @@
+package edu.jhuapl.trinity.messages;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, preallocated single-producer/single-consumer ring buffer.
+ * <p>
+ * Exactly one thread may call {@link #offer(Object)} and exactly one thread may
+ * call {@link #poll()}, {@link #drain(Consumer, int)} or {@link #await(long, TimeUnit)}.
+ * Neither side locks. The producer publishes with a volatile write of the tail
+ * sequence; the consumer claims with a CAS on the head sequence. The CAS is
+ * only ever contended when the DROP_OLDEST policy makes the producer discard
+ * the oldest element on its behalf.
+ * <p>
+ * Depth, received and dropped counters can be read from any thread.
+ *
+ * @param <T> element type
+ * @author Sean Phillips
+ */
+public class SpscRingBuffer<T> {
+
+    /**
+     * What {@link #offer(Object)} does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discard the oldest queued element to make room (latest data wins).
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the offered element (queued data wins).
+         */
+        DROP_NEWEST,
+        /**
+         * Wait until the consumer makes room, pushing back on the producer.
+         */
+        BLOCK
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Thread waitingConsumer;
+    private volatile boolean closed = false;
+
+    /**
+     * @param capacity maximum queued elements (&gt;= 1)
+     * @param policy   overflow behaviour
+     */
+    public SpscRingBuffer(int capacity, OverflowPolicy policy) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.policy = policy == null ? OverflowPolicy.DROP_OLDEST : policy;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side. Queues the element, applying the overflow policy when full.
+     *
+     * @return false if this element was dropped (DROP_NEWEST) or the buffer was closed while blocked
+     */
+    public boolean offer(T element) {
+        received.incrementAndGet();
+        final long t = tail.get();
+        while (t - head.get() >= capacity) {
+            switch (policy) {
+                case DROP_NEWEST -> {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                case DROP_OLDEST -> {
+                    long h = head.get();
+                    if (t - h >= capacity && head.compareAndSet(h, h + 1)) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                case BLOCK -> {
+                    if (closed) {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                }
+            }
+        }
+        slots.set((int) (t & mask), element);
+        tail.set(t + 1);
+        Thread waiter = waitingConsumer;
+        if (waiter != null) LockSupport.unpark(waiter);
+        return true;
+    }
+
+    /**
+     * Consumer side. Removes and returns the oldest element, or null when empty.
+     */
+    public T poll() {
+        while (true) {
+            long h = head.get();
+            if (h >= tail.get()) return null;
+            int index = (int) (h & mask);
+            T value = slots.get(index);
+            // clear the slot before the claim so a consumed element is not kept reachable;
+            // a failed clear means the producer already reused the slot
+            if (!slots.compareAndSet(index, value, null)) continue;
+            if (head.compareAndSet(h, h + 1)) return value;
+            // the producer dropped this element meanwhile; undo the clear unless the slot was reused
+            slots.compareAndSet(index, null, value);
+        }
+    }
+
+    /**
+     * Consumer side. Hands up to max queued elements to sink in FIFO order.
+     *
+     * @return number of elements drained
+     */
+    public int drain(Consumer<? super T> sink, int max) {
+        int n = 0;
+        T value;
+        while (n < max && (value = poll()) != null) {
+            sink.accept(value);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Consumer side. Parks until an element is available, the timeout elapses,
+     * or the buffer is closed.
+     *
+     * @return true if the buffer is non-empty
+     */
+    public boolean await(long timeout, TimeUnit unit) {
+        if (!isEmpty()) return true;
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        waitingConsumer = Thread.currentThread();
+        try {
+            while (isEmpty() && !closed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || Thread.currentThread().isInterrupted()) break;
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+        return !isEmpty();
+    }
+
+    /**
+     * Wakes a blocked producer or waiting consumer; later offers still succeed
+     * unless they would block.
+     */
+    public void close() {
+        closed = true;
+        Thread waiter = waitingConsumer;
+        if (waiter != null) LockSupport.unpark(waiter);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    /**
+     * @return elements currently queued
+     */
+    public int size() {
+        long depth = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(capacity, depth));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return elements offered so far, including dropped ones
+     */
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * @return elements discarded by the overflow policy
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
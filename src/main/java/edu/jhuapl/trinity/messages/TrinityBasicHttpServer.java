@@ -18,21 +18,35 @@ public class TrinityBasicHttpServer implements Runnable {
 
     public static final String DEFAULT_HTTP_HOST = "0.0.0.0";
     public static final int DEFAULT_HTTP_PORT = 8080;
-
+    public static final String HTTP_HOST_PROPERTY = "trinity.http.host";
+    public static final String HTTP_PORT_PROPERTY = "trinity.http.port";
 
     private static final Logger LOG = LoggerFactory.getLogger(TrinityBasicHttpServer.class);
     private final CountDownLatch stopSignal = new CountDownLatch(1);
     private final Scene scene;
+    private final String host;
+    private final int port;
 
+    /**
+     * Binds to the trinity.http.host / trinity.http.port system properties,
+     * falling back to 0.0.0.0:8080.
+     */
     public TrinityBasicHttpServer(Scene scene) {
+        this(scene, System.getProperty(HTTP_HOST_PROPERTY, DEFAULT_HTTP_HOST),
+            Integer.getInteger(HTTP_PORT_PROPERTY, DEFAULT_HTTP_PORT));
+    }
+
+    public TrinityBasicHttpServer(Scene scene, String host, int port) {
         this.scene = scene;
+        this.host = host;
+        this.port = port;
     }
 
     @Override
     public void run() {
         HttpServer server;
         try {
-            server = HttpServer.create(new InetSocketAddress(DEFAULT_HTTP_HOST, DEFAULT_HTTP_PORT), 1024);
+            server = HttpServer.create(new InetSocketAddress(host, port), 1024);
         } catch (IOException e) {
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(
@@ -45,6 +59,9 @@ public class TrinityBasicHttpServer implements Runnable {
 
         // Set up the context and the handler
         server.createContext("/", new TrinityBasicHttpHandler(scene));
+        // Streaming NDJSON/JSON array batches and ingest stats
+        server.createContext(TrinityIngestHttpHandler.CONTEXT_PATH,
+            new TrinityIngestHttpHandler(IngestCoalescer.forScene(scene)));
 
         // Set the executor to use virtual threads
         server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
@@ -54,7 +71,7 @@ public class TrinityBasicHttpServer implements Runnable {
 
         Platform.runLater(() -> {
             scene.getRoot().fireEvent(
-                new CommandTerminalEvent("Trinity HTTP Receiver Active.",
+                new CommandTerminalEvent("Trinity HTTP Receiver Active on " + host + ":" + port + ".",
                     new Font("Consolas", 20), Color.GREEN));
         });
         // Wait until a stop signal is received
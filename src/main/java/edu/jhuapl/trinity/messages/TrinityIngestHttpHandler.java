@@ -0,0 +1,278 @@
+package edu.jhuapl.trinity.messages;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Batch ingest endpoints for high rate FeatureVector producers.
+ * <p>
+ * POST {@value #BATCH_PATH} accepts a body of newline delimited JSON
+ * FeatureVectors or a single JSON array of them, optionally gzip compressed
+ * (Content-Encoding: gzip). The body is parsed incrementally from the request
+ * stream and every vector is queued on the {@link IngestCoalescer} feeding the
+ * scene, so a request of any size costs one round trip and no full-body copy.
+ * The reply is 202 Accepted with the number of vectors queued as soon as the
+ * body has been consumed; rendering happens later on animation pulses.
+ * <p>
+ * When the coalescer backlog is above the high water mark the request is
+ * refused with 429 and Retry-After before its body is read. A backlog that
+ * fills up while a body is streaming pauses reading (TCP backpressure) for up
+ * to the configured wait, then answers 429 with the count already accepted,
+ * which are always the leading vectors of the body.
+ * <p>
+ * GET {@value #STATS_PATH} returns request and vector throughput over the last
+ * {@value #RATE_WINDOW_SECONDS} seconds plus coalescer queue depth and totals.
+ *
+ * @author Sean Phillips
+ */
+public class TrinityIngestHttpHandler implements HttpHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(TrinityIngestHttpHandler.class);
+    public static final String CONTEXT_PATH = "/ingest";
+    public static final String BATCH_PATH = CONTEXT_PATH + "/featurevectors";
+    public static final String STATS_PATH = CONTEXT_PATH + "/stats";
+    public static final int RATE_WINDOW_SECONDS = 10;
+    public static final int DEFAULT_RETRY_AFTER_SECONDS = 1;
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 1000;
+    private static final long CAPACITY_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final IngestCoalescer coalescer;
+    private final ObjectReader vectorReader;
+    private final ObjectMapper mapper;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final RateMeter requestRate = new RateMeter(RATE_WINDOW_SECONDS);
+    private final RateMeter vectorRate = new RateMeter(RATE_WINDOW_SECONDS);
+    private volatile double highWaterFraction = 0.75;
+    private volatile long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+    private volatile int retryAfterSeconds = DEFAULT_RETRY_AFTER_SECONDS;
+
+    public TrinityIngestHttpHandler(IngestCoalescer coalescer) {
+        this.coalescer = coalescer;
+        mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        vectorReader = mapper.readerFor(FeatureVector.class);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (STATS_PATH.equals(path) && "GET".equals(method)) {
+                sendJson(exchange, 200, mapper.writeValueAsString(getStats()));
+            } else if (BATCH_PATH.equals(path) && "POST".equals(method)) {
+                handleBatch(exchange);
+            } else {
+                sendJson(exchange, 404, "{\"error\":\"Not Found\"}");
+            }
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        requests.increment();
+        requestRate.mark(1);
+        if (coalescer.getPendingCount() >= highWaterMark()) {
+            rejected.increment();
+            sendRetryLater(exchange, 0);
+            return;
+        }
+        long count = 0;
+        try {
+            count = streamInto(exchange);
+        } catch (QueueFullException ex) {
+            rejected.increment();
+            sendRetryLater(exchange, ex.accepted);
+            return;
+        } catch (MalformedBatchException ex) {
+            // vectors ahead of the bad record are already queued; report how many
+            malformed.increment();
+            LOG.info("Malformed FeatureVector batch after {} vectors: {}", ex.accepted, ex.getMessage());
+            sendJson(exchange, 400, String.format(
+                "{\"error\":\"Malformed JSON\",\"accepted\":%d}", ex.accepted));
+            return;
+        }
+        sendJson(exchange, 202, String.format("{\"accepted\":%d}", count));
+    }
+
+    /**
+     * Parses the body record by record onto the coalescer.
+     *
+     * @return vectors queued
+     */
+    private long streamInto(HttpExchange exchange) throws QueueFullException, MalformedBatchException {
+        long count = 0;
+        try (InputStream in = requestBody(exchange);
+             MappingIterator<FeatureVector> vectors = vectorReader.readValues(in)) {
+            while (vectors.hasNextValue()) {
+                FeatureVector featureVector = vectors.nextValue();
+                if (!awaitCapacity()) throw new QueueFullException(count);
+                coalescer.offer(featureVector);
+                count++;
+            }
+            return count;
+        } catch (IOException | RuntimeException ex) {
+            throw new MalformedBatchException(count, ex);
+        } finally {
+            if (count > 0) {
+                accepted.add(count);
+                vectorRate.mark(count);
+            }
+        }
+    }
+
+    private static InputStream requestBody(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if (null != encoding && encoding.trim().equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(body, 1 << 16);
+        }
+        return body;
+    }
+
+    private int highWaterMark() {
+        return Math.max(1, (int) (coalescer.getMaxPending() * highWaterFraction));
+    }
+
+    /**
+     * Parks until the coalescer has room below its pending bound or the wait expires.
+     */
+    private boolean awaitCapacity() {
+        if (coalescer.getPendingCount() < coalescer.getMaxPending()) return true;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        while (coalescer.getPendingCount() >= coalescer.getMaxPending()) {
+            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) return false;
+            LockSupport.parkNanos(CAPACITY_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private void sendRetryLater(HttpExchange exchange, long count) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        sendJson(exchange, 429, String.format(
+            "{\"error\":\"Ingest queue full\",\"accepted\":%d}", count));
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String response) throws IOException {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * @return snapshot of the values served by {@value #STATS_PATH}
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.sum());
+        stats.put("acceptedVectors", accepted.sum());
+        stats.put("rejectedRequests", rejected.sum());
+        stats.put("malformedRequests", malformed.sum());
+        stats.put("requestsPerSecond", requestRate.perSecond());
+        stats.put("vectorsPerSecond", vectorRate.perSecond());
+        stats.put("queueDepth", coalescer.getPendingCount());
+        stats.put("queueCapacity", coalescer.getMaxPending());
+        stats.put("highWaterMark", highWaterMark());
+        stats.put("deliveredVectors", coalescer.getDeliveredCount());
+        stats.put("droppedVectors", coalescer.getDroppedCount());
+        stats.put("batches", coalescer.getBatchCount());
+        return stats;
+    }
+
+    public IngestCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * @param highWaterFraction backlog, as a fraction of the coalescer's pending
+     *                          bound, above which new requests get 429
+     */
+    public void setHighWaterFraction(double highWaterFraction) {
+        if (!(highWaterFraction > 0 && highWaterFraction <= 1))
+            throw new IllegalArgumentException("highWaterFraction must be in (0, 1]");
+        this.highWaterFraction = highWaterFraction;
+    }
+
+    /**
+     * @param maxWaitMillis how long a streaming body may wait for queue room before 429
+     */
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    private static final class QueueFullException extends Exception {
+        final long accepted;
+
+        QueueFullException(long accepted) {
+            super(null, null, false, false);
+            this.accepted = accepted;
+        }
+    }
+
+    private static final class MalformedBatchException extends Exception {
+        final long accepted;
+
+        MalformedBatchException(long accepted, Exception cause) {
+            super(cause.getMessage(), cause);
+            this.accepted = accepted;
+        }
+    }
+
+    /**
+     * Events per second over a sliding window of one second buckets.
+     */
+    static final class RateMeter {
+        private final long[] epochSeconds;
+        private final long[] counts;
+
+        RateMeter(int windowSeconds) {
+            epochSeconds = new long[windowSeconds];
+            counts = new long[windowSeconds];
+        }
+
+        synchronized void mark(long n) {
+            long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+            int slot = (int) Math.floorMod(second, (long) counts.length);
+            if (epochSeconds[slot] != second) {
+                epochSeconds[slot] = second;
+                counts[slot] = 0;
+            }
+            counts[slot] += n;
+        }
+
+        synchronized double perSecond() {
+            long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+            long sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (now - epochSeconds[i] < counts.length) sum += counts[i];
+            }
+            return sum / (double) counts.length;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package edu.jhuapl.trinity.messages;
 
+import edu.jhuapl.trinity.messages.SpscRingBuffer.OverflowPolicy;
 import edu.jhuapl.trinity.messages.ZeroMQSubscriberConfig.CONNECTION;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,14 +9,19 @@ import org.zeromq.ZContext;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQ.Socket;
 
-import java.io.IOException;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Asynchronous service that will subscribe to a ZeroMQ feed
+ * <p>
+ * The receive loop blocks in a ZMQ.Poller and moves every available message
+ * into a preallocated {@link SpscRingBuffer}; a single processing thread
+ * drains the ring into the MessageProcessor as soon as it is signalled.
+ * When the ring is full the configured {@link OverflowPolicy} decides whether
+ * the oldest or newest message is dropped, or whether the receive loop waits
+ * (leaving ZeroMQ's own high water mark to push back on the sender).
  *
  * @author Sean Phillips
  */
@@ -33,9 +39,18 @@ public class ZeroMQFeedManager extends ScheduledThreadPoolExecutor {
     public static int DEFAULT_QUEUE_LIMIT = 1000;
     private int queueLimit = DEFAULT_QUEUE_LIMIT;
     /**
-     * thread safe collection of BoundingBox objects
+     * Queue capacity used when queueLimitEnabled is false (BLOCK policy, nothing dropped)
      */
-    private ConcurrentLinkedQueue<String> concurrentMessageQueue;
+    public static int UNLIMITED_QUEUE_CAPACITY = 1 << 16;
+    /**
+     * Messages handed to the processor per drain before re-checking state
+     */
+    public static int MAX_DRAIN_BATCH = 4096;
+    /**
+     * preallocated single producer (receive loop) / single consumer (processing thread) queue
+     */
+    private volatile SpscRingBuffer<String> messageQueue;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
     /**
      * When in playback mode limit how many detection data blocks to process
      */
@@ -63,7 +78,6 @@ public class ZeroMQFeedManager extends ScheduledThreadPoolExecutor {
         super(corePoolSize);
         this.config = config;
         this.processor = processor;
-        concurrentMessageQueue = new ConcurrentLinkedQueue<>();
         setThreadFactory((Runnable r) -> {
             Thread t = new Thread(r);
             t.setDaemon(true);
@@ -91,41 +105,36 @@ public class ZeroMQFeedManager extends ScheduledThreadPoolExecutor {
 
             currentHost = config.host;
             connected = true;
-            LOG.info("Starting ZeroMQ subscriber scheduled thread {}", threadGeneration);
-            this.scheduleAtFixedRate(() -> {
-                if (enabled) {
-                    try {
-                        processQueue();
-                    } catch (IOException ex) {
-                        LOG.error(null, ex);
-                    }
-                }
-            }, 0, scheduledFixedRate, TimeUnit.MILLISECONDS);
+            SpscRingBuffer<String> queue = queueLimitEnabled
+                ? new SpscRingBuffer<>(getQueueLimit(), overflowPolicy)
+                : new SpscRingBuffer<>(UNLIMITED_QUEUE_CAPACITY, OverflowPolicy.BLOCK);
+            SpscRingBuffer<String> previous = messageQueue;
+            if (null != previous) previous.close();
+            messageQueue = queue;
+            LOG.info("Starting ZeroMQ subscriber processing thread {}", threadGeneration);
+            this.execute(() -> processQueue(queue));
             threadGeneration++;
+
+            ZMQ.Poller poller = context.createPoller(1);
+            poller.register(subscriber, ZMQ.Poller.POLLIN);
             while (connected && !Thread.currentThread().isInterrupted()) {
-                if (enabled) {
-                    int wdt = 0; //watch dog timer
-                    String contents = ""; //if this is ever null then the zmq buffer is empty
-                    //Poll messages from ZMQ buffer up to a limit of 1000
-                    while (null != contents && wdt < 5000) {
-                        contents = null; //reset contents to null prior to ZMQ recvStr
-                        //@DEBUG SMP Useful debugging print
-                        //System.out.println("Attempting to recvStr from ZeroMQ...");
-                        // Read single message contents.
-                        contents = subscriber.recvStr(ZMQ.DONTWAIT); //Null on no message
-                        if (null != contents) {
-                            //@DEBUG SMP Useful debugging print
-                            //System.out.println("Recieved: " + contents);
-                            concurrentMessageQueue.add(contents);
-                            trimQueueNow();
-                        } else
-                            break; //null from recvStr means nothing in the zmq buffer
-                        wdt++; //keep ticking watch dog timer
+                if (!enabled) {
+                    //leave messages in the zmq buffer until processing is enabled
+                    Thread.sleep(scheduledFixedRate);
+                    continue;
+                }
+                //wake on arrival, or periodically to notice disconnect/disable
+                if (poller.poll(scheduledFixedRate) > 0 && poller.pollin(0)) {
+                    int wdt = 0; //watch dog timer, bounds one burst so state changes are noticed
+                    String contents;
+                    while (wdt++ < MAX_DRAIN_BATCH
+                        && null != (contents = subscriber.recvStr(ZMQ.DONTWAIT))) { //Null on no message
+                        queue.offer(contents);
                     }
                 }
-                Thread.sleep(scheduledFixedRate);
             }
-            LOG.info("Ending ZeroMQ subscriber scheduled thread {}", threadGeneration);
+            poller.close();
+            LOG.info("Ending ZeroMQ subscriber thread {}", threadGeneration);
         } catch (Exception ex) {
             LOG.error(null, ex);
         } finally {
@@ -141,32 +150,27 @@ public class ZeroMQFeedManager extends ScheduledThreadPoolExecutor {
         this.config = config;
     }
 
-    private void processQueue() throws IOException {
-//        System.out.print("Setting took.... ");
-//        long startTime = System.nanoTime();
-        //retrieve all the messages from the queue
-        String[] messages = concurrentMessageQueue.toArray(new String[0]);
-        concurrentMessageQueue.clear();
-        for (String message : messages) {
-            processor.process(message);
-        }
-//        Utils.printTotalTime(startTime);
-    }
-
-    public void trimQueueNow() {
-//        long startTime;
-//        System.out.print("Queueing took... ");
-//        startTime = System.nanoTime();
-        int size = concurrentMessageQueue.size();
-        if (queueLimitEnabled && size > getQueueLimit()) {
-            for (int i = 0; i < size - getQueueLimit(); i++)
-                concurrentMessageQueue.poll();
+    /**
+     * Consumer loop for one connection: hands queued messages to the processor
+     * until the queue is closed by a disconnect or a new connection.
+     */
+    private void processQueue(SpscRingBuffer<String> queue) {
+        while (!queue.isClosed() && !Thread.currentThread().isInterrupted()) {
+            if (!queue.await(scheduledFixedRate, TimeUnit.MILLISECONDS)) continue;
+            queue.drain(message -> {
+                try {
+                    processor.process(message);
+                } catch (Exception ex) {
+                    LOG.error("Unable to process ZeroMQ message", ex);
+                }
+            }, MAX_DRAIN_BATCH);
         }
-//        Utils.printTotalTime(startTime);
     }
 
     public void disconnect(boolean shutdown) {
         connected = false;
+        SpscRingBuffer<String> queue = messageQueue;
+        if (null != queue) queue.close();
         if (null != subscriber) {
             if (config.connection == CONNECTION.SUBSCRIBER) {
                 subscriber.unsubscribe("");
@@ -227,6 +231,44 @@ public class ZeroMQFeedManager extends ScheduledThreadPoolExecutor {
         this.queueLimit = queueLimit;
     }
 
+    /**
+     * @return overflow behaviour applied to the next connection when queueLimitEnabled
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Takes effect on the next call to startProcessing().
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP_OLDEST : overflowPolicy;
+    }
+
+    /**
+     * @return messages received on the current connection, including dropped ones
+     */
+    public long getReceivedCount() {
+        SpscRingBuffer<String> queue = messageQueue;
+        return null == queue ? 0 : queue.getReceivedCount();
+    }
+
+    /**
+     * @return messages dropped by the overflow policy on the current connection
+     */
+    public long getDroppedCount() {
+        SpscRingBuffer<String> queue = messageQueue;
+        return null == queue ? 0 : queue.getDroppedCount();
+    }
+
+    /**
+     * @return messages waiting to be processed
+     */
+    public int getQueueDepth() {
+        SpscRingBuffer<String> queue = messageQueue;
+        return null == queue ? 0 : queue.size();
+    }
+
     public ZeroMQSubscriberConfig getConfig() {
         return config;
     }
@@ -365,6 +365,44 @@ public enum AnalysisUtils {
         return projectedVectors;
     }
 
+    /**
+     * @param array      rows of data
+     * @param components number of principal axes to compute
+     * @return rows x components projections onto the top principal axes
+     * Truncated Principal Component Analysis by randomized subspace iteration.
+     * Only the requested axes are computed, without building the D x D
+     * covariance, so cost is O(N·D·k) rather than O(N·D²). Like doCommonsPCA
+     * the axes come from the mean centered data and the original rows are
+     * projected onto them.
+     * @see RandomizedPca
+     */
+    public static double[][] doRandomizedPCA(double[][] array, int components) {
+        LOG.info("Randomized PCA, {} components... ", components);
+        long startTime = System.nanoTime();
+        RandomizedPca pca = new RandomizedPca(components).fit(array);
+        double[][] projected = pca.projectUncentered(array);
+        Utils.printTotalTime(startTime);
+        return projected;
+    }
+
+    /**
+     * @param array      rows of data
+     * @param components number of singular vectors to compute
+     * @return rows x components projections onto the top right singular vectors (U·S)
+     * Truncated Singular Value Decomposition of the uncentered data by
+     * randomized subspace iteration.
+     * @see RandomizedPca
+     */
+    public static double[][] doRandomizedSVD(double[][] array, int components) {
+        LOG.info("Randomized SVD, {} components... ", components);
+        long startTime = System.nanoTime();
+        RandomizedPca svd = new RandomizedPca(components, RandomizedPca.DEFAULT_OVERSAMPLES,
+            RandomizedPca.DEFAULT_ITERATIONS, false, 42L).fit(array);
+        double[][] projected = svd.transform(array);
+        Utils.printTotalTime(startTime);
+        return projected;
+    }
+
     public static SingularValueDecomposition getSVD(double[][] array) {
         //create real matrix
         RealMatrix realMatrix = MatrixUtils.createRealMatrix(array);
@@ -467,6 +505,19 @@ public enum AnalysisUtils {
         return projected;
     }
 
+    /**
+     * Fits with layoutThreads for the SGD layout phase only, leaving the
+     * thread settings of the given Umap untouched.
+     */
+    public static double[][] fitUMAP(FeatureCollection featureCollection, Umap umap, int layoutThreads) {
+        double[][] data = featureCollection.convertFeaturesToArray();
+        LOG.info("Starting UMAP Fit... ");
+        long start = System.nanoTime();
+        double[][] projected = umap.fitTransform(data, layoutThreads);
+        Utils.printTotalTime(start);
+        return projected;
+    }
+
     public static double[][] transformUMAP(FeatureCollection featureCollection, Umap umap) {
         double[][] data = featureCollection.convertFeaturesToArray();
         LOG.info("Starting UMAP Transform... ");
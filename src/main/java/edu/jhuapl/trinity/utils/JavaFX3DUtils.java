@@ -1,6 +1,7 @@
 package edu.jhuapl.trinity.utils;
 
 import edu.jhuapl.trinity.data.Trajectory;
+import edu.jhuapl.trinity.data.TrajectoryStore;
 import edu.jhuapl.trinity.data.graph.GraphNode;
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 import edu.jhuapl.trinity.javafx.events.CommandTerminalEvent;
@@ -61,6 +62,10 @@ import java.util.function.Function;
 public enum JavaFX3DUtils {
     INSTANCE;
     public static double EPSILON = 0.000000001;
+    /**
+     * Trajectories longer than this are drawn from a decimated level of detail.
+     */
+    public static int MAX_POLYLINE_POINTS = 20_000;
     private static final Logger LOG = LoggerFactory.getLogger(JavaFX3DUtils.class);
     static List<Image> tiles = null;
     public static Function<Point3D, javafx.geometry.Point3D> toFX =
@@ -574,24 +579,59 @@ public enum JavaFX3DUtils {
     }
 
     public static List<Point3D> convertToPoint3D(Trajectory trajectory, double scale, double sceneWidth, double sceneScale) {
-        //Convert the Intermediate states to 3D coordinate space
-        List<Point3D> points = new ArrayList<>();
-
-        ArrayList<double[]> stateList = trajectory.states;
-        for (int i = 0; i < stateList.size(); i++) {
-            double[] value = stateList.get(i).clone();
-            //X ==> X Positive
-            float xCoord = (float) (value[0] * scale);
-            //Y ==> Y Positive
-            float yCoord = (float) (value[1] * scale);
-            //Z ==> Z Positive
-            float zCoord = (float) (value[2] * scale);
-
-            points.add(new Point3D(xCoord, yCoord, zCoord));
+        return convertToPoint3D(trajectory, Integer.MAX_VALUE, scale);
+    }
+
+    /**
+     * Converts the newest tailSize states of a trajectory to 3D points. States
+     * are read from the trajectory's TrajectoryStore at the finest level of
+     * detail that fits MAX_POLYLINE_POINTS, so the polyline mesh stays bounded
+     * no matter how many states the track holds.
+     */
+    public static List<Point3D> convertToPoint3D(Trajectory trajectory, int tailSize, double scale) {
+        TrajectoryStore store = trajectory.getStore();
+        int to = store.size();
+        int from = Math.max(0, to - tailSize);
+        return toPoint3D(store.slice(from, to, store.levelForBudget(from, to, MAX_POLYLINE_POINTS)), scale);
+    }
+
+    /**
+     * Converts the states with t0 &lt;= time &lt;= t1 to 3D points at the
+     * coarsest level of detail whose error stays under maxError scene units
+     * (e.g. {@link #pixelSize}), coarser still if needed to fit MAX_POLYLINE_POINTS.
+     */
+    public static List<Point3D> convertToPoint3D(Trajectory trajectory, double t0, double t1,
+                                                 double maxError, double scale) {
+        TrajectoryStore store = trajectory.getStore();
+        int from = store.indexAtOrAfter(t0);
+        int to = store.indexAfter(t1);
+        int level = Math.max(store.levelFor(maxError / Math.abs(scale)),
+            store.levelForBudget(from, to, MAX_POLYLINE_POINTS));
+        return toPoint3D(store.slice(from, to, level), scale);
+    }
+
+    private static List<Point3D> toPoint3D(TrajectoryStore.Slice slice, double scale) {
+        List<Point3D> points = new ArrayList<>(slice.count());
+        for (int i = 0; i < slice.count(); i++) {
+            //X ==> X Positive, Y ==> Y Positive, Z ==> Z Positive
+            points.add(new Point3D(
+                (float) (slice.get(i, 0) * scale),
+                (float) (slice.get(i, 1) * scale),
+                (float) (slice.get(i, 2) * scale)));
         }
         return points;
     }
 
+    /**
+     * Scene units covered by one pixel at the camera's distance, the largest
+     * error a decimated polyline can have without the difference showing.
+     */
+    public static double pixelSize(PerspectiveCamera camera, double viewportHeight) {
+        double distance = Math.abs(camera.getTranslateZ());
+        double fov = Math.toRadians(camera.getFieldOfView());
+        return 2.0 * distance * Math.tan(fov / 2.0) / Math.max(1.0, viewportHeight);
+    }
+
     /**
      * Convert a Trajectory object to a 3D TriangleMesh in the form of a PolyLine3D.The integrator has the following orientation:
      * X axis positive to the right of the screen
@@ -614,7 +654,7 @@ public enum JavaFX3DUtils {
     public static Trajectory3D buildPolyLineFromTrajectory(int trial, int day,
                                                            Trajectory trajectory, Color color,
                                                            double scale, double sceneWidth, double sceneScale) {
-        if (trajectory.states.isEmpty()) {
+        if (trajectory.getStateCount() == 0) {
             return null;
         }
         List<Point3D> points = convertToPoint3D(trajectory, scale, sceneWidth, sceneScale);
@@ -626,16 +666,26 @@ public enum JavaFX3DUtils {
     public static Trajectory3D buildPolyLineFromTrajectory(
         Trajectory trajectory, float trajWidth, Color color, int tailSize,
         double scale, double sceneWidth, double sceneScale) {
-        if (trajectory.states.isEmpty()) {
+        if (trajectory.getStateCount() == 0) {
             return null;
         }
-        List<Point3D> points = convertToPoint3D(trajectory, scale, sceneWidth, sceneScale);
         //Trim older points based on tail size
-        if (points.size() > tailSize)
-            return new Trajectory3D(1, 1, trajectory,
-                points.subList(points.size() - tailSize, points.size()), trajWidth, color);
-        else
-            return new Trajectory3D(1, 1, trajectory, points, trajWidth, color);
+        List<Point3D> points = convertToPoint3D(trajectory, tailSize, scale);
+        return new Trajectory3D(1, 1, trajectory, points, trajWidth, color);
+    }
+
+    /**
+     * Builds the polyline for a time window of a trajectory, decimated to maxError
+     * scene units (see {@link #convertToPoint3D(Trajectory, double, double, double, double)}).
+     */
+    public static Trajectory3D buildPolyLineFromTrajectory(
+        Trajectory trajectory, float trajWidth, Color color,
+        double t0, double t1, double maxError, double scale) {
+        List<Point3D> points = convertToPoint3D(trajectory, t0, t1, maxError, scale);
+        if (points.isEmpty()) {
+            return null;
+        }
+        return new Trajectory3D(1, 1, trajectory, points, trajWidth, color);
     }
 
     /**
@@ -0,0 +1,270 @@
+package edu.jhuapl.trinity.utils;
+
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Landmark MDS (de Silva and Tenenbaum) that never forms an N x N matrix.
+ * <p>
+ * L landmarks are chosen by max-min sampling: each new landmark is the point
+ * farthest from all landmarks chosen so far, and the N distances from every
+ * landmark are computed in parallel row blocks and kept as float squared
+ * distances. Classical MDS on the small L x L landmark block gives the landmark
+ * coordinates; every point is then placed by distance-based triangulation
+ * against the landmarks. Memory is O(N·L) and time O(N·L·cost(distance)), so
+ * hundreds of thousands of points embed in the space a 20k point full matrix
+ * would need.
+ * <p>
+ * Distances are divided by the distance from the first landmark to the point
+ * farthest from it (a diameter estimate), which keeps coordinates on roughly
+ * the same normalized scale as the full matrix pipeline.
+ * Kruskal stress-1 is reported over a random sample of point pairs.
+ *
+ * @author Sean Phillips
+ */
+public class LandmarkMds {
+    public static final int DEFAULT_LANDMARKS = 100;
+    public static final int DEFAULT_STRESS_PAIRS = 100_000;
+    /**
+     * Largest input the full-matrix MDS pipeline is given, since it holds several
+     * N x N matrices; larger inputs are embedded with landmark MDS.
+     */
+    public static final int MAX_FULL_MATRIX_POINTS = 20_000;
+    /**
+     * Points per parallel block of a distance pass.
+     */
+    static final int BLOCK_ROWS = 4096;
+
+    /**
+     * Symmetric dissimilarity between point indices.
+     */
+    public interface Distances {
+        int size();
+
+        double distance(int i, int j);
+    }
+
+    /**
+     * @param embedding N x outputDim coordinates
+     * @param landmarks indices of the landmark points in selection order
+     * @param scale     distance that was mapped to 1.0
+     * @param stress    Kruskal stress-1 over the sampled pairs, NaN when not sampled
+     */
+    public record Result(double[][] embedding, int[] landmarks, double scale, double stress) {
+    }
+
+    private final int outputDim;
+    private final int landmarkCount;
+    private final int stressPairs;
+    private final long seed;
+
+    public LandmarkMds(int outputDim, int landmarkCount) {
+        this(outputDim, landmarkCount, DEFAULT_STRESS_PAIRS, 42L);
+    }
+
+    /**
+     * @param outputDim     embedding dimensions
+     * @param landmarkCount landmarks to select, at least outputDim + 1
+     * @param stressPairs   random pairs for the stress estimate, 0 to skip it
+     * @param seed          seed of the first landmark and the stress sample
+     */
+    public LandmarkMds(int outputDim, int landmarkCount, int stressPairs, long seed) {
+        if (outputDim < 1 || landmarkCount <= outputDim || stressPairs < 0)
+            throw new IllegalArgumentException("need outputDim >= 1, landmarkCount > outputDim, stressPairs >= 0");
+        this.outputDim = outputDim;
+        this.landmarkCount = landmarkCount;
+        this.stressPairs = stressPairs;
+        this.seed = seed;
+    }
+
+    /**
+     * Euclidean distances between rows, computed on demand.
+     */
+    public static Distances euclidean(double[][] rows) {
+        return new Distances() {
+            @Override
+            public int size() {
+                return rows.length;
+            }
+
+            @Override
+            public double distance(int i, int j) {
+                double[] a = rows[i], b = rows[j];
+                double sum = 0;
+                for (int d = 0; d < a.length; d++) {
+                    double t = a[d] - b[d];
+                    sum += t * t;
+                }
+                return Math.sqrt(sum);
+            }
+        };
+    }
+
+    /**
+     * Entries of a precomputed square matrix, averaged with the transpose in case it is not symmetric.
+     */
+    public static Distances matrix(double[][] distances) {
+        return new Distances() {
+            @Override
+            public int size() {
+                return distances.length;
+            }
+
+            @Override
+            public double distance(int i, int j) {
+                return 0.5 * (distances[i][j] + distances[j][i]);
+            }
+        };
+    }
+
+    public Result embed(Distances distances) {
+        final int n = distances.size();
+        if (n == 0) return new Result(new double[0][outputDim], new int[0], 1.0, Double.NaN);
+        final int maxLandmarks = Math.min(landmarkCount, n);
+        final int blocks = (n + BLOCK_ROWS - 1) / BLOCK_ROWS;
+
+        // max-min landmark selection, keeping the squared distance rows
+        float[][] sq = new float[maxLandmarks][];
+        int[] landmarks = new int[maxLandmarks];
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.POSITIVE_INFINITY);
+        int[] blockArg = new int[blocks];
+        double[] blockMax = new double[blocks];
+        double scale = 0;
+        int next = new Random(seed).nextInt(n);
+        int l = 0;
+        while (l < maxLandmarks) {
+            final int lm = next;
+            final float[] row = new float[n];
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                int lo = b * BLOCK_ROWS, hi = Math.min(n, lo + BLOCK_ROWS);
+                double best = -1;
+                int arg = lo;
+                for (int i = lo; i < hi; i++) {
+                    double d = distances.distance(lm, i);
+                    row[i] = (float) (d * d);
+                    if (d < minDist[i]) minDist[i] = d;
+                    if (minDist[i] > best) {
+                        best = minDist[i];
+                        arg = i;
+                    }
+                }
+                blockMax[b] = best;
+                blockArg[b] = arg;
+            });
+            landmarks[l] = lm;
+            sq[l++] = row;
+            double best = -1;
+            for (int b = 0; b < blocks; b++) {
+                if (blockMax[b] > best) {
+                    best = blockMax[b];
+                    next = blockArg[b];
+                }
+            }
+            if (l == 1) scale = best; //farthest point from the first landmark
+            if (best <= 0) break; //every remaining point duplicates a landmark
+        }
+        final int lc = l;
+        final int[] chosen = Arrays.copyOf(landmarks, lc);
+        if (!(scale > 0)) scale = 1.0;
+        final double s2 = scale * scale;
+
+        // classical MDS on the double-centered landmark block
+        double[][] block = new double[lc][lc];
+        for (int i = 0; i < lc; i++)
+            for (int j = 0; j < lc; j++)
+                block[i][j] = 0.5 * (sq[i][chosen[j]] + sq[j][chosen[i]]) / s2;
+        double[] columnMean = new double[lc];
+        double grand = 0;
+        for (int i = 0; i < lc; i++) {
+            for (int j = 0; j < lc; j++) columnMean[j] += block[i][j];
+        }
+        for (int j = 0; j < lc; j++) {
+            columnMean[j] /= lc;
+            grand += columnMean[j];
+        }
+        grand /= lc;
+        double[][] centered = new double[lc][lc];
+        for (int i = 0; i < lc; i++)
+            for (int j = 0; j < lc; j++)
+                centered[i][j] = -0.5 * (block[i][j] - columnMean[i] - columnMean[j] + grand);
+        EigenDecomposition eigen = new EigenDecomposition(MatrixUtils.createRealMatrix(centered));
+        double[] values = eigen.getRealEigenvalues();
+        Integer[] byValue = new Integer[lc];
+        for (int i = 0; i < lc; i++) byValue[i] = i;
+        Arrays.sort(byValue, (a, b) -> Double.compare(values[b], values[a]));
+
+        // triangulation operator: rows v_k / sqrt(lambda_k); non-positive axes stay zero
+        final int k = outputDim;
+        final double[][] pseudo = new double[k][lc];
+        for (int c = 0; c < k && c < lc; c++) {
+            double lambda = values[byValue[c]];
+            if (lambda <= 1e-12) continue;
+            RealVector v = eigen.getEigenvector(byValue[c]);
+            double inv = 1.0 / Math.sqrt(lambda);
+            for (int j = 0; j < lc; j++) pseudo[c][j] = v.getEntry(j) * inv;
+        }
+        final double[][] embedding = new double[n][k];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int lo = b * BLOCK_ROWS, hi = Math.min(n, lo + BLOCK_ROWS);
+            double[] delta = new double[lc];
+            for (int i = lo; i < hi; i++) {
+                for (int j = 0; j < lc; j++) delta[j] = sq[j][i] / s2 - columnMean[j];
+                double[] x = embedding[i];
+                for (int c = 0; c < k; c++) {
+                    double[] p = pseudo[c];
+                    double sum = 0;
+                    for (int j = 0; j < lc; j++) sum += p[j] * delta[j];
+                    x[c] = -0.5 * sum;
+                }
+            }
+        });
+        double stress = stressPairs > 0 && n > 1
+            ? sampledStress(distances, embedding, scale, stressPairs, seed)
+            : Double.NaN;
+        return new Result(embedding, chosen, scale, stress);
+    }
+
+    /**
+     * Kruskal stress-1, sqrt(sum (d - d')^2 / sum d^2), over random pairs, with
+     * the original distances divided by scale.
+     */
+    public static double sampledStress(Distances distances, double[][] embedding,
+                                       double scale, int pairs, long seed) {
+        int n = distances.size();
+        int[] a = new int[pairs], b = new int[pairs];
+        Random random = new Random(seed + 1);
+        for (int p = 0; p < pairs; p++) {
+            a[p] = random.nextInt(n);
+            b[p] = random.nextInt(n - 1);
+            if (b[p] >= a[p]) b[p]++;
+        }
+        int blocks = (pairs + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        double[] num = new double[blocks], den = new double[blocks];
+        IntStream.range(0, blocks).parallel().forEach(blk -> {
+            int lo = blk * BLOCK_ROWS, hi = Math.min(pairs, lo + BLOCK_ROWS);
+            double sn = 0, sd = 0;
+            for (int p = lo; p < hi; p++) {
+                double d = distances.distance(a[p], b[p]) / scale;
+                double[] x = embedding[a[p]], y = embedding[b[p]];
+                double e = 0;
+                for (int c = 0; c < x.length; c++) {
+                    double t = x[c] - y[c];
+                    e += t * t;
+                }
+                double r = d - Math.sqrt(e);
+                sn += r * r;
+                sd += d * d;
+            }
+            num[blk] = sn;
+            den[blk] = sd;
+        });
+        double sn = Arrays.stream(num).sum(), sd = Arrays.stream(den).sum();
+        return sd > 0 ? Math.sqrt(sn / sd) : 0.0;
+    }
+}
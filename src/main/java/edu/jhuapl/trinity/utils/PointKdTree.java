@@ -0,0 +1,273 @@
+package edu.jhuapl.trinity.utils;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Static 3D k-d tree over a packed xyz float array, used to pick rendered points
+ * with a mouse ray instead of per-node event handlers.
+ * <p>
+ * Nodes are stored in flat arrays; each node covers a contiguous range of the
+ * permuted point order and keeps its bounding box, so ray queries can prune whole
+ * subtrees whose box (grown by the pick radius) the ray misses or reaches only
+ * beyond the best hit so far. Building is O(n log n); a pick visits O(log n)
+ * nodes for rays through sparse regions.
+ *
+ * @author Sean Phillips
+ */
+public final class PointKdTree {
+    private static final int LEAF_SIZE = 8;
+
+    private final float[] xyz;
+    private final int[] order;
+    // per node: range into order, children (-1 for leaves) and bounding box
+    private int[] start, end, left, right;
+    private float[] box; // minX,minY,minZ,maxX,maxY,maxZ per node
+    private int nodeCount = 0;
+    private final int size;
+
+    /**
+     * @param xyz   packed coordinates, point i at [3i, 3i+3); referenced, not copied
+     * @param count number of points to index
+     */
+    public PointKdTree(float[] xyz, int count) {
+        this.xyz = xyz;
+        this.size = count;
+        order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        int maxNodes = Math.max(1, 2 * (count / LEAF_SIZE + 1));
+        start = new int[maxNodes];
+        end = new int[maxNodes];
+        left = new int[maxNodes];
+        right = new int[maxNodes];
+        box = new float[maxNodes * 6];
+        if (count > 0) build(0, count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int build(int lo, int hi) {
+        int node = nodeCount++;
+        if (node >= start.length) grow();
+        start[node] = lo;
+        end[node] = hi;
+        float minX = Float.POSITIVE_INFINITY, minY = minX, minZ = minX;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+        for (int k = lo; k < hi; k++) {
+            int p = 3 * order[k];
+            float x = xyz[p], y = xyz[p + 1], z = xyz[p + 2];
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+            if (z < minZ) minZ = z;
+            if (z > maxZ) maxZ = z;
+        }
+        int b = 6 * node;
+        box[b] = minX;
+        box[b + 1] = minY;
+        box[b + 2] = minZ;
+        box[b + 3] = maxX;
+        box[b + 4] = maxY;
+        box[b + 5] = maxZ;
+        if (hi - lo <= LEAF_SIZE) {
+            left[node] = -1;
+            right[node] = -1;
+            return node;
+        }
+        // split the widest axis at the median
+        float sx = maxX - minX, sy = maxY - minY, sz = maxZ - minZ;
+        int axis = sx >= sy && sx >= sz ? 0 : (sy >= sz ? 1 : 2);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        int l = build(lo, mid);
+        int r = build(mid, hi);
+        left[node] = l;
+        right[node] = r;
+        return node;
+    }
+
+    private void grow() {
+        int n = start.length * 2;
+        start = Arrays.copyOf(start, n);
+        end = Arrays.copyOf(end, n);
+        left = Arrays.copyOf(left, n);
+        right = Arrays.copyOf(right, n);
+        box = Arrays.copyOf(box, n * 6);
+    }
+
+    private float coord(int k, int axis) {
+        return xyz[3 * order[k] + axis];
+    }
+
+    /**
+     * Quickselect so order[k] holds the k-th smallest coordinate on the axis within [lo, hi].
+     */
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi > lo) {
+            float pivot = coord((lo + hi) >>> 1, axis);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (coord(i, axis) < pivot) i++;
+                while (coord(j, axis) > pivot) j--;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i] = order[j];
+                    order[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    /**
+     * Index of the point nearest the origin along a ray among points within radius of the
+     * ray, treating each point as a sphere of that radius. Points behind the origin are ignored.
+     *
+     * @param accept optional filter (e.g. hidden points), null accepts all
+     * @return point index, or -1 when the ray hits nothing
+     */
+    public int nearestAlongRay(double ox, double oy, double oz,
+                               double dx, double dy, double dz,
+                               double radius, IntPredicate accept) {
+        if (size == 0) return -1;
+        double len = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (len == 0) return -1;
+        dx /= len;
+        dy /= len;
+        dz /= len;
+        double r2 = radius * radius;
+        double bestT = Double.POSITIVE_INFINITY;
+        int best = -1;
+
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            double tEnter = enter(node, ox, oy, oz, dx, dy, dz, radius);
+            if (tEnter > bestT) continue;
+            if (left[node] < 0) {
+                for (int k = start[node]; k < end[node]; k++) {
+                    int i = order[k];
+                    double tHit = rayHit(xyz, i, ox, oy, oz, dx, dy, dz, r2);
+                    if (tHit < bestT && (accept == null || accept.test(i))) {
+                        bestT = tHit;
+                        best = i;
+                    }
+                }
+                continue;
+            }
+            int a = left[node], b = right[node];
+            double ta = enter(a, ox, oy, oz, dx, dy, dz, radius);
+            double tb = enter(b, ox, oy, oz, dx, dy, dz, radius);
+            if (sp + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            // push the farther child first so the nearer one is searched first
+            if (ta <= tb) {
+                if (tb < bestT) stack[sp++] = b;
+                if (ta < bestT) stack[sp++] = a;
+            } else {
+                if (ta < bestT) stack[sp++] = a;
+                if (tb < bestT) stack[sp++] = b;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Distance along a unit direction ray to where it meets the sphere of squared radius r2
+     * around point i, or +infinity when it misses or the point is behind the origin.
+     * Lets callers scan points outside a tree with the same metric {@link #nearestAlongRay} uses.
+     */
+    public static double rayHit(float[] xyz, int i, double ox, double oy, double oz,
+                                double dx, double dy, double dz, double r2) {
+        int p = 3 * i;
+        double wx = xyz[p] - ox, wy = xyz[p + 1] - oy, wz = xyz[p + 2] - oz;
+        double t = wx * dx + wy * dy + wz * dz;
+        if (t < 0) return Double.POSITIVE_INFINITY;
+        double d2 = wx * wx + wy * wy + wz * wz - t * t;
+        if (d2 > r2) return Double.POSITIVE_INFINITY;
+        return t - Math.sqrt(r2 - d2);
+    }
+
+    /**
+     * Ray parameter where the ray enters the node box grown by pad, or +infinity on a miss.
+     */
+    private double enter(int node, double ox, double oy, double oz,
+                         double dx, double dy, double dz, double pad) {
+        int b = 6 * node;
+        double tMin = 0, tMax = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            double o = axis == 0 ? ox : (axis == 1 ? oy : oz);
+            double d = axis == 0 ? dx : (axis == 1 ? dy : dz);
+            double lo = box[b + axis] - pad, hi = box[b + 3 + axis] + pad;
+            if (Math.abs(d) < 1e-12) {
+                if (o < lo || o > hi) return Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double t1 = (lo - o) / d, t2 = (hi - o) / d;
+            if (t1 > t2) {
+                double t = t1;
+                t1 = t2;
+                t2 = t;
+            }
+            if (t1 > tMin) tMin = t1;
+            if (t2 < tMax) tMax = t2;
+            if (tMin > tMax) return Double.POSITIVE_INFINITY;
+        }
+        return tMin;
+    }
+
+    /**
+     * Index of the accepted point closest to (x, y, z), or -1 when none.
+     */
+    public int nearest(double x, double y, double z, IntPredicate accept) {
+        if (size == 0) return -1;
+        double bestD2 = Double.POSITIVE_INFINITY;
+        int best = -1;
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (boxDistance2(node, x, y, z) >= bestD2) continue;
+            if (left[node] < 0) {
+                for (int k = start[node]; k < end[node]; k++) {
+                    int i = order[k];
+                    int p = 3 * i;
+                    double ex = xyz[p] - x, ey = xyz[p + 1] - y, ez = xyz[p + 2] - z;
+                    double d2 = ex * ex + ey * ey + ez * ez;
+                    if (d2 < bestD2 && (accept == null || accept.test(i))) {
+                        bestD2 = d2;
+                        best = i;
+                    }
+                }
+                continue;
+            }
+            if (sp + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            int a = left[node], b = right[node];
+            if (boxDistance2(a, x, y, z) <= boxDistance2(b, x, y, z)) {
+                stack[sp++] = b;
+                stack[sp++] = a;
+            } else {
+                stack[sp++] = a;
+                stack[sp++] = b;
+            }
+        }
+        return best;
+    }
+
+    private double boxDistance2(int node, double x, double y, double z) {
+        int b = 6 * node;
+        double ex = Math.max(0, Math.max(box[b] - x, x - box[b + 3]));
+        double ey = Math.max(0, Math.max(box[b + 1] - y, y - box[b + 4]));
+        double ez = Math.max(0, Math.max(box[b + 2] - z, z - box[b + 5]));
+        return ex * ex + ey * ey + ez * ez;
+    }
+}
@@ -0,0 +1,450 @@
+package edu.jhuapl.trinity.utils;
+
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Truncated PCA/SVD by randomized subspace iteration.
+ * <p>
+ * Only the top-k principal axes are computed. A random D x l start basis
+ * (l = k + oversamples) is pushed through the scatter matrix Xc^T Xc a few
+ * times, re-orthonormalizing in between, and a final Rayleigh-Ritz step on the
+ * small l x l projected matrix gives the axes and their eigenvalues. Xc is the
+ * mean-centered data (PCA) or the raw data (SVD); it is never materialized and
+ * neither is the D x D covariance. Each iteration is one blocked, multi-threaded
+ * pass over the rows costing O(N·D·l), so 1M x 1024 rows reduce to a few
+ * seconds instead of the O(N·D²) covariance and full eigendecomposition.
+ * <p>
+ * {@link #partialFit(double[][])} folds later batches into the basis: the
+ * retained rank-l scatter V·diag(λ)·V^T plus the new batch's scatter (and the
+ * mean shift correction when centering) form the operator for a warm-started
+ * iteration, so streaming data can refine the axes without revisiting old rows.
+ * <p>
+ * Not thread-safe; fit and partialFit calls must be serialized by the caller.
+ *
+ * @author Sean Phillips
+ */
+public class RandomizedPca {
+    public static final int DEFAULT_OVERSAMPLES = 10;
+    public static final int DEFAULT_ITERATIONS = 4;
+    /**
+     * Rows per parallel block of a data pass.
+     */
+    static final int BLOCK_ROWS = 1024;
+
+    private final int components;
+    private final int oversamples;
+    private final int iterations;
+    private final boolean centered;
+    private final Random random;
+
+    private int dims = -1;
+    private int rank;
+    private long count = 0;
+    private double[] mean;
+    /**
+     * Orthonormal basis, dims x rank row-major, columns sorted by eigenvalue descending.
+     */
+    private double[] basis;
+    /**
+     * Scatter (sum of squares) captured by each basis column.
+     */
+    private double[] eigenvalues;
+
+    public RandomizedPca(int components) {
+        this(components, DEFAULT_OVERSAMPLES, DEFAULT_ITERATIONS, true, 42L);
+    }
+
+    /**
+     * @param components  principal axes to keep (k)
+     * @param oversamples extra basis columns carried for accuracy (p)
+     * @param iterations  data passes of subspace iteration (&gt;= 1)
+     * @param centered    true for PCA (subtract the column mean), false for truncated SVD
+     * @param seed        seed of the random start basis
+     */
+    public RandomizedPca(int components, int oversamples, int iterations, boolean centered, long seed) {
+        if (components < 1 || oversamples < 0 || iterations < 1)
+            throw new IllegalArgumentException("components and iterations must be positive, oversamples non-negative");
+        this.components = components;
+        this.oversamples = oversamples;
+        this.iterations = iterations;
+        this.centered = centered;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Fits the basis to rows from scratch, discarding any previous state.
+     */
+    public RandomizedPca fit(double[][] rows) {
+        checkRows(rows);
+        dims = rows[0].length;
+        rank = Math.min(dims, components + oversamples);
+        count = rows.length;
+        mean = centered ? columnMean(rows) : new double[dims];
+        double[] z = randomBasis(dims, rank);
+        final double[] rowMean = mean;
+        subspaceIteration(z, q -> scatterTimes(rows, rowMean, q));
+        return this;
+    }
+
+    /**
+     * Folds a new batch into the current basis; the first call is a plain fit.
+     */
+    public RandomizedPca partialFit(double[][] rows) {
+        if (count == 0) return fit(rows);
+        checkRows(rows);
+        if (rows[0].length != dims)
+            throw new IllegalArgumentException("batch width " + rows[0].length + " != fitted width " + dims);
+        final long n = count;
+        final int m = rows.length;
+        final double[] batchMean = centered ? columnMean(rows) : new double[dims];
+        final double[] delta = new double[dims];
+        final double shiftWeight = centered ? (double) n * m / (n + m) : 0.0;
+        for (int d = 0; d < dims; d++) delta[d] = batchMean[d] - mean[d];
+
+        final double[] oldBasis = basis;
+        final double[] oldEigenvalues = eigenvalues;
+        final int oldRank = rank;
+        rank = Math.min(dims, components + oversamples);
+        double[] z = new double[dims * rank];
+        // warm start from the previous axes, filling any extra columns randomly
+        double[] fill = randomBasis(dims, rank);
+        for (int d = 0; d < dims; d++) {
+            for (int j = 0; j < rank; j++) {
+                z[d * rank + j] = j < oldRank ? oldBasis[d * oldRank + j] : fill[d * rank + j];
+            }
+        }
+        subspaceIteration(z, q -> {
+            double[] out = scatterTimes(rows, batchMean, q);
+            lowRankTimes(oldBasis, oldEigenvalues, oldRank, q, out);
+            if (shiftWeight > 0) rankOneTimes(delta, shiftWeight, q, out);
+            return out;
+        });
+        for (int d = 0; d < dims; d++) mean[d] += delta[d] * m / (n + m);
+        count = n + m;
+        return this;
+    }
+
+    /**
+     * @return rows x k projections of the centered rows onto the principal axes
+     */
+    public double[][] transform(double[][] rows) {
+        return project(rows, mean);
+    }
+
+    /**
+     * @return rows x k dot products of the raw (uncentered) rows with the principal axes
+     */
+    public double[][] projectUncentered(double[][] rows) {
+        return project(rows, new double[dims]);
+    }
+
+    private double[][] project(double[][] rows, double[] offset) {
+        checkFitted();
+        final int k = getComponentCount();
+        final double[][] out = new double[rows.length][k];
+        IntStream.range(0, rows.length).parallel().forEach(i -> {
+            double[] x = rows[i];
+            double[] o = out[i];
+            for (int d = 0; d < dims; d++) {
+                double v = x[d] - offset[d];
+                int base = d * rank;
+                for (int j = 0; j < k; j++) o[j] += v * basis[base + j];
+            }
+        });
+        return out;
+    }
+
+    /**
+     * @return k x D principal axes, strongest first
+     */
+    public double[][] getComponents() {
+        checkFitted();
+        int k = getComponentCount();
+        double[][] axes = new double[k][dims];
+        for (int d = 0; d < dims; d++)
+            for (int j = 0; j < k; j++) axes[j][d] = basis[d * rank + j];
+        return axes;
+    }
+
+    /**
+     * @return variance along each of the k axes (scatter / (n - 1))
+     */
+    public double[] getExplainedVariance() {
+        checkFitted();
+        double denominator = Math.max(1, count - 1);
+        return Arrays.stream(eigenvalues, 0, getComponentCount())
+            .map(v -> v / denominator).toArray();
+    }
+
+    /**
+     * @return singular values of the (centered) data matrix for the k axes
+     */
+    public double[] getSingularValues() {
+        checkFitted();
+        return Arrays.stream(eigenvalues, 0, getComponentCount())
+            .map(v -> Math.sqrt(Math.max(0, v))).toArray();
+    }
+
+    public double[] getMean() {
+        return null == mean ? null : mean.clone();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getComponentCount() {
+        return Math.min(components, rank);
+    }
+
+    private interface Operator {
+        double[] apply(double[] q);
+    }
+
+    /**
+     * Subspace iteration with a closing Rayleigh-Ritz step. z is the start
+     * basis (dims x rank) and is overwritten.
+     */
+    private void subspaceIteration(double[] z, Operator scatter) {
+        orthonormalize(z, dims, rank);
+        double[] az = null;
+        for (int it = 0; it < iterations; it++) {
+            az = scatter.apply(z);
+            if (it < iterations - 1) {
+                System.arraycopy(az, 0, z, 0, z.length);
+                orthonormalize(z, dims, rank);
+            }
+        }
+        // Rayleigh-Ritz: eigen-decompose G = Z^T (S Z), rotate Z onto its eigenvectors
+        double[][] g = new double[rank][rank];
+        for (int d = 0; d < dims; d++) {
+            int base = d * rank;
+            for (int a = 0; a < rank; a++) {
+                double za = z[base + a];
+                if (za == 0.0) continue;
+                for (int b = 0; b < rank; b++) g[a][b] += za * az[base + b];
+            }
+        }
+        for (int a = 0; a < rank; a++) {
+            for (int b = a + 1; b < rank; b++) {
+                double s = 0.5 * (g[a][b] + g[b][a]);
+                g[a][b] = s;
+                g[b][a] = s;
+            }
+        }
+        EigenDecomposition ed = new EigenDecomposition(MatrixUtils.createRealMatrix(g));
+        double[] lambda = ed.getRealEigenvalues();
+        RealMatrix w = ed.getV();
+        Integer[] order = new Integer[rank];
+        for (int i = 0; i < rank; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> Double.compare(lambda[y], lambda[x]));
+
+        double[] rotated = new double[dims * rank];
+        double[][] wData = w.getData();
+        for (int d = 0; d < dims; d++) {
+            int base = d * rank;
+            for (int j = 0; j < rank; j++) {
+                int col = order[j];
+                double s = 0;
+                for (int a = 0; a < rank; a++) s += z[base + a] * wData[a][col];
+                rotated[base + j] = s;
+            }
+        }
+        basis = rotated;
+        eigenvalues = new double[rank];
+        for (int j = 0; j < rank; j++) eigenvalues[j] = Math.max(0, lambda[order[j]]);
+    }
+
+    /**
+     * One blocked parallel pass: returns Xc^T (Xc Q) where Xc = rows - center.
+     * Q and the accumulators are transposed internally (one contiguous array
+     * per basis column) so both inner loops run over the row width, and rows
+     * are taken four at a time so each basis column is read once per group.
+     */
+    static double[] scatterTimes(double[][] rows, double[] center, double[] q) {
+        final int n = rows.length;
+        final int dims = center.length;
+        final int rank = q.length / dims;
+        final double[][] qt = new double[rank][dims];
+        for (int d = 0; d < dims; d++)
+            for (int j = 0; j < rank; j++) qt[j][d] = q[d * rank + j];
+        final int blocks = (n + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        final int tasks = Math.max(1, Math.min(blocks, parallelism * 4));
+        final double[][][] partials = new double[tasks][][];
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            double[][] acc = new double[rank][dims];
+            double[] x0 = new double[dims], x1 = new double[dims], x2 = new double[dims], x3 = new double[dims];
+            int from = (int) ((long) n * task / tasks);
+            int to = (int) ((long) n * (task + 1) / tasks);
+            int i = from;
+            // four rows at a time: each basis column and accumulator is streamed once per group
+            for (; i + 3 < to; i += 4) {
+                center(rows[i], center, x0, dims);
+                center(rows[i + 1], center, x1, dims);
+                center(rows[i + 2], center, x2, dims);
+                center(rows[i + 3], center, x3, dims);
+                for (int j = 0; j < rank; j++) {
+                    double[] qj = qt[j];
+                    double t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+                    for (int d = 0; d < dims; d++) {
+                        double qd = qj[d];
+                        t0 += x0[d] * qd;
+                        t1 += x1[d] * qd;
+                        t2 += x2[d] * qd;
+                        t3 += x3[d] * qd;
+                    }
+                    double[] a = acc[j];
+                    for (int d = 0; d < dims; d++) {
+                        a[d] += t0 * x0[d] + t1 * x1[d] + t2 * x2[d] + t3 * x3[d];
+                    }
+                }
+            }
+            for (; i < to; i++) {
+                center(rows[i], center, x0, dims);
+                for (int j = 0; j < rank; j++) {
+                    double t = dot(x0, qt[j], dims);
+                    double[] a = acc[j];
+                    for (int d = 0; d < dims; d++) a[d] += t * x0[d];
+                }
+            }
+            partials[task] = acc;
+        });
+        double[] out = new double[dims * rank];
+        for (double[][] acc : partials) {
+            for (int j = 0; j < rank; j++) {
+                double[] a = acc[j];
+                for (int d = 0; d < dims; d++) out[d * rank + j] += a[d];
+            }
+        }
+        return out;
+    }
+
+    private static void center(double[] x, double[] center, double[] out, int dims) {
+        for (int d = 0; d < dims; d++) out[d] = x[d] - center[d];
+    }
+
+    /**
+     * Dot product with four independent accumulators so the loop pipelines.
+     */
+    private static double dot(double[] a, double[] b, int length) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int d = 0;
+        for (; d + 3 < length; d += 4) {
+            s0 += a[d] * b[d];
+            s1 += a[d + 1] * b[d + 1];
+            s2 += a[d + 2] * b[d + 2];
+            s3 += a[d + 3] * b[d + 3];
+        }
+        for (; d < length; d++) s0 += a[d] * b[d];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * out += V diag(lambda) V^T Q
+     */
+    private void lowRankTimes(double[] v, double[] lambda, int vRank, double[] q, double[] out) {
+        double[][] vtq = new double[vRank][rank];
+        for (int d = 0; d < dims; d++) {
+            for (int a = 0; a < vRank; a++) {
+                double va = v[d * vRank + a];
+                for (int j = 0; j < rank; j++) vtq[a][j] += va * q[d * rank + j];
+            }
+        }
+        for (int a = 0; a < vRank; a++)
+            for (int j = 0; j < rank; j++) vtq[a][j] *= lambda[a];
+        for (int d = 0; d < dims; d++) {
+            for (int a = 0; a < vRank; a++) {
+                double va = v[d * vRank + a];
+                for (int j = 0; j < rank; j++) out[d * rank + j] += va * vtq[a][j];
+            }
+        }
+    }
+
+    /**
+     * out += weight * delta (delta^T Q)
+     */
+    private void rankOneTimes(double[] delta, double weight, double[] q, double[] out) {
+        double[] dq = new double[rank];
+        for (int d = 0; d < dims; d++)
+            for (int j = 0; j < rank; j++) dq[j] += delta[d] * q[d * rank + j];
+        for (int d = 0; d < dims; d++)
+            for (int j = 0; j < rank; j++) out[d * rank + j] += weight * delta[d] * dq[j];
+    }
+
+    /**
+     * Modified Gram-Schmidt with one re-orthogonalization pass on the columns
+     * of a dims x rank row-major matrix. Columns that collapse (rank deficient
+     * data) are replaced with fresh random directions.
+     */
+    private void orthonormalize(double[] z, int rows, int cols) {
+        for (int j = 0; j < cols; j++) {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                double before = columnNorm(z, rows, cols, j);
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int p = 0; p < j; p++) {
+                        double dot = 0;
+                        for (int d = 0; d < rows; d++) dot += z[d * cols + j] * z[d * cols + p];
+                        for (int d = 0; d < rows; d++) z[d * cols + j] -= dot * z[d * cols + p];
+                    }
+                }
+                double norm = columnNorm(z, rows, cols, j);
+                if (norm > 1e-10 * Math.max(1.0, before)) {
+                    for (int d = 0; d < rows; d++) z[d * cols + j] /= norm;
+                    break;
+                }
+                for (int d = 0; d < rows; d++) z[d * cols + j] = random.nextGaussian();
+            }
+        }
+    }
+
+    private static double columnNorm(double[] z, int rows, int cols, int j) {
+        double s = 0;
+        for (int d = 0; d < rows; d++) s += z[d * cols + j] * z[d * cols + j];
+        return Math.sqrt(s);
+    }
+
+    private double[] randomBasis(int rows, int cols) {
+        double[] z = new double[rows * cols];
+        for (int i = 0; i < z.length; i++) z[i] = random.nextGaussian();
+        return z;
+    }
+
+    static double[] columnMean(double[][] rows) {
+        final int dims = rows[0].length;
+        final int blocks = (rows.length + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        double[] sum = IntStream.range(0, blocks).parallel()
+            .mapToObj(b -> {
+                double[] s = new double[dims];
+                int to = Math.min(rows.length, (b + 1) * BLOCK_ROWS);
+                for (int i = b * BLOCK_ROWS; i < to; i++) {
+                    double[] x = rows[i];
+                    for (int d = 0; d < dims; d++) s[d] += x[d];
+                }
+                return s;
+            })
+            .reduce(new double[dims], (a, b) -> {
+                double[] s = new double[dims];
+                for (int d = 0; d < dims; d++) s[d] = a[d] + b[d];
+                return s;
+            });
+        for (int d = 0; d < dims; d++) sum[d] /= rows.length;
+        return sum;
+    }
+
+    private static void checkRows(double[][] rows) {
+        if (rows == null || rows.length == 0 || rows[0] == null || rows[0].length == 0)
+            throw new IllegalArgumentException("rows must be a non-empty matrix");
+    }
+
+    private void checkFitted() {
+        if (null == basis) throw new IllegalStateException("RandomizedPca has not been fitted");
+    }
+}
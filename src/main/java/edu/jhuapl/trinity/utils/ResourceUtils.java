@@ -4,22 +4,14 @@ import edu.jhuapl.trinity.audio.AudioResourceProvider;
 import edu.jhuapl.trinity.css.StyleResourceProvider;
 import edu.jhuapl.trinity.data.Trajectory;
 import edu.jhuapl.trinity.data.files.CdcCsvFile;
-import edu.jhuapl.trinity.data.files.CdcTissueGenesFile;
 import edu.jhuapl.trinity.data.files.ClusterCollectionFile;
 import edu.jhuapl.trinity.data.files.CocoAnnotationFile;
 import edu.jhuapl.trinity.data.files.CyberReporterFile;
-import edu.jhuapl.trinity.data.files.FeatureCollectionFile;
+import edu.jhuapl.trinity.data.files.DroppedFileType;
 import edu.jhuapl.trinity.data.files.GaussianMixtureCollectionFile;
-import edu.jhuapl.trinity.data.files.GraphDirectedCollectionFile;
 import edu.jhuapl.trinity.data.files.LabelConfigFile;
 import edu.jhuapl.trinity.data.files.ManifoldDataFile;
-import edu.jhuapl.trinity.data.files.McclodSplitDataTsvFile;
-import edu.jhuapl.trinity.data.files.SaturnFile;
 import edu.jhuapl.trinity.data.files.SemanticMapCollectionFile;
-import edu.jhuapl.trinity.data.files.ShapleyCollectionFile;
-import edu.jhuapl.trinity.data.files.TextEmbeddingCollectionFile;
-import edu.jhuapl.trinity.data.files.VectorMaskCollectionFile;
-import edu.jhuapl.trinity.data.files.ZeroPilotLatentsFile;
 import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
 import edu.jhuapl.trinity.data.terrain.FireAreaTextFile;
 import edu.jhuapl.trinity.data.terrain.TerrainTextFile;
@@ -533,101 +525,126 @@ public enum ResourceUtils {
                             } else if (isAudioFile(file)) {
                                 Platform.runLater(() -> scene.getRoot().fireEvent(
                                     new AudioEvent(AudioEvent.NEW_AUDIO_FILE, file)));
-                            } else if (SaturnFile.isSaturnFile(file)) {
-                                SaturnLoader task = new SaturnLoader(scene, file);
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (CdcCsvFile.isCdcCsvFile(file)) {
-                                CdcCsvFile cdcCsvFile = new CdcCsvFile(file.getAbsolutePath(), true);
-                                //convert to Feature Vector Collection for the lulz
-                                FeatureCollection fc = DataUtils.convertCdcCsv(cdcCsvFile.cdcCsvList, true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new FeatureVectorEvent(FeatureVectorEvent.NEW_FEATURE_COLLECTION, fc, file.getName())));
-                                Trajectory trajectory = new Trajectory(file.getName());
-                                trajectory.totalStates = fc.getFeatures().size();
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new TrajectoryEvent(TrajectoryEvent.NEW_TRAJECTORY_OBJECT, trajectory, fc)));
-                            } else if (CdcTissueGenesFile.isCdcTissueGenesFile(file)) {
-                                CdcTissueGenesLoader task = new CdcTissueGenesLoader(scene, file);
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (FeatureCollectionFile.isFeatureCollectionFile(file)) {
-                                FeatureCollectionLoader task = new FeatureCollectionLoader(scene, file);
-                                task.setClearQueue(offerToClear); //if there is more than one file just load all
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (ShapleyCollectionFile.isShapleyCollectionFile(file)) {
-                                ShapleyCollectionLoader task = new ShapleyCollectionLoader(scene, file);
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (GraphDirectedCollectionFile.isGraphDirectedCollectionFile(file)) {
-                                GraphDirectedCollectionLoader task = new GraphDirectedCollectionLoader(scene, file);
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (VectorMaskCollectionFile.isVectorMaskCollectionFile(file)) {
-                                VectorMaskCollectionLoader task = new VectorMaskCollectionLoader(scene, file);
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (LabelConfigFile.isLabelConfigFile(file)) {
-                                LabelConfigFile labelConfigFile = new LabelConfigFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new FeatureVectorEvent(FeatureVectorEvent.NEW_LABEL_CONFIG, labelConfigFile.labelConfig)));
-                            } else if (TerrainTextFile.isTerrainTextFile(file)) {
-                                TerrainTextFile terrainTextFile = new TerrainTextFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new TerrainEvent(TerrainEvent.NEW_TERRAIN_TEXTFILE, terrainTextFile.dataGrid)));
-                            } else if (FireAreaTextFile.isFireAreaTextFile(file)) {
-                                FireAreaTextFile fireAreaTextFile = new FireAreaTextFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new TerrainEvent(TerrainEvent.NEW_FIREAREA_TEXTFILE, fireAreaTextFile.dataGrid)));
-                            } else if (SemanticMapCollectionFile.isSemanticMapCollectionFile(file)) {
-                                SemanticMapCollectionFile smcFile = new SemanticMapCollectionFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new SemanticMapEvent(SemanticMapEvent.NEW_SEMANTICMAP_COLLECTION, smcFile.semanticMapCollection)));
-                                //Trajectory logic handled by SemanticMapEventHandler
-                            } else if (ClusterCollectionFile.isClusterCollectionFile(file)) {
-                                ClusterCollectionFile ccFile = new ClusterCollectionFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new ManifoldEvent(ManifoldEvent.NEW_CLUSTER_COLLECTION, ccFile.clusterCollection)));
-                            } else if (GaussianMixtureCollectionFile.isGaussianMixtureCollectionFile(file)) {
-                                GaussianMixtureCollectionFile gmcFile = new GaussianMixtureCollectionFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new GaussianMixtureEvent(GaussianMixtureEvent.NEW_GAUSSIAN_COLLECTION, gmcFile.gaussianMixtureCollection)));
-                            } else if (TextEmbeddingCollectionFile.isTextEmbeddingCollection(file)) {
-                                Platform.runLater(() -> {
-                                    TextEmbeddingsLoader task = new TextEmbeddingsLoader(scene, file);
-                                    Thread thread = new Thread(task);
-                                    thread.setDaemon(true);
-                                    thread.start();
-                                });
-                            } else if (McclodSplitDataTsvFile.isMcclodSplitDataTsvFile(file)) {
-                                McclodSplitDataLoader task = new McclodSplitDataLoader(scene, file);
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (ZeroPilotLatentsFile.isZeroPilotLatentsFile(file)) {
-                                ZeroPilotLatentsLoader task = new ZeroPilotLatentsLoader(scene, file);
-                                Thread thread = new Thread(task);
-                                thread.setDaemon(true);
-                                thread.start();
-                            } else if (ManifoldDataFile.isManifoldDataFile(file)) {
-                                ManifoldDataFile mdFile = new ManifoldDataFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new ManifoldEvent(ManifoldEvent.NEW_MANIFOLD_DATA, mdFile.manifoldData)));
-                            } else if (CocoAnnotationFile.isCocoAnnotationFile(file)) {
-                                CocoAnnotationFile cocoFile = new CocoAnnotationFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new ImageEvent(ImageEvent.NEW_COCO_ANNOTATION, cocoFile.cocoObject)));
-                            } else if (CyberReporterFile.isFileType(file)) {
-                                CyberReporterFile cyberReportFile = new CyberReporterFile(file.getAbsolutePath(), true);
-                                Platform.runLater(() -> scene.getRoot().fireEvent(
-                                    new FeatureVectorEvent(FeatureVectorEvent.NEW_CYBER_REPORT, cyberReportFile.cyberReports, file.getName())));
+                            } else {
+                                Optional<DroppedFileType> fileType = DroppedFileType.detect(file);
+                                if (fileType.isEmpty())
+                                    continue;
+                                switch (fileType.get()) {
+                                    case SATURN -> {
+                                        SaturnLoader task = new SaturnLoader(scene, file);
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case CDC_CSV -> {
+                                        CdcCsvFile cdcCsvFile = new CdcCsvFile(file.getAbsolutePath(), true);
+                                        //convert to Feature Vector Collection for the lulz
+                                        FeatureCollection fc = DataUtils.convertCdcCsv(cdcCsvFile.cdcCsvList, true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new FeatureVectorEvent(FeatureVectorEvent.NEW_FEATURE_COLLECTION, fc, file.getName())));
+                                        Trajectory trajectory = new Trajectory(file.getName());
+                                        trajectory.totalStates = fc.getFeatures().size();
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new TrajectoryEvent(TrajectoryEvent.NEW_TRAJECTORY_OBJECT, trajectory, fc)));
+                                    }
+                                    case CDC_TISSUE_GENES -> {
+                                        CdcTissueGenesLoader task = new CdcTissueGenesLoader(scene, file);
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case FEATURE_COLLECTION -> {
+                                        FeatureCollectionLoader task = new FeatureCollectionLoader(scene, file);
+                                        task.setClearQueue(offerToClear); //if there is more than one file just load all
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case SHAPLEY_COLLECTION -> {
+                                        ShapleyCollectionLoader task = new ShapleyCollectionLoader(scene, file);
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case GRAPH_DIRECTED_COLLECTION -> {
+                                        GraphDirectedCollectionLoader task = new GraphDirectedCollectionLoader(scene, file);
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case VECTOR_MASK_COLLECTION -> {
+                                        VectorMaskCollectionLoader task = new VectorMaskCollectionLoader(scene, file);
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case LABEL_CONFIG -> {
+                                        LabelConfigFile labelConfigFile = new LabelConfigFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new FeatureVectorEvent(FeatureVectorEvent.NEW_LABEL_CONFIG, labelConfigFile.labelConfig)));
+                                    }
+                                    case TERRAIN_TEXT -> {
+                                        TerrainTextFile terrainTextFile = new TerrainTextFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new TerrainEvent(TerrainEvent.NEW_TERRAIN_TEXTFILE, terrainTextFile.dataGrid)));
+                                    }
+                                    case FIRE_AREA_TEXT -> {
+                                        FireAreaTextFile fireAreaTextFile = new FireAreaTextFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new TerrainEvent(TerrainEvent.NEW_FIREAREA_TEXTFILE, fireAreaTextFile.dataGrid)));
+                                    }
+                                    case SEMANTIC_MAP_COLLECTION -> {
+                                        SemanticMapCollectionFile smcFile = new SemanticMapCollectionFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new SemanticMapEvent(SemanticMapEvent.NEW_SEMANTICMAP_COLLECTION, smcFile.semanticMapCollection)));
+                                        //Trajectory logic handled by SemanticMapEventHandler
+                                    }
+                                    case CLUSTER_COLLECTION -> {
+                                        ClusterCollectionFile ccFile = new ClusterCollectionFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new ManifoldEvent(ManifoldEvent.NEW_CLUSTER_COLLECTION, ccFile.clusterCollection)));
+                                    }
+                                    case GAUSSIAN_MIXTURE_COLLECTION -> {
+                                        GaussianMixtureCollectionFile gmcFile = new GaussianMixtureCollectionFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new GaussianMixtureEvent(GaussianMixtureEvent.NEW_GAUSSIAN_COLLECTION, gmcFile.gaussianMixtureCollection)));
+                                    }
+                                    case TEXT_EMBEDDING_COLLECTION -> {
+                                        Platform.runLater(() -> {
+                                            TextEmbeddingsLoader task = new TextEmbeddingsLoader(scene, file);
+                                            Thread thread = new Thread(task);
+                                            thread.setDaemon(true);
+                                            thread.start();
+                                        });
+                                    }
+                                    case MCCLOD_SPLIT_DATA -> {
+                                        McclodSplitDataLoader task = new McclodSplitDataLoader(scene, file);
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case ZERO_PILOT_LATENTS -> {
+                                        ZeroPilotLatentsLoader task = new ZeroPilotLatentsLoader(scene, file);
+                                        Thread thread = new Thread(task);
+                                        thread.setDaemon(true);
+                                        thread.start();
+                                    }
+                                    case MANIFOLD_DATA -> {
+                                        ManifoldDataFile mdFile = new ManifoldDataFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new ManifoldEvent(ManifoldEvent.NEW_MANIFOLD_DATA, mdFile.manifoldData)));
+                                    }
+                                    case COCO_ANNOTATION -> {
+                                        CocoAnnotationFile cocoFile = new CocoAnnotationFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new ImageEvent(ImageEvent.NEW_COCO_ANNOTATION, cocoFile.cocoObject)));
+                                    }
+                                    case CYBER_REPORT -> {
+                                        CyberReporterFile cyberReportFile = new CyberReporterFile(file.getAbsolutePath(), true);
+                                        Platform.runLater(() -> scene.getRoot().fireEvent(
+                                            new FeatureVectorEvent(FeatureVectorEvent.NEW_CYBER_REPORT, cyberReportFile.cyberReports, file.getName())));
+                                    }
+                                }
                             }
                         } catch (IOException ex) {
                             LOG.error(null, ex);
@@ -658,40 +675,9 @@ public enum ResourceUtils {
                     type = "Hypersurface";
                 } else if (isAudioFile(file)) {
                     type = "Hypersurface";
-                } else if (FeatureCollectionFile.isFeatureCollectionFile(file)) {
-                    type = "Hyperspace";
-                } else if (ShapleyCollectionFile.isShapleyCollectionFile(file)) {
-                    type = "Hypersurface";
-                } else if (GraphDirectedCollectionFile.isGraphDirectedCollectionFile(file)) {
-                    type = "Hypersurface";
-                } else if (VectorMaskCollectionFile.isVectorMaskCollectionFile(file)) {
-                    type = "Hypersurface";
-                } else if (LabelConfigFile.isLabelConfigFile(file)) {
-                    type = "Hyperspace";
-                } else if (TerrainTextFile.isTerrainTextFile(file)) {
-                    type = "Hypersurface";
-                } else if (FireAreaTextFile.isFireAreaTextFile(file)) {
-                    type = "Hypersurface";
-                } else if (SemanticMapCollectionFile.isSemanticMapCollectionFile(file)) {
-                    type = "Hyperspace";
-                } else if (ClusterCollectionFile.isClusterCollectionFile(file)) {
-                    type = "Projections";
-                } else if (GaussianMixtureCollectionFile.isGaussianMixtureCollectionFile(file)) {
-                    type = "Hyperspace";
-                } else if (TextEmbeddingCollectionFile.isTextEmbeddingCollection(file)) {
-                    type = "Hyperspace";
-                } else if (CdcCsvFile.isCdcCsvFile(file)) {
-                    type = "Hyperspace";
-                } else if (CdcTissueGenesFile.isCdcTissueGenesFile(file)) {
-                    type = "Hyperspace";
-                } else if (McclodSplitDataTsvFile.isMcclodSplitDataTsvFile(file)) {
-                    type = "Hyperspace";
-                } else if (ZeroPilotLatentsFile.isZeroPilotLatentsFile(file)) {
-                    type = "Hyperspace";
-                } else if (ManifoldDataFile.isManifoldDataFile(file)) {
-                    type = "Projections";
-                } else if (CocoAnnotationFile.isCocoAnnotationFile(file)) {
-                    type = "Hypersurface";
+                } else {
+                    type = DroppedFileType.detect(file)
+                        .map(DroppedFileType::getView).orElse(type);
                 }
             } catch (IOException ex) {
                 LOG.error(null, ex);
@@ -1,114 +1,207 @@
 package edu.jhuapl.trinity.utils.graph;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 /**
  * Simple 3D Fruchterman–Reingold force layout.
  * - Uses optional edge weight matrix (symmetric) to scale attraction.
  * - Adds a gravity term to avoid drift.
+ * - Repulsion is approximated with a Barnes–Hut octree (see {@link GraphLayoutParams#theta});
+ * theta 0 falls back to the exact all pairs sum.
+ * - Forces are accumulated in parallel: repulsion per node, attraction over edge chunks
+ * into per-chunk force buffers that are reduced afterwards.
  * - No JavaFX dependencies.
+ * <p>
+ * Large sparse graphs should call {@link #layout(int, int[], int[], double[], GraphLayoutParams, IterationListener)}
+ * directly; the dense weight matrix of the {@link GraphLayoutEngine} entry point is only scanned once
+ * to collect its edges.
  *
  * @author Sean Phillips
  */
 public final class ForceFrLayout3D implements GraphLayoutEngine {
 
+    /**
+     * Receives intermediate positions every {@link GraphLayoutParams#reportEvery} iterations,
+     * so callers can animate convergence. Called on the layout thread with a fresh copy.
+     */
+    @FunctionalInterface
+    public interface IterationListener {
+        void onIteration(int iteration, double[][] positions);
+    }
+
+    /**
+     * Nodes per parallel work unit; below this a single chunk is used.
+     */
+    private static final int NODE_CHUNK = 512;
+    /**
+     * Minimum edges per attraction chunk; each chunk owns one force buffer, and there
+     * are at most a few chunks per core so the buffers stay per-thread sized.
+     */
+    private static final int EDGE_CHUNK = 16_384;
+    /**
+     * Octree depth cap; bodies that still share a cell there are lumped together.
+     */
+    private static final int MAX_DEPTH = 32;
+
+    private IterationListener listener;
+
+    public ForceFrLayout3D() {
+    }
+
+    public ForceFrLayout3D(IterationListener listener) {
+        this.listener = listener;
+    }
+
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
     @Override
     public double[][] layout(int n,
-                             java.util.List<String> labels,
+                             List<String> labels,
                              double[][] distances,
                              double[][] weights,
                              GraphLayoutParams p) {
         if (n <= 0) return new double[0][0];
 
-        // Positions
-        double[][] pos = new double[n][3];
-        // Displacements
-        double[][] disp = new double[n][3];
+        // Collect the positive upper triangle once instead of scanning it every iteration
+        int count = 0;
+        if (weights != null) {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (weights[i][j] > 0.0) count++;
+                }
+            }
+        }
+        int[] from = new int[count];
+        int[] to = new int[count];
+        double[] w = new double[count];
+        if (weights != null) {
+            for (int i = 0, e = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (weights[i][j] > 0.0) {
+                        from[e] = i;
+                        to[e] = j;
+                        w[e++] = weights[i][j];
+                    }
+                }
+            }
+        }
+        return layout(n, from, to, w, p, listener);
+    }
+
+    /**
+     * Lay out a sparse graph given as parallel edge arrays.
+     *
+     * @param n        number of nodes
+     * @param from     edge start nodes
+     * @param to       edge end nodes
+     * @param weights  edge weights (non-positive weights are ignored); null means 1.0 for every edge
+     * @param p        layout parameters
+     * @param listener optional progress callback, may be null
+     * @return double[n][3] positions
+     */
+    public static double[][] layout(int n, int[] from, int[] to, double[] weights,
+                                    GraphLayoutParams p, IterationListener listener) {
+        if (n <= 0) return new double[0][0];
+
+        // Positions and displacements, flattened xyz
+        final double[] pos = new double[3 * n];
+        final double[] disp = new double[3 * n];
 
         // Init on a sphere (stable start)
-        initOnSphere(pos, p.radius);
+        initOnSphere(pos, n, p.radius);
 
         final double area = 8.0 * p.radius * p.radius; // not literal area in 3D; used in k
         final double k = Math.cbrt(area / Math.max(1.0, n)); // 3D scale (heuristic)
+        final double repulse = p.repulsion * k * k;
+
+        final int edges = from == null ? 0 : from.length;
+        final int edgeChunks = p.parallel
+            ? Math.min((edges + EDGE_CHUNK - 1) / EDGE_CHUNK, 4 * Runtime.getRuntime().availableProcessors())
+            : Math.min(edges, 1);
+        final int edgesPerChunk = edgeChunks == 0 ? 0 : (edges + edgeChunks - 1) / edgeChunks;
+        final double[][] edgeForces = new double[edgeChunks][];
+        final Octree tree = p.theta > 0.0 ? new Octree(n) : null;
 
         double t = p.step; // temperature
         final Random rnd = new Random(1337);
 
         for (int iter = 0; iter < p.iterations; iter++) {
-            // zero displacements
-            for (int i = 0; i < n; i++) {
-                disp[i][0] = disp[i][1] = disp[i][2] = 0.0;
-            }
-
-            // Repulsive forces (all pairs)
-            for (int i = 0; i < n; i++) {
-                for (int j = i + 1; j < n; j++) {
-                    double dx = pos[i][0] - pos[j][0];
-                    double dy = pos[i][1] - pos[j][1];
-                    double dz = pos[i][2] - pos[j][2];
-                    double d2 = dx * dx + dy * dy + dz * dz + 1e-9;
-                    double d = Math.sqrt(d2);
-                    // Fr repulsion ~ (k^2 / d)
-                    double f = (p.repulsion * k * k) / d;
-                    double fx = f * dx / d;
-                    double fy = f * dy / d;
-                    double fz = f * dz / d;
-
-                    disp[i][0] += fx;
-                    disp[i][1] += fy;
-                    disp[i][2] += fz;
-                    disp[j][0] -= fx;
-                    disp[j][1] -= fy;
-                    disp[j][2] -= fz;
-                }
+            // Repulsive forces, each node sums its own so nothing is shared
+            if (tree != null) {
+                tree.build(pos);
+                final double theta2 = p.theta * p.theta;
+                forEachNodeChunk(n, p.parallel, (i0, i1) -> {
+                    int[] stack = new int[8 * MAX_DEPTH + 8];
+                    for (int i = i0; i < i1; i++) {
+                        tree.repulsion(i, pos, repulse, theta2, disp, stack);
+                    }
+                });
+            } else {
+                forEachNodeChunk(n, p.parallel, (i0, i1) -> {
+                    for (int i = i0; i < i1; i++) {
+                        exactRepulsion(i, n, pos, repulse, disp);
+                    }
+                });
             }
 
-            // Attractive forces (edges)
-            if (weights != null) {
-                for (int i = 0; i < n; i++) {
-                    for (int j = i + 1; j < n; j++) {
-                        double w = weights[i][j];
+            // Attractive forces (edges), one buffer per chunk then a fixed order reduction
+            if (edges > 0) {
+                IntStream chunks = IntStream.range(0, edgeChunks);
+                (p.parallel ? chunks.parallel() : chunks).forEach(c -> {
+                    double[] f = edgeForces[c];
+                    if (f == null) edgeForces[c] = f = new double[3 * n];
+                    else Arrays.fill(f, 0.0);
+                    int e1 = Math.min(edges, (c + 1) * edgesPerChunk);
+                    for (int e = c * edgesPerChunk; e < e1; e++) {
+                        double w = weights == null ? 1.0 : weights[e];
                         if (w <= 0.0) continue;
-                        double dx = pos[i][0] - pos[j][0];
-                        double dy = pos[i][1] - pos[j][1];
-                        double dz = pos[i][2] - pos[j][2];
+                        int a = 3 * from[e], b = 3 * to[e];
+                        double dx = pos[a] - pos[b];
+                        double dy = pos[a + 1] - pos[b + 1];
+                        double dz = pos[a + 2] - pos[b + 2];
                         double d2 = dx * dx + dy * dy + dz * dz + 1e-9;
                         double d = Math.sqrt(d2);
                         // Fr attraction ~ (d^2 / k)
-                        double f = p.attraction * w * (d2 / k);
-                        double fx = f * dx / d;
-                        double fy = f * dy / d;
-                        double fz = f * dz / d;
-
-                        disp[i][0] -= fx;
-                        disp[i][1] -= fy;
-                        disp[i][2] -= fz;
-                        disp[j][0] += fx;
-                        disp[j][1] += fy;
-                        disp[j][2] += fz;
+                        double s = p.attraction * w * (d2 / k) / d;
+                        f[a] -= s * dx;
+                        f[a + 1] -= s * dy;
+                        f[a + 2] -= s * dz;
+                        f[b] += s * dx;
+                        f[b + 1] += s * dy;
+                        f[b + 2] += s * dz;
                     }
-                }
+                });
+                forEachNodeChunk(n, p.parallel, (i0, i1) -> {
+                    for (double[] f : edgeForces) {
+                        for (int x = 3 * i0; x < 3 * i1; x++) disp[x] += f[x];
+                    }
+                });
             }
 
-            // Gravity (pull to origin)
-            if (p.gravity > 0) {
-                for (int i = 0; i < n; i++) {
-                    double x = pos[i][0], y = pos[i][1], z = pos[i][2];
-                    disp[i][0] += -p.gravity * x;
-                    disp[i][1] += -p.gravity * y;
-                    disp[i][2] += -p.gravity * z;
+            // Gravity (pull to origin), then move with clipping to temperature t
+            final double temperature = t;
+            forEachNodeChunk(n, p.parallel, (i0, i1) -> {
+                for (int i = i0; i < i1; i++) {
+                    int a = 3 * i;
+                    double dx = disp[a], dy = disp[a + 1], dz = disp[a + 2];
+                    if (p.gravity > 0) {
+                        dx += -p.gravity * pos[a];
+                        dy += -p.gravity * pos[a + 1];
+                        dz += -p.gravity * pos[a + 2];
+                    }
+                    double m = Math.sqrt(dx * dx + dy * dy + dz * dz) + 1e-9;
+                    double lim = Math.min(1.0, temperature / m);
+                    pos[a] += dx * lim;
+                    pos[a + 1] += dy * lim;
+                    pos[a + 2] += dz * lim;
+                    disp[a] = disp[a + 1] = disp[a + 2] = 0.0;
                 }
-            }
-
-            // Move with clipping to temperature t
-            for (int i = 0; i < n; i++) {
-                double dx = disp[i][0], dy = disp[i][1], dz = disp[i][2];
-                double m = Math.sqrt(dx * dx + dy * dy + dz * dz) + 1e-9;
-                double lim = t / m;
-                pos[i][0] += dx * Math.min(1.0, lim);
-                pos[i][1] += dy * Math.min(1.0, lim);
-                pos[i][2] += dz * Math.min(1.0, lim);
-            }
+            });
 
             // Cool
             t *= p.cooling;
@@ -116,18 +209,66 @@ public final class ForceFrLayout3D implements GraphLayoutEngine {
 
             // Tiny jitter to escape symmetry
             if ((iter % 50) == 0) {
-                for (int i = 0; i < n; i++) {
-                    pos[i][0] += (rnd.nextDouble() - 0.5) * 0.01;
-                    pos[i][1] += (rnd.nextDouble() - 0.5) * 0.01;
-                    pos[i][2] += (rnd.nextDouble() - 0.5) * 0.01;
+                for (int x = 0; x < 3 * n; x++) {
+                    pos[x] += (rnd.nextDouble() - 0.5) * 0.01;
                 }
             }
+
+            if (listener != null && p.reportEvery > 0
+                && ((iter + 1) % p.reportEvery == 0 || iter + 1 == p.iterations)) {
+                listener.onIteration(iter + 1, unflatten(pos, n));
+            }
+        }
+        return unflatten(pos, n);
+    }
+
+    @FunctionalInterface
+    private interface RangeTask {
+        void run(int i0, int i1);
+    }
+
+    private static void forEachNodeChunk(int n, boolean parallel, RangeTask task) {
+        int chunks = (n + NODE_CHUNK - 1) / NODE_CHUNK;
+        if (!parallel || chunks <= 1) {
+            task.run(0, n);
+            return;
+        }
+        IntStream.range(0, chunks).parallel()
+            .forEach(c -> task.run(c * NODE_CHUNK, Math.min(n, (c + 1) * NODE_CHUNK)));
+    }
+
+    private static void exactRepulsion(int i, int n, double[] pos, double repulse, double[] disp) {
+        int a = 3 * i;
+        double px = pos[a], py = pos[a + 1], pz = pos[a + 2];
+        double fx = 0, fy = 0, fz = 0;
+        for (int j = 0; j < n; j++) {
+            if (j == i) continue;
+            int b = 3 * j;
+            double dx = px - pos[b];
+            double dy = py - pos[b + 1];
+            double dz = pz - pos[b + 2];
+            // Fr repulsion ~ (k^2 / d), along the unit vector
+            double s = repulse / (dx * dx + dy * dy + dz * dz + 1e-9);
+            fx += s * dx;
+            fy += s * dy;
+            fz += s * dz;
+        }
+        disp[a] += fx;
+        disp[a + 1] += fy;
+        disp[a + 2] += fz;
+    }
+
+    private static double[][] unflatten(double[] pos, int n) {
+        double[][] out = new double[n][3];
+        for (int i = 0; i < n; i++) {
+            out[i][0] = pos[3 * i];
+            out[i][1] = pos[3 * i + 1];
+            out[i][2] = pos[3 * i + 2];
         }
-        return pos;
+        return out;
     }
 
-    private static void initOnSphere(double[][] pos, double r) {
-        final int n = pos.length;
+    private static void initOnSphere(double[] pos, int n, double r) {
         // Fibonacci sphere distribution (nice uniform spread)
         final double phi = Math.PI * (3.0 - Math.sqrt(5.0));
         for (int i = 0; i < n; i++) {
@@ -136,9 +277,211 @@ public final class ForceFrLayout3D implements GraphLayoutEngine {
             double theta = phi * i;
             double x = Math.cos(theta) * radius;
             double z = Math.sin(theta) * radius;
-            pos[i][0] = r * x;
-            pos[i][1] = r * y;
-            pos[i][2] = r * z;
+            pos[3 * i] = r * x;
+            pos[3 * i + 1] = r * y;
+            pos[3 * i + 2] = r * z;
+        }
+    }
+
+    /**
+     * Array backed octree over unit mass bodies. Cells are rebuilt every iteration
+     * but the arrays are reused; a cell is a leaf while it holds a single body.
+     */
+    static final class Octree {
+        private static final int EMPTY = -1;
+
+        private final int n;
+        private int cells;
+        // cell geometry
+        private double[] cx, cy, cz, half;
+        // aggregated mass and center of mass
+        private double[] mass, mx, my, mz;
+        // first of 8 child cells or EMPTY, and the body held by a leaf or EMPTY
+        private int[] child, body;
+        // bodies lumped into a leaf at MAX_DEPTH besides body[]
+        private int[] extra;
+
+        Octree(int n) {
+            this.n = n;
+            allocate(Math.max(64, 2 * n));
+            extra = new int[n];
+        }
+
+        private void allocate(int capacity) {
+            cx = grow(cx, capacity);
+            cy = grow(cy, capacity);
+            cz = grow(cz, capacity);
+            half = grow(half, capacity);
+            mass = grow(mass, capacity);
+            mx = grow(mx, capacity);
+            my = grow(my, capacity);
+            mz = grow(mz, capacity);
+            child = child == null ? new int[capacity] : Arrays.copyOf(child, capacity);
+            body = body == null ? new int[capacity] : Arrays.copyOf(body, capacity);
+        }
+
+        private static double[] grow(double[] a, int capacity) {
+            return a == null ? new double[capacity] : Arrays.copyOf(a, capacity);
+        }
+
+        private int newCell(double x, double y, double z, double h) {
+            if (cells == cx.length) allocate(cells * 2);
+            int c = cells++;
+            cx[c] = x;
+            cy[c] = y;
+            cz[c] = z;
+            half[c] = h;
+            mass[c] = 0;
+            mx[c] = my[c] = mz[c] = 0;
+            child[c] = EMPTY;
+            body[c] = EMPTY;
+            return c;
+        }
+
+        void build(double[] pos) {
+            double minX = Double.POSITIVE_INFINITY, minY = minX, minZ = minX;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+            for (int i = 0; i < n; i++) {
+                double x = pos[3 * i], y = pos[3 * i + 1], z = pos[3 * i + 2];
+                if (x < minX) minX = x;
+                if (x > maxX) maxX = x;
+                if (y < minY) minY = y;
+                if (y > maxY) maxY = y;
+                if (z < minZ) minZ = z;
+                if (z > maxZ) maxZ = z;
+            }
+            double h = 0.5 * Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) + 1e-6;
+            cells = 0;
+            Arrays.fill(extra, EMPTY);
+            newCell(0.5 * (minX + maxX), 0.5 * (minY + maxY), 0.5 * (minZ + maxZ), h);
+            for (int i = 0; i < n; i++) insert(i, pos);
+            summarize(pos);
+        }
+
+        private int octant(int c, double x, double y, double z) {
+            return (x >= cx[c] ? 1 : 0) | (y >= cy[c] ? 2 : 0) | (z >= cz[c] ? 4 : 0);
+        }
+
+        private void split(int c) {
+            double h = 0.5 * half[c];
+            int first = cells;
+            for (int o = 0; o < 8; o++) {
+                newCell(cx[c] + ((o & 1) != 0 ? h : -h),
+                    cy[c] + ((o & 2) != 0 ? h : -h),
+                    cz[c] + ((o & 4) != 0 ? h : -h), h);
+            }
+            child[c] = first;
+        }
+
+        private void insert(int i, double[] pos) {
+            double x = pos[3 * i], y = pos[3 * i + 1], z = pos[3 * i + 2];
+            int c = 0;
+            int depth = 0;
+            while (true) {
+                if (child[c] != EMPTY) {
+                    c = child[c] + octant(c, x, y, z);
+                    depth++;
+                } else if (body[c] == EMPTY) {
+                    body[c] = i;
+                    return;
+                } else if (depth >= MAX_DEPTH) {
+                    // coincident bodies: chain onto the leaf
+                    extra[i] = extra[body[c]];
+                    extra[body[c]] = i;
+                    return;
+                } else {
+                    // push the resident body down a level and retry
+                    int resident = body[c];
+                    body[c] = EMPTY;
+                    split(c);
+                    int r = 3 * resident;
+                    body[child[c] + octant(c, pos[r], pos[r + 1], pos[r + 2])] = resident;
+                }
+            }
+        }
+
+        private void summarize(double[] pos) {
+            // children are always allocated after their parent, so a reverse sweep is post order
+            for (int c = cells - 1; c >= 0; c--) {
+                if (child[c] == EMPTY) {
+                    double m = 0, sx = 0, sy = 0, sz = 0;
+                    for (int b = body[c]; b != EMPTY; b = extra[b]) {
+                        m += 1;
+                        sx += pos[3 * b];
+                        sy += pos[3 * b + 1];
+                        sz += pos[3 * b + 2];
+                    }
+                    mass[c] = m;
+                    if (m > 0) {
+                        mx[c] = sx / m;
+                        my[c] = sy / m;
+                        mz[c] = sz / m;
+                    }
+                } else {
+                    double m = 0, sx = 0, sy = 0, sz = 0;
+                    for (int o = child[c], end = o + 8; o < end; o++) {
+                        double cm = mass[o];
+                        m += cm;
+                        sx += cm * mx[o];
+                        sy += cm * my[o];
+                        sz += cm * mz[o];
+                    }
+                    mass[c] = m;
+                    if (m > 0) {
+                        mx[c] = sx / m;
+                        my[c] = sy / m;
+                        mz[c] = sz / m;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Accumulate the approximate repulsion on body i into disp.
+         */
+        void repulsion(int i, double[] pos, double repulse, double theta2, double[] disp, int[] stack) {
+            int a = 3 * i;
+            double px = pos[a], py = pos[a + 1], pz = pos[a + 2];
+            double fx = 0, fy = 0, fz = 0;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int c = stack[--top];
+                double m = mass[c];
+                if (m == 0) continue;
+                double dx = px - mx[c];
+                double dy = py - my[c];
+                double dz = pz - mz[c];
+                double d2 = dx * dx + dy * dy + dz * dz + 1e-9;
+                if (child[c] == EMPTY) {
+                    // leaf: exact, skipping i itself
+                    for (int b = body[c]; b != EMPTY; b = extra[b]) {
+                        if (b == i) continue;
+                        int q = 3 * b;
+                        double ex = px - pos[q], ey = py - pos[q + 1], ez = pz - pos[q + 2];
+                        double s = repulse / (ex * ex + ey * ey + ez * ez + 1e-9);
+                        fx += s * ex;
+                        fy += s * ey;
+                        fz += s * ez;
+                    }
+                } else {
+                    double size = 2.0 * half[c];
+                    if (size * size < theta2 * d2) {
+                        // far enough: the whole cell acts as one body at its center of mass
+                        double s = m * repulse / d2;
+                        fx += s * dx;
+                        fy += s * dy;
+                        fz += s * dz;
+                    } else {
+                        for (int o = child[c], end = o + 8; o < end; o++) {
+                            if (mass[o] > 0) stack[top++] = o;
+                        }
+                    }
+                }
+            }
+            disp[a] += fx;
+            disp[a + 1] += fy;
+            disp[a + 2] += fz;
         }
     }
 }
@@ -64,6 +64,19 @@ public final class GraphLayoutParams implements Serializable {
      * Cooling schedule factor (0..1). Smaller → faster cooling.
      */
     public double cooling = 0.96;
+    /**
+     * Barnes–Hut opening angle for repulsion. Larger → faster, coarser;
+     * 0 computes the exact all pairs sum.
+     */
+    public double theta = 0.8;
+    /**
+     * Accumulate forces on all cores.
+     */
+    public boolean parallel = true;
+    /**
+     * Report intermediate positions every this many iterations; <=0 disables.
+     */
+    public int reportEvery = 25;
 
     // ---------------------------------------------------------------------
     // Edge building from matrix
@@ -181,6 +194,21 @@ public final class GraphLayoutParams implements Serializable {
         return this;
     }
 
+    public GraphLayoutParams withTheta(double theta) {
+        this.theta = theta;
+        return this;
+    }
+
+    public GraphLayoutParams withParallel(boolean on) {
+        this.parallel = on;
+        return this;
+    }
+
+    public GraphLayoutParams withReportEvery(int every) {
+        this.reportEvery = every;
+        return this;
+    }
+
     // Edges
     public GraphLayoutParams withEdgePolicy(EdgePolicy p) {
         this.edgePolicy = p;
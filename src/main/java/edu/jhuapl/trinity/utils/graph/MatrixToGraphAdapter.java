@@ -58,12 +58,37 @@ public final class MatrixToGraphAdapter {
         double[][] embed(double[][] distances, List<String> labels);
     }
 
+    /**
+     * Receives intermediate force layout frames. The graph is built once from
+     * the first frame and passed with every frame, so a renderer can show it
+     * and move its nodes; it is not the graph build() returns.
+     */
+    public interface LayoutProgress {
+        void onFrame(GraphDirectedCollection layoutGraph, int iteration, double[][] positions);
+    }
+
     public static GraphDirectedCollection build(double[][] matrix,
                                                 List<String> labels,
                                                 MatrixKind kind,
                                                 GraphLayoutParams layoutParams,
                                                 WeightMode weightMode,
                                                 MdsEmbedding3D mds3d) {
+        return build(matrix, labels, kind, layoutParams, weightMode, mds3d, null);
+    }
+
+    /**
+     * As above; for FORCE_FR the optional progress listener receives intermediate
+     * positions (already scaled to the layout radius) every
+     * {@link GraphLayoutParams#reportEvery} iterations, together with the graph
+     * they belong to.
+     */
+    public static GraphDirectedCollection build(double[][] matrix,
+                                                List<String> labels,
+                                                MatrixKind kind,
+                                                GraphLayoutParams layoutParams,
+                                                WeightMode weightMode,
+                                                MdsEmbedding3D mds3d,
+                                                LayoutProgress progress) {
         int n = (matrix == null) ? 0 : matrix.length;
         if (n == 0) return emptyGraph();
 
@@ -74,6 +99,7 @@ public final class MatrixToGraphAdapter {
             }
         }
         if (labels == null || labels.size() != n) labels = defaultLabels(n);
+        final List<String> nodeLabels = labels;
 
         // 1) Prepare a weight matrix for edges (symmetric, non-negative).
         double[][] weights = toEdgeWeights(matrix, kind, weightMode, layoutParams.normalizeWeights01);
@@ -99,7 +125,14 @@ public final class MatrixToGraphAdapter {
                 }
             }
             case FORCE_FR -> {
-                GraphLayoutEngine fr = new ForceFrLayout3D();
+                GraphDirectedCollection[] layoutGraph = new GraphDirectedCollection[1];
+                GraphLayoutEngine fr = new ForceFrLayout3D(progress == null ? null :
+                    (iter, snapshot) -> {
+                        double[][] frame = normalizeToRadius(snapshot, layoutParams.radius);
+                        if (layoutGraph[0] == null)
+                            layoutGraph[0] = toCollection(n, nodeLabels, kind, frame, edgeList);
+                        progress.onFrame(layoutGraph[0], iter, frame);
+                    });
                 pos = fr.layout(n, labels, null, weights, layoutParams);
                 pos = normalizeToRadius(pos, layoutParams.radius); // optional post-scale
             }
@@ -107,6 +140,11 @@ public final class MatrixToGraphAdapter {
         }
 
         // 4) Emit GraphDirectedCollection
+        return toCollection(n, labels, kind, pos, edgeList);
+    }
+
+    private static GraphDirectedCollection toCollection(int n, List<String> labels, MatrixKind kind,
+                                                        double[][] pos, List<EdgeRec> edgeList) {
         GraphDirectedCollection gc = new GraphDirectedCollection();
         gc.setGraphId((kind == MatrixKind.SIMILARITY ? "similarity" : "divergence") + "_N" + n);
         gc.setDefaultNodeColor("#33B5E5FF"); // cyan-ish default
@@ -136,12 +174,14 @@ public final class MatrixToGraphAdapter {
             GraphEdge ge = new GraphEdge();
             ge.setStartID("n" + e.i);
             ge.setEndID("n" + e.j);
+            ge.setWeight(e.w);
             ge.setColor(null); // use default or color by weight in renderer
             edges.add(ge);
         }
 
         gc.setNodes(nodes);
         gc.setEdges(edges);
+        gc.getIndex(); // build the adjacency index off the FX thread
         return gc;
     }
 
@@ -3,6 +3,7 @@ package edu.jhuapl.trinity.utils.graph;
 import com.github.trinity.supermds.SuperMDS;
 import com.github.trinity.supermds.SuperMDS.Params;
 import com.github.trinity.supermds.SuperMDSHelper;
+import edu.jhuapl.trinity.utils.LandmarkMds;
 
 import java.util.List;
 
@@ -12,7 +13,8 @@ import java.util.List;
  * Pluggable adapter that uses SuperMDS to produce a 3D embedding from a distance matrix.
  * <p>
  * Input must be an NxN distance matrix (symmetric, non-negative). We normalize it
- * similarly to your ProjectMdsFeaturesTask before running MDS.
+ * similarly to your ProjectMdsFeaturesTask before running MDS. LANDMARK mode, or
+ * any matrix larger than {@link LandmarkMds#MAX_FULL_MATRIX_POINTS}, uses {@link LandmarkMds}.
  *
  * @author Sean Phillips
  */
@@ -31,6 +33,14 @@ public final class SuperMdsEmbedding3D implements MatrixToGraphAdapter.MdsEmbedd
     public double[][] embed(double[][] distances, List<String> labels) {
         if (distances == null || distances.length == 0) return new double[0][0];
 
+        // Landmark path: reads only N x L entries and skips the normalized N x N copy.
+        if (params.mode == SuperMDS.Mode.LANDMARK || distances.length > LandmarkMds.MAX_FULL_MATRIX_POINTS) {
+            int landmarks = params.mode == SuperMDS.Mode.LANDMARK
+                ? Math.max(params.numLandmarks, 4)
+                : Math.max(params.numLandmarks, LandmarkMds.DEFAULT_LANDMARKS);
+            return new LandmarkMds(3, landmarks).embed(LandmarkMds.matrix(distances)).embedding();
+        }
+
         // SuperMDS expects distances; normalize for stability (matches your example task).
         double[][] normalized = SuperMDSHelper.normalizeDistancesParallel(distances);
 
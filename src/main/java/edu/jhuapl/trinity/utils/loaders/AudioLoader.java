@@ -1,17 +1,18 @@
 package edu.jhuapl.trinity.utils.loaders;
 
 import edu.jhuapl.trinity.data.Trajectory;
-import edu.jhuapl.trinity.data.audio.FFT;
-import edu.jhuapl.trinity.data.audio.WaveDecoder;
+import edu.jhuapl.trinity.data.audio.StreamingSpectrogram;
 import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 import edu.jhuapl.trinity.javafx.components.radial.ProgressStatus;
 import edu.jhuapl.trinity.javafx.events.ApplicationEvent;
 import edu.jhuapl.trinity.javafx.events.CommandTerminalEvent;
 import edu.jhuapl.trinity.javafx.events.FeatureVectorEvent;
+import edu.jhuapl.trinity.javafx.events.HypersurfaceEvent;
 import edu.jhuapl.trinity.javafx.events.TrajectoryEvent;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
+import javafx.event.EventType;
 import javafx.scene.Scene;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
@@ -19,13 +20,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static edu.jhuapl.trinity.utils.Utils.totalTimeString;
 
 /**
  * @author Sean Phillips
  */
 public class AudioLoader extends Task {
     private static final Logger LOG = LoggerFactory.getLogger(AudioLoader.class);
+    /**
+     * FFT size; frames overlap by half a window.
+     */
+    public static final int BIN_SIZE = 512;
+    /**
+     * Upper bound on Hypersurface rows; longer recordings average consecutive frames per row.
+     * Recordings of unknown length start at one frame per row and halve their rows each
+     * time this many are reached.
+     */
+    public static final int MAX_SURFACE_ROWS = 4096;
+    private static final long FLUSH_NANOS = 250_000_000L;
+    private static final double SCALING = -1.0;
     Scene scene;
     File file;
 
@@ -60,40 +77,22 @@ public class AudioLoader extends Task {
                 new ApplicationEvent(ApplicationEvent.SHOW_BUSY_INDICATOR, ps));
         });
 
-        WaveDecoder decoder;
         try {
-            double scaling = -1.0;
-            int binSize = 512;
-            decoder = new WaveDecoder(new FileInputStream(file));
-            FFT fft = new FFT(binSize, 44100);
-            float[] samples = new float[binSize];
-            float[] spectrum = new float[binSize / 2 + 1];
-            float[] lastSpectrum = new float[binSize / 2 + 1];
-            FeatureCollection fc = new FeatureCollection();
-
-            while ((decoder.readSamples(samples)) > 0) {
-                fft.forward(samples);
-                System.arraycopy(spectrum, 0, lastSpectrum, 0, spectrum.length);
-                System.arraycopy(fft.getSpectrum(), 0, spectrum, 0, spectrum.length);
-
-                float flux = 0;
-                for (int i = 0; i < spectrum.length; i++)
-                    flux += (spectrum[i] - lastSpectrum[i]);
-
-                FeatureVector fv = new FeatureVector();
-                fv.setLabel(file.getPath());
-                fv.setScore(flux);
-                //inverse mirror
-                for (int vectorIndex = spectrum.length - 1; vectorIndex > 1; vectorIndex--) {
-                    fv.getData().add(spectrum[vectorIndex] * scaling); //add projection scaling
-                }
-                //normal wave after center
-                for (int vectorIndex = 0; vectorIndex < spectrum.length; vectorIndex++) {
-                    fv.getData().add(spectrum[vectorIndex] * scaling); //add projection scaling
-                }
-                fc.getFeatures().add(fv);
-            }
+            StreamingSpectrogram spectrogram = new StreamingSpectrogram(BIN_SIZE, BIN_SIZE / 2);
+            SurfaceRows surfaceRows = new SurfaceRows(spectrogram);
+            Platform.runLater(() -> {
+                scene.getRoot().fireEvent(
+                    new CommandTerminalEvent("Unrolling frequencies to hypersurface...",
+                        new Font("Consolas", 20), Color.GREEN));
+            });
+            long startTime = System.nanoTime();
+            long frames = spectrogram.process(file, surfaceRows);
+            surfaceRows.finish();
+            LOG.info("{} STFT frames at {} Hz into {} surface rows: {}", frames,
+                spectrogram.getSampleRate(), surfaceRows.rows.size(), totalTimeString(startTime));
 
+            FeatureCollection fc = new FeatureCollection();
+            fc.setFeatures(surfaceRows.rows);
             Platform.runLater(() -> {
                 scene.getRoot().fireEvent(
                     new FeatureVectorEvent(FeatureVectorEvent.NEW_FEATURE_COLLECTION, fc));
@@ -106,18 +105,136 @@ public class AudioLoader extends Task {
                 scene.getRoot().fireEvent(
                     new TrajectoryEvent(TrajectoryEvent.NEW_TRAJECTORY_OBJECT, trajectory, fc));
             });
-            Thread.sleep(250);
-            Platform.runLater(() -> {
-                scene.getRoot().fireEvent(
-                    new CommandTerminalEvent("Unrolling frequencies to hypersurface...",
-                        new Font("Consolas", 20), Color.GREEN));
-                scene.getRoot().fireEvent(
-                    new FeatureVectorEvent(FeatureVectorEvent.REQUEST_FEATURE_COLLECTION));
-            });
         } catch (Exception ex) {
             LOG.error(null, ex);
         }
 
         return null;
     }
+
+    /**
+     * Pools consecutive STFT frames into at most MAX_SURFACE_ROWS rows and streams
+     * them to the Hypersurface in batches while the file is still being decoded.
+     * When the length is unknown up front the rows are compacted pairwise on
+     * reaching the cap and the whole surface is sent again on the next flush.
+     */
+    private class SurfaceRows implements StreamingSpectrogram.FrameListener {
+        final StreamingSpectrogram spectrogram;
+        final List<FeatureVector> rows = new ArrayList<>();
+        final List<FeatureVector> pending = new ArrayList<>();
+        int framesPerRow = 0;
+        boolean unknownLength = false;
+        float[] sum;
+        float[] lastRow;
+        int pooled = 0;
+        long rowStartFrame = 0;
+        long lastFlush = System.nanoTime();
+        boolean surfaceStarted = false;
+
+        SurfaceRows(StreamingSpectrogram spectrogram) {
+            this.spectrogram = spectrogram;
+        }
+
+        @Override
+        public void onFrames(long firstFrame, float[][] spectra) {
+            if (framesPerRow == 0) {
+                //total length is known once the header is read; unknown lengths compact as they grow
+                long total = spectrogram.frameCount(spectrogram.getTotalSamples());
+                unknownLength = total <= 0;
+                framesPerRow = (int) Math.max(1, (total + MAX_SURFACE_ROWS - 1) / MAX_SURFACE_ROWS);
+                sum = new float[spectra[0].length];
+                lastRow = new float[spectra[0].length];
+            }
+            for (int k = 0; k < spectra.length; k++) {
+                if (pooled == 0) rowStartFrame = firstFrame + k;
+                float[] spectrum = spectra[k];
+                for (int i = 0; i < sum.length; i++) sum[i] += spectrum[i];
+                if (++pooled == framesPerRow) addRow();
+            }
+            if (System.nanoTime() - lastFlush > FLUSH_NANOS) flush();
+        }
+
+        void finish() {
+            if (pooled > 0) addRow();
+            flush();
+        }
+
+        private void addRow() {
+            int bins = sum.length;
+            float flux = 0;
+            for (int i = 0; i < bins; i++) {
+                sum[i] /= pooled;
+                flux += (sum[i] - lastRow[i]);
+            }
+            double[] data = new double[2 * bins - 2];
+            int d = 0;
+            //inverse mirror
+            for (int vectorIndex = bins - 1; vectorIndex > 1; vectorIndex--) {
+                data[d++] = sum[vectorIndex] * SCALING; //add projection scaling
+            }
+            //normal wave after center
+            for (int vectorIndex = 0; vectorIndex < bins; vectorIndex++) {
+                data[d++] = sum[vectorIndex] * SCALING; //add projection scaling
+            }
+            FeatureVector fv = new FeatureVector();
+            fv.setDataArray(data);
+            fv.setLabel(file.getPath());
+            fv.setScore(flux);
+            fv.getMetaData().put("seconds", String.valueOf(
+                rowStartFrame * spectrogram.getHopSize() / spectrogram.getSampleRate()));
+            rows.add(fv);
+            pending.add(fv);
+            float[] swap = lastRow;
+            lastRow = sum;
+            sum = swap;
+            Arrays.fill(sum, 0f);
+            pooled = 0;
+            if (unknownLength && rows.size() >= MAX_SURFACE_ROWS) compact();
+        }
+
+        /**
+         * Averages neighbouring rows pairwise and doubles the frames per row.
+         */
+        private void compact() {
+            List<FeatureVector> merged = new ArrayList<>(rows.size() / 2 + 1);
+            for (int r = 0; r < rows.size(); r += 2) {
+                FeatureVector a = rows.get(r);
+                if (r + 1 == rows.size()) {
+                    merged.add(a);
+                    break;
+                }
+                FeatureVector b = rows.get(r + 1);
+                double[] data = new double[a.dataSize()];
+                for (int i = 0; i < data.length; i++) data[i] = 0.5 * (a.dataValue(i) + b.dataValue(i));
+                FeatureVector fv = new FeatureVector();
+                fv.setDataArray(data);
+                fv.setLabel(a.getLabel());
+                fv.setScore(a.getScore() + b.getScore()); //flux across both rows
+                fv.getMetaData().put("seconds", a.getMetaData().get("seconds"));
+                merged.add(fv);
+            }
+            rows.clear();
+            rows.addAll(merged);
+            pending.clear();
+            pending.addAll(rows);
+            surfaceStarted = false;
+            framesPerRow *= 2;
+            LOG.info("Audio of unknown length: {} frames per surface row", framesPerRow);
+        }
+
+        private void flush() {
+            lastFlush = System.nanoTime();
+            if (pending.isEmpty()) return;
+            FeatureCollection batch = new FeatureCollection();
+            batch.setFeatures(new ArrayList<>(pending));
+            pending.clear();
+            EventType<HypersurfaceEvent> type = surfaceStarted
+                ? HypersurfaceEvent.APPEND_SURFACE_ROWS
+                : HypersurfaceEvent.SET_SURFACE_ROWS;
+            surfaceStarted = true;
+            Platform.runLater(() -> {
+                scene.getRoot().fireEvent(new HypersurfaceEvent(type, batch));
+            });
+        }
+    }
 }
@@ -2,6 +2,8 @@ package edu.jhuapl.trinity.utils.loaders;
 
 import edu.jhuapl.trinity.data.Trajectory;
 import edu.jhuapl.trinity.data.files.FeatureCollectionFile;
+import edu.jhuapl.trinity.data.files.FeatureCollectionStreamParser;
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 import edu.jhuapl.trinity.javafx.components.radial.ProgressStatus;
 import edu.jhuapl.trinity.javafx.events.ApplicationEvent;
 import edu.jhuapl.trinity.javafx.events.FeatureVectorEvent;
@@ -13,6 +15,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.List;
 
 /**
  * @author Sean Phillips
@@ -22,6 +25,8 @@ public class FeatureCollectionLoader extends Task {
     Scene scene;
     File file;
     private boolean clearQueue = false;
+    private long loadedCount = 0;
+    private int lastPercentStep = -1;
 
     public FeatureCollectionLoader(Scene scene, File file) {
         this.scene = scene;
@@ -55,7 +60,8 @@ public class FeatureCollectionLoader extends Task {
         });
 
         try {
-            FeatureCollectionFile fcFile = new FeatureCollectionFile(file.getAbsolutePath(), true);
+            FeatureCollectionFile fcFile = new FeatureCollectionFile(file.getAbsolutePath());
+            fcFile.parse(FeatureCollectionStreamParser.DEFAULT_BATCH_SIZE, this::onBatch);
             FeatureVectorEvent dataSourceEvent = new FeatureVectorEvent(FeatureVectorEvent.NEW_FEATURES_SOURCE, file);
             Platform.runLater(() -> scene.getRoot().fireEvent(dataSourceEvent));
             FeatureVectorEvent event = new FeatureVectorEvent(FeatureVectorEvent.NEW_FEATURE_COLLECTION, fcFile.featureCollection);
@@ -74,6 +80,26 @@ public class FeatureCollectionLoader extends Task {
         return null;
     }
 
+    private void onBatch(List<FeatureVector> batch, long bytesRead, long totalBytes) {
+        loadedCount += batch.size();
+        if (totalBytes <= 0)
+            return;
+        double percentComplete = Math.min(1.0, (double) bytesRead / (double) totalBytes);
+        //throttle UI updates to whole percent steps
+        int percentStep = (int) (percentComplete * 100);
+        if (percentStep == lastPercentStep)
+            return;
+        lastPercentStep = percentStep;
+        updateProgress(bytesRead, totalBytes);
+        long count = loadedCount;
+        Platform.runLater(() -> {
+            ProgressStatus ps = new ProgressStatus(
+                "Deserializing Feature Collection File... " + count + " vectors", percentComplete);
+            scene.getRoot().fireEvent(
+                new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
+        });
+    }
+
     /**
      * @return the clearQueue
      */
@@ -54,6 +54,7 @@ public class GraphDirectedCollectionLoader extends Task {
 
         try {
             GraphDirectedCollectionFile graphFile = new GraphDirectedCollectionFile(file.getAbsolutePath(), true);
+            graphFile.graphDirectedCollection.getIndex(); // build the adjacency index off the FX thread
             Platform.runLater(() -> scene.getRoot().fireEvent(
                 new GraphEvent(GraphEvent.NEW_GRAPHDIRECTED_COLLECTION, graphFile.graphDirectedCollection)));
         } catch (IOException ex) {
@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * CanonicalGridPolicy
@@ -200,6 +201,27 @@ public final class CanonicalGridPolicy implements Serializable {
                                 Integer binsY,
                                 String datasetCacheKey // optional: stable id for caching (e.g., SHA of data)
     ) {
+        return gridFor(xAxis, () -> extractScalars(vectors, xAxis),
+            yAxis, () -> extractScalars(vectors, yAxis), binsX, binsY, datasetCacheKey);
+    }
+
+    /**
+     * As {@link #gridForAxes} but with the axis scalars already extracted
+     * (one value per row). The columns are not modified.
+     */
+    public GridSpec gridForColumns(AxisParams xAxis, double[] xs,
+                                   AxisParams yAxis, double[] ys,
+                                   Integer binsX,
+                                   Integer binsY,
+                                   String datasetCacheKey) {
+        return gridFor(xAxis, () -> xs.clone(), yAxis, () -> ys.clone(), binsX, binsY, datasetCacheKey);
+    }
+
+    private GridSpec gridFor(AxisParams xAxis, Supplier<double[]> xs,
+                             AxisParams yAxis, Supplier<double[]> ys,
+                             Integer binsX,
+                             Integer binsY,
+                             String datasetCacheKey) {
         int bx = binsX != null ? binsX : defaultBinsX;
         int by = binsY != null ? binsY : defaultBinsY;
 
@@ -211,11 +233,11 @@ public final class CanonicalGridPolicy implements Serializable {
 
         AxisRange rx = (ox != null && ox.min != null && ox.max != null)
             ? new AxisRange(ox.min, ox.max)
-            : computeAxisRange(vectors, xAxis, datasetCacheKey);
+            : computeAxisRange(xs, xAxis, datasetCacheKey);
 
         AxisRange ry = (oy != null && oy.min != null && oy.max != null)
             ? new AxisRange(oy.min, oy.max)
-            : computeAxisRange(vectors, yAxis, datasetCacheKey);
+            : computeAxisRange(ys, yAxis, datasetCacheKey);
 
         if (ox != null && ox.bins != null) bx = ox.bins;
         if (oy != null && oy.bins != null) by = oy.bins;
@@ -237,7 +259,7 @@ public final class CanonicalGridPolicy implements Serializable {
                              List<FeatureVector> vectors,
                              Collection<AxisParams> axes) {
         for (AxisParams ax : axes) {
-            computeAxisRange(vectors, ax, datasetCacheKey);
+            computeAxisRange(() -> extractScalars(vectors, ax), ax, datasetCacheKey);
         }
     }
 
@@ -250,12 +272,13 @@ public final class CanonicalGridPolicy implements Serializable {
         if (ov != null && ov.min != null && ov.max != null) {
             return new AxisRange(ov.min, ov.max);
         }
-        return computeAxisRange(vectors, axis, datasetCacheKey);
+        return computeAxisRange(() -> extractScalars(vectors, axis), axis, datasetCacheKey);
     }
 
     // ---------- Internals ----------
 
-    private AxisRange computeAxisRange(List<FeatureVector> vectors,
+    // values is only invoked on a cache miss and may be sorted in place
+    private AxisRange computeAxisRange(Supplier<double[]> values,
                                        AxisParams axis,
                                        String datasetCacheKey) {
         // Cache path
@@ -270,14 +293,14 @@ public final class CanonicalGridPolicy implements Serializable {
         switch (mode) {
             case FIXED_01 -> r = new AxisRange(0.0, 1.0);
             case DATA_MIN_MAX -> {
-                double[] vals = extractScalars(vectors, axis);
+                double[] vals = values.get();
                 double min = Arrays.stream(vals).min().orElse(0.0);
                 double max = Arrays.stream(vals).max().orElse(min + epsilon);
                 if (max - min < epsilon) max = min + epsilon;
                 r = new AxisRange(min, max);
             }
             case ROBUST_PCT -> {
-                double[] vals = extractScalars(vectors, axis);
+                double[] vals = values.get();
                 if (vals.length == 0) {
                     r = new AxisRange(0.0, 1.0);
                 } else {
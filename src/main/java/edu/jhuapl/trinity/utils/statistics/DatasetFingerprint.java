@@ -0,0 +1,232 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * DatasetFingerprint
+ * ------------------
+ * Exact 128-bit content fingerprint of a collection of feature vectors, for
+ * cache keys that must change whenever any component of any vector changes.
+ * <p>
+ * Each vector is hashed (MurmurHash3 x64/128 over the bit patterns of its
+ * components) and the row hashes are summed lane-wise, so the fingerprint is
+ * a multiset hash: independent of row order (as are the densities keyed by
+ * it) and maintainable incrementally. Appending a vector adds its row hash,
+ * removing one subtracts it, and an edit is a remove followed by an add, so
+ * owners that track their mutations read the fingerprint in O(1).
+ * <p>
+ * Only component values take part; labels and metadata do not affect
+ * densities and do not change the fingerprint. Not cryptographic: it guards
+ * against accidental collisions, not adversarial ones.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @author Sean Phillips
+ */
+public final class DatasetFingerprint {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int CHUNK = 1024;
+
+    private long hi;
+    private long lo;
+    private long count;
+
+    public DatasetFingerprint() {
+    }
+
+    private DatasetFingerprint(long hi, long lo, long count) {
+        this.hi = hi;
+        this.lo = lo;
+        this.count = count;
+    }
+
+    /**
+     * Full scan of a collection; lists of at least a few thousand rows are
+     * hashed in parallel.
+     */
+    public static DatasetFingerprint of(List<FeatureVector> vectors) {
+        DatasetFingerprint fp = new DatasetFingerprint();
+        if (vectors == null || vectors.isEmpty()) return fp;
+        if (vectors.size() < PARALLEL_THRESHOLD || !(vectors instanceof RandomAccess)) {
+            fp.addAll(vectors);
+            return fp;
+        }
+        final int n = vectors.size();
+        final int chunks = (n + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel()
+            .mapToObj(c -> {
+                DatasetFingerprint part = new DatasetFingerprint();
+                part.addAll(vectors.subList(c * CHUNK, Math.min(n, (c + 1) * CHUNK)));
+                return part;
+            })
+            .reduce(fp, DatasetFingerprint::combine);
+    }
+
+    public synchronized void add(FeatureVector fv) {
+        long[] h = rowHash(fv);
+        hi += h[0];
+        lo += h[1];
+        count++;
+    }
+
+    public synchronized void remove(FeatureVector fv) {
+        long[] h = rowHash(fv);
+        hi -= h[0];
+        lo -= h[1];
+        count--;
+    }
+
+    public void addAll(Collection<FeatureVector> vectors) {
+        if (vectors == null) return;
+        long h0 = 0, h1 = 0;
+        for (FeatureVector fv : vectors) {
+            long[] h = rowHash(fv);
+            h0 += h[0];
+            h1 += h[1];
+        }
+        synchronized (this) {
+            hi += h0;
+            lo += h1;
+            count += vectors.size();
+        }
+    }
+
+    public void removeAll(Collection<FeatureVector> vectors) {
+        if (vectors == null) return;
+        long h0 = 0, h1 = 0;
+        for (FeatureVector fv : vectors) {
+            long[] h = rowHash(fv);
+            h0 += h[0];
+            h1 += h[1];
+        }
+        synchronized (this) {
+            hi -= h0;
+            lo -= h1;
+            count -= vectors.size();
+        }
+    }
+
+    /**
+     * Adds another fingerprint's rows, e.g. a delta computed off the caller's thread.
+     */
+    public void merge(DatasetFingerprint other) {
+        if (other == null) return;
+        DatasetFingerprint snap = other.copy(); //taken before locking this, never both at once
+        synchronized (this) {
+            hi += snap.hi;
+            lo += snap.lo;
+            count += snap.count;
+        }
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized DatasetFingerprint copy() {
+        return new DatasetFingerprint(hi, lo, count);
+    }
+
+    /**
+     * @return 32 hex digits of hash followed by the row count, e.g. "9f...c2-1500"
+     */
+    @Override
+    public synchronized String toString() {
+        if (count == 0) return "empty";
+        return String.format("%016x%016x-%d", hi, lo, count);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DatasetFingerprint other)) return false;
+        //snapshot each side under its own lock in turn, so a.equals(b) and b.equals(a) cannot deadlock
+        DatasetFingerprint mine = copy();
+        DatasetFingerprint theirs = other.copy();
+        return mine.hi == theirs.hi && mine.lo == theirs.lo && mine.count == theirs.count;
+    }
+
+    @Override
+    public synchronized int hashCode() {
+        return Long.hashCode(hi ^ lo);
+    }
+
+    private static DatasetFingerprint combine(DatasetFingerprint a, DatasetFingerprint b) {
+        return new DatasetFingerprint(a.hi + b.hi, a.lo + b.lo, a.count + b.count);
+    }
+
+    /**
+     * MurmurHash3 x64/128 of the vector's component bit patterns, two components per block.
+     */
+    static long[] rowHash(FeatureVector fv) {
+        int d = (fv == null || fv.getData() == null) ? 0 : fv.dataSize();
+        return rowHash(d, fv == null ? null : fv::dataValue);
+    }
+
+    /**
+     * {@link #rowHash(FeatureVector)} over a plain component list (e.g. a reference vector).
+     */
+    static long[] rowHash(List<Double> values) {
+        int d = values == null ? 0 : values.size();
+        return rowHash(d, values == null ? null : values::get);
+    }
+
+    private static long[] rowHash(int d, IntToDoubleFunction value) {
+        long h1 = 0x9368e53c2f6af274L;
+        long h2 = 0x586dcd208f7cd3fdL;
+        int i = 0;
+        for (; i + 1 < d; i += 2) {
+            long k1 = Double.doubleToLongBits(value.applyAsDouble(i));
+            long k2 = Double.doubleToLongBits(value.applyAsDouble(i + 1));
+
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        if (i < d) {
+            long k1 = Double.doubleToLongBits(value.applyAsDouble(i));
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+        }
+        h1 ^= d;
+        h2 ^= d;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb93fe1a85a53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -1,36 +1,85 @@
 package edu.jhuapl.trinity.utils.statistics;
 
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.LinkedHashMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.time.Instant;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * DensityCache
  * ------------
- * LRU (+ optional TTL) cache for joint PDF/CDF grids produced by GridDensity3DEngine.
+ * Size-aware (+ optional TTL) cache for joint PDF/CDF grids produced by GridDensity3DEngine,
+ * with an optional disk tier.
  * <p>
  * Cache key = datasetSignature ⨉ xAxis ⨉ yAxis ⨉ gridSpec (bins + bounds).
  * The datasetSignature can be provided by the caller (stable ID) or derived
  * from the data (fast fingerprint over a sampled subset).
  * <p>
- * Thread-safe via RW-lock; LRU eviction via access-ordered LinkedHashMap.
+ * Concurrency: entries live in a ConcurrentHashMap, so lookups never block and
+ * only bump a per-entry access stamp. Concurrent misses on the same key are
+ * single-flight: one caller computes, the others wait for its result.
+ * Eviction is by total byte weight of the cached grids (and optionally by entry
+ * count) and removes the least recently used of a small random sample, which
+ * approximates LRU without a global ordering lock.
+ * <p>
+ * Disk tier (opt-in): when a directory is configured every computed entry is
+ * also written there (in the background) under a hash of its key, so entries
+ * evicted from memory, or computed in an earlier session over the same dataset
+ * fingerprint, are read back instead of recomputed. Files hold only typed
+ * primitive fields (no Java serialization), and the directory must belong to
+ * the current user and not be writable by anyone else, otherwise the tier is
+ * disabled.
  * <p>
  * Typical usage:
- * DensityCache cache = new DensityCache.Builder().maxEntries(128).ttlMillis(0).build();
+ * DensityCache cache = new DensityCache.Builder().maxBytes(64L << 20).diskDir(DensityCache.defaultDiskDir()).build();
  * // build a canonical grid first (recommended)
  * GridSpec grid = CanonicalGridPolicy.get("default").gridForAxes(vectors, xAxis, yAxis, null, null, "myDataset");
  * GridDensityResult res = cache.getOrCompute(vectors, xAxis, yAxis, grid, "myDataset"); // provenance optional
  * <p>
  * Notes:
  * - GridDensityResult holds both PDF and CDF; one cache entry covers both.
- * - To ensure stable keys across runs, pass a true datasetId (e.g., content hash).
- * If you can't, the internal fingerprint is deterministic but approximate.
+ * - Without a datasetId the key uses an exact content fingerprint (a full scan);
+ * pass one (e.g., FeatureVectorManagerService#getFingerprint) to skip the scan.
  * - Avoid caching empty datasets (we skip and return compute directly).
  *
  * @author Sean Phillips
@@ -38,30 +87,48 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public final class DensityCache implements Serializable {
 
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+    private static final Logger LOG = LoggerFactory.getLogger(DensityCache.class);
+
+    /**
+     * System property enabling the default disk tier: "user" for a private
+     * directory under user.home, or an explicit path. Unset or "none" disables it.
+     */
+    public static final String DISK_DIR_PROPERTY = "trinity.densitycache.dir";
+    private static final String FILE_SUFFIX = ".jpdf";
+    private static final int FILE_VERSION = 2;
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+    private static final int EVICTION_SAMPLE = 8;
+    private static final int MAX_ARRAY_LENGTH = 1 << 24;
 
     /**
      * Cache statistics snapshot.
      */
     public static final class Stats implements Serializable {
         @Serial
-        private static final long serialVersionUID = 1L;
+        private static final long serialVersionUID = 2L;
         public final long hits, misses, puts, evictions, expirations, size;
+        public final long bytes, diskHits, diskWrites;
 
-        Stats(long hits, long misses, long puts, long evictions, long expirations, long size) {
+        Stats(long hits, long misses, long puts, long evictions, long expirations, long size,
+              long bytes, long diskHits, long diskWrites) {
             this.hits = hits;
             this.misses = misses;
             this.puts = puts;
             this.evictions = evictions;
             this.expirations = expirations;
             this.size = size;
+            this.bytes = bytes;
+            this.diskHits = diskHits;
+            this.diskWrites = diskWrites;
         }
 
         @Override
         public String toString() {
             return "Stats{hits=" + hits + ", misses=" + misses + ", puts=" + puts +
                 ", evictions=" + evictions + ", expirations=" + expirations +
-                ", size=" + size + '}';
+                ", size=" + size + ", bytes=" + bytes + ", diskHits=" + diskHits +
+                ", diskWrites=" + diskWrites + '}';
         }
     }
 
@@ -69,55 +136,152 @@ public final class DensityCache implements Serializable {
      * Builder for DensityCache.
      */
     public static final class Builder {
-        private int maxEntries = 128;
+        private int maxEntries = Integer.MAX_VALUE;
+        private long maxBytes = 64L << 20;
         private long ttlMillis = 0; // 0 = no TTL
+        private Path diskDir = null;
+        private long maxDiskBytes = 1L << 30;
 
         public Builder maxEntries(int n) {
             this.maxEntries = Math.max(1, n);
             return this;
         }
 
+        /**
+         * Bound on the summed array bytes of cached grids (default 64 MB).
+         */
+        public Builder maxBytes(long bytes) {
+            this.maxBytes = Math.max(1, bytes);
+            return this;
+        }
+
         public Builder ttlMillis(long ms) {
             this.ttlMillis = Math.max(0, ms);
             return this;
         }
 
+        /**
+         * Directory for the disk tier; null (default) keeps the cache in memory only.
+         */
+        public Builder diskDir(Path dir) {
+            this.diskDir = dir;
+            return this;
+        }
+
+        /**
+         * Bound on the disk tier; the oldest files are pruned past it (default 1 GB).
+         */
+        public Builder maxDiskBytes(long bytes) {
+            this.maxDiskBytes = Math.max(1, bytes);
+            return this;
+        }
+
         public DensityCache build() {
-            return new DensityCache(maxEntries, ttlMillis);
+            return new DensityCache(maxEntries, maxBytes, ttlMillis, diskDir, maxDiskBytes);
         }
     }
 
+    /**
+     * Disk tier directory from {@link #DISK_DIR_PROPERTY}. Returns null, keeping
+     * the cache in memory, unless the property opts in.
+     */
+    public static Path defaultDiskDir() {
+        String dir = System.getProperty(DISK_DIR_PROPERTY);
+        if (dir == null || dir.isBlank() || "none".equalsIgnoreCase(dir.trim())) {
+            return null;
+        }
+        if ("user".equalsIgnoreCase(dir.trim())) {
+            return Path.of(System.getProperty("user.home"), ".trinity", "density-cache");
+        }
+        return Path.of(dir.trim());
+    }
+
     /**
      * Internal entry.
      *
      * @param provenance optional; may be null
      */
-    private record Entry(GridDensityResult result, long createdAt, JpdfProvenance provenance) implements Serializable {
+    private static final class Entry implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        final GridDensityResult result;
+        final long createdAt;
+        final JpdfProvenance provenance;
+        final long weight;
+        volatile long lastAccess;
+
+        Entry(GridDensityResult result, long createdAt, JpdfProvenance provenance, long stamp) {
+            this.result = result;
+            this.createdAt = createdAt;
+            this.provenance = provenance;
+            this.weight = weigh(result);
+            this.lastAccess = stamp;
+        }
     }
 
     private final int maxEntries;
+    private final long maxBytes;
     private final long ttlMillis;
+    private final String diskDir; //kept as a String so the cache stays Serializable
+    private final long maxDiskBytes;
+
+    private final ConcurrentHashMap<String, Entry> map = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private transient volatile ExecutorService diskWriter;
+
+    // Stats
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), puts = new LongAdder(),
+        evictions = new LongAdder(), expirations = new LongAdder(),
+        diskHits = new LongAdder(), diskWrites = new LongAdder();
+
+    private DensityCache(int maxEntries, long maxBytes, long ttlMillis, Path diskDir, long maxDiskBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        this.maxDiskBytes = maxDiskBytes;
+        String dir = null;
+        if (diskDir != null) {
+            try {
+                dir = preparePrivateDir(diskDir).toString();
+            } catch (IOException ex) {
+                LOG.warn("Density cache disk tier unavailable at {}: {}", diskDir, ex.getMessage());
+            }
+        }
+        this.diskDir = dir;
+    }
 
     /**
-     * Access-ordered LRU map with bounded size (evicts eldest).
+     * Creates the directory owner-only, or checks that an existing one is a real
+     * directory owned by the current user that nobody else can write to.
      */
-    private final LinkedHashMap<String, Entry> map;
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-
-    // Stats (best-effort; not atomic across fields)
-    private long hits = 0, misses = 0, puts = 0, evictions = 0, expirations = 0;
-
-    private DensityCache(int maxEntries, long ttlMillis) {
-        this.maxEntries = maxEntries;
-        this.ttlMillis = ttlMillis;
-        this.map = new LinkedHashMap<>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, DensityCache.Entry> eldest) {
-                boolean evict = size() > DensityCache.this.maxEntries;
-                if (evict) evictions++;
-                return evict;
+    private static Path preparePrivateDir(Path dir) throws IOException {
+        dir = dir.toAbsolutePath().normalize();
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            if (dir.getParent() != null) Files.createDirectories(dir.getParent());
+            if (posix) Files.createDirectory(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            else Files.createDirectory(dir);
+        }
+        if (!Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("not a directory (or a symbolic link)");
+        }
+        if (posix) {
+            PosixFileAttributes attrs = Files.getFileAttributeView(dir, PosixFileAttributeView.class,
+                LinkOption.NOFOLLOW_LINKS).readAttributes();
+            UserPrincipal me = FileSystems.getDefault().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+            if (!attrs.owner().equals(me)) {
+                throw new IOException("owned by " + attrs.owner().getName() + ", not " + me.getName());
+            }
+            Set<PosixFilePermission> perms = attrs.permissions();
+            if (perms.contains(PosixFilePermission.GROUP_WRITE) || perms.contains(PosixFilePermission.OTHERS_WRITE)) {
+                throw new IOException("writable by other users");
             }
-        };
+        }
+        return dir;
     }
 
     // =====================================================================================
@@ -152,40 +316,69 @@ public final class DensityCache implements Serializable {
         }
 
         final String key = makeKey(vectors, xAxis, yAxis, grid, datasetId);
-        final long now = System.currentTimeMillis();
+        return getOrCompute(key, () -> GridDensity3DEngine.computePdfCdf2D(vectors, xAxis, yAxis, grid), provenance);
+    }
 
-        // Fast path: read lock then compute if miss
-        Entry e;
-        lock.readLock().lock();
-        try {
-            e = map.get(key);
-            if (e != null && !isExpired(e, now)) {
-                hits++;
-                return e.result;
-            }
-        } finally {
-            lock.readLock().unlock();
+    /**
+     * Get (or compute+insert) by a precomputed key. Used by batch callers that
+     * already hold the scalar columns and only need the binning step.
+     * Concurrent callers missing on the same key share one computation.
+     *
+     * @param key        key from {@link #makeKey}
+     * @param compute    computes the result on a miss (called without any lock held)
+     * @param provenance optional provenance record to store alongside the result
+     */
+    public GridDensityResult getOrCompute(String key,
+                                          Supplier<GridDensityResult> compute,
+                                          JpdfProvenance provenance) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(compute, "compute");
+
+        Entry e = lookup(key);
+        if (e != null) {
+            hits.increment();
+            return e.result;
         }
 
-        // Compute outside lock
-        GridDensityResult computed = GridDensity3DEngine.computePdfCdf2D(vectors, xAxis, yAxis, grid);
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> pending = inFlight.putIfAbsent(key, mine);
+        if (pending != null) {
+            // another caller is already computing this key
+            try {
+                Entry shared = pending.join();
+                hits.increment();
+                return shared.result;
+            } catch (CompletionException ex) {
+                throw unwrap(ex);
+            }
+        }
 
-        // Write back if still missing (double-check)
-        lock.writeLock().lock();
         try {
-            Entry existing = map.get(key);
-            if (existing != null && !isExpired(existing, now)) {
-                hits++;
-                return existing.result;
+            // re-check: the owner of an earlier flight may have inserted before we registered
+            e = map.get(key);
+            if (e == null || isExpired(e, System.currentTimeMillis())) {
+                e = readFromDisk(key);
+                if (e != null) {
+                    diskHits.increment();
+                    insert(key, e);
+                } else {
+                    misses.increment();
+                    e = new Entry(compute.get(), System.currentTimeMillis(), provenance, clock.incrementAndGet());
+                    insert(key, e);
+                    puts.increment();
+                    writeToDisk(key, e);
+                }
+            } else {
+                hits.increment();
             }
-            misses++;
-            if (existing != null && isExpired(existing, now)) expirations++;
-            map.put(key, new Entry(computed, now, provenance));
-            puts++;
+            mine.complete(e);
+            return e.result;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
         } finally {
-            lock.writeLock().unlock();
+            inFlight.remove(key, mine);
         }
-        return computed;
     }
 
     /**
@@ -208,13 +401,10 @@ public final class DensityCache implements Serializable {
     public void put(String key, GridDensityResult value, JpdfProvenance provenance) {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(value, "value");
-        lock.writeLock().lock();
-        try {
-            map.put(key, new Entry(value, System.currentTimeMillis(), provenance));
-            puts++;
-        } finally {
-            lock.writeLock().unlock();
-        }
+        Entry e = new Entry(value, System.currentTimeMillis(), provenance, clock.incrementAndGet());
+        insert(key, e);
+        puts.increment();
+        writeToDisk(key, e);
     }
 
     /**
@@ -225,60 +415,67 @@ public final class DensityCache implements Serializable {
     }
 
     /**
-     * Direct lookup by precomputed key; returns null if missing/expired.
+     * Direct lookup by precomputed key (memory, then disk); returns null if missing/expired.
      */
     public GridDensityResult get(String key) {
-        lock.writeLock().lock(); // write: we may remove expired
-        try {
-            Entry e = map.get(key);
-            if (e == null) return null;
-            if (isExpired(e, System.currentTimeMillis())) {
-                map.remove(key);
-                expirations++;
-                return null;
-            }
-            hits++;
+        Entry e = lookup(key);
+        if (e != null) {
+            hits.increment();
             return e.result;
-        } finally {
-            lock.writeLock().unlock();
         }
+        e = readFromDisk(key);
+        if (e == null) return null;
+        diskHits.increment();
+        insert(key, e);
+        return e.result;
     }
 
     /**
      * Return provenance for a cached entry, or null.
      */
     public JpdfProvenance getProvenance(String key) {
-        lock.readLock().lock();
-        try {
-            Entry e = map.get(key);
-            if (e == null) return null;
-            return e.provenance;
-        } finally {
-            lock.readLock().unlock();
-        }
+        Entry e = map.get(key);
+        return e == null ? null : e.provenance;
     }
 
     /**
-     * Remove a specific key.
+     * Remove a specific key (from memory and disk).
      */
     public void invalidate(String key) {
-        lock.writeLock().lock();
-        try {
-            map.remove(key);
-        } finally {
-            lock.writeLock().unlock();
+        Entry e = map.remove(key);
+        if (e != null) totalBytes.addAndGet(-e.weight);
+        Path file = diskFile(key);
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                LOG.warn("Unable to delete cached density {}: {}", file, ex.getMessage());
+            }
         }
     }
 
     /**
-     * Clear all entries.
+     * Clear all in-memory entries. The disk tier is kept; see {@link #clearDisk()}.
      */
     public void clear() {
-        lock.writeLock().lock();
-        try {
-            map.clear();
-        } finally {
-            lock.writeLock().unlock();
+        for (Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator(); it.hasNext(); ) {
+            Entry e = it.next().getValue();
+            it.remove();
+            totalBytes.addAndGet(-e.weight);
+        }
+    }
+
+    /**
+     * Delete every file of the disk tier.
+     */
+    public void clearDisk() {
+        if (diskDir == null) return;
+        try (Stream<Path> files = Files.list(Path.of(diskDir))) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                if (p.getFileName().toString().endsWith(FILE_SUFFIX)) Files.deleteIfExists(p);
+            }
+        } catch (IOException ex) {
+            LOG.warn("Unable to clear density cache directory {}: {}", diskDir, ex.getMessage());
         }
     }
 
@@ -286,24 +483,387 @@ public final class DensityCache implements Serializable {
      * Snapshot of stats.
      */
     public Stats stats() {
-        lock.readLock().lock();
-        try {
-            return new Stats(hits, misses, puts, evictions, expirations, map.size());
-        } finally {
-            lock.readLock().unlock();
-        }
+        return new Stats(hits.sum(), misses.sum(), puts.sum(), evictions.sum(), expirations.sum(), map.size(),
+            totalBytes.get(), diskHits.sum(), diskWrites.sum());
     }
 
     /**
      * Current number of entries.
      */
     public int size() {
-        lock.readLock().lock();
+        return map.size();
+    }
+
+    /**
+     * Approximate bytes held by in-memory entries.
+     */
+    public long weightBytes() {
+        return totalBytes.get();
+    }
+
+    // =====================================================================================
+    // Storage internals
+    // =====================================================================================
+
+    private Entry lookup(String key) {
+        Entry e = map.get(key);
+        if (e == null) return null;
+        if (isExpired(e, System.currentTimeMillis())) {
+            if (map.remove(key, e)) {
+                totalBytes.addAndGet(-e.weight);
+                expirations.increment();
+            }
+            return null;
+        }
+        e.lastAccess = clock.incrementAndGet();
+        return e;
+    }
+
+    private void insert(String key, Entry e) {
+        Entry old = map.put(key, e);
+        totalBytes.addAndGet(e.weight - (old == null ? 0 : old.weight));
+        if (totalBytes.get() > maxBytes || map.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Sampled LRU: repeatedly drop the stalest of a few random entries until under budget.
+     * One thread evicts at a time; others carry on and leave it to that thread.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) return;
         try {
-            return map.size();
+            while ((totalBytes.get() > maxBytes || map.size() > maxEntries) && map.size() > 1) {
+                List<Map.Entry<String, Entry>> sample = sample();
+                if (sample.isEmpty()) break;
+                Map.Entry<String, Entry> victim = sample.get(0);
+                for (Map.Entry<String, Entry> candidate : sample) {
+                    if (candidate.getValue().lastAccess < victim.getValue().lastAccess) victim = candidate;
+                }
+                if (map.remove(victim.getKey(), victim.getValue())) {
+                    totalBytes.addAndGet(-victim.getValue().weight);
+                    evictions.increment();
+                }
+            }
         } finally {
-            lock.readLock().unlock();
+            evictionLock.unlock();
+        }
+    }
+
+    private List<Map.Entry<String, Entry>> sample() {
+        int size = map.size();
+        List<Map.Entry<String, Entry>> out = new ArrayList<>(EVICTION_SAMPLE);
+        if (size == 0) return out;
+        int skip = size > EVICTION_SAMPLE ? ThreadLocalRandom.current().nextInt(size - EVICTION_SAMPLE + 1) : 0;
+        Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+        while (skip-- > 0 && it.hasNext()) it.next();
+        while (out.size() < EVICTION_SAMPLE && it.hasNext()) out.add(it.next());
+        return out;
+    }
+
+    static long weigh(GridDensityResult r) {
+        long cells = 0;
+        if (r.pdfZ() != null) for (double[] row : r.pdfZ()) cells += row.length;
+        if (r.cdfZ() != null && r.cdfZ() != r.pdfZ()) for (double[] row : r.cdfZ()) cells += row.length;
+        long axes = length(r.xEdges()) + length(r.yEdges()) + length(r.xCenters()) + length(r.yCenters());
+        int rows = (r.pdfZ() == null ? 0 : r.pdfZ().length) * 2;
+        // 16 byte array headers, 8 bytes per double
+        return (cells + axes) * Double.BYTES + (rows + 4) * 16L + 64;
+    }
+
+    private static int length(double[] a) {
+        return a == null ? 0 : a.length;
+    }
+
+    private static RuntimeException unwrap(CompletionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error err) throw err;
+        return ex;
+    }
+
+    // =====================================================================================
+    // Disk tier
+    // =====================================================================================
+
+    private Path diskFile(String key) {
+        if (diskDir == null) return null;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return Path.of(diskDir, HexFormat.of().formatHex(digest, 0, 20) + FILE_SUFFIX);
+        } catch (NoSuchAlgorithmException ex) {
+            return null;
+        }
+    }
+
+    private ExecutorService diskWriter() {
+        ExecutorService w = diskWriter;
+        if (w == null) {
+            synchronized (this) {
+                w = diskWriter;
+                if (w == null) {
+                    w = Executors.newSingleThreadExecutor(r -> {
+                        Thread t = new Thread(r, "Trinity DensityCache Writer");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    diskWriter = w;
+                }
+            }
+        }
+        return w;
+    }
+
+    private void writeToDisk(String key, Entry e) {
+        Path file = diskFile(key);
+        if (file == null) return;
+        diskWriter().execute(() -> {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(FILE_VERSION);
+                    out.writeUTF(key);
+                    out.writeLong(e.createdAt);
+                    writeResult(out, e.result);
+                    writeProvenance(out, e.provenance);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                diskWrites.increment();
+                if (diskWrites.sum() % 64 == 0) pruneDisk();
+            } catch (IOException ex) {
+                LOG.warn("Unable to write cached density {}: {}", file, ex.getMessage());
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignore) {
+                }
+            }
+        });
+    }
+
+    private Entry readFromDisk(String key) {
+        Path file = diskFile(key);
+        if (file == null || !Files.isRegularFile(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION || !key.equals(in.readUTF())) return null;
+            long createdAt = in.readLong();
+            GridDensityResult result = readResult(in);
+            JpdfProvenance provenance = readProvenance(in);
+            Entry e = new Entry(result, createdAt, provenance, clock.incrementAndGet());
+            if (isExpired(e, System.currentTimeMillis())) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return e;
+        } catch (IOException | RuntimeException ex) {
+            LOG.warn("Ignoring unreadable cached density {}: {}", file, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void pruneDisk() {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(Path.of(diskDir))) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(FILE_SUFFIX)).toList();
+        } catch (IOException ex) {
+            return;
+        }
+        long total = 0;
+        List<Object[]> sized = new ArrayList<>(files.size());
+        for (Path p : files) {
+            try {
+                long size = Files.size(p);
+                total += size;
+                sized.add(new Object[]{p, size, Files.getLastModifiedTime(p).toMillis()});
+            } catch (IOException ignore) {
+            }
+        }
+        if (total <= maxDiskBytes) return;
+        sized.sort(Comparator.comparingLong(o -> (Long) o[2]));
+        long target = maxDiskBytes * 9 / 10;
+        for (Object[] f : sized) {
+            if (total <= target) break;
+            try {
+                Files.deleteIfExists((Path) f[0]);
+                total -= (Long) f[1];
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static void writeResult(DataOutputStream out, GridDensityResult r) throws IOException {
+        writeGrid(out, r.pdfZ());
+        out.writeBoolean(r.cdfZ() == r.pdfZ());
+        if (r.cdfZ() != r.pdfZ()) writeGrid(out, r.cdfZ());
+        writeArray(out, r.xEdges());
+        writeArray(out, r.yEdges());
+        writeArray(out, r.xCenters());
+        writeArray(out, r.yCenters());
+        out.writeDouble(r.dx());
+        out.writeDouble(r.dy());
+    }
+
+    private static GridDensityResult readResult(DataInputStream in) throws IOException {
+        double[][] pdf = readGrid(in);
+        double[][] cdf = in.readBoolean() ? pdf : readGrid(in);
+        return new GridDensityResult(pdf, cdf, readArray(in), readArray(in), readArray(in), readArray(in),
+            in.readDouble(), in.readDouble());
+    }
+
+    private static void writeGrid(DataOutputStream out, double[][] grid) throws IOException {
+        out.writeInt(grid.length);
+        for (double[] row : grid) writeArray(out, row);
+    }
+
+    private static double[][] readGrid(DataInputStream in) throws IOException {
+        double[][] grid = new double[readLength(in)][];
+        for (int i = 0; i < grid.length; i++) grid[i] = readArray(in);
+        return grid;
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > MAX_ARRAY_LENGTH) throw new IOException("corrupt array length " + n);
+        return n;
+    }
+
+    private static void writeArray(DataOutputStream out, double[] a) throws IOException {
+        out.writeInt(a.length);
+        for (double v : a) out.writeDouble(v);
+    }
+
+    private static double[] readArray(DataInputStream in) throws IOException {
+        double[] a = new double[readLength(in)];
+        for (int i = 0; i < a.length; i++) a[i] = in.readDouble();
+        return a;
+    }
+
+    /**
+     * Provenance as typed fields; absent optional values are written as a false flag.
+     */
+    private static void writeProvenance(DataOutputStream out, JpdfProvenance p) throws IOException {
+        out.writeBoolean(p != null);
+        if (p == null) return;
+        out.writeUTF(p.operation().name());
+        out.writeUTF(p.surfaceKind().name());
+        writeAxis(out, p.xAxis());
+        writeAxis(out, p.yAxis());
+        JpdfProvenance.GridSummary g = p.grid();
+        out.writeInt(g.binsX());
+        out.writeInt(g.binsY());
+        out.writeDouble(g.minX());
+        out.writeDouble(g.maxX());
+        out.writeDouble(g.minY());
+        out.writeDouble(g.maxY());
+        out.writeDouble(g.dx());
+        out.writeDouble(g.dy());
+        out.writeUTF(g.boundsPolicy().name());
+        writeString(out, g.canonicalPolicyId());
+        out.writeUTF(p.alignment().name());
+        writeString(out, p.recipeName());
+        writeString(out, p.canonicalSpecKey());
+        writeString(out, p.cacheKey());
+        JpdfProvenance.DataSummary d = p.data();
+        out.writeBoolean(d != null);
+        if (d != null) {
+            out.writeLong(d.nSamples());
+            out.writeDouble(d.minAvgCountPerCell());
+            out.writeBoolean(d.sufficiencyPass());
+            writeString(out, d.scoreMetric() == null ? null : d.scoreMetric().name());
+            writeDouble(out, d.selectionScore());
+            writeInt(out, d.selectionRank());
+        }
+        JpdfProvenance.NumericChecks c = p.numericChecks();
+        out.writeBoolean(c != null);
+        if (c != null) {
+            writeDouble(out, c.pdfMass());
+            writeDouble(out, c.cdfTerminal());
+            out.writeBoolean(c.cdfMonotoneXY() != null);
+            if (c.cdfMonotoneXY() != null) out.writeBoolean(c.cdfMonotoneXY());
+            writeDouble(out, c.minZ());
+            writeDouble(out, c.maxZ());
         }
+        writeString(out, p.cohortALabel());
+        writeString(out, p.cohortBLabel());
+        out.writeLong(p.computedAt().getEpochSecond());
+        out.writeInt(p.computedAt().getNano());
+        out.writeBoolean(p.computeMillis() != null);
+        if (p.computeMillis() != null) out.writeLong(p.computeMillis());
+    }
+
+    private static JpdfProvenance readProvenance(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) return null;
+        JpdfProvenance.Operation op = JpdfProvenance.Operation.valueOf(in.readUTF());
+        JpdfProvenance.SurfaceKind kind = JpdfProvenance.SurfaceKind.valueOf(in.readUTF());
+        JpdfProvenance.AxisSummary x = readAxis(in);
+        JpdfProvenance.AxisSummary y = readAxis(in);
+        JpdfProvenance.GridSummary g = new JpdfProvenance.GridSummary(in.readInt(), in.readInt(),
+            in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+            JpdfProvenance.BoundsPolicy.valueOf(in.readUTF()), readString(in));
+        JpdfProvenance.Builder b = JpdfProvenance.newBuilder(op, kind, x, y, g)
+            .alignment(JpdfProvenance.Alignment.valueOf(in.readUTF()))
+            .recipeName(readString(in))
+            .canonicalSpecKey(readString(in))
+            .cacheKey(readString(in));
+        if (in.readBoolean()) {
+            long n = in.readLong();
+            double minAvg = in.readDouble();
+            boolean pass = in.readBoolean();
+            String metric = readString(in);
+            b.data(new JpdfProvenance.DataSummary(n, minAvg, pass,
+                metric == null ? null : JpdfRecipe.ScoreMetric.valueOf(metric), readDouble(in), readInt(in)));
+        }
+        if (in.readBoolean()) {
+            Double mass = readDouble(in), terminal = readDouble(in);
+            Boolean monotone = in.readBoolean() ? in.readBoolean() : null;
+            b.numericChecks(new JpdfProvenance.NumericChecks(mass, terminal, monotone, readDouble(in), readDouble(in)));
+        }
+        b.cohortLabels(readString(in), readString(in));
+        b.computedAt(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+        b.computeMillis(in.readBoolean() ? in.readLong() : null);
+        return b.build();
+    }
+
+    private static void writeAxis(DataOutputStream out, JpdfProvenance.AxisSummary a) throws IOException {
+        out.writeUTF(a.scalarType().name());
+        writeString(out, a.metricName());
+        writeInt(out, a.componentIndex());
+        out.writeUTF(a.referenceKind().name());
+        writeInt(out, a.referenceIndex());
+        writeString(out, a.label());
+    }
+
+    private static JpdfProvenance.AxisSummary readAxis(DataInputStream in) throws IOException {
+        return new JpdfProvenance.AxisSummary(StatisticEngine.ScalarType.valueOf(in.readUTF()), readString(in),
+            readInt(in), JpdfProvenance.AxisSummary.ReferenceKind.valueOf(in.readUTF()), readInt(in), readString(in));
+    }
+
+    private static void writeString(DataOutputStream out, String v) throws IOException {
+        out.writeBoolean(v != null);
+        if (v != null) out.writeUTF(v);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDouble(DataOutputStream out, Double v) throws IOException {
+        out.writeBoolean(v != null);
+        if (v != null) out.writeDouble(v);
+    }
+
+    private static Double readDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private static void writeInt(DataOutputStream out, Integer v) throws IOException {
+        out.writeBoolean(v != null);
+        if (v != null) out.writeInt(v);
+    }
+
+    private static Integer readInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
     }
 
     // =====================================================================================
@@ -311,8 +871,8 @@ public final class DensityCache implements Serializable {
     // =====================================================================================
 
     /**
-     * Make a stable cache key for the inputs. If datasetId is null, a deterministic
-     * fingerprint is derived by sampling up to SAMPLE_ROWS rows and a few columns.
+     * Make a stable cache key for the inputs. If datasetId is null, the exact
+     * content fingerprint from {@link #fingerprintDataset(List)} is used.
      */
     public String makeKey(List<FeatureVector> vectors,
                           AxisParams xAxis,
@@ -321,15 +881,26 @@ public final class DensityCache implements Serializable {
                           String datasetId) {
         String ds = (datasetId != null && !datasetId.isBlank())
             ? datasetId
-            : fingerprintDataset(vectors, 256, 64);
+            : fingerprintDataset(vectors);
         return "ds=" + ds +
             "|x=" + axisKey(xAxis) +
             "|y=" + axisKey(yAxis) +
             "|g=" + gridKey(grid);
     }
 
+    /**
+     * Exact 128-bit content fingerprint of the dataset (see {@link DatasetFingerprint}).
+     * Full parallel scan; owners that track mutations (FeatureVectorManagerService)
+     * hold the same value incrementally and can pass it as datasetId instead.
+     */
+    public static String fingerprintDataset(List<FeatureVector> vectors) {
+        return DatasetFingerprint.of(vectors).toString();
+    }
+
     /**
      * Fast, deterministic fingerprint of the dataset (not cryptographic).
+     * Samples at most maxRows x maxCols cells, so datasets differing outside the
+     * sample collide; use {@link #fingerprintDataset(List)} for cache keys.
      */
     public static String fingerprintDataset(List<FeatureVector> vectors, int maxRows, int maxCols) {
         if (vectors == null || vectors.isEmpty()) return "empty";
@@ -361,7 +932,7 @@ public final class DensityCache implements Serializable {
         return Long.toUnsignedString(h, 36); // compact base36
     }
 
-    private static String axisKey(AxisParams a) {
+    static String axisKey(AxisParams a) {
         StringBuilder sb = new StringBuilder(64);
         sb.append(a.getType());
         if (a.getType() == StatisticEngine.ScalarType.METRIC_DISTANCE_TO_MEAN) {
@@ -384,17 +955,13 @@ public final class DensityCache implements Serializable {
             ",maxy=" + (g.getMaxY() == null ? "auto" : g.getMaxY());
     }
 
-    private static String vecHash(List<Double> v) {
+    /**
+     * Hash of every component, so reference vectors differing anywhere get different keys.
+     */
+    static String vecHash(List<Double> v) {
         if (v == null || v.isEmpty()) return "null";
-        long h = 0xcbf29ce484222325L, p = 0x100000001b3L;
-        int step = Math.max(1, v.size() / 16); // sample up to 16 entries
-        for (int i = 0; i < v.size(); i += step) {
-            long bits = Double.doubleToLongBits(v.get(i));
-            h ^= bits;
-            h *= p;
-        }
-        h ^= v.size();
-        return Long.toUnsignedString(h, 36);
+        long[] h = DatasetFingerprint.rowHash(v);
+        return Long.toUnsignedString(h[0], 36) + "." + Long.toUnsignedString(h[1], 36);
     }
 
     private boolean isExpired(Entry e, long now) {
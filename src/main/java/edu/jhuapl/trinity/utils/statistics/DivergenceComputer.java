@@ -90,6 +90,21 @@ public final class DivergenceComputer {
         JpdfRecipe recipe,
         DivergenceMetric metric,
         DensityCache cache
+    ) {
+        return computeForComponentRange(cohortA, cohortB, recipe, metric, cache, null, null);
+    }
+
+    /**
+     * As above, with cache fingerprints the caller already holds for the cohorts (null = full scan).
+     */
+    public static DivergenceResult computeForComponentRange(
+        List<FeatureVector> cohortA,
+        List<FeatureVector> cohortB,
+        JpdfRecipe recipe,
+        DivergenceMetric metric,
+        DensityCache cache,
+        String fingerprintA,
+        String fingerprintB
     ) {
         Objects.requireNonNull(recipe, "recipe");
         int start = Math.max(0, recipe.getComponentIndexStart());
@@ -106,7 +121,7 @@ public final class DivergenceComputer {
         List<Integer> comps = new ArrayList<>();
         for (int i = start; i <= end; i++) comps.add(i);
 
-        return computeForComponents(cohortA, cohortB, comps, recipe, metric, cache);
+        return computeForComponents(cohortA, cohortB, comps, recipe, metric, cache, fingerprintA, fingerprintB);
     }
 
     /**
@@ -126,6 +141,22 @@ public final class DivergenceComputer {
         JpdfRecipe recipe,
         DivergenceMetric metric,
         DensityCache cache
+    ) {
+        return computeForComponents(cohortA, cohortB, componentIndices, recipe, metric, cache, null, null);
+    }
+
+    /**
+     * As above, with cache fingerprints the caller already holds for the cohorts (null = full scan).
+     */
+    public static DivergenceResult computeForComponents(
+        List<FeatureVector> cohortA,
+        List<FeatureVector> cohortB,
+        List<Integer> componentIndices,
+        JpdfRecipe recipe,
+        DivergenceMetric metric,
+        DensityCache cache,
+        String fingerprintA,
+        String fingerprintB
     ) {
         Objects.requireNonNull(cohortA, "cohortA");
         Objects.requireNonNull(cohortB, "cohortB");
@@ -174,8 +205,11 @@ public final class DivergenceComputer {
         ExecutorService pool = Executors.newFixedThreadPool(threads);
         List<Future<?>> futures = new ArrayList<>();
 
-        final String idA = DensityCache.fingerprintDataset(cohortA, 256, 64);
-        final String idB = DensityCache.fingerprintDataset(cohortB, 256, 64);
+        // fingerprints only key the cache, so skip the scan when it is off
+        final String idA = !useCache ? null
+            : (fingerprintA != null) ? fingerprintA : DensityCache.fingerprintDataset(cohortA);
+        final String idB = !useCache ? null
+            : (fingerprintB != null) ? fingerprintB : DensityCache.fingerprintDataset(cohortB);
 
         for (int a = 0; a < F; a++) {
             final int ia = a;
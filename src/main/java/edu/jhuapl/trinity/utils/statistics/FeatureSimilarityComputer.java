@@ -126,6 +126,10 @@ public final class FeatureSimilarityComputer {
             ok[i][i] = sufficient;
         }
 
+        // |r| for all pairs at once as a blocked Gram product over standardized columns
+        double[][] pearsonAbs = (sufficient && metric == SimilarityMetric.PEARSON)
+            ? SimilarityComputer.pearsonAbsMatrix(cols) : null;
+
         for (int i = 0; i < N; i++) {
             double[] xi = cols[i];
             for (int j = i + 1; j < N; j++) {
@@ -135,10 +139,10 @@ public final class FeatureSimilarityComputer {
                     val = Double.NaN;
                 } else {
                     switch (metric) {
-                        case PEARSON -> val = Math.abs(pearson(xi, xj));
+                        case PEARSON -> val = pearsonAbs[i][j];
                         case KENDALL -> val = Math.abs(kendallTauApprox(xi, xj, Math.max(50, kendallMaxN)));
                         case MI_LITE -> val = nmiLite(xi, xj, Math.max(4, miBins));
-                        case DIST_CORR -> val = distCorr(xi, xj);
+                        case DIST_CORR -> val = SimilarityComputer.distanceCorrelation(xi, xj);
                         default -> val = Double.NaN;
                     }
                 }
@@ -204,28 +208,7 @@ public final class FeatureSimilarityComputer {
         return avg >= minAvgPerCell;
     }
 
-    // ----- Metrics (duplicated here to keep this class self-contained) -----
-
-    private static double pearson(double[] x, double[] y) {
-        int n = Math.min(x.length, y.length);
-        if (n < 3) return 0.0;
-        double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
-        for (int i = 0; i < n; i++) {
-            double xi = x[i], yi = y[i];
-            sx += xi;
-            sy += yi;
-            sxx += xi * xi;
-            syy += yi * yi;
-            sxy += xi * yi;
-        }
-        double num = n * sxy - sx * sy;
-        double den = Math.sqrt(Math.max(0.0, n * sxx - sx * sx)) *
-            Math.sqrt(Math.max(0.0, n * syy - sy * sy));
-        if (den == 0.0) return 0.0;
-        double r = num / den;
-        if (Double.isNaN(r) || Double.isInfinite(r)) return 0.0;
-        return r;
-    }
+    // ----- Metrics (PEARSON and DIST_CORR use the shared kernels in SimilarityComputer) -----
 
     /**
      * Approximate Kendall's tau_b using stride-sampling for large n.
@@ -359,80 +342,4 @@ public final class FeatureSimilarityComputer {
         for (double v : p) if (v > 0.0) h -= v * Math.log(v);
         return h;
     }
-
-    /**
-     * Distance correlation (biased), returned in [0,1].
-     */
-    private static double distCorr(double[] x, double[] y) {
-        int n = Math.min(x.length, y.length);
-        if (n < 3) return 0.0;
-
-        double[][] ax = distanceMatrix(x, n);
-        double[][] ay = distanceMatrix(y, n);
-
-        double[][] axc = doubleCenter(ax);
-        double[][] ayc = doubleCenter(ay);
-
-        double dcov2 = meanElementwiseProduct(axc, ayc);
-        double dvarx = meanElementwiseProduct(axc, axc);
-        double dvary = meanElementwiseProduct(ayc, ayc);
-
-        if (dvarx <= 0.0 || dvary <= 0.0) return 0.0;
-        double dcor = Math.sqrt(Math.max(0.0, dcov2)) / Math.sqrt(dvarx * dvary);
-        if (Double.isNaN(dcor) || Double.isInfinite(dcor)) return 0.0;
-        if (dcor < 0.0) dcor = 0.0;
-        else if (dcor > 1.0) dcor = 1.0;
-        return dcor;
-    }
-
-    private static double[][] distanceMatrix(double[] v, int n) {
-        double[][] d = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            d[i][i] = 0.0;
-            for (int j = i + 1; j < n; j++) {
-                double dij = Math.abs(v[i] - v[j]);
-                d[i][j] = dij;
-                d[j][i] = dij;
-            }
-        }
-        return d;
-    }
-
-    private static double[][] doubleCenter(double[][] a) {
-        int n = a.length;
-        double[] rowMean = new double[n];
-        double[] colMean = new double[n];
-        double grand = 0.0;
-
-        for (int i = 0; i < n; i++) {
-            double rs = 0.0;
-            for (int j = 0; j < n; j++) rs += a[i][j];
-            rowMean[i] = rs / n;
-            grand += rs;
-        }
-        grand /= (n * n);
-
-        for (int j = 0; j < n; j++) {
-            double cs = 0.0;
-            for (int i = 0; i < n; i++) cs += a[i][j];
-            colMean[j] = cs / n;
-        }
-
-        double[][] out = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                out[i][j] = a[i][j] - rowMean[i] - colMean[j] + grand;
-            }
-        }
-        return out;
-    }
-
-    private static double meanElementwiseProduct(double[][] a, double[][] b) {
-        int n = a.length;
-        double s = 0.0;
-        for (int i = 0; i < n; i++)
-            for (int j = 0; j < n; j++)
-                s += a[i][j] * b[i][j];
-        return s / (n * n);
-    }
 }
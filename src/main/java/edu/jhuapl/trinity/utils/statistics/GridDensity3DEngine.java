@@ -1,12 +1,12 @@
 package edu.jhuapl.trinity.utils.statistics;
 
 import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
-import edu.jhuapl.trinity.utils.AnalysisUtils;
+import edu.jhuapl.trinity.data.messages.xai.PrimitiveDoubleList;
 import edu.jhuapl.trinity.utils.metric.Metric;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * Builds 2D joint PDF/CDF grids (Z surfaces) from a collection of FeatureVectors
@@ -24,6 +24,9 @@ import java.util.Set;
  * - CDF is monotone in +x and +y and ends near 1.
  * - If you need PCA/UMAP coordinates as axes, precompute them and pass via COMPONENT_AT_DIMENSION,
  * or adapt this engine to accept externally supplied (x,y) arrays.
+ * - Binning runs on {@link HistogramKernel} (SIMD bin indices, parallel partial histograms for large
+ * inputs). Interactive callers that rebin repeatedly can pass a {@link Workspace} to reuse its buffers.
+ * - {@link #computePdfCdf3D} builds the 3D analogue (GridDensity3DResult) over three axes.
  *
  * @author Sean Phillips
  */
@@ -33,6 +36,28 @@ public class GridDensity3DEngine {
         // Utility class
     }
 
+    /**
+     * Reusable histogram buffers for repeated rebinning (e.g. while dragging a bins slider).
+     * Not thread-safe: use one per caller.
+     */
+    public static final class Workspace {
+        private int[] counts = new int[0];
+        private int[][] partials = new int[0][];
+
+        int[] counts(int cells) {
+            if (counts.length < cells) counts = new int[cells];
+            return counts;
+        }
+
+        int[][] partials(int blocks, int cells) {
+            if (partials.length < blocks) partials = Arrays.copyOf(partials, blocks);
+            for (int b = 0; b < blocks; b++) {
+                if (partials[b] == null || partials[b].length < cells) partials[b] = new int[cells];
+            }
+            return partials;
+        }
+    }
+
     /**
      * Compute 2D histogram-based joint PDF and joint CDF for two scalar features across FeatureVectors.
      * If gridSpec bounds are null, they are inferred from data (with a tiny epsilon to avoid degenerate bins).
@@ -48,6 +73,21 @@ public class GridDensity3DEngine {
         AxisParams xAxis,
         AxisParams yAxis,
         GridSpec gridSpec
+    ) {
+        return computePdfCdf2D(vectors, xAxis, yAxis, gridSpec, null);
+    }
+
+    /**
+     * As {@link #computePdfCdf2D(List, AxisParams, AxisParams, GridSpec)}, reusing the histogram buffers of a workspace.
+     *
+     * @param workspace reusable buffers; null allocates per call
+     */
+    public static GridDensityResult computePdfCdf2D(
+        List<FeatureVector> vectors,
+        AxisParams xAxis,
+        AxisParams yAxis,
+        GridSpec gridSpec,
+        Workspace workspace
     ) {
         Objects.requireNonNull(xAxis, "xAxis");
         Objects.requireNonNull(yAxis, "yAxis");
@@ -58,52 +98,39 @@ public class GridDensity3DEngine {
         }
 
         // Prepare auxiliary data only when required by selected scalar types
-        List<Double> meanVector = null;
-        Set<StatisticEngine.ScalarType> needMean = Set.of(
-            StatisticEngine.ScalarType.DIST_TO_MEAN,
-            StatisticEngine.ScalarType.COSINE_TO_MEAN
-        );
-        if (needMean.contains(xAxis.getType()) || needMean.contains(yAxis.getType())) {
-            meanVector = FeatureVector.getMeanVector(vectors);
-        }
-
-        Metric metricX = null;
-        if (xAxis.getType() == StatisticEngine.ScalarType.METRIC_DISTANCE_TO_MEAN
-            && xAxis.getMetricName() != null
-            && xAxis.getReferenceVec() != null) {
-            metricX = Metric.getMetric(xAxis.getMetricName());
-        }
-        Metric metricY = null;
-        if (yAxis.getType() == StatisticEngine.ScalarType.METRIC_DISTANCE_TO_MEAN
-            && yAxis.getMetricName() != null
-            && yAxis.getReferenceVec() != null) {
-            metricY = Metric.getMetric(yAxis.getMetricName());
-        }
+        double[] meanVector = (needsMean(xAxis) || needsMean(yAxis))
+            ? toArray(FeatureVector.getMeanVector(vectors)) : null;
 
         // Compute scalar pairs (x_i, y_i)
-        final int n = vectors.size();
-        double[] xs = new double[n];
-        double[] ys = new double[n];
+        double[] xs = computeScalars(vectors, xAxis, meanVector);
+        double[] ys = computeScalars(vectors, yAxis, meanVector);
+        return computePdfCdf2D(xs, ys, gridSpec, workspace);
+    }
 
-        for (int i = 0; i < n; i++) {
-            FeatureVector fv = vectors.get(i);
-            xs[i] = scalarValue(
-                fv,
-                xAxis.getType(),
-                meanVector,
-                metricX,
-                xAxis.getReferenceVec(),
-                xAxis.getComponentIndex()
-            );
-            ys[i] = scalarValue(
-                fv,
-                yAxis.getType(),
-                meanVector,
-                metricY,
-                yAxis.getReferenceVec(),
-                yAxis.getComponentIndex()
-            );
+    /**
+     * Compute the joint PDF/CDF from precomputed scalar columns (x_i, y_i).
+     * Batch callers extract each column once and bin many pairs from it.
+     *
+     * @param xs       X scalar per row
+     * @param ys       Y scalar per row (same length as xs)
+     * @param gridSpec discretization and optional bounds
+     * @return GridDensityResult containing PDF grid, CDF grid, axis edges/centers, and bin sizes
+     */
+    public static GridDensityResult computePdfCdf2D(double[] xs, double[] ys, GridSpec gridSpec) {
+        return computePdfCdf2D(xs, ys, gridSpec, null);
+    }
+
+    /**
+     * As {@link #computePdfCdf2D(double[], double[], GridSpec)}, reusing the histogram buffers of a workspace.
+     *
+     * @param workspace reusable buffers; null allocates per call
+     */
+    public static GridDensityResult computePdfCdf2D(double[] xs, double[] ys, GridSpec gridSpec, Workspace workspace) {
+        Objects.requireNonNull(gridSpec, "gridSpec");
+        if (xs == null || ys == null || xs.length == 0 || xs.length != ys.length) {
+            return emptyResult(gridSpec);
         }
+        final int n = xs.length;
 
         // Bounds (auto or explicit)
         double minX = (gridSpec.getMinX() != null) ? gridSpec.getMinX() : min(xs);
@@ -129,97 +156,259 @@ public class GridDensity3DEngine {
         for (int bx = 0; bx < binsX; bx++) xCenters[bx] = 0.5 * (xEdges[bx] + xEdges[bx + 1]);
         for (int by = 0; by < binsY; by++) yCenters[by] = 0.5 * (yEdges[by] + yEdges[by + 1]);
 
-        // 2D histogram (counts)
-        double[][] counts = new double[binsY][binsX];
-        for (int i = 0; i < n; i++) {
-            int bx = (int) Math.floor((xs[i] - minX) / dx);
-            int by = (int) Math.floor((ys[i] - minY) / dy);
-            if (bx < 0) bx = 0;
-            if (bx >= binsX) bx = binsX - 1;
-            if (by < 0) by = 0;
-            if (by >= binsY) by = binsY - 1;
-            counts[by][bx] += 1.0;
-        }
+        // 2D histogram (counts) in one flat row-major block
+        final int cells = binsY * binsX;
+        final int[] counts = workspace != null ? workspace.counts(cells) : new int[cells];
+        HistogramKernel.histogram(new double[][]{xs, ys}, new double[]{minX, minY}, new double[]{dx, dy},
+            new int[]{binsX, binsY}, counts, workspace);
 
         // Normalize to PDF: density = count / (N * dx * dy)
+        // per-cell probability mass is count / N; its 2D prefix sum is the CDF
         final double invAreaN = 1.0 / (n * dx * dy);
+        final double invN = 1.0 / n;
         double[][] pdfZ = new double[binsY][binsX];
+        double[][] cdfZ = new double[binsY][binsX];
         for (int by = 0; by < binsY; by++) {
+            double rowSum = 0.0;
+            double[] pdfRow = pdfZ[by];
+            double[] cdfRow = cdfZ[by];
+            double[] prev = by > 0 ? cdfZ[by - 1] : null;
             for (int bx = 0; bx < binsX; bx++) {
-                pdfZ[by][bx] = counts[by][bx] * invAreaN;
-            }
-        }
-
-        // Convert to per-cell probability mass, then 2D prefix sum → CDF
-        double[][] mass = new double[binsY][binsX];
-        for (int by = 0; by < binsY; by++) {
-            for (int bx = 0; bx < binsX; bx++) {
-                mass[by][bx] = pdfZ[by][bx] * dx * dy;
+                int c = counts[by * binsX + bx];
+                pdfRow[bx] = c * invAreaN;
+                rowSum += c * invN;
+                cdfRow[bx] = rowSum + (prev != null ? prev[bx] : 0.0);
             }
         }
-        double[][] cdfZ = prefixSum2D(mass);
         // Numerical guard
         cdfZ[binsY - 1][binsX - 1] = Math.min(1.0, Math.max(0.0, cdfZ[binsY - 1][binsX - 1]));
 
         return new GridDensityResult(pdfZ, cdfZ, xEdges, yEdges, xCenters, yCenters, dx, dy);
     }
 
+    /**
+     * Compute the 3D histogram-based joint PDF and CDF over three scalar features,
+     * with bounds inferred from the data.
+     *
+     * @param vectors feature vectors (rows)
+     * @param xAxis   axis params for X
+     * @param yAxis   axis params for Y
+     * @param zAxis   axis params for Z
+     * @param binsX   bins along X (&gt;=2 enforced)
+     * @param binsY   bins along Y (&gt;=2 enforced)
+     * @param binsZ   bins along Z (&gt;=2 enforced)
+     */
+    public static GridDensity3DResult computePdfCdf3D(List<FeatureVector> vectors,
+                                                      AxisParams xAxis, AxisParams yAxis, AxisParams zAxis,
+                                                      int binsX, int binsY, int binsZ) {
+        return computePdfCdf3D(vectors, xAxis, yAxis, zAxis, binsX, binsY, binsZ, null);
+    }
+
+    /**
+     * As {@link #computePdfCdf3D(List, AxisParams, AxisParams, AxisParams, int, int, int)},
+     * reusing the histogram buffers of a workspace.
+     *
+     * @param workspace reusable buffers; null allocates per call
+     */
+    public static GridDensity3DResult computePdfCdf3D(List<FeatureVector> vectors,
+                                                      AxisParams xAxis, AxisParams yAxis, AxisParams zAxis,
+                                                      int binsX, int binsY, int binsZ, Workspace workspace) {
+        Objects.requireNonNull(xAxis, "xAxis");
+        Objects.requireNonNull(yAxis, "yAxis");
+        Objects.requireNonNull(zAxis, "zAxis");
+        double[] meanVector = (vectors != null && !vectors.isEmpty()
+            && (needsMean(xAxis) || needsMean(yAxis) || needsMean(zAxis)))
+            ? toArray(FeatureVector.getMeanVector(vectors)) : null;
+        return computePdfCdf3D(computeScalars(vectors, xAxis, meanVector),
+            computeScalars(vectors, yAxis, meanVector),
+            computeScalars(vectors, zAxis, meanVector),
+            binsX, binsY, binsZ, workspace);
+    }
+
+    /**
+     * Compute the 3D joint PDF/CDF from precomputed scalar columns (x_i, y_i, z_i).
+     *
+     * @param workspace reusable buffers; null allocates per call
+     */
+    public static GridDensity3DResult computePdfCdf3D(double[] xs, double[] ys, double[] zs,
+                                                      int binsX, int binsY, int binsZ, Workspace workspace) {
+        binsX = Math.max(2, binsX);
+        binsY = Math.max(2, binsY);
+        binsZ = Math.max(2, binsZ);
+        final int cells = binsX * binsY * binsZ;
+        final int n = (xs == null) ? 0 : xs.length;
+        if (n == 0 || ys == null || zs == null || ys.length != n || zs.length != n) {
+            return new GridDensity3DResult(new double[cells], new double[cells], binsX, binsY, binsZ,
+                new double[binsX + 1], new double[binsY + 1], new double[binsZ + 1], 1.0, 1.0, 1.0);
+        }
+        double minX = min(xs), maxX = max(xs);
+        double minY = min(ys), maxY = max(ys);
+        double minZ = min(zs), maxZ = max(zs);
+        if (minX == maxX) maxX += 1e-8;
+        if (minY == maxY) maxY += 1e-8;
+        if (minZ == maxZ) maxZ += 1e-8;
+        final double dx = (maxX - minX) / binsX;
+        final double dy = (maxY - minY) / binsY;
+        final double dz = (maxZ - minZ) / binsZ;
+
+        final int[] counts = workspace != null ? workspace.counts(cells) : new int[cells];
+        HistogramKernel.histogram(new double[][]{xs, ys, zs}, new double[]{minX, minY, minZ},
+            new double[]{dx, dy, dz}, new int[]{binsX, binsY, binsZ}, counts, workspace);
+
+        // PDF and 3D prefix sum: row prefix in x, then add the cell below in y and the layer below in z
+        final double invVolN = 1.0 / (n * dx * dy * dz);
+        final double invN = 1.0 / n;
+        final int plane = binsX * binsY;
+        double[] pdf = new double[cells];
+        double[] cdf = new double[cells];
+        for (int iz = 0; iz < binsZ; iz++) {
+            for (int iy = 0; iy < binsY; iy++) {
+                int row = iz * plane + iy * binsX;
+                double rowSum = 0.0;
+                for (int ix = 0; ix < binsX; ix++) {
+                    int c = counts[row + ix];
+                    pdf[row + ix] = c * invVolN;
+                    rowSum += c * invN;
+                    cdf[row + ix] = rowSum;
+                }
+                if (iy > 0) {
+                    for (int ix = 0; ix < binsX; ix++) cdf[row + ix] += cdf[row - binsX + ix];
+                }
+            }
+            if (iz > 0) {
+                int base = iz * plane;
+                for (int k = 0; k < plane; k++) cdf[base + k] += cdf[base - plane + k];
+            }
+        }
+        cdf[cells - 1] = Math.min(1.0, Math.max(0.0, cdf[cells - 1]));
+
+        return new GridDensity3DResult(pdf, cdf, binsX, binsY, binsZ,
+            edges(minX, dx, binsX), edges(minY, dy, binsY), edges(minZ, dz, binsZ), dx, dy, dz);
+    }
+
+    /**
+     * Extract the scalar column for one axis.
+     *
+     * @param vectors    feature vectors (rows)
+     * @param axis       axis params
+     * @param meanVector mean of vectors when the axis needs it (see {@link #needsMean}); computed if null
+     * @return one scalar per row
+     */
+    public static double[] computeScalars(List<FeatureVector> vectors, AxisParams axis, double[] meanVector) {
+        Objects.requireNonNull(axis, "axis");
+        if (vectors == null || vectors.isEmpty()) return new double[0];
+        if (meanVector == null && needsMean(axis)) {
+            meanVector = toArray(FeatureVector.getMeanVector(vectors));
+        }
+        Metric metric = null;
+        if (axis.getType() == StatisticEngine.ScalarType.METRIC_DISTANCE_TO_MEAN
+            && axis.getMetricName() != null
+            && axis.getReferenceVec() != null) {
+            metric = Metric.getMetric(axis.getMetricName());
+        }
+        double[] ref = toArray(axis.getReferenceVec());
+        final int n = vectors.size();
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = scalarValue(vectors.get(i), axis.getType(), meanVector, metric, ref, axis.getComponentIndex());
+        }
+        return out;
+    }
+
+    /**
+     * Extract component columns [start, end] in a single pass over the rows.
+     * Missing components read as 0.
+     *
+     * @return cols[d - start][row]
+     */
+    public static double[][] componentColumns(List<FeatureVector> vectors, int start, int end) {
+        int nDims = Math.max(0, end - start + 1);
+        int n = vectors == null ? 0 : vectors.size();
+        double[][] cols = new double[nDims][n];
+        for (int row = 0; row < n; row++) {
+            PrimitiveDoubleList data = vectors.get(row).getData();
+            int limit = Math.min(end + 1, data == null ? 0 : data.size());
+            for (int idx = Math.max(0, start); idx < limit; idx++) {
+                cols[idx - start][row] = data.getDouble(idx);
+            }
+        }
+        return cols;
+    }
+
+    /**
+     * True when the axis scalar depends on the dataset mean vector.
+     */
+    public static boolean needsMean(AxisParams axis) {
+        return axis.getType() == StatisticEngine.ScalarType.DIST_TO_MEAN
+            || axis.getType() == StatisticEngine.ScalarType.COSINE_TO_MEAN;
+    }
+
     // ---------- Helpers ----------
 
+    // Reads the primitive component store directly; meanVec/refVec are converted once per call.
     private static double scalarValue(FeatureVector fv,
                                       StatisticEngine.ScalarType type,
-                                      List<Double> meanVec,
+                                      double[] meanVec,
                                       Metric metric,
-                                      List<Double> refVec,
+                                      double[] refVec,
                                       Integer componentIndex) {
+        PrimitiveDoubleList d = fv.getData();
         switch (type) {
             case L1_NORM:
-                return fv.getData().stream().mapToDouble(Math::abs).sum();
+                return d.sumAbs();
             case LINF_NORM:
-                return fv.getData().stream().mapToDouble(Math::abs).max().orElse(0.0);
+                return d.maxAbs();
             case MEAN:
-                return fv.getData().stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+                return d.isEmpty() ? 0.0 : d.sum() / d.size();
             case MAX:
                 return fv.getMax();
             case MIN:
                 return fv.getMin();
-            case DIST_TO_MEAN:
+            case DIST_TO_MEAN: {
                 if (meanVec == null) return 0.0;
-                return AnalysisUtils.l2Norm(StatisticEngine.diffList(fv.getData(), meanVec));
-            case COSINE_TO_MEAN:
+                int m = Math.min(d.size(), meanVec.length);
+                double sum = 0.0;
+                for (int i = 0; i < m; i++) {
+                    double diff = d.getDouble(i) - meanVec[i];
+                    sum += diff * diff;
+                }
+                return Math.sqrt(sum);
+            }
+            case COSINE_TO_MEAN: {
                 if (meanVec == null) return 0.0;
-                return AnalysisUtils.cosineSimilarity(fv.getData(), meanVec);
+                double dot = 0.0, norm1 = 0.0, norm2 = 0.0;
+                for (int i = 0; i < d.size(); i++) {
+                    double a = d.getDouble(i), b = meanVec[i];
+                    dot += a * b;
+                    norm1 += a * a;
+                    norm2 += b * b;
+                }
+                return dot / (Math.sqrt(norm1) * Math.sqrt(norm2) + 1e-12); // safe divide
+            }
             case PC1_PROJECTION:
                 // If you need PC projections as axes, precompute externally
                 // and pass via COMPONENT_AT_DIMENSION (or extend this engine).
                 return 0.0;
             case METRIC_DISTANCE_TO_MEAN:
                 if (metric == null || refVec == null) return 0.0;
-                double[] a = fv.getData().stream().mapToDouble(Double::doubleValue).toArray();
-                double[] b = refVec.stream().mapToDouble(Double::doubleValue).toArray();
-                return metric.distance(a, b);
+                return metric.distance(d.toDoubleArray(), refVec);
             case COMPONENT_AT_DIMENSION:
                 if (componentIndex == null) return 0.0;
-                List<Double> d = fv.getData();
-                if (componentIndex >= 0 && componentIndex < d.size()) return d.get(componentIndex);
+                if (componentIndex >= 0 && componentIndex < d.size()) return d.getDouble(componentIndex);
                 return 0.0;
             default:
                 return 0.0;
         }
     }
 
-    private static double[][] prefixSum2D(double[][] mass) {
-        int h = mass.length;
-        int w = mass[0].length;
-        double[][] c = new double[h][w];
-        for (int y = 0; y < h; y++) {
-            double rowSum = 0.0;
-            for (int x = 0; x < w; x++) {
-                rowSum += mass[y][x];
-                c[y][x] = rowSum + (y > 0 ? c[y - 1][x] : 0.0);
-            }
-        }
-        return c;
+    private static double[] toArray(List<Double> values) {
+        return values == null ? null : PrimitiveDoubleList.copyOf(values, false).toDoubleArray();
+    }
+
+    private static double[] edges(double min, double width, int bins) {
+        double[] e = new double[bins + 1];
+        for (int b = 0; b <= bins; b++) e[b] = min + b * width;
+        return e;
     }
 
     private static double min(double[] v) {
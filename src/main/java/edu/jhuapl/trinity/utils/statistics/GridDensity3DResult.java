@@ -0,0 +1,62 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+/**
+ * Result container for 3D joint PDF/CDF volumes.
+ * <p>
+ * Cells are stored flat with x varying fastest:
+ * index = (iz * binsY + iy) * binsX + ix.
+ * The volume can be viewed one z-layer at a time through {@link #sliceZ(int)},
+ * which yields the 2D form consumed by the Hypersurface renderer.
+ *
+ * @param pdf    density per cell, length binsX * binsY * binsZ; sum(pdf) * dx * dy * dz ≈ 1
+ * @param cdf    P(X ≤ x, Y ≤ y, Z ≤ z) per cell, same layout
+ * @param binsX  bins along X
+ * @param binsY  bins along Y
+ * @param binsZ  bins along Z
+ * @param xEdges length binsX+1
+ * @param yEdges length binsY+1
+ * @param zEdges length binsZ+1
+ * @author Sean Phillips
+ */
+public record GridDensity3DResult(double[] pdf, double[] cdf, int binsX, int binsY, int binsZ,
+                                  double[] xEdges, double[] yEdges, double[] zEdges,
+                                  double dx, double dy, double dz) {
+
+    public int index(int ix, int iy, int iz) {
+        return (iz * binsY + iy) * binsX + ix;
+    }
+
+    public double pdfAt(int ix, int iy, int iz) {
+        return pdf[index(ix, iy, iz)];
+    }
+
+    public double cdfAt(int ix, int iy, int iz) {
+        return cdf[index(ix, iy, iz)];
+    }
+
+    /**
+     * One z-layer as a 2D grid: the joint density at that layer and the
+     * cumulative probability up to and including it.
+     */
+    public GridDensityResult sliceZ(int iz) {
+        if (iz < 0 || iz >= binsZ) throw new IndexOutOfBoundsException("z bin " + iz + " of " + binsZ);
+        double[][] pdfZ = new double[binsY][binsX];
+        double[][] cdfZ = new double[binsY][binsX];
+        for (int iy = 0; iy < binsY; iy++) {
+            int base = index(0, iy, iz);
+            System.arraycopy(pdf, base, pdfZ[iy], 0, binsX);
+            System.arraycopy(cdf, base, cdfZ[iy], 0, binsX);
+        }
+        return new GridDensityResult(pdfZ, cdfZ, xEdges, yEdges, centers(xEdges), centers(yEdges), dx, dy);
+    }
+
+    public double[] zCenters() {
+        return centers(zEdges);
+    }
+
+    private static double[] centers(double[] edges) {
+        double[] c = new double[edges.length - 1];
+        for (int i = 0; i < c.length; i++) c[i] = 0.5 * (edges[i] + edges[i + 1]);
+        return c;
+    }
+}
@@ -0,0 +1,137 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * N-dimensional histogram kernel shared by the 2D and 3D density grids.
+ * <p>
+ * Counts go to one flat row-major int[] (axis 0 varies fastest). Large inputs
+ * are split into row blocks (bounded by core count and a cell budget), each
+ * block fills its own partial histogram in parallel, and the partials are
+ * summed at the end, so no counter is shared between threads. Bin indices
+ * are computed by {@link VectorHistogramKernel} when jdk.incubator.vector is
+ * resolved (the module is optional; launch with --add-modules
+ * jdk.incubator.vector to enable it), otherwise by the scalar loop. Both
+ * paths produce identical counts.
+ *
+ * @author Sean Phillips
+ */
+final class HistogramKernel {
+    private static final Logger LOG = LoggerFactory.getLogger(HistogramKernel.class);
+    /**
+     * Rows per parallel block; below twice this the histogram is filled on the calling thread.
+     */
+    static final int PARALLEL_BLOCK_ROWS = 1 << 16;
+    /**
+     * Upper bound on blocks * cells, so fine 3D grids get fewer, larger blocks
+     * instead of one partial volume per 64K rows.
+     */
+    static final int PARTIAL_CELL_BUDGET = 1 << 22;
+    static final boolean VECTORIZED = probeVectorApi();
+
+    private HistogramKernel() {
+    }
+
+    /**
+     * Fill counts (cleared first) with the histogram of the given columns.
+     *
+     * @param cols      one column per axis, equal lengths
+     * @param mins      lower bound per axis
+     * @param widths    bin width per axis (&gt; 0)
+     * @param bins      bin count per axis
+     * @param counts    flat output, at least prod(bins) long; only that prefix is written
+     * @param workspace reusable partial buffers for parallel blocks; may be null
+     */
+    static void histogram(double[][] cols, double[] mins, double[] widths, int[] bins,
+                          int[] counts, GridDensity3DEngine.Workspace workspace) {
+        histogram(cols, mins, widths, bins, counts, workspace, VECTORIZED);
+    }
+
+    static void histogram(double[][] cols, double[] mins, double[] widths, int[] bins,
+                          int[] counts, GridDensity3DEngine.Workspace workspace, boolean vectorized) {
+        final int n = cols[0].length;
+        final int[] strides = strides(bins);
+        final int cells = strides[bins.length - 1] * bins[bins.length - 1];
+        Arrays.fill(counts, 0, cells, 0);
+
+        final int blocks = blockCount(n, cells);
+        if (blocks < 2) {
+            accumulate(cols, 0, n, mins, widths, bins, strides, counts, vectorized);
+            return;
+        }
+        final int[][] partials = workspace != null
+            ? workspace.partials(blocks, cells)
+            : new int[blocks][cells];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int[] partial = partials[b];
+            Arrays.fill(partial, 0, cells, 0);
+            int from = (int) ((long) n * b / blocks);
+            int to = (int) ((long) n * (b + 1) / blocks);
+            accumulate(cols, from, to, mins, widths, bins, strides, partial, vectorized);
+        });
+        for (int b = 0; b < blocks; b++) {
+            int[] partial = partials[b];
+            for (int c = 0; c < cells; c++) counts[c] += partial[c];
+        }
+    }
+
+    /**
+     * Number of partial histograms for n rows over cells bins: at most one per
+     * {@link #PARALLEL_BLOCK_ROWS} rows and one per core, and never more than
+     * {@link #PARTIAL_CELL_BUDGET} counters in total.
+     */
+    static int blockCount(int n, int cells) {
+        int blocks = Math.min(n / PARALLEL_BLOCK_ROWS, ForkJoinPool.getCommonPoolParallelism() + 1);
+        return Math.min(blocks, Math.max(1, PARTIAL_CELL_BUDGET / Math.max(1, cells)));
+    }
+
+    private static void accumulate(double[][] cols, int from, int to, double[] mins, double[] widths,
+                                   int[] bins, int[] strides, int[] counts, boolean vectorized) {
+        int i = vectorized
+            ? VectorHistogramKernel.accumulate(cols, from, to, mins, widths, bins, strides, counts)
+            : from;
+        final int axes = cols.length;
+        for (; i < to; i++) {
+            int index = 0;
+            for (int a = 0; a < axes; a++) {
+                int b = (int) Math.floor((cols[a][i] - mins[a]) / widths[a]);
+                if (b < 0) b = 0;
+                if (b >= bins[a]) b = bins[a] - 1;
+                index += b * strides[a];
+            }
+            counts[index]++;
+        }
+    }
+
+    private static int[] strides(int[] bins) {
+        int[] strides = new int[bins.length];
+        int s = 1;
+        for (int a = 0; a < bins.length; a++) {
+            strides[a] = s;
+            s *= bins[a];
+        }
+        return strides;
+    }
+
+    private static boolean probeVectorApi() {
+        if (Boolean.getBoolean("trinity.histogram.scalar")) return false;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            LOG.debug("jdk.incubator.vector not resolved; density histograms use the scalar kernel.");
+            return false;
+        }
+        try {
+            int[] probe = new int[2];
+            VectorHistogramKernel.accumulate(new double[][]{new double[0]}, 0, 0,
+                new double[]{0}, new double[]{1}, new int[]{2}, new int[]{1}, probe);
+            return true;
+        } catch (LinkageError ex) {
+            LOG.debug("Vector API unavailable ({}); density histograms use the scalar kernel.", ex.toString());
+            return false;
+        }
+    }
+}
@@ -7,12 +7,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
@@ -30,13 +31,21 @@ import java.util.function.Consumer;
  * • BoundsPolicy: DATA_MIN_MAX / FIXED_01 / CANONICAL_BY_FEATURE
  * • ScoreMetric, minAvgCountPerCell, binsX/binsY, cacheEnabled
  * <p>
- * Threading: fixed pool sized to Runtime.availableProcessors().
+ * Threading: pairs are binned on one shared work-stealing pool sized to
+ * Runtime.availableProcessors(). Each scalar column a batch needs is extracted
+ * from the vectors once into a primitive array and shared by every pair that
+ * uses it, so a job only bins two arrays. Results are delivered to onResult on
+ * the calling thread in completion order.
  * <p>
  * Note: GridDensityResult contains both PDF and CDF; OutputKind is recorded in provenance
  * by the UI later; engine returns both so consumers can choose.
  */
 public final class JpdfBatchEngine {
 
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors()),
+        ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+
     public JpdfBatchEngine() {
     }
 
@@ -85,13 +94,27 @@ public final class JpdfBatchEngine {
                                                 CanonicalGridPolicy canonicalPolicy,
                                                 DensityCache cache,
                                                 Consumer<PairJobResult> onResult) {
+        return runComponentPairs(vectors, recipe, canonicalPolicy, cache, onResult, null);
+    }
+
+    /**
+     * As above, keyed by a fingerprint the caller already holds for vectors
+     * (e.g. {@link edu.jhuapl.trinity.javafx.services.FeatureVectorManagerService#getFingerprint});
+     * null falls back to a full scan.
+     */
+    public static BatchResult runComponentPairs(List<FeatureVector> vectors,
+                                                JpdfRecipe recipe,
+                                                CanonicalGridPolicy canonicalPolicy,
+                                                DensityCache cache,
+                                                Consumer<PairJobResult> onResult,
+                                                String datasetFingerprint) {
         Objects.requireNonNull(vectors);
         Objects.requireNonNull(recipe);
         Objects.requireNonNull(canonicalPolicy);
         Objects.requireNonNull(cache);
 
         final long t0 = System.currentTimeMillis();
-        final String dsFp = DensityCache.fingerprintDataset(vectors, 256, 64);
+        final String dsFp = (datasetFingerprint != null) ? datasetFingerprint : DensityCache.fingerprintDataset(vectors);
 
         if (vectors.isEmpty() || !recipe.isComponentPairsMode()) {
             return new BatchResult(dsFp, recipe.getName(), canonicalPolicy.id(),
@@ -105,10 +128,17 @@ public final class JpdfBatchEngine {
             recipe.getMinAvgCountPerCell()
         );
 
-        List<PairScorer.PairScore> candidates = PairScorer.scoreComponentPairs(
-            vectors,
-            recipe.getComponentIndexStart(),
-            recipe.getComponentIndexEnd(),
+        // Extract every component column of the range once; scoring and binning share them
+        int dStart = Math.max(0, recipe.getComponentIndexStart());
+        int nDims = (vectors.get(0).getData() != null) ? vectors.get(0).getData().size() : 0;
+        int dEnd = Math.min(Math.max(dStart, recipe.getComponentIndexEnd()), Math.max(0, nDims - 1));
+        ColumnTable columns = new ColumnTable(vectors);
+        double[][] componentCols = GridDensity3DEngine.componentColumns(vectors, dStart, dEnd);
+        columns.putComponents(componentCols, dStart);
+
+        List<PairScorer.PairScore> candidates = PairScorer.scoreComponentColumns(
+            componentCols,
+            dStart,
             recipe.isIncludeSelfPairs(),
             recipe.isOrderedPairs(),
             scorerCfg
@@ -138,48 +168,16 @@ public final class JpdfBatchEngine {
                 Collections.emptyList(), 0L, 0, 0, 0, cache.stats());
         }
 
-        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
-        ExecutorService pool = Executors.newFixedThreadPool(threads);
-        CompletionService<PairJobResult> ecs = new ExecutorCompletionService<>(pool);
-
-        int submitted = 0;
+        List<ComputeTask> tasks = new ArrayList<>(selected.size());
         for (PairScorer.PairScore ps : selected) {
-            AxisParams x = new AxisParams();
-            x.setType(StatisticEngine.ScalarType.COMPONENT_AT_DIMENSION);
-            x.setComponentIndex(ps.i());
-
-            AxisParams y = new AxisParams();
-            y.setType(StatisticEngine.ScalarType.COMPONENT_AT_DIMENSION);
-            y.setComponentIndex(ps.j());
-
-            GridSpec grid = resolveGrid(vectors, x, y, recipe, canonicalPolicy, dsFp);
-            ecs.submit(new ComputeTask(vectors, x, y, grid, ps, recipe, cache, dsFp));
-            submitted++;
+            tasks.add(new ComputeTask(columns, componentAxis(ps.i()), componentAxis(ps.j()), ps,
+                recipe, canonicalPolicy, cache, dsFp));
         }
 
-        List<PairJobResult> out = new ArrayList<>(submitted);
-        int cacheHits = 0, computed = 0;
-        try {
-            for (int k = 0; k < submitted; k++) {
-                Future<PairJobResult> f = ecs.take();
-                PairJobResult r = f.get();
-                if (r.fromCache) cacheHits++;
-                else computed++;
-                out.add(r);
-
-                // Live-append hook (safe-guarded)
-                if (onResult != null) {
-                    try {
-                        onResult.accept(r);
-                    } catch (Throwable ignore) { /* isolate UI issues */ }
-                }
-            }
-        } catch (Exception ex) {
-            pool.shutdownNow();
-            throw new RuntimeException("JpdfBatchEngine: execution interrupted", ex);
-        } finally {
-            pool.shutdown();
-        }
+        List<PairJobResult> out = new ArrayList<>(tasks.size());
+        int[] tally = runTasks(tasks, out, onResult);
+        int submitted = tasks.size();
+        int computed = tally[0], cacheHits = tally[1];
 
         out.sort(Comparator.comparingDouble(o -> o.rank != null ? -o.rank.score() : 0.0));
 
@@ -210,13 +208,27 @@ public final class JpdfBatchEngine {
                                                 CanonicalGridPolicy canonicalPolicy,
                                                 DensityCache cache,
                                                 Consumer<PairJobResult> onResult) {
+        return runWhitelistPairs(vectors, recipe, canonicalPolicy, cache, onResult, null);
+    }
+
+    /**
+     * As above, keyed by a fingerprint the caller already holds for vectors
+     * (e.g. {@link edu.jhuapl.trinity.javafx.services.FeatureVectorManagerService#getFingerprint});
+     * null falls back to a full scan.
+     */
+    public static BatchResult runWhitelistPairs(List<FeatureVector> vectors,
+                                                JpdfRecipe recipe,
+                                                CanonicalGridPolicy canonicalPolicy,
+                                                DensityCache cache,
+                                                Consumer<PairJobResult> onResult,
+                                                String datasetFingerprint) {
         Objects.requireNonNull(vectors);
         Objects.requireNonNull(recipe);
         Objects.requireNonNull(canonicalPolicy);
         Objects.requireNonNull(cache);
 
         final long t0 = System.currentTimeMillis();
-        final String dsFp = DensityCache.fingerprintDataset(vectors, 256, 64);
+        final String dsFp = (datasetFingerprint != null) ? datasetFingerprint : DensityCache.fingerprintDataset(vectors);
 
         if (vectors.isEmpty()
             || recipe.getPairSelection() != JpdfRecipe.PairSelection.WHITELIST
@@ -225,23 +237,43 @@ public final class JpdfBatchEngine {
                 Collections.emptyList(), 0L, 0, 0, 0, cache.stats());
         }
 
-        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
-        ExecutorService pool = Executors.newFixedThreadPool(threads);
-        CompletionService<PairJobResult> ecs = new ExecutorCompletionService<>(pool);
-
-        int submitted = 0;
+        ColumnTable columns = new ColumnTable(vectors);
+        List<ComputeTask> tasks = new ArrayList<>();
         for (JpdfRecipe.AxisPair ap : recipe.getExplicitAxisPairs()) {
-            AxisParams x = ap.xAxis();
-            AxisParams y = ap.yAxis();
-            GridSpec grid = resolveGrid(vectors, x, y, recipe, canonicalPolicy, dsFp);
-            ecs.submit(new ComputeTask(vectors, x, y, grid, null, recipe, cache, dsFp));
-            submitted++;
+            tasks.add(new ComputeTask(columns, ap.xAxis(), ap.yAxis(), null,
+                recipe, canonicalPolicy, cache, dsFp));
+        }
+
+        List<PairJobResult> out = new ArrayList<>(tasks.size());
+        int[] tally = runTasks(tasks, out, onResult);
+        int submitted = tasks.size();
+        int computed = tally[0], cacheHits = tally[1];
+
+        long wall = System.currentTimeMillis() - t0;
+        return new BatchResult(dsFp, recipe.getName(), canonicalPolicy.id(),
+            out, wall, submitted, computed, cacheHits, cache.stats());
+    }
+
+    // =====================================================================================
+    // Worker
+    // =====================================================================================
+
+    /**
+     * Submits every task to the shared pool and drains results in completion order.
+     *
+     * @return {computed, cacheHits}
+     */
+    private static int[] runTasks(List<ComputeTask> tasks, List<PairJobResult> out,
+                                  Consumer<PairJobResult> onResult) {
+        CompletionService<PairJobResult> ecs = new ExecutorCompletionService<>(POOL);
+        List<Future<PairJobResult>> futures = new ArrayList<>(tasks.size());
+        for (ComputeTask task : tasks) {
+            futures.add(ecs.submit(task));
         }
 
-        List<PairJobResult> out = new ArrayList<>(submitted);
         int cacheHits = 0, computed = 0;
         try {
-            for (int k = 0; k < submitted; k++) {
+            for (int k = 0; k < futures.size(); k++) {
                 Future<PairJobResult> f = ecs.take();
                 PairJobResult r = f.get();
                 if (r.fromCache) cacheHits++;
@@ -256,28 +288,67 @@ public final class JpdfBatchEngine {
                 }
             }
         } catch (Exception ex) {
-            pool.shutdownNow();
+            // the pool is shared, so cancel only this batch's jobs
+            for (Future<PairJobResult> f : futures) f.cancel(true);
+            if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
             throw new RuntimeException("JpdfBatchEngine: execution interrupted", ex);
-        } finally {
-            pool.shutdown();
         }
+        return new int[]{computed, cacheHits};
+    }
 
-        long wall = System.currentTimeMillis() - t0;
-        return new BatchResult(dsFp, recipe.getName(), canonicalPolicy.id(),
-            out, wall, submitted, computed, cacheHits, cache.stats());
+    private static AxisParams componentAxis(int index) {
+        AxisParams a = new AxisParams();
+        a.setType(StatisticEngine.ScalarType.COMPONENT_AT_DIMENSION);
+        a.setComponentIndex(index);
+        return a;
     }
 
-    // =====================================================================================
-    // Worker
-    // =====================================================================================
+    /**
+     * Scalar columns of one batch, keyed by axis and extracted at most once.
+     */
+    private static final class ColumnTable {
+        private final List<FeatureVector> vectors;
+        private final Map<String, double[]> columns = new ConcurrentHashMap<>();
+        private double[] meanVector;
+
+        ColumnTable(List<FeatureVector> vectors) {
+            this.vectors = vectors;
+        }
+
+        void putComponents(double[][] cols, int start) {
+            for (int d = 0; d < cols.length; d++) {
+                columns.put(DensityCache.axisKey(componentAxis(start + d)), cols[d]);
+            }
+        }
 
-    private record ComputeTask(List<FeatureVector> vectors, AxisParams x, AxisParams y, GridSpec grid, PairScorer.PairScore rank, JpdfRecipe recipe,
-                               DensityCache cache, String datasetFp) implements Callable<PairJobResult> {
+        double[] column(AxisParams axis) {
+            return columns.computeIfAbsent(DensityCache.axisKey(axis),
+                k -> GridDensity3DEngine.computeScalars(vectors, axis,
+                    GridDensity3DEngine.needsMean(axis) ? meanVector() : null));
+        }
+
+        private synchronized double[] meanVector() {
+            if (meanVector == null) {
+                List<Double> mean = FeatureVector.getMeanVector(vectors);
+                meanVector = new double[mean.size()];
+                for (int i = 0; i < meanVector.length; i++) meanVector[i] = mean.get(i);
+            }
+            return meanVector;
+        }
+    }
+
+    private record ComputeTask(ColumnTable columns, AxisParams x, AxisParams y, PairScorer.PairScore rank, JpdfRecipe recipe,
+                               CanonicalGridPolicy canonicalPolicy, DensityCache cache,
+                               String datasetFp) implements Callable<PairJobResult> {
 
         @Override
         public PairJobResult call() {
+            final double[] xs = columns.column(x);
+            final double[] ys = columns.column(y);
+            final GridSpec grid = resolveGrid(x, xs, y, ys, recipe, canonicalPolicy, datasetFp);
+
             final boolean useCache = recipe.isCacheEnabled();
-            final String key = useCache ? cache.makeKey(vectors, x, y, grid, datasetFp) : null;
+            final String key = useCache ? cache.makeKey(columns.vectors, x, y, grid, datasetFp) : null;
 
             GridDensityResult cached = (useCache ? cache.get(key) : null);
 
@@ -289,11 +360,10 @@ public final class JpdfBatchEngine {
                 res = cached;
                 fromCache = true;
             } else if (useCache) {
-                // Call a version of getOrCompute that does NOT require a JpdfProvenance upfront.
-                res = cache.getOrCompute(vectors, x, y, grid, datasetFp);
+                res = cache.getOrCompute(key, () -> GridDensity3DEngine.computePdfCdf2D(xs, ys, grid), null);
                 fromCache = false;
             } else {
-                res = GridDensity3DEngine.computePdfCdf2D(vectors, x, y, grid);
+                res = GridDensity3DEngine.computePdfCdf2D(xs, ys, grid);
                 fromCache = false;
             }
 
@@ -316,9 +386,10 @@ public final class JpdfBatchEngine {
     // Grid resolution
     // =====================================================================================
 
-    private static GridSpec resolveGrid(List<FeatureVector> vectors,
-                                        AxisParams x,
+    private static GridSpec resolveGrid(AxisParams x,
+                                        double[] xs,
                                         AxisParams y,
+                                        double[] ys,
                                         JpdfRecipe recipe,
                                         CanonicalGridPolicy canonicalPolicy,
                                         String dsFp) {
@@ -334,7 +405,7 @@ public final class JpdfBatchEngine {
                 g.setMaxY(1.0);
                 yield g;
             }
-            case CANONICAL_BY_FEATURE -> canonicalPolicy.gridForAxes(vectors, x, y, bx, by, dsFp);
+            case CANONICAL_BY_FEATURE -> canonicalPolicy.gridForColumns(x, xs, y, ys, bx, by, dsFp);
             case DATA_MIN_MAX -> new GridSpec(bx, by); // engine will infer bounds per pair
         };
     }
@@ -103,7 +103,23 @@ public final class PairScorer {
         dEnd = Math.min(dEnd, Math.max(0, nDims - 1));
 
         // Extract columns (dimension -> array over samples)
-        double[][] cols = extractComponentColumns(vectors, dStart, dEnd);
+        double[][] cols = GridDensity3DEngine.componentColumns(vectors, dStart, dEnd);
+        return scoreComponentColumns(cols, dStart, includeSelfPairs, orderedPairs, cfg);
+    }
+
+    /**
+     * Score all valid component pairs over already extracted columns, where
+     * cols[d] holds component (dStart + d) for every sample.
+     */
+    public static List<PairScore> scoreComponentColumns(
+        double[][] cols,
+        int dStart,
+        boolean includeSelfPairs,
+        boolean orderedPairs,
+        Config cfg
+    ) {
+        Objects.requireNonNull(cols, "cols");
+        int dEnd = dStart + cols.length - 1;
         int nSamples = cols.length == 0 ? 0 : cols[0].length;
 
         boolean suff = sufficiency(nSamples, cfg.binsX, cfg.binsY, cfg.minAvgCountPerCell);
@@ -170,7 +186,7 @@ public final class PairScorer {
             case MI_LITE:
                 return nmiLite(x, y, cfg.miBins);
             case DIST_CORR:
-                return distCorr(x, y);
+                return SimilarityComputer.distanceCorrelation(x, y);
             default:
                 return 0.0;
         }
@@ -333,83 +349,6 @@ public final class PairScorer {
         return h;
     }
 
-    // ----------- Distance correlation (biased) -----------
-
-    private static double distCorr(double[] x, double[] y) {
-        int n = x.length;
-        if (n < 3) return 0.0;
-
-        double[][] ax = distanceMatrix(x);
-        double[][] ay = distanceMatrix(y);
-
-        double[][] axc = doubleCenter(ax);
-        double[][] ayc = doubleCenter(ay);
-
-        double dcov2 = meanElementwiseProduct(axc, ayc);
-        double dvarx = meanElementwiseProduct(axc, axc);
-        double dvary = meanElementwiseProduct(ayc, ayc);
-
-        if (dvarx <= 0 || dvary <= 0) return 0.0;
-        double dcor = Math.sqrt(Math.max(0, dcov2)) / Math.sqrt(dvarx * dvary);
-        if (Double.isNaN(dcor) || Double.isInfinite(dcor)) return 0.0;
-        // Clamp
-        if (dcor < 0) dcor = 0;
-        else if (dcor > 1) dcor = 1;
-        return dcor;
-    }
-
-    private static double[][] distanceMatrix(double[] v) {
-        int n = v.length;
-        double[][] d = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            d[i][i] = 0;
-            for (int j = i + 1; j < n; j++) {
-                double dij = Math.abs(v[i] - v[j]);
-                d[i][j] = dij;
-                d[j][i] = dij;
-            }
-        }
-        return d;
-    }
-
-    private static double[][] doubleCenter(double[][] a) {
-        int n = a.length;
-        double[] rowMean = new double[n];
-        double[] colMean = new double[n];
-        double grand = 0.0;
-
-        for (int i = 0; i < n; i++) {
-            double rs = 0;
-            for (int j = 0; j < n; j++) rs += a[i][j];
-            rowMean[i] = rs / n;
-            grand += rs;
-        }
-        grand /= (n * n);
-
-        for (int j = 0; j < n; j++) {
-            double cs = 0;
-            for (int i = 0; i < n; i++) cs += a[i][j];
-            colMean[j] = cs / n;
-        }
-
-        double[][] out = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                out[i][j] = a[i][j] - rowMean[i] - colMean[j] + grand;
-            }
-        }
-        return out;
-    }
-
-    private static double meanElementwiseProduct(double[][] a, double[][] b) {
-        int n = a.length;
-        double s = 0.0;
-        for (int i = 0; i < n; i++)
-            for (int j = 0; j < n; j++)
-                s += a[i][j] * b[i][j];
-        return s / (n * n);
-    }
-
     // ----------- Sufficiency -----------
 
     private static boolean sufficiency(int n, Integer bx, Integer by, double minAvgPerCell) {
@@ -421,21 +360,6 @@ public final class PairScorer {
 
     // ----------- Extraction helpers -----------
 
-    private static double[][] extractComponentColumns(List<FeatureVector> vectors, int start, int end) {
-        int nDims = end - start + 1;
-        int n = vectors.size();
-        double[][] cols = new double[nDims][n];
-        for (int row = 0; row < n; row++) {
-            List<Double> data = vectors.get(row).getData();
-            for (int d = 0; d < nDims; d++) {
-                int idx = start + d;
-                double val = (idx >= 0 && idx < data.size()) ? data.get(idx) : 0.0;
-                cols[d][row] = val;
-            }
-        }
-        return cols;
-    }
-
     private static double[] extractAxisScalars(List<FeatureVector> vectors, AxisParams axis) {
         // Precompute mean if needed
         List<Double> meanVector = null;
@@ -257,6 +257,21 @@ public final class PairwiseMatrixEngine {
         JpdfRecipe recipe,
         DivergenceMetric metric,
         DensityCache cache
+    ) {
+        return computeDivergenceMatrix(cohortA, cohortB, recipe, metric, cache, null, null);
+    }
+
+    /**
+     * As above, with cache fingerprints the caller already holds for the cohorts (null = full scan).
+     */
+    public static MatrixResult computeDivergenceMatrix(
+        List<FeatureVector> cohortA,
+        List<FeatureVector> cohortB,
+        JpdfRecipe recipe,
+        DivergenceMetric metric,
+        DensityCache cache,
+        String fingerprintA,
+        String fingerprintB
     ) {
         Objects.requireNonNull(cohortA, "cohortA");
         Objects.requireNonNull(cohortB, "cohortB");
@@ -264,7 +279,7 @@ public final class PairwiseMatrixEngine {
         Objects.requireNonNull(metric, "metric");
 
         DivergenceComputer.DivergenceResult dr = DivergenceComputer.computeForComponentRange(
-            cohortA, cohortB, recipe, metric, cache
+            cohortA, cohortB, recipe, metric, cache, fingerprintA, fingerprintB
         );
 
         // Labels/indices already computed by DivergenceComputer
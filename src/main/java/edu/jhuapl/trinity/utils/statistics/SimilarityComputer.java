@@ -4,6 +4,7 @@ import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
@@ -32,7 +33,8 @@ import java.util.concurrent.Future;
  * Notes:
  * - This class does NOT build Joint PDFs and does not require GridSpec; it works on raw columns.
  * - Bounds for NMI are per-pair (min..max per each variable).
- * - Computation is parallelized over the upper triangle.
+ * - Computation is parallelized over the upper triangle; PEARSON_ABS over finite columns
+ *   is a single blocked Gram product, and DIST_CORR is O(n log n) per pair with no n x n storage.
  *
  * @author Sean Phillips
  */
@@ -157,6 +159,30 @@ public final class SimilarityComputer {
             ? Math.max(4, Math.min(128, Math.min(recipe.getBinsX(), recipe.getBinsY())))
             : -1;
 
+        // PEARSON_ABS over fully finite columns is one Gram product; only pairs touching a
+        // column with missing values go through the pairwise path below
+        final boolean[] viaGram = new boolean[F];
+        if (metric == Metric.PEARSON_ABS) {
+            int[] finiteCols = new int[F];
+            int nf = 0;
+            for (int k = 0; k < F; k++) {
+                if (allFinite(cols[k])) finiteCols[nf++] = k;
+            }
+            double[][] sub = new double[nf][];
+            for (int a = 0; a < nf; a++) sub[a] = cols[finiteCols[a]];
+            double[][] G = pearsonAbsMatrix(sub);
+            for (int a = 0; a < nf; a++) {
+                viaGram[finiteCols[a]] = true;
+                for (int b = a + 1; b < nf; b++) {
+                    int i = finiteCols[a], j = finiteCols[b];
+                    M[i][j] = G[a][b];
+                    M[j][i] = G[a][b];
+                    Q[i][j] = 1.0;
+                    Q[j][i] = 1.0;
+                }
+            }
+        }
+
         // Parallel upper-triangle computation
         int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
         ExecutorService pool = Executors.newFixedThreadPool(threads);
@@ -167,6 +193,7 @@ public final class SimilarityComputer {
             futures.add(pool.submit(() -> {
                 double[] x = cols[ii];
                 for (int j = ii + 1; j < F; j++) {
+                    if (viaGram[ii] && viaGram[j]) continue;
                     double[] y = cols[j];
 
                     // Filter finite pairs once per edge
@@ -175,7 +202,7 @@ public final class SimilarityComputer {
                     switch (metric) {
                         case NMI -> s = nmiLite(xy.x, xy.y, nmiBins);
                         case PEARSON_ABS -> s = Math.abs(pearson(xy.x, xy.y));
-                        case DIST_CORR -> s = distCorr(xy.x, xy.y);
+                        case DIST_CORR -> s = distanceCorrelation(xy.x, xy.y);
                         default -> s = 0.0;
                     }
                     double q = (xy.n == 0) ? 0.0 : (xy.n / (double) N); // fraction of usable rows
@@ -240,6 +267,11 @@ public final class SimilarityComputer {
         return cols;
     }
 
+    private static boolean allFinite(double[] v) {
+        for (double d : v) if (!Double.isFinite(d)) return false;
+        return true;
+    }
+
     /**
      * Holder for filtered finite pairs.
      */
@@ -298,79 +330,269 @@ public final class SimilarityComputer {
         return r;
     }
 
+    // ---------------- Pearson |r| matrix (blocked Gram product) ----------------
+
+    /**
+     * |Pearson r| for every pair of columns as one Gram product Z^T Z over standardized
+     * columns. The product is tiled over features and rows so each task streams cache-sized
+     * slices of a few columns, and tiles run in parallel. Columns must be finite; constant
+     * columns (and all columns when n < 3) correlate 0 with everything else.
+     *
+     * @param cols columns cols[k][row], all the same length
+     * @return symmetric F x F matrix with 1.0 on the diagonal
+     */
+    public static double[][] pearsonAbsMatrix(double[][] cols) {
+        final int F = cols.length;
+        double[][] M = new double[F][F];
+        for (int i = 0; i < F; i++) M[i][i] = 1.0;
+        if (F < 2) return M;
+        final int n = cols[0].length;
+        if (n < 3) return M;
+
+        // z = (x - mean) / ||x - mean||, so r_ij = <z_i, z_j>
+        double[][] z = new double[F][];
+        for (int k = 0; k < F; k++) {
+            double[] x = cols[k];
+            double mean = 0;
+            for (int r = 0; r < n; r++) mean += x[r];
+            mean /= n;
+            double[] zk = new double[n];
+            double ss = 0;
+            for (int r = 0; r < n; r++) {
+                double d = x[r] - mean;
+                zk[r] = d;
+                ss += d * d;
+            }
+            double inv = ss > 0 ? 1.0 / Math.sqrt(ss) : 0.0;
+            for (int r = 0; r < n; r++) zk[r] *= inv;
+            z[k] = zk;
+        }
+
+        int tiles = (F + GEMM_FEATURE_TILE - 1) / GEMM_FEATURE_TILE;
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), tiles * (tiles + 1) / 2));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int ti = 0; ti < tiles; ti++) {
+            for (int tj = ti; tj < tiles; tj++) {
+                final int i0 = ti * GEMM_FEATURE_TILE, i1 = Math.min(F, i0 + GEMM_FEATURE_TILE);
+                final int j0 = tj * GEMM_FEATURE_TILE, j1 = Math.min(F, j0 + GEMM_FEATURE_TILE);
+                futures.add(pool.submit(() -> gramTile(z, n, i0, i1, j0, j1, M)));
+            }
+        }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                pool.shutdownNow();
+                throw new RuntimeException("SimilarityComputer: task failed", e);
+            }
+        }
+        pool.shutdown();
+        return M;
+    }
+
+    private static final int GEMM_FEATURE_TILE = 32;
+    private static final int GEMM_ROW_BLOCK = 2048;
+
+    /**
+     * Fill the |r| entries of one feature tile. Tiles are disjoint, so no locking is needed.
+     */
+    private static void gramTile(double[][] z, int n, int i0, int i1, int j0, int j1, double[][] M) {
+        double[][] acc = new double[i1 - i0][j1 - j0];
+        for (int r0 = 0; r0 < n; r0 += GEMM_ROW_BLOCK) {
+            final int r1 = Math.min(n, r0 + GEMM_ROW_BLOCK);
+            for (int i = i0; i < i1; i++) {
+                double[] zi = z[i];
+                double[] ai = acc[i - i0];
+                int j = Math.max(j0, i + 1);
+                // 1 x 4 register block: each zi load feeds four dot products
+                for (; j + 3 < j1; j += 4) {
+                    double[] za = z[j], zb = z[j + 1], zc = z[j + 2], zd = z[j + 3];
+                    double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                    for (int r = r0; r < r1; r++) {
+                        double v = zi[r];
+                        s0 += v * za[r];
+                        s1 += v * zb[r];
+                        s2 += v * zc[r];
+                        s3 += v * zd[r];
+                    }
+                    ai[j - j0] += s0;
+                    ai[j + 1 - j0] += s1;
+                    ai[j + 2 - j0] += s2;
+                    ai[j + 3 - j0] += s3;
+                }
+                for (; j < j1; j++) {
+                    double[] zj = z[j];
+                    double s = 0;
+                    for (int r = r0; r < r1; r++) s += zi[r] * zj[r];
+                    ai[j - j0] += s;
+                }
+            }
+        }
+        for (int i = i0; i < i1; i++) {
+            for (int j = Math.max(j0, i + 1); j < j1; j++) {
+                double r = Math.abs(acc[i - i0][j - j0]);
+                if (!Double.isFinite(r)) r = 0.0;
+                else if (r > 1) r = 1;
+                M[i][j] = r;
+                M[j][i] = r;
+            }
+        }
+    }
+
     // ---------------- Distance correlation (biased) ----------------
-    private static double distCorr(double[] x, double[] y) {
+
+    /**
+     * Biased (V-statistic) distance correlation of two finite samples in O(n log n) time
+     * and O(n) memory, following the sort-based univariate algorithm of Huo and Szekely.
+     * <p>
+     * With a_ij = |x_i - x_j| and b_ij = |y_i - y_j| the double-centered product expands to
+     * <pre>
+     *   dCov^2 = S1/n^2 - 2*S2/n^3 + S3/n^4,
+     *   S1 = sum_ij a_ij b_ij,  S2 = sum_i a_i. b_i.,  S3 = a.. b..
+     * </pre>
+     * Row sums a_i. come from prefix sums over the sorted sample. S1 is accumulated in x
+     * order with a Fenwick tree over y ranks holding counts and sums of x, y and x*y, so
+     * each point pairs with all earlier points split by the sign of y_j - y_i.
+     *
+     * @return dCor in [0,1]; 0 when n &lt; 3 or either sample is constant
+     */
+    public static double distanceCorrelation(double[] x, double[] y) {
         int n = Math.min(x.length, y.length);
         if (n < 3) return 0.0;
 
-        double[][] ax = distanceMatrix(x);
-        double[][] ay = distanceMatrix(y);
-
-        double[][] axc = doubleCenter(ax);
-        double[][] ayc = doubleCenter(ay);
+        // centering changes no distance but keeps the sums below well conditioned
+        double[] xc = centered(x, n);
+        double[] yc = centered(y, n);
+        double[] xs = xc.clone();
+        double[] ys = yc.clone();
+        Arrays.sort(xs);
+        Arrays.sort(ys);
+
+        double[] ax = distanceRowSums(xc, xs);
+        double[] by = distanceRowSums(yc, ys);
+        double sumA = 0, sumB = 0, sumAB = 0, sumAA = 0, sumBB = 0;
+        for (int i = 0; i < n; i++) {
+            sumA += ax[i];
+            sumB += by[i];
+            sumAB += ax[i] * by[i];
+            sumAA += ax[i] * ax[i];
+            sumBB += by[i] * by[i];
+        }
 
-        double dcov2 = meanElementwiseProduct(axc, ayc);
-        double dvarx = meanElementwiseProduct(axc, axc);
-        double dvary = meanElementwiseProduct(ayc, ayc);
+        double n2 = (double) n * n, n3 = n2 * n, n4 = n3 * n;
+        double dcov2 = crossDistanceSum(xc, yc, xs, ys) / n2 - 2.0 * sumAB / n3 + sumA * sumB / n4;
+        double dvarx = squaredDistanceSum(xc) / n2 - 2.0 * sumAA / n3 + sumA * sumA / n4;
+        double dvary = squaredDistanceSum(yc) / n2 - 2.0 * sumBB / n3 + sumB * sumB / n4;
 
         if (dvarx <= 0 || dvary <= 0) return 0.0;
-        double dcor = Math.sqrt(Math.max(0, dcov2)) / Math.sqrt(dvarx * dvary);
+        double dcor = Math.sqrt(Math.max(0, dcov2) / Math.sqrt(dvarx * dvary));
         if (Double.isNaN(dcor) || Double.isInfinite(dcor)) return 0.0;
         if (dcor < 0) dcor = 0;
         else if (dcor > 1) dcor = 1;
         return dcor;
     }
 
-    private static double[][] distanceMatrix(double[] v) {
-        int n = v.length;
-        double[][] d = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            d[i][i] = 0;
-            for (int j = i + 1; j < n; j++) {
-                double dij = Math.abs(v[i] - v[j]);
-                d[i][j] = dij;
-                d[j][i] = dij;
-            }
-        }
-        return d;
+    private static double[] centered(double[] v, int n) {
+        double mean = 0;
+        for (int i = 0; i < n; i++) mean += v[i];
+        mean /= n;
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) out[i] = v[i] - mean;
+        return out;
     }
 
-    private static double[][] doubleCenter(double[][] a) {
-        int n = a.length;
-        double[] rowMean = new double[n];
-        double[] colMean = new double[n];
-        double grand = 0.0;
+    /**
+     * First index of value in sorted (lower bound); ties share a rank.
+     */
+    private static int rankOf(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
 
+    /**
+     * sum_j |v_i - v_j| for every i, from prefix sums over the sorted copy.
+     */
+    private static double[] distanceRowSums(double[] v, double[] sorted) {
+        int n = v.length;
+        double[] prefix = new double[n + 1];
+        for (int k = 0; k < n; k++) prefix[k + 1] = prefix[k] + sorted[k];
+        double total = prefix[n];
+        double[] out = new double[n];
         for (int i = 0; i < n; i++) {
-            double rs = 0;
-            for (int j = 0; j < n; j++) rs += a[i][j];
-            rowMean[i] = rs / n;
-            grand += rs;
+            double vi = v[i];
+            int k = rankOf(sorted, vi); // k values below vi, the rest at or above
+            out[i] = vi * k - prefix[k] + (total - prefix[k]) - vi * (n - k);
         }
-        grand /= (n * n);
+        return out;
+    }
 
-        for (int j = 0; j < n; j++) {
-            double cs = 0;
-            for (int i = 0; i < n; i++) cs += a[i][j];
-            colMean[j] = cs / n;
+    /**
+     * sum_ij (v_i - v_j)^2 = 2n sum v^2 - 2 (sum v)^2.
+     */
+    private static double squaredDistanceSum(double[] v) {
+        int n = v.length;
+        double s = 0, ss = 0;
+        for (double d : v) {
+            s += d;
+            ss += d * d;
         }
+        return 2.0 * n * ss - 2.0 * s * s;
+    }
 
-        double[][] out = new double[n][n];
+    /**
+     * sum_ij |x_i - x_j| |y_i - y_j| in O(n log n).
+     */
+    private static double crossDistanceSum(double[] x, double[] y, double[] xs, double[] ys) {
+        int n = x.length;
+        // visit points in x order: pack (x rank, index) so a primitive sort yields the order
+        long[] order = new long[n];
+        int[] yRank = new int[n];
         for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                out[i][j] = a[i][j] - rowMean[i] - colMean[j] + grand;
+            order[i] = ((long) rankOf(xs, x[i]) << 32) | i;
+            yRank[i] = rankOf(ys, y[i]);
+        }
+        Arrays.sort(order);
+
+        // Fenwick tree over y ranks: count, sum x, sum y, sum x*y of points already visited
+        double[] fc = new double[n + 1], fx = new double[n + 1], fy = new double[n + 1], fxy = new double[n + 1];
+        double tc = 0, tx = 0, ty = 0, txy = 0;
+        double s = 0;
+        for (int k = 0; k < n; k++) {
+            int j = (int) order[k];
+            double xj = x[j], yj = y[j];
+            int r = yRank[j];
+            // earlier points with y below yj (ranks < r)
+            double lc = 0, lx = 0, ly = 0, lxy = 0;
+            for (int p = r; p > 0; p -= p & -p) {
+                lc += fc[p];
+                lx += fx[p];
+                ly += fy[p];
+                lxy += fxy[p];
             }
+            // (xj - xi)(yj - yi) summed over a set is c*xj*yj - xj*Sy - yj*Sx + Sxy; x_i <= x_j
+            // for every earlier point, so the product is positive below yj and negated above it
+            double below = lc * xj * yj - xj * ly - yj * lx + lxy;
+            double above = (tc - lc) * xj * yj - xj * (ty - ly) - yj * (tx - lx) + (txy - lxy);
+            s += below - above;
+
+            for (int p = r + 1; p <= n; p += p & -p) {
+                fc[p] += 1;
+                fx[p] += xj;
+                fy[p] += yj;
+                fxy[p] += xj * yj;
+            }
+            tc += 1;
+            tx += xj;
+            ty += yj;
+            txy += xj * yj;
         }
-        return out;
-    }
-
-    private static double meanElementwiseProduct(double[][] a, double[][] b) {
-        int n = a.length;
-        double s = 0.0;
-        for (int i = 0; i < n; i++)
-            for (int j = 0; j < n; j++)
-                s += a[i][j] * b[i][j];
-        return s / (n * n);
+        return 2.0 * s; // each unordered pair counted once above
     }
 
     // ---------------- NMI (equal-width + add-one smoothing) ----------------
@@ -20,6 +20,7 @@ import javafx.scene.control.MenuItem;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.RadioMenuItem;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.Slider;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.control.ToggleGroup;
@@ -81,6 +82,8 @@ public class StatPdfCdfChartPanel extends BorderPane {
     // Vectors mode controls/state
     private ComboBox<StatisticEngine.ScalarType> xFeatureCombo;
     private Spinner<Integer> binsSpinner;
+    //histogram buffers reused while the bins are tuned and the surface recomputed
+    private final GridDensity3DEngine.Workspace densityWorkspace = new GridDensity3DEngine.Workspace();
 
     private ComboBox<String> metricCombo;
     private String referenceMode = "Mean"; // "Mean", "Vector @ Index", "Custom"
@@ -90,6 +93,12 @@ public class StatPdfCdfChartPanel extends BorderPane {
     private Spinner<Integer> yIndexSpinner;
 
     private boolean surfaceCDF = false; // false=PDF, true=CDF
+    private CheckBox zSliceCheck;
+    private Spinner<Integer> zIndexSpinner;
+    private Slider zLayerSlider;
+    //volume from the last Z-sliced compute; moving the layer slider re-slices it without rebinning
+    private GridDensity3DResult lastVolume = null;
+    private int lastZLayer = -1;
 
     // Data/state
     private List<FeatureVector> currentVectors = new ArrayList<>();
@@ -469,6 +478,21 @@ public class StatPdfCdfChartPanel extends BorderPane {
         surfaceCdf.setSelected(surfaceCDF);
         surfaceCdf.setOnAction(e -> surfaceCDF = true);
 
+        zSliceCheck = new CheckBox("Slice by Z");
+        zIndexSpinner = new Spinner<>();
+        zIndexSpinner.setPrefWidth(100);
+        zIndexSpinner.setMinWidth(100);
+        zIndexSpinner.setMaxWidth(100);
+        zIndexSpinner.disableProperty().bind(zSliceCheck.selectedProperty().not());
+
+        zLayerSlider = new Slider(0, 1, 0);
+        zLayerSlider.setBlockIncrement(1);
+        zLayerSlider.setMajorTickUnit(1);
+        zLayerSlider.setMinorTickCount(0);
+        zLayerSlider.setSnapToTicks(true);
+        zLayerSlider.setDisable(true);
+        zLayerSlider.valueProperty().addListener((obs, ov, nv) -> emitZLayer());
+
         Button compute3DButton = new Button("Compute 3D Surface");
         compute3DButton.setOnAction(e -> compute3DSurface());
 
@@ -476,6 +500,8 @@ public class StatPdfCdfChartPanel extends BorderPane {
             new HBox(8, new Label("Y Feature"), yFeatureCombo),
             new HBox(8, new Label("Y Index"), yIndexSpinner),
             new HBox(8, new Label("Surface"), surfacePdf, surfaceCdf),
+            new HBox(8, zSliceCheck, new Label("Z Dim"), zIndexSpinner),
+            new HBox(8, new Label("Z Layer"), zLayerSlider),
             compute3DButton
         );
         surfaceBox.setPadding(new Insets(6, 10, 6, 10));
@@ -588,7 +614,8 @@ public class StatPdfCdfChartPanel extends BorderPane {
     }
 
     /**
-     * Consumer invoked when "Compute 3D Surface" finishes successfully.
+     * Consumer invoked when "Compute 3D Surface" finishes successfully, and again
+     * with each Z layer picked on the slider after a "Slice by Z" compute.
      */
     public void setOnComputeSurface(Consumer<GridDensityResult> handler) {
         this.onComputeSurface = handler;
@@ -596,6 +623,7 @@ public class StatPdfCdfChartPanel extends BorderPane {
 
     public void setFeatureVectors(List<FeatureVector> vectors) {
         this.currentVectors = (vectors != null) ? vectors : new ArrayList<>();
+        clearVolume();
         rebuildLabelsFromCurrentVectors();
         updateXIndexBoundsAndValue();
         updateYIndexBoundsAndValue();
@@ -612,6 +640,7 @@ public class StatPdfCdfChartPanel extends BorderPane {
         if (newVectors == null || newVectors.isEmpty()) return;
         if (this.currentVectors == null) this.currentVectors = new ArrayList<>(newVectors);
         else this.currentVectors.addAll(newVectors);
+        clearVolume();
         rebuildLabelsFromCurrentVectors();
         updateXIndexBoundsAndValue();
         updateYIndexBoundsAndValue();
@@ -670,6 +699,8 @@ public class StatPdfCdfChartPanel extends BorderPane {
         public Integer xIndex;
         public StatisticEngine.ScalarType yType;
         public Integer yIndex;
+        public boolean zSlice;
+        public Integer zIndex;
         public boolean usingScalars;
         public String scalarField; // Score / Info%
         public List<Double> scalarScores;
@@ -692,6 +723,8 @@ public class StatPdfCdfChartPanel extends BorderPane {
         s.xIndex = xIndexSpinner != null ? xIndexSpinner.getValue() : null;
         s.yType = yFeatureCombo != null ? yFeatureCombo.getValue() : null;
         s.yIndex = yIndexSpinner != null ? yIndexSpinner.getValue() : null;
+        s.zSlice = zSliceCheck != null && zSliceCheck.isSelected();
+        s.zIndex = zIndexSpinner != null ? zIndexSpinner.getValue() : null;
         s.usingScalars = (dataSource == DataSource.SCALARS);
         s.scalarField = scalarField;
         s.scalarScores = new ArrayList<>(scalarScores);
@@ -721,6 +754,8 @@ public class StatPdfCdfChartPanel extends BorderPane {
 
         if (yFeatureCombo != null && s.yType != null) yFeatureCombo.setValue(s.yType);
         if (yIndexSpinner != null && s.yIndex != null) yIndexSpinner.getValueFactory().setValue(s.yIndex);
+        if (zSliceCheck != null) zSliceCheck.setSelected(s.zSlice);
+        if (zIndexSpinner != null && s.zIndex != null) zIndexSpinner.getValueFactory().setValue(s.zIndex);
 
         dataSource = s.usingScalars ? DataSource.SCALARS : DataSource.VECTORS;
         scalarField = (s.scalarField != null) ? s.scalarField : scalarField;
@@ -869,11 +904,44 @@ public class StatPdfCdfChartPanel extends BorderPane {
         }
 
         int bins = binsSpinner.getValue();
+        if (zSliceCheck.isSelected()) {
+            AxisParams zAxis = new AxisParams();
+            zAxis.setType(StatisticEngine.ScalarType.COMPONENT_AT_DIMENSION);
+            zAxis.setComponentIndex(zIndexSpinner.getValue());
+            lastVolume = GridDensity3DEngine.computePdfCdf3D(use, xAxis, yAxis, zAxis,
+                bins, bins, bins, densityWorkspace);
+            lastZLayer = -1;
+            zLayerSlider.setMax(lastVolume.binsZ() - 1);
+            zLayerSlider.setValue(Math.min(zLayerSlider.getValue(), zLayerSlider.getMax()));
+            zLayerSlider.setDisable(false);
+            emitZLayer();
+            return;
+        }
+        clearVolume();
         GridSpec grid = new GridSpec(bins, bins);
-        GridDensityResult result = GridDensity3DEngine.computePdfCdf2D(use, xAxis, yAxis, grid);
+        GridDensityResult result = GridDensity3DEngine.computePdfCdf2D(use, xAxis, yAxis, grid, densityWorkspace);
         onComputeSurface.accept(result);
     }
 
+    /**
+     * Sends the selected Z layer of the last volume to the surface consumer.
+     * The slice carries the joint density at that layer and the cumulative
+     * probability up to it, so PDF/CDF mode applies as for a 2D surface.
+     */
+    private void emitZLayer() {
+        if (lastVolume == null || onComputeSurface == null) return;
+        int layer = Math.max(0, Math.min(lastVolume.binsZ() - 1, (int) Math.round(zLayerSlider.getValue())));
+        if (layer == lastZLayer) return;
+        lastZLayer = layer;
+        onComputeSurface.accept(lastVolume.sliceZ(layer));
+    }
+
+    private void clearVolume() {
+        lastVolume = null;
+        lastZLayer = -1;
+        if (zLayerSlider != null) zLayerSlider.setDisable(true);
+    }
+
     // ===== Enablement / bounds =====
     private void updateXControlEnablement() {
         boolean isMetric = xFeatureCombo.getValue() == StatisticEngine.ScalarType.METRIC_DISTANCE_TO_MEAN;
@@ -925,6 +993,10 @@ public class StatPdfCdfChartPanel extends BorderPane {
             int maxDim = getMaxDimensionIndex();
             setSpinnerBounds(yIndexSpinner, 0, Math.max(0, maxDim), 0);
         }
+        if (zIndexSpinner != null) {
+            int maxDim = getMaxDimensionIndex();
+            setSpinnerBounds(zIndexSpinner, 0, maxDim, safeSpinnerValue(zIndexSpinner, 0, maxDim));
+        }
     }
 
     // ===== Utilities =====
@@ -107,10 +107,10 @@ public class StatisticEngine {
         // PC1 projections, if needed
         if (selectedTypes.contains(ScalarType.PC1_PROJECTION)) {
             double[][] dataArr = vectors.stream()
-                .map(fv -> fv.getData().stream().mapToDouble(Double::doubleValue).toArray())
+                .map(FeatureVector::dataArray)
                 .toArray(double[][]::new);
 
-            double[][] pcaProjected = AnalysisUtils.doCommonsPCA(dataArr);
+            double[][] pcaProjected = AnalysisUtils.doRandomizedPCA(dataArr, 1);
             List<Double> pc1Projections = new ArrayList<>();
             for (int i = 0; i < pcaProjected.length; i++) {
                 pc1Projections.add(pcaProjected[i][0]);
@@ -123,9 +123,8 @@ public class StatisticEngine {
             if (componentIndex != null && componentIndex >= 0) {
                 List<Double> comps = new ArrayList<>(vectors.size());
                 for (FeatureVector fv : vectors) {
-                    List<Double> d = fv.getData();
-                    if (componentIndex < d.size()) {
-                        comps.add(d.get(componentIndex));
+                    if (componentIndex < fv.dataSize()) {
+                        comps.add(fv.dataValue(componentIndex));
                     }
                 }
                 if (!comps.isEmpty()) {
@@ -144,8 +143,7 @@ public class StatisticEngine {
                     double[] refVec = referenceVectorForGeneric.stream().mapToDouble(Double::doubleValue).toArray();
                     List<Double> metricDists = new ArrayList<>(vectors.size());
                     for (FeatureVector fv : vectors) {
-                        double[] fvArr = fv.getData().stream().mapToDouble(Double::doubleValue).toArray();
-                        double value = metric.distance(fvArr, refVec);
+                        double value = metric.distance(fv.dataArray(), refVec);
                         metricDists.add(value);
                     }
                     results.put(type, buildStatResult(metricDists, pdfBins));
@@ -156,9 +154,9 @@ public class StatisticEngine {
             List<Double> scalars = new ArrayList<>(vectors.size());
             for (FeatureVector fv : vectors) {
                 double value = switch (type) {
-                    case L1_NORM -> fv.getData().stream().mapToDouble(Math::abs).sum();
-                    case LINF_NORM -> fv.getData().stream().mapToDouble(Math::abs).max().orElse(0.0);
-                    case MEAN -> fv.getData().stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+                    case L1_NORM -> fv.getData().sumAbs();
+                    case LINF_NORM -> fv.getData().maxAbs();
+                    case MEAN -> fv.dataSize() == 0 ? 0.0 : fv.getData().sum() / fv.dataSize();
                     case MAX -> fv.getMax();
                     case MIN -> fv.getMin();
                     case DIST_TO_MEAN -> (meanVector != null)
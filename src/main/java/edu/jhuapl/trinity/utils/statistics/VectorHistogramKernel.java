@@ -0,0 +1,59 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD bin-index kernel on the JDK Vector API.
+ * <p>
+ * Only {@link HistogramKernel} touches this class, and only after checking that
+ * jdk.incubator.vector is in the boot layer, so launches without the module
+ * never load it.
+ * <p>
+ * Per lane: q = (v - min) / width, clamped to [0, bins - 1] in double and
+ * truncated to long. For every input, finite or not, this gives the same bin as the scalar
+ * floor-then-clamp path: truncation and floor differ only on negative q,
+ * which both paths clamp to 0, and NaN converts to 0 in both.
+ * The scatter into counts stays scalar because lanes may collide.
+ *
+ * @author Sean Phillips
+ */
+final class VectorHistogramKernel {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS =
+        VectorSpecies.of(long.class, DOUBLES.vectorShape());
+
+    private VectorHistogramKernel() {
+    }
+
+    /**
+     * Vector body over rows [from, to); returns the first row left for the scalar tail.
+     */
+    static int accumulate(double[][] cols, int from, int to, double[] mins, double[] widths,
+                          int[] bins, int[] strides, int[] counts) {
+        final int lanes = DOUBLES.length();
+        final int upper = from + DOUBLES.loopBound(to - from);
+        final long[] flat = new long[lanes];
+        final int axes = cols.length;
+        int i = from;
+        for (; i < upper; i += lanes) {
+            LongVector index = LongVector.zero(LONGS);
+            for (int a = 0; a < axes; a++) {
+                DoubleVector q = DoubleVector.fromArray(DOUBLES, cols[a], i)
+                    .sub(mins[a])
+                    .div(widths[a])
+                    .max(0.0)
+                    .min(bins[a] - 1);
+                LongVector bin = (LongVector) q.convert(VectorOperators.D2L, 0);
+                index = strides[a] == 1 ? index.add(bin) : index.add(bin.mul(strides[a]));
+            }
+            index.intoArray(flat, 0);
+            for (int k = 0; k < lanes; k++) {
+                counts[(int) flat[k]]++;
+            }
+        }
+        return i;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * BSD 3-Clause License
+ * Original Copyright (C) 2017, Leland McInnes, 2019 Tag.bio (Java port).
+ * See UMAPLicense.txt.
+ */
+
+
+package edu.jhuapl.trinity.utils.umap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Layout optimization by stochastic gradient descent.
+ * Nondeterministic parallel (Hogwild) version.
+ * <p>
+ * The 1-simplices (head/tail edge arrays) are split into contiguous
+ * partitions, one per job, and every job applies its updates to flat
+ * embedding buffers without locking. Updates from different jobs may
+ * interleave; as in Hogwild SGD the collisions are rare and harmless because
+ * the graph is sparse and each update is small. Jobs are joined at the end of
+ * every epoch so the learning rate schedule matches the serial optimizer.
+ *
+ * @author Sean Phillips
+ * @author Leland McInnes (Python)
+ */
+class ParallelLayoutOptimizer {
+
+    private final int mThreads;
+
+    /**
+     * Construct a layout optimizer using the given number of threads.
+     *
+     * @param threads number of threads
+     */
+    ParallelLayoutOptimizer(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        mThreads = threads;
+    }
+
+    /**
+     * Optimize the embedding in place. Arguments are as for the serial
+     * <code>Umap.optimizeLayout</code>; <code>random</code> only seeds the
+     * per job generators.
+     *
+     * @param headEmbedding      embedding to be improved
+     * @param tailEmbedding      reference embedding (may be the same matrix as <code>headEmbedding</code>)
+     * @param head               heads of the 1-simplices
+     * @param tail               tails of the 1-simplices
+     * @param nEpochs            number of training epochs
+     * @param nVertices          number of vertices in the reference embedding
+     * @param epochsPerSample    number of epochs per 1-simplex
+     * @param a                  curve parameter
+     * @param b                  curve parameter
+     * @param random             seed source for the per job generators
+     * @param gamma              weight of negative samples
+     * @param initialAlpha       initial learning rate
+     * @param negativeSampleRate negative samples per positive sample
+     * @param epochListener      called with the epoch index after each epoch, may be null
+     * @return the head embedding
+     */
+    Matrix optimize(final Matrix headEmbedding, final Matrix tailEmbedding, final int[] head, final int[] tail, final int nEpochs, final int nVertices, final double[] epochsPerSample, final double a, final double b, final Random random, final double gamma, final double initialAlpha, final double negativeSampleRate, final IntConsumer epochListener) {
+        final int dim = headEmbedding.cols();
+        final boolean moveOther = headEmbedding.rows() == tailEmbedding.rows();
+        final boolean shared = headEmbedding == tailEmbedding;
+        final double[] headFlat = flatten(headEmbedding);
+        final double[] tailFlat = shared ? headFlat : flatten(tailEmbedding);
+
+        final double[] epochsPerNegativeSample = MathUtils.divide(epochsPerSample, negativeSampleRate);
+        final double[] epochOfNextNegativeSample = Arrays.copyOf(epochsPerNegativeSample, epochsPerNegativeSample.length);
+        final double[] epochOfNextSample = Arrays.copyOf(epochsPerSample, epochsPerSample.length);
+
+        final int nEdges = epochsPerSample.length;
+        final int jobs = Math.max(1, Math.min(mThreads, nEdges));
+        final int chunkSize = (nEdges + jobs - 1) / jobs;
+        final SplittableRandom[] generators = new SplittableRandom[jobs];
+        for (int t = 0; t < jobs; ++t) {
+            generators[t] = new SplittableRandom(random.nextLong());
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(jobs, r -> {
+            final Thread thread = new Thread(r, "umap-layout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final double[] alpha = {initialAlpha};
+            final int[] epoch = {0};
+            final List<Callable<Integer>> tasks = new ArrayList<>(jobs);
+            for (int t = 0; t < jobs; ++t) {
+                final int lo = t * chunkSize;
+                final int hi = Math.min(lo + chunkSize, nEdges);
+                final SplittableRandom rnd = generators[t];
+                tasks.add(() -> {
+                    // epoch and alpha are published by invokeAll's happens-before edge
+                    final int n = epoch[0];
+                    final double stepAlpha = alpha[0];
+                    for (int i = lo; i < hi; ++i) {
+                        if (epochOfNextSample[i] > n) {
+                            continue;
+                        }
+                        final int j = head[i] * dim;
+                        final int k = tail[i] * dim;
+
+                        double distSquared = distSquared(headFlat, j, tailFlat, k, dim);
+                        double gradCoeff;
+                        if (distSquared > 0.0) {
+                            gradCoeff = (-2.0 * a * b * Math.pow(distSquared, b - 1.0)) / (a * Math.pow(distSquared, b) + 1.0);
+                        } else {
+                            gradCoeff = 0;
+                        }
+
+                        for (int d = 0; d < dim; ++d) {
+                            final double gradD = Umap.clip(gradCoeff * (headFlat[j + d] - tailFlat[k + d]));
+                            headFlat[j + d] += gradD * stepAlpha;
+                            if (moveOther) {
+                                tailFlat[k + d] += -gradD * stepAlpha;
+                            }
+                        }
+
+                        epochOfNextSample[i] += epochsPerSample[i];
+
+                        final int nNegSamples = (int) ((n - epochOfNextNegativeSample[i]) / epochsPerNegativeSample[i]);
+
+                        for (int p = 0; p < nNegSamples; ++p) {
+                            final int kr = rnd.nextInt(nVertices);
+                            final int o = kr * dim;
+                            distSquared = distSquared(headFlat, j, tailFlat, o, dim);
+
+                            if (distSquared > 0) {
+                                gradCoeff = 2.0F * gamma * b / ((0.001 + distSquared) * (a * Math.pow(distSquared, b) + 1));
+                            } else if (head[i] == kr) {
+                                continue;
+                            } else {
+                                gradCoeff = 0;
+                            }
+
+                            for (int d = 0; d < dim; ++d) {
+                                final double gradD = gradCoeff > 0.0 ? Umap.clip(gradCoeff * (headFlat[j + d] - tailFlat[o + d])) : 4;
+                                headFlat[j + d] += gradD * stepAlpha;
+                            }
+                        }
+
+                        epochOfNextNegativeSample[i] += nNegSamples * epochsPerNegativeSample[i];
+                    }
+                    return 0;
+                });
+            }
+
+            for (int n = 0; n < nEpochs; ++n) {
+                epoch[0] = n;
+                for (final Future<Integer> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+                alpha[0] = initialAlpha * (1 - (double) n / (double) nEpochs);
+                if (epochListener != null) {
+                    epochListener.accept(n);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        unflatten(headFlat, headEmbedding);
+        if (moveOther && !shared) {
+            unflatten(tailFlat, tailEmbedding);
+        }
+        return headEmbedding;
+    }
+
+    private static double distSquared(final double[] x, final int xOffset, final double[] y, final int yOffset, final int dim) {
+        double result = 0;
+        for (int d = 0; d < dim; ++d) {
+            final double diff = x[xOffset + d] - y[yOffset + d];
+            result += diff * diff;
+        }
+        return result;
+    }
+
+    private static double[] flatten(final Matrix matrix) {
+        final int dim = matrix.cols();
+        final double[] flat = new double[matrix.rows() * dim];
+        for (int r = 0; r < matrix.rows(); ++r) {
+            System.arraycopy(matrix.row(r), 0, flat, r * dim, dim);
+        }
+        return flat;
+    }
+
+    private static void unflatten(final double[] flat, final Matrix matrix) {
+        final int dim = matrix.cols();
+        for (int r = 0; r < matrix.rows(); ++r) {
+            System.arraycopy(flat, r * dim, matrix.row(r), 0, dim);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package edu.jhuapl.trinity.utils.umap;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Places streamed feature vectors into an already fitted UMAP embedding
+ * without refitting.
+ * <p>
+ * Vectors are queued by {@link #submit(FeatureVector)} and a single worker
+ * thread gathers them into micro-batches: a batch is closed when it holds
+ * maxBatch vectors or flushMillis after its first vector arrived, whichever
+ * comes first. Each batch is run through {@link Umap#transform(Matrix, Integer)}
+ * with a reduced epoch count against the fitted search graph, random
+ * projection forest and embedding of the current Umap, and the projected
+ * coordinates are handed to the listener on the worker thread.
+ * <p>
+ * The queue is bounded; when producers outrun the worker new vectors are
+ * dropped and counted rather than growing latency without limit.
+ *
+ * @author Sean Phillips
+ */
+public class StreamingUmapProjector {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingUmapProjector.class);
+    public static final int DEFAULT_MAX_BATCH = 512;
+    public static final long DEFAULT_FLUSH_MILLIS = 100;
+    public static final int DEFAULT_TRANSFORM_EPOCHS = 20;
+    public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+
+    private final BlockingQueue<FeatureVector> queue;
+    private final int maxBatch;
+    private final long flushMillis;
+    private final int transformEpochs;
+    private final BiConsumer<List<FeatureVector>, double[][]> listener;
+    private final AtomicLong projected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile Umap umap;
+    private volatile boolean running = false;
+    private Thread worker;
+
+    public StreamingUmapProjector(Umap umap, BiConsumer<List<FeatureVector>, double[][]> listener) {
+        this(umap, DEFAULT_MAX_BATCH, DEFAULT_FLUSH_MILLIS, DEFAULT_TRANSFORM_EPOCHS,
+            DEFAULT_QUEUE_CAPACITY, listener);
+    }
+
+    /**
+     * @param umap            fitted Umap whose embedding new points are placed into
+     * @param maxBatch        vectors per batch before it is flushed
+     * @param flushMillis     longest time a vector waits for its batch to fill
+     * @param transformEpochs optimization epochs per batch
+     * @param queueCapacity   pending vectors kept before new ones are dropped
+     * @param listener        receives each batch and its projected coordinates
+     */
+    public StreamingUmapProjector(Umap umap, int maxBatch, long flushMillis, int transformEpochs,
+                                  int queueCapacity, BiConsumer<List<FeatureVector>, double[][]> listener) {
+        if (maxBatch < 1 || flushMillis < 1 || transformEpochs < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("batch, flush, epochs and capacity must be positive");
+        }
+        this.umap = umap;
+        this.maxBatch = maxBatch;
+        this.flushMillis = flushMillis;
+        this.transformEpochs = transformEpochs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(this::run, "Trinity UMAP Stream Projector");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (null != worker) {
+            worker.interrupt();
+            worker = null;
+        }
+        queue.clear();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Queue a vector for projection.
+     *
+     * @param featureVector vector in the fitted (high dimensional) space
+     * @return false if the queue was full and the vector was dropped
+     */
+    public boolean submit(FeatureVector featureVector) {
+        if (null == featureVector) return false;
+        if (!queue.offer(featureVector)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Swap in a newly fitted Umap; batches already in flight finish against the old one.
+     */
+    public void setUmap(Umap umap) {
+        this.umap = umap;
+    }
+
+    public Umap getUmap() {
+        return umap;
+    }
+
+    public long getProjectedCount() {
+        return projected.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<FeatureVector> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                FeatureVector first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (null == first) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMillis);
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    if (batch.size() >= maxBatch) break;
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0) break;
+                    FeatureVector next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (null == next) break;
+                    batch.add(next);
+                }
+                projectBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                LOG.error("Unable to project streamed batch of {} vectors.", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Projects one batch synchronously; exposed for callers that batch themselves.
+     *
+     * @return projected coordinates, one row per vector, or null if no fitted embedding exists
+     */
+    public double[][] projectBatch(List<FeatureVector> batch) {
+        Umap current = umap;
+        if (null == current || null == current.getmEmbedding() || batch.isEmpty()) return null;
+        int n = batch.size();
+        //transform needs at least two rows to build its membership graph
+        double[][] instances = new double[Math.max(2, n)][];
+        for (int i = 0; i < n; i++) {
+            instances[i] = FeatureVector.mapToStateArray.apply(batch.get(i));
+        }
+        if (n == 1) instances[1] = instances[0];
+        double[][] coordinates;
+        synchronized (current) {
+            coordinates = current.transform(new DefaultMatrix(instances), transformEpochs).toArray();
+        }
+        if (coordinates.length != n) {
+            double[][] trimmed = new double[n][];
+            System.arraycopy(coordinates, 0, trimmed, 0, n);
+            coordinates = trimmed;
+        }
+        projected.addAndGet(n);
+        batches.incrementAndGet();
+        if (null != listener) {
+            listener.accept(List.copyOf(batch), coordinates);
+        }
+        return coordinates;
+    }
+}
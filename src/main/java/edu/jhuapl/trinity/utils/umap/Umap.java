@@ -39,6 +39,8 @@ public class Umap {
     private static final double MIN_K_DIST_SCALE = 1e-3F;
 
     private static final int SMALL_PROBLEM_THRESHOLD = 4096;
+    // below this many 1-simplices thread hand-off costs more than it saves
+    private static final int PARALLEL_LAYOUT_MIN_EDGES = 8192;
 
     /**
      * Compute a continuous version of the distance to the kth nearest
@@ -405,6 +407,8 @@ public class Umap {
      * and low dimensional fuzzy simplicial sets. In practice this is done by
      * sampling edges based on their membership strength (with the (1-p) terms
      * coming from negative sampling similar to word2vec).
+     * When more than one layout thread is given and parallel layout is enabled
+     * the edges are processed by a {@link ParallelLayoutOptimizer}.
      *
      * @param headEmbedding      array of shape <code>(nSamples, nComponents)</code>
      *                           The initial embedding to be improved by SGD.
@@ -427,15 +431,25 @@ public class Umap {
      * @param gamma              Weight to apply to negative samples.
      * @param initialAlpha       Initial learning rate for the SGD.
      * @param negativeSampleRate Number of negative samples to use per positive sample.
+     * @param threads            Number of threads for the SGD.
      * @param verbose            Whether to report information on the current progress of the algorithm.
      * @return array of shape <code>(nSamples, nComponents)</code> The optimized embedding.
      */
-    private Matrix optimizeLayout(final Matrix headEmbedding, final Matrix tailEmbedding, final int[] head, final int[] tail, final int nEpochs, final int nVertices, final double[] epochsPerSample, final double a, final double b, final Random random, final double gamma, final double initialAlpha, final double negativeSampleRate, final boolean verbose) {
+    private Matrix optimizeLayout(final Matrix headEmbedding, final Matrix tailEmbedding, final int[] head, final int[] tail, final int nEpochs, final int nVertices, final double[] epochsPerSample, final double a, final double b, final Random random, final double gamma, final double initialAlpha, final double negativeSampleRate, final int threads, final boolean verbose) {
 
         if (!(headEmbedding instanceof DefaultMatrix)) {
             throw new UnsupportedOperationException("Require matrix we can set entries on");
         }
 
+        if (mParallelLayout && threads > 1 && epochsPerSample.length >= PARALLEL_LAYOUT_MIN_EDGES) {
+            return new ParallelLayoutOptimizer(threads).optimize(headEmbedding, tailEmbedding, head, tail, nEpochs, nVertices, epochsPerSample, a, b, random, gamma, initialAlpha, negativeSampleRate, n -> {
+                if (verbose) {
+                    reportLayoutProgress(n, nEpochs);
+                }
+                UmapProgress.update();
+            });
+        }
+
         final int dim = headEmbedding.cols();
         final boolean moveOther = headEmbedding.rows() == tailEmbedding.rows();
         double alpha = initialAlpha;
@@ -500,26 +514,33 @@ public class Umap {
 
             alpha = initialAlpha * (1 - (double) n / (double) nEpochs);
 
-            if (verbose && n % (nEpochs / 100) == 0) {
-                Scene scene = App.getAppScene();
-                Utils.message("Completed " + n + "/" + nEpochs);
-                double percentComplete = Double.valueOf(n) / Double.valueOf(nEpochs);
-                Platform.runLater(() -> {
-                    ProgressStatus ps = new ProgressStatus(
-                        "Optimizing Layout...", percentComplete);
-                    ps.fillStartColor = Color.CYAN;
-                    ps.fillEndColor = Color.NAVY;
-                    ps.innerStrokeColor = Color.CYAN;
-                    ps.outerStrokeColor = Color.NAVY;
-                    scene.getRoot().fireEvent(
-                        new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
-                });
+            if (verbose) {
+                reportLayoutProgress(n, nEpochs);
             }
             UmapProgress.update();
         }
         return headEmbedding;
     }
 
+    private static void reportLayoutProgress(final int n, final int nEpochs) {
+        if (n % Math.max(1, nEpochs / 100) != 0) {
+            return;
+        }
+        Scene scene = App.getAppScene();
+        Utils.message("Completed " + n + "/" + nEpochs);
+        double percentComplete = Double.valueOf(n) / Double.valueOf(nEpochs);
+        Platform.runLater(() -> {
+            ProgressStatus ps = new ProgressStatus(
+                "Optimizing Layout...", percentComplete);
+            ps.fillStartColor = Color.CYAN;
+            ps.fillEndColor = Color.NAVY;
+            ps.innerStrokeColor = Color.CYAN;
+            ps.outerStrokeColor = Color.NAVY;
+            scene.getRoot().fireEvent(
+                new ApplicationEvent(ApplicationEvent.UPDATE_BUSY_INDICATOR, ps));
+        });
+    }
+
     /**
      * Perform a fuzzy simplicial set embedding, using a specified
      * initialisation method and then minimizing the fuzzy set cross entropy
@@ -606,7 +627,7 @@ public class Umap {
 
         // so (head, tail, epochsPerSample) is like a CooMatrix
 
-        return optimizeLayout(embedding, embedding, head, tail, nEpochs, nVertices, epochsPerSample, a, b, random, gamma, initialAlpha, negativeSampleRate, verbose);
+        return optimizeLayout(embedding, embedding, head, tail, nEpochs, nVertices, epochsPerSample, a, b, random, gamma, initialAlpha, negativeSampleRate, mRunLayoutThreads, verbose);
     }
 
     /**
@@ -682,6 +703,8 @@ public class Umap {
     private boolean parallelPairwise = true;
     private Random mRandom = new Random(42);
     private int mThreads = 1;
+    private boolean mParallelLayout = true;
+    private int mRunLayoutThreads = 1;
     private double mInitialAlpha;
     private int mRunNNeighbors;
     private double mRunA;
@@ -1014,6 +1037,36 @@ public class Umap {
         mThreads = threads;
     }
 
+    /**
+     * Get the maximum number of threads to use.
+     *
+     * @return number of threads
+     */
+    public int getThreads() {
+        return mThreads;
+    }
+
+    /**
+     * Whether to optimize the layout with lock-free parallel SGD when more
+     * than one thread is available (default true). Parallel updates may
+     * interleave, so results vary between runs even with a fixed seed; set
+     * false (or use a single thread) for the reproducible serial optimizer.
+     *
+     * @param parallelLayout true for the parallel layout optimizer
+     */
+    public void setParallelLayout(final boolean parallelLayout) {
+        mParallelLayout = parallelLayout;
+    }
+
+    /**
+     * Whether the layout is optimized in parallel when more than one thread is available.
+     *
+     * @return true if the parallel layout optimizer is enabled
+     */
+    public boolean isParallelLayout() {
+        return mParallelLayout;
+    }
+
     /**
      * Set the cutoff threshold for metrics that utilize it (default 0.001).
      *
@@ -1053,10 +1106,18 @@ public class Umap {
      * @throws IllegalArgumentException if the matrix contains non-finite elements.
      */
     private void fit(Matrix instances, double[] y) {
+        fit(instances, y, mThreads);
+    }
+
+    private void fit(Matrix instances, double[] y, int layoutThreads) {
 
         if (!instances.isFinite()) {
             throw new IllegalArgumentException("Supplied matrix of instances contains non-finite elements");
         }
+        if (layoutThreads < 1) {
+            throw new IllegalArgumentException("layoutThreads must be at least 1");
+        }
+        mRunLayoutThreads = layoutThreads;
 
         UmapProgress.reset(5);
 
@@ -1235,6 +1296,22 @@ public class Umap {
         return fitTransform(new DefaultMatrix(instances), null).toArray();
     }
 
+    /**
+     * Fit instances into an embedded space using layoutThreads for the
+     * parallel SGD layout only. Nearest neighbor search and fuzzy simplicial
+     * set construction keep the configured {@link #getThreads()} and no
+     * setting of this Umap is changed.
+     *
+     * @param instances     array of shape <code>(nSamples, nFeatures)</code>
+     * @param layoutThreads number of threads for the layout optimization of this fit
+     * @return array of shape <code>(nSamples, nComponents)</code>
+     * Embedding of the training data in low-dimensional space.
+     */
+    public double[][] fitTransform(final double[][] instances, final int layoutThreads) {
+        fit(new DefaultMatrix(instances), null, layoutThreads);
+        return getmEmbedding().toArray();
+    }
+
     /**
      * Fit instances into an embedded space and return that transformed output.
      * This version internally converts all the doubles to doubles.
@@ -1276,6 +1353,23 @@ public class Umap {
      * @throws IllegalArgumentException If we fit just a single instance then error.
      */
     public Matrix transform(Matrix instances) {
+        return transform(instances, mNEpochs);
+    }
+
+    /**
+     * Transform instances into the existing embedded space using the given
+     * number of optimization epochs. Small epoch counts (10-30) are enough to
+     * settle a few new points against a fitted embedding and are what
+     * streaming callers such as {@link StreamingUmapProjector} use.
+     *
+     * @param instances array, shape <code>(nSamples, nFeatures)</code>
+     *                  New data to be transformed.
+     * @param epochs    number of optimization epochs, or null to choose by graph size
+     * @return array, shape <code>(nSamples, nComponents)</code>
+     * Embedding of the new data in low-dimensional space.
+     * @throws IllegalArgumentException If we fit just a single instance then error.
+     */
+    public Matrix transform(Matrix instances, final Integer epochs) {
         if (getmEmbedding().rows() == 1) {
             throw new IllegalArgumentException("Transform unavailable when model was fit with only a single data sample.");
         }
@@ -1332,7 +1426,7 @@ public class Umap {
         final Matrix embedding = initTransform(inds, weights, getmEmbedding());
 
         final int nEpochs;
-        if (mNEpochs == null) {
+        if (epochs == null) {
             // For smaller datasets we can use more epochs
             if (graph.rows() <= 10000) {
                 nEpochs = 100;
@@ -1340,7 +1434,7 @@ public class Umap {
                 nEpochs = 30;
             }
         } else {
-            nEpochs = mNEpochs; // 3.0
+            nEpochs = epochs; // 3.0
         }
 
         MathUtils.zeroEntriesBelowLimit(graph.data(), MathUtils.max(graph.data()) / (double) nEpochs);
@@ -1353,7 +1447,10 @@ public class Umap {
 
         UmapProgress.update();
         UmapProgress.incTotal(nEpochs);
-        final Matrix matrix = optimizeLayout(embedding, getmEmbedding().copy(), head, tail, nEpochs, graph.cols(), epochsPerSample, mRunA, mRunB, mRandom, mRepulsionStrength, mInitialAlpha, mNegativeSampleRate, mVerbose);
+        // The reference embedding is only moved when it has as many rows as the
+        // new data, otherwise it is read only and need not be copied.
+        final Matrix reference = embedding.rows() == getmEmbedding().rows() ? getmEmbedding().copy() : getmEmbedding();
+        final Matrix matrix = optimizeLayout(embedding, reference, head, tail, nEpochs, graph.cols(), epochsPerSample, mRunA, mRunB, mRandom, mRepulsionStrength, mInitialAlpha, mNegativeSampleRate, mThreads, mVerbose);
 
         UmapProgress.finished();
 
@@ -20,6 +20,11 @@ module edu.jhuapl.trinity {
     requires javafx.media;
     requires javafx.swing;
     requires jdk.httpserver;
+    // Optional SIMD histogram kernel: only resolved when launched with
+    // --add-modules jdk.incubator.vector, otherwise HistogramKernel falls back
+    // to its scalar loop. javac still reports "using incubating module(s)";
+    // that warning is expected and has no -Xlint key to silence it.
+    requires static jdk.incubator.vector;
     requires jflac.codec;
     requires lit.litfx.controls;
     requires lit.litfx.core;
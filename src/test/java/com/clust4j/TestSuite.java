@@ -41,6 +41,7 @@ import com.clust4j.data.TrainTestSplitTests;
 import com.clust4j.except.TestExcept;
 import com.clust4j.kernel.KernelTestCases;
 import com.clust4j.log.LogTest;
+import com.clust4j.metrics.pairwise.BlockedPairwiseTests;
 import com.clust4j.metrics.pairwise.HaversineTest;
 import com.clust4j.metrics.pairwise.PairwiseTests;
 import com.clust4j.metrics.pairwise.TestDistanceEnums;
@@ -70,6 +71,7 @@ import java.util.Random;
 @SelectClasses({
     AffinityPropagationTests.class,
     BootstrapTest.class,
+    BlockedPairwiseTests.class,
     BoruvkaTests.class,
     BufferedMatrixReaderTests.class,
     ClustTests.class,
@@ -27,6 +27,7 @@ import com.clust4j.except.ModelNotFitException;
 import com.clust4j.kernel.GaussianKernel;
 import com.clust4j.kernel.Kernel;
 import com.clust4j.kernel.KernelTestCases;
+import com.clust4j.metrics.pairwise.CondensedDistanceMatrix;
 import com.clust4j.metrics.pairwise.Distance;
 import com.clust4j.metrics.pairwise.DistanceMetric;
 import com.clust4j.metrics.pairwise.MinkowskiDistance;
@@ -603,6 +604,28 @@ public class HDBSCANTests implements ClusterTest, ClassifierTest, BaseModelTest
         assertTrue(MatUtils.equalsExactly(mr, expected));
     }
 
+    @Test
+    public void testCondensedLinkageMatchesDense() {
+        final double[][] X = iris.getData();
+        final int minPts = 5;
+        for (double alpha : new double[]{1.0, 1.5}) {
+            // the condensed matrix keeps float32; round the dense one the same way
+            final double[][] dense = Pairwise.getDistance(X, Distance.EUCLIDEAN, false, false);
+            for (double[] row : dense)
+                for (int j = 0; j < row.length; j++)
+                    row[j] = (float) row[j];
+            final double[][] mr = LinkageTreeUtils.mutualReachability(dense, minPts, alpha);
+            final double[][] expected = LinkageTreeUtils.minSpanTreeLinkageCore(mr, X.length);
+
+            final CondensedDistanceMatrix condensed = Pairwise.getCondensedDistance(X, Distance.EUCLIDEAN, false);
+            final double[] core = LinkageTreeUtils.coreDistances(condensed, minPts);
+            assertTrue(VecUtils.equalsExactly(core, MatUtils.sortColsAsc(dense)[minPts]));
+
+            final double[][] streamed = LinkageTreeUtils.minSpanTreeLinkageCore(condensed, core, alpha);
+            assertTrue(MatUtils.equalsExactly(streamed, expected));
+        }
+    }
+
     @Test
     public void testGenericAlgo() {
         HDBSCAN h = new HDBSCAN(iris,
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ *    Original Copyright 2015, 2016 Taylor G Smith
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package com.clust4j.metrics.pairwise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockedPairwiseTests {
+
+    static double[][] random(int m, int n, long seed) {
+        final Random rand = new Random(seed);
+        final double[][] X = new double[m][n];
+        for (double[] row : X)
+            for (int j = 0; j < n; j++)
+                row[j] = rand.nextGaussian();
+        return X;
+    }
+
+    @Test
+    public void testIndexMatchesRowMajorOrder() {
+        final int m = 7;
+        long r = 0;
+        for (int i = 0; i < m - 1; i++)
+            for (int j = i + 1; j < m; j++, r++) {
+                assertEquals(r, CondensedDistanceMatrix.index(m, i, j));
+                assertEquals(r, CondensedDistanceMatrix.index(m, j, i));
+            }
+        assertEquals(CondensedDistanceMatrix.length(m), r);
+
+        // past the int overflow of m * i
+        assertEquals(CondensedDistanceMatrix.length(60000) - 1,
+            CondensedDistanceMatrix.index(60000, 59998, 59999));
+        assertThrows(IllegalArgumentException.class, () -> CondensedDistanceMatrix.index(m, 3, 3));
+    }
+
+    @Test
+    public void testEachPairVisitedOnce() {
+        // not a multiple of the tile size, several tiles per side
+        final double[][] X = random(1237, 100, 3);
+        final int[][] hits = new int[X.length][X.length];
+        final AtomicLong count = new AtomicLong();
+        BlockedPairwise.forEachPair(X, Distance.MANHATTAN, false, 1.0, (i, j, d) -> {
+            hits[i][j]++;
+            count.incrementAndGet();
+        });
+
+        assertEquals(CondensedDistanceMatrix.length(X.length), count.get());
+        for (int i = 0; i < X.length; i++)
+            for (int j = 0; j < X.length; j++)
+                assertEquals(i < j ? 1 : 0, hits[i][j]);
+    }
+
+    @Test
+    public void testCondensedMatchesDense() {
+        final double[][] X = random(613, 5, 11);
+        final double[][] dense = Pairwise.getDistance(X, Distance.EUCLIDEAN, false, false);
+
+        for (CondensedDistanceMatrix.Storage storage : new CondensedDistanceMatrix.Storage[]{
+            CondensedDistanceMatrix.Storage.HEAP, CondensedDistanceMatrix.Storage.OFF_HEAP}) {
+            final CondensedDistanceMatrix condensed = BlockedPairwise.getDistance(X, Distance.EUCLIDEAN, false, storage);
+            assertEquals(storage == CondensedDistanceMatrix.Storage.OFF_HEAP, condensed.isOffHeap());
+            assertEquals((CondensedDistanceMatrix.length(X.length) + X.length) * 4, condensed.bytes());
+
+            final double[] row = new double[X.length];
+            for (int i = 0; i < X.length; i++) {
+                condensed.getRow(i, row);
+                for (int j = 0; j < X.length; j++) {
+                    assertEquals((float) dense[i][j], row[j], 0.0);
+                    assertEquals(row[j], condensed.get(j, i), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAutoStorageStaysOnHeapWhenSmall() {
+        final CondensedDistanceMatrix condensed = Pairwise.getCondensedDistance(random(10, 2, 1), Distance.EUCLIDEAN, true);
+        assertFalse(condensed.isOffHeap());
+        assertTrue(condensed.get(0, 0) == 0.0);
+        assertEquals(10, condensed.size());
+    }
+}
@@ -0,0 +1,190 @@
+package edu.jhuapl.trinity.data;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class TrajectoryStoreTest {
+    private static final Logger LOG = LoggerFactory.getLogger(TrajectoryStoreTest.class);
+
+    private static double[] helix(int i, Random rnd) {
+        double a = i * 0.001;
+        return new double[]{100 * Math.cos(a) + rnd.nextGaussian() * 0.01,
+            100 * Math.sin(a) + rnd.nextGaussian() * 0.01, i * 0.0005, i % 7};
+    }
+
+    private static double segmentDistance(double[] a, double[] b, double[] p) {
+        double abab = 0, apab = 0;
+        for (int d = 0; d < 3; d++) {
+            abab += (b[d] - a[d]) * (b[d] - a[d]);
+            apab += (p[d] - a[d]) * (b[d] - a[d]);
+        }
+        double t = abab > 0 ? Math.max(0, Math.min(1, apab / abab)) : 0;
+        double sum = 0;
+        for (int d = 0; d < 3; d++) {
+            double e = p[d] - (a[d] + t * (b[d] - a[d]));
+            sum += e * e;
+        }
+        return Math.sqrt(sum);
+    }
+
+    @Test
+    public void testBoundsWindowsAndLevels() throws Exception {
+        LOG.info("bounds, time windows and decimation error against brute force");
+        Random rnd = new Random(3);
+        int n = 100_000;
+        double[][] states = new double[n][];
+        double[] times = new double[n];
+        for (int i = 0; i < n; i++) {
+            states[i] = helix(i, rnd);
+            times[i] = i;
+        }
+        TrajectoryStore store = new TrajectoryStore(4);
+        store.appendAll(times, states);
+        assertEquals(n, store.size());
+        //raw windows are complete while the levels are still being built
+        assertEquals(n, store.slice(0, n, 0).count());
+        for (int d = 0; d < 4; d++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            int argMin = -1, argMax = -1;
+            for (int i = 0; i < n; i++) {
+                if (states[i][d] < min) {
+                    min = states[i][d];
+                    argMin = i;
+                }
+                if (states[i][d] > max) {
+                    max = states[i][d];
+                    argMax = i;
+                }
+            }
+            assertEquals(min, store.getMin(d));
+            assertEquals(max, store.getMax(d));
+            assertEquals(max - min, store.getRange(d));
+            assertEquals(argMin, store.argMin(d));
+            assertEquals(argMax, store.argMax(d));
+        }
+        store.awaitLevels();
+        assertArrayEquals(states[12345], store.state(12345));
+
+        TrajectoryStore.Slice raw = store.query(2500, 3009.5, 0);
+        assertEquals(510, raw.count());
+        assertArrayEquals(states[2500], raw.state(0));
+        assertArrayEquals(states[3009], raw.state(509));
+
+        int previous = Integer.MAX_VALUE;
+        for (int level = 1; level <= store.getLevels(); level++) {
+            int from = 777, to = 95_000;
+            TrajectoryStore.Slice slice = store.slice(from, to, level);
+            LOG.info("level {} tolerance {} keeps {} of {}", level, store.tolerance(level), slice.count(), to - from);
+            assertTrue(slice.count() < previous);
+            previous = slice.count();
+            assertEquals(from, slice.times()[0]);
+            assertEquals(to - 1, slice.times()[slice.count() - 1]);
+            //every skipped state lies within tolerance of the segment that replaced it
+            double worst = 0;
+            for (int k = 0; k + 1 < slice.count(); k++) {
+                int a = (int) slice.times()[k], b = (int) slice.times()[k + 1];
+                assertArrayEquals(states[a], slice.state(k));
+                for (int i = a + 1; i < b; i++)
+                    worst = Math.max(worst, segmentDistance(states[a], states[b], states[i]));
+            }
+            assertTrue(worst <= store.tolerance(level) * (1 + 1e-9), "level " + level + " error " + worst);
+        }
+        assertEquals(0, store.levelFor(store.tolerance(1) * 0.5));
+        assertEquals(3, store.levelFor(store.tolerance(3) * 1.5));
+        int budget = store.levelForBudget(0, n, 5000);
+        assertTrue(budget > 0);
+        assertTrue(store.slice(0, n, budget).count() <= 5000 * 1.1);
+
+        //runs of equal times resolve to their whole run at both window edges
+        TrajectoryStore runs = new TrajectoryStore(1);
+        for (int i = 0; i < 100; i++) runs.append(i / 10, new double[]{i});
+        assertEquals(20, runs.indexAtOrAfter(2.0));
+        assertEquals(40, runs.indexAfter(3.0));
+        assertEquals(20, runs.query(2.0, 3.0, 0).count());
+
+        assertThrows(IllegalArgumentException.class, () -> store.append(1.0, new double[4]));
+        assertThrows(IllegalArgumentException.class, () -> store.append(Double.NaN, new double[4]));
+        assertThrows(IllegalArgumentException.class, () -> store.append(1e9, new double[3]));
+        assertEquals(n, store.size());
+    }
+
+    @Test
+    public void testConcurrentAppendAndRead() throws Exception {
+        LOG.info("reader queries while a feed appends two million states");
+        TrajectoryStore store = new TrajectoryStore(3);
+        int n = 2_000_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread feed = new Thread(() -> {
+            Random rnd = new Random(11);
+            for (int i = 0; i < n; i++) {
+                double[] s = helix(i, rnd);
+                store.append(i * 0.01, new double[]{s[0], s[1], s[2]});
+            }
+        });
+        long start = System.nanoTime();
+        feed.start();
+        int reads = 0;
+        try {
+            while (feed.isAlive() || reads == 0) {
+                int size = store.size();
+                if (size == 0) continue;
+                double t1 = store.time(size - 1);
+                TrajectoryStore.Slice slice = store.query(t1 - 500, t1, store.levelFor(1.0));
+                for (int i = 1; i < slice.count(); i++)
+                    assertTrue(slice.times()[i] > slice.times()[i - 1]);
+                assertTrue(slice.times()[slice.count() - 1] >= t1);
+                assertTrue(store.getMin(0) <= store.getMax(0));
+                reads++;
+            }
+        } catch (Throwable t) {
+            failure.set(t);
+        }
+        feed.join();
+        if (null != failure.get()) throw new AssertionError(failure.get());
+        LOG.info("{} states and {} windowed reads in {} ms", store.size(), reads,
+            (System.nanoTime() - start) / 1_000_000);
+        assertEquals(n, store.size());
+        assertEquals(n - 1, store.indexAtOrAfter((n - 1) * 0.01));
+    }
+
+    @Test
+    public void testTrajectoryStore() {
+        LOG.info("trajectory bounds come from its store");
+        ArrayList<double[]> states = new ArrayList<>();
+        ArrayList<Double> times = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            states.add(new double[]{i, -2 * i, i % 5});
+            times.add(i < 10 ? i * 1.0 : 3.0); //out of order times are clamped
+        }
+        Trajectory trajectory = new Trajectory("test", states, times);
+        assertEquals(49.0, trajectory.getRangeX());
+        assertEquals(98.0, trajectory.getRangeY());
+        assertEquals(4.0, trajectory.getRangeZ());
+        assertEquals(49.0, trajectory.getMaxXState()[0]);
+        assertEquals(-98.0, trajectory.getMinYState()[1]);
+        assertEquals(9.0, trajectory.getStore().time(49));
+        trajectory.appendState(10.0, new double[]{100, 0, 0});
+        assertEquals(100.0, trajectory.getRangeX());
+        trajectory.appendState(new double[]{-1, 0, 0});
+        assertEquals(52, trajectory.getStateCount());
+        assertEquals(11.0, trajectory.getStore().time(51));
+        assertArrayEquals(new double[]{-1, 0, 0}, trajectory.getStates().get(51));
+        assertThrows(UnsupportedOperationException.class, () -> trajectory.getStates().add(new double[3]));
+        trajectory.setStates(states, times);
+        assertEquals(50, trajectory.getStateCount());
+        assertEquals(49.0, trajectory.getRangeX());
+    }
+}
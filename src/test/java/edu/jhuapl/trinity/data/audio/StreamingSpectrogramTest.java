@@ -0,0 +1,107 @@
+package edu.jhuapl.trinity.data.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Sean Phillips
+ */
+public class StreamingSpectrogramTest {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingSpectrogramTest.class);
+
+    /**
+     * 16 bit stereo wav of a sine on the left and silence on the right, with a LIST chunk before the data.
+     */
+    private static void writeWav(File file, int sampleRate, int samples, double hz) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            int dataBytes = samples * 4;
+            out.writeBytes("RIFF");
+            out.writeInt(Integer.reverseBytes(4 + 8 + 16 + 8 + 4 + 8 + dataBytes));
+            out.writeBytes("WAVE");
+            out.writeBytes("fmt ");
+            out.writeInt(Integer.reverseBytes(16));
+            out.writeShort(Short.reverseBytes((short) 1));
+            out.writeShort(Short.reverseBytes((short) 2));
+            out.writeInt(Integer.reverseBytes(sampleRate));
+            out.writeInt(Integer.reverseBytes(sampleRate * 4));
+            out.writeShort(Short.reverseBytes((short) 4));
+            out.writeShort(Short.reverseBytes((short) 16));
+            out.writeBytes("LIST");
+            out.writeInt(Integer.reverseBytes(4));
+            out.writeBytes("INFO");
+            out.writeBytes("data");
+            out.writeInt(Integer.reverseBytes(dataBytes));
+            for (int i = 0; i < samples; i++) {
+                short v = (short) Math.round(16000 * Math.sin(2 * Math.PI * hz * i / sampleRate));
+                out.writeShort(Short.reverseBytes(v));
+                out.writeShort(0);
+            }
+        }
+    }
+
+    @Test
+    public void testOverlappedFramesMatchDirectFFT(@TempDir Path dir) throws Exception {
+        LOG.info("parallel overlapped STFT against a single threaded FFT");
+        File wav = dir.resolve("tone.wav").toFile();
+        int rate = 22050, samples = 300_000, window = 512, hop = 128;
+        double hz = 1722.65625; // bin 40 at 22050 Hz / 512
+        writeWav(wav, rate, samples, hz);
+
+        StreamingSpectrogram spectrogram = new StreamingSpectrogram(window, hop);
+        float[][] all = new float[(int) spectrogram.frameCount(samples)][];
+        AtomicLong expectedNext = new AtomicLong();
+        long frames = spectrogram.process(wav, (first, spectra) -> {
+            assertEquals(expectedNext.get(), first);
+            expectedNext.addAndGet(spectra.length);
+            for (int k = 0; k < spectra.length; k++) all[(int) first + k] = spectra[k];
+        });
+        assertEquals(all.length, frames);
+        assertEquals(rate, spectrogram.getSampleRate());
+        assertEquals(2, spectrogram.getChannels());
+        assertEquals(samples, spectrogram.getTotalSamples());
+
+        //reference: mono samples as the decoder sees them, one FFT per frame
+        float[] mono = new float[samples + window];
+        for (int i = 0; i < samples; i++)
+            mono[i] = (short) Math.round(16000 * Math.sin(2 * Math.PI * hz * i / rate)) / 32768f / 2f;
+        FFT fft = new FFT(window, rate);
+        fft.window(FFT.HANN);
+        float[] frame = new float[window];
+        for (int f : new int[]{0, 1, 511, 512, 513, 1500, all.length - 2, all.length - 1}) {
+            System.arraycopy(mono, f * hop, frame, 0, window);
+            fft.forward(frame);
+            assertArrayEquals(fft.getSpectrum(), all[f], 1e-4f);
+        }
+        int peak = 0;
+        for (int i = 1; i < all[100].length; i++)
+            if (all[100][i] > all[100][peak]) peak = i;
+        assertEquals(40, peak);
+    }
+
+    @Test
+    public void testLongRecording(@TempDir Path dir) throws Exception {
+        LOG.info("ten minute 44.1 kHz stereo wav");
+        File wav = dir.resolve("long.wav").toFile();
+        int rate = 44100, samples = rate * 600;
+        writeWav(wav, rate, samples, 440.0);
+        StreamingSpectrogram spectrogram = new StreamingSpectrogram();
+        long start = System.nanoTime();
+        long frames = spectrogram.process(wav, (first, spectra) -> {
+        });
+        LOG.info("{} frames in {} ms", frames, (System.nanoTime() - start) / 1_000_000);
+        assertEquals(spectrogram.frameCount(samples), frames);
+    }
+}
@@ -0,0 +1,85 @@
+package edu.jhuapl.trinity.data.files;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class FeatureCollectionStreamParserTest {
+    private static final Logger LOG = LoggerFactory.getLogger(FeatureCollectionStreamParserTest.class);
+
+    public FeatureCollectionStreamParserTest() {
+    }
+
+    /**
+     * Test of parse method, of class FeatureCollectionStreamParser.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testParseMatchesObjectMapper() throws Exception {
+        LOG.info("parse");
+        FeatureCollection fc = new FeatureCollection();
+        ArrayList<String> labels = new ArrayList<>(List.of("x", "y", "z"));
+        fc.setDimensionLabels(labels);
+        fc.setVersion("1.0");
+        for (int i = 0; i < 25; i++) {
+            FeatureVector fv = new FeatureVector(List.of(i * 1.0, i * 2.0, i * -0.5), "label" + (i % 3));
+            fv.setScore(i / 10.0);
+            fc.getFeatures().add(fv);
+        }
+        byte[] json = new ObjectMapper().writeValueAsBytes(fc);
+
+        AtomicInteger batches = new AtomicInteger();
+        AtomicLong lastBytes = new AtomicLong();
+        FeatureCollectionStreamParser parser = new FeatureCollectionStreamParser(10, (batch, bytesRead, totalBytes) -> {
+            batches.incrementAndGet();
+            assertTrue(bytesRead >= lastBytes.get());
+            assertTrue(bytesRead <= totalBytes);
+            lastBytes.set(bytesRead);
+        });
+        FeatureCollection result = parser.parse(new ByteArrayInputStream(json), json.length);
+
+        assertEquals(FeatureCollection.TYPESTRING, result.getType());
+        assertEquals("1.0", result.getVersion());
+        assertEquals(labels, result.getDimensionLabels());
+        assertEquals(fc.getFeatures().size(), result.getFeatures().size());
+        assertEquals(3, batches.get());
+        for (int i = 0; i < fc.getFeatures().size(); i++) {
+            FeatureVector expected = fc.getFeatures().get(i);
+            FeatureVector actual = result.getFeatures().get(i);
+            assertEquals(expected.getData(), actual.getData());
+            assertEquals(expected.getLabel(), actual.getLabel());
+            assertEquals(expected.getEntityId(), actual.getEntityId());
+            assertEquals(expected.getScore(), actual.getScore());
+        }
+    }
+
+    @Test
+    public void testParseFeaturesBeforeTypeAndUnknownFields() throws Exception {
+        LOG.info("parse out of order");
+        String json = "{\"features\":[{\"data\":[1.0,2.0],\"extra\":{\"a\":[1,2]}},null,{\"data\":[3.0,4.0]}],"
+            + "\"unknown\":{\"nested\":[1,2,3]},\"type\":\"FeatureCollection\"}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        FeatureCollection result = new FeatureCollectionStreamParser()
+            .parse(new ByteArrayInputStream(bytes), bytes.length);
+        assertEquals(FeatureCollection.TYPESTRING, result.getType());
+        assertEquals(2, result.getFeatures().size());
+        assertEquals(List.of(3.0, 4.0), result.getFeatures().get(1).getData());
+    }
+}
@@ -0,0 +1,116 @@
+package edu.jhuapl.trinity.data.files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class FileSnifferTest {
+    private static final Logger LOG = LoggerFactory.getLogger(FileSnifferTest.class);
+
+    @TempDir
+    Path tempDir;
+
+    public FileSnifferTest() {
+    }
+
+    private static String bigFeatures(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append("{\"messageType\":\"feature_vector\",\"data\":[0.1,0.2,0.3,0.4,0.5]}");
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    public void testTypeInHead() throws Exception {
+        LOG.info("sniff type in head");
+        Path path = tempDir.resolve("head.json");
+        Files.writeString(path, "{\"type\":\"FeatureCollection\",\"features\":" + bigFeatures(5000) + "}");
+        assertTrue(Files.size(path) > FileSniffer.HEAD_BYTES);
+        FileSniffer.Sniff sniff = FileSniffer.sniff(path.toFile());
+        assertTrue(sniff.json());
+        assertEquals("FeatureCollection", sniff.type());
+        assertTrue(sniff.hasTopLevelField("features"));
+        assertTrue(sniff.head().length() <= FileSniffer.HEAD_BYTES);
+        assertEquals(Optional.of(DroppedFileType.FEATURE_COLLECTION), DroppedFileType.detect(path.toFile()));
+        assertTrue(FeatureCollectionFile.isFeatureCollectionFile(path.toFile()));
+        assertFalse(ShapleyCollectionFile.isShapleyCollectionFile(path.toFile()));
+    }
+
+    @Test
+    public void testTypeAfterLargeArray() throws Exception {
+        LOG.info("sniff type in tail");
+        Path path = tempDir.resolve("tail.json");
+        Files.writeString(path, "{\"features\":" + bigFeatures(5000) + ",\n  \"type\": \"FeatureCollection\"\n}\n");
+        FileSniffer.Sniff sniff = FileSniffer.sniff(path.toFile());
+        assertEquals("FeatureCollection", sniff.type());
+        assertEquals(Optional.of(DroppedFileType.FEATURE_COLLECTION), DroppedFileType.detect(path.toFile()));
+    }
+
+    @Test
+    public void testNestedTypeInTailIsIgnored() throws Exception {
+        LOG.info("sniff nested type in tail");
+        Path path = tempDir.resolve("nested.json");
+        Files.writeString(path, "{\"features\":" + bigFeatures(5000) + "}");
+        FileSniffer.Sniff sniff = FileSniffer.sniff(path.toFile());
+        assertTrue(sniff.json());
+        assertNull(sniff.type());
+        assertNull(sniff.messageType());
+        assertEquals(Optional.empty(), DroppedFileType.detect(path.toFile()));
+    }
+
+    @Test
+    public void testKeyAfterLargeArray() throws Exception {
+        LOG.info("sniff keys beyond the head and tail windows");
+        StringBuilder images = new StringBuilder("[");
+        for (int i = 0; i < 40_000; i++) {
+            if (i > 0)
+                images.append(',');
+            images.append("{\"id\":").append(i).append(",\"file_name\":\"img").append(i).append(".jpg\"}");
+        }
+        images.append(']');
+        Path path = tempDir.resolve("coco.json");
+        Files.writeString(path, "{\"categories\":[],\"images\":" + images
+            + ",\"annotations\":[],\"info\":{\"description\":\"" + "x".repeat(2 * FileSniffer.TAIL_BYTES) + "\"}}");
+        assertTrue(Files.size(path) > 1024 * 1024);
+        FileSniffer.Sniff sniff = FileSniffer.sniff(path.toFile());
+        assertFalse(sniff.headOrTailContains("annotations"));
+        assertTrue(sniff.containsAll("categories", "annotations"));
+        assertFalse(sniff.containsAll("annotations", "clusters"));
+        assertEquals(Optional.of(DroppedFileType.COCO_ANNOTATION), DroppedFileType.detect(path.toFile()));
+
+        Path clusters = tempDir.resolve("clusters.json");
+        Files.writeString(clusters, "{\"type\":\"ClusterCollection\",\"clusters\":[]}");
+        assertTrue(ClusterCollectionFile.isClusterCollectionFile(clusters.toFile()));
+        Files.writeString(clusters, "{\"type\":\"ClusterCollection\",\"items\":[]}");
+        assertFalse(ClusterCollectionFile.isClusterCollectionFile(clusters.toFile()));
+    }
+
+    @Test
+    public void testCsvFirstLine() throws Exception {
+        LOG.info("sniff csv");
+        Path path = tempDir.resolve("cdc.csv");
+        Files.writeString(path, CdcCsvFile.FILE_DESC + ",extra\r\n1,2,3,4\n");
+        File file = path.toFile();
+        FileSniffer.Sniff sniff = FileSniffer.sniff(file);
+        assertFalse(sniff.json());
+        assertEquals(CdcCsvFile.FILE_DESC + ",extra", sniff.firstLine());
+        assertEquals(Optional.of(DroppedFileType.CDC_CSV), DroppedFileType.detect(file));
+    }
+}
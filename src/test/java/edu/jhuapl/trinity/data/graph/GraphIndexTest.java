@@ -0,0 +1,102 @@
+package edu.jhuapl.trinity.data.graph;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class GraphIndexTest {
+    private static final Logger LOG = LoggerFactory.getLogger(GraphIndexTest.class);
+
+    private static GraphEdge edge(String a, String b, Double w) {
+        GraphEdge e = new GraphEdge();
+        e.setStartID(a);
+        e.setEndID(b);
+        e.setWeight(w);
+        return e;
+    }
+
+    private static GraphDirectedCollection graph(int n, List<GraphEdge> edges) {
+        List<GraphNode> nodes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            GraphNode node = new GraphNode();
+            node.setEntityID("n" + i);
+            nodes.add(node);
+        }
+        GraphDirectedCollection gc = new GraphDirectedCollection();
+        gc.setNodes(nodes);
+        gc.setEdges(edges);
+        return gc;
+    }
+
+    @Test
+    public void testAdjacencyAndRows() {
+        LOG.info("CSR adjacency and rows");
+        List<GraphEdge> edges = new ArrayList<>();
+        edges.add(edge("n0", "n1", 0.5));
+        edges.add(edge("n2", "n0", null));
+        edges.add(edge("n1", "n0", -0.9));
+        edges.add(edge("n3", "missing", 2.0));
+        GraphDirectedCollection gc = graph(4, edges);
+        GraphIndex index = gc.getIndex();
+
+        assertEquals(3, index.edgeCount());
+        assertEquals(3, index.degree(0));
+        assertEquals(2, index.degree(1));
+        assertEquals(0, index.degree(3));
+        assertEquals(3, index.maxDegree());
+        assertEquals(-0.9f, index.minWeight());
+        assertEquals(1.0f, index.maxWeight());
+        assertEquals(0.5 + 1.0 - 0.9, index.strength(0), 1e-6);
+        assertArrayEquals(new double[]{0.0, -0.9f, 1.0, 0.0}, index.row(0, new double[4]), 1e-9);
+        assertEquals("n2", gc.findNodeById("n2").orElseThrow().getEntityID());
+        assertTrue(gc.findNodeById("missing").isEmpty());
+
+        //replacing the edges rebuilds the index
+        gc.setEdges(new ArrayList<>());
+        assertEquals(0, gc.getIndex().degree(0));
+    }
+
+    @Test
+    public void testLargeGraphLookups() {
+        LOG.info("20k node graph");
+        int n = 20_000, m = 200_000;
+        Random rnd = new Random(9);
+        List<GraphEdge> edges = new ArrayList<>(m);
+        for (int e = 0; e < m; e++) {
+            edges.add(edge("n" + rnd.nextInt(n), "n" + rnd.nextInt(n), rnd.nextDouble()));
+        }
+        GraphDirectedCollection gc = graph(n, edges);
+        long start = System.nanoTime();
+        GraphIndex index = gc.getIndex();
+        LOG.info("index built in {} ms, mean degree {}", (System.nanoTime() - start) / 1_000_000,
+            index.meanDegree());
+
+        start = System.nanoTime();
+        double[] row = new double[n];
+        for (int i = 0; i < 1000; i++) index.row(rnd.nextInt(n), row);
+        LOG.info("1000 rows in {} ms", (System.nanoTime() - start) / 1_000_000);
+
+        int total = 0;
+        for (int i = 0; i < n; i++) total += index.degree(i);
+        assertEquals(2 * m, total + selfLoops(edges));
+    }
+
+    private static int selfLoops(List<GraphEdge> edges) {
+        int loops = 0;
+        for (GraphEdge e : edges) {
+            if (e.getStartID().equals(e.getEndID())) loops++;
+        }
+        return loops;
+    }
+}
@@ -0,0 +1,92 @@
+package edu.jhuapl.trinity.data.messages.xai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class FeatureVectorTest {
+    private static final Logger LOG = LoggerFactory.getLogger(FeatureVectorTest.class);
+
+    public FeatureVectorTest() {
+    }
+
+    @Test
+    public void testListView() {
+        LOG.info("list view");
+        FeatureVector fv = new FeatureVector(List.of(1.0, -2.0, 3.0));
+        List<Double> data = fv.getData();
+        data.add(4.0);
+        data.set(1, -5.0);
+        data.add(0, 0.5);
+        assertEquals(List.of(0.5, 1.0, -5.0, 3.0, 4.0), data);
+        assertEquals(new ArrayList<>(List.of(0.5, 1.0, -5.0, 3.0, 4.0)).hashCode(), data.hashCode());
+        assertEquals("[0.5, 1.0, -5.0, 3.0, 4.0]", data.toString());
+        assertEquals(3.0, data.remove(3));
+        assertArrayEquals(new double[]{0.5, 1.0, -5.0, 4.0}, fv.dataArray());
+        assertEquals(-5.0, fv.getMin());
+        assertEquals(4.0, fv.getMax());
+        assertEquals(5.0, fv.getData().maxAbs());
+        data.clear();
+        assertTrue(fv.getData().isEmpty());
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        LOG.info("json round trip");
+        ObjectMapper mapper = new ObjectMapper();
+        FeatureVector fv = new FeatureVector(List.of(0.25, -1.5, 2.0), "label");
+        String json = mapper.writeValueAsString(fv);
+        assertTrue(json.contains("\"data\":[0.25,-1.5,2.0]"));
+        assertFalse(json.contains("dataArray"));
+        FeatureVector read = mapper.readValue(json, FeatureVector.class);
+        assertEquals(fv.getData(), read.getData());
+        assertEquals("label", read.getLabel());
+        assertFalse(read.getData().isFloat32());
+    }
+
+    @Test
+    public void testFloat32Storage() throws Exception {
+        LOG.info("float32 storage");
+        FeatureVector.setFloat32Storage(true);
+        try {
+            FeatureVector read = new ObjectMapper().readValue(
+                "{\"messageType\":\"feature_vector\",\"data\":[0.1,0.2,0.3]}", FeatureVector.class);
+            assertTrue(read.getData().isFloat32());
+            assertEquals(3, read.dataSize());
+            assertEquals(0.2f, (float) read.dataValue(1));
+            FeatureVector empty = FeatureVector.EMPTY_FEATURE_VECTOR("empty", 4);
+            assertTrue(empty.getData().isFloat32());
+            assertEquals(List.of(0.0, 0.0, 0.0, 0.0), empty.getData());
+        } finally {
+            FeatureVector.setFloat32Storage(false);
+        }
+        FeatureVector fv = new FeatureVector(List.of(1.0, 2.0));
+        fv.toFloat32();
+        assertTrue(fv.getData().isFloat32());
+        assertArrayEquals(new float[]{1.0f, 2.0f}, fv.getData().toFloatArray());
+    }
+
+    @Test
+    public void testMeanVector() {
+        LOG.info("mean vector");
+        List<FeatureVector> vectors = new ArrayList<>();
+        vectors.add(new FeatureVector(List.of(1.0, 2.0)));
+        vectors.add(null);
+        vectors.add(new FeatureVector(List.of(3.0, -6.0)));
+        List<Double> mean = FeatureVector.getMeanVector(vectors);
+        assertEquals(List.of(2.0, -2.0), mean);
+        assertEquals(4.0, FeatureVector.getMeanCenteredMaxAbsValue(vectors, mean));
+    }
+}
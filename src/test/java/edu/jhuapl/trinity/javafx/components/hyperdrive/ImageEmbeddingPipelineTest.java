@@ -0,0 +1,153 @@
+package edu.jhuapl.trinity.javafx.components.hyperdrive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import edu.jhuapl.trinity.data.messages.llm.EmbeddingsImageBatchInput;
+import edu.jhuapl.trinity.data.messages.llm.EmbeddingsImageUrl;
+import edu.jhuapl.trinity.data.messages.llm.ImageUrl;
+import edu.jhuapl.trinity.messages.JsonArrayBodyStream;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class ImageEmbeddingPipelineTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ImageEmbeddingPipelineTest.class);
+
+    private static BufferedImage gradient(int w, int h, int seed) {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) image.setRGB(x, y, 0xFF000000 | (x * seed) << 8 | y);
+        }
+        return image;
+    }
+
+    @Test
+    public void testStreamedBodyAgainstStandInServer() throws Exception {
+        LOG.info("streamed request body parsed by a stand-in embedding server");
+        ObjectMapper mapper = new ObjectMapper();
+        AtomicReference<EmbeddingsImageBatchInput> received = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/embeddings", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                received.set(mapper.readValue(in, EmbeddingsImageBatchInput.class));
+            }
+            byte[] ok = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, ok.length);
+            exchange.getResponseBody().write(ok);
+            exchange.close();
+        });
+        server.start();
+        ImageEncodingPipeline pipeline = new ImageEncodingPipeline(2, 2);
+        try {
+            List<CompletableFuture<byte[]>> items = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                BufferedImage image = ImageEncodingPipeline.resize(gradient(300, 200, i + 1), 64);
+                assertEquals(64, image.getWidth());
+                items.add(CompletableFuture.supplyAsync(() -> ImageEncodingPipeline.encodeElement(image)));
+            }
+            //an unreadable image is left out of the body
+            items.add(2, pipeline.submit(new java.io.File("does-not-exist.png")));
+
+            EmbeddingsImageBatchInput template = new EmbeddingsImageBatchInput();
+            template.setModel("stand-in");
+            template.setDimensions(512);
+            byte[][] parts = JsonArrayBodyStream.splitTemplate(mapper.writeValueAsString(template), "input");
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/embeddings"))
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new JsonArrayBodyStream(parts[0], items, parts[1])))
+                .build();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+
+            EmbeddingsImageBatchInput parsed = received.get();
+            assertEquals("stand-in", parsed.getModel());
+            assertEquals(6, parsed.getInput().size());
+            //ids stay aligned with the elements that were sent
+            assertEquals(List.of(0, 1, 3, 4, 5, 6),
+                JsonArrayBodyStream.written(List.of(0, 1, 2, 3, 4, 5, 6), items));
+
+            //elements match what Jackson writes for EmbeddingsImageUrl
+            byte[] first = items.get(0).join();
+            EmbeddingsImageUrl expected = new EmbeddingsImageUrl();
+            ImageUrl url = new ImageUrl();
+            url.setUrl(parsed.getInput().get(0).getImage_url().getUrl());
+            expected.setImage_url(url);
+            assertEquals(mapper.writeValueAsString(expected), new String(first, StandardCharsets.US_ASCII));
+        } finally {
+            pipeline.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testAdaptiveConcurrencyTracksServerCapacity() throws Exception {
+        LOG.info("AIMD concurrency against a stand-in server with 4 slots");
+        final int capacity = 4, batches = 300;
+        ScheduledExecutorService standIn = Executors.newScheduledThreadPool(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger launched = new AtomicInteger();
+        //in-flight count seen by each request in the second half, after the limit has settled
+        AtomicLong settledSum = new AtomicLong();
+        AtomicInteger settledCount = new AtomicInteger();
+        AtomicInteger settledPeak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(batches);
+        AtomicInteger ids = new AtomicInteger();
+        AtomicReference<BatchRequestManager<Integer>> ref = new AtomicReference<>();
+        BatchRequestManager<Integer> manager = new BatchRequestManager<>(32, 10_000, 0,
+            ids::getAndIncrement, ids::getAndIncrement,
+            (batch, batchNum, reqId) -> () -> {
+                int now = active.incrementAndGet();
+                if (launched.incrementAndGet() > batches / 2) {
+                    settledSum.addAndGet(now);
+                    settledCount.incrementAndGet();
+                    settledPeak.accumulateAndGet(now, Math::max);
+                }
+                //requests past capacity queue behind the busy slots
+                long latency = 10L * Math.max(1, now - capacity + 1);
+                standIn.schedule(() -> {
+                    active.decrementAndGet();
+                    ref.get().completeSuccess(reqId, batchNum, batch, 0);
+                }, latency, TimeUnit.MILLISECONDS);
+            },
+            result -> done.countDown());
+        ref.set(manager);
+        manager.setAdaptiveConcurrency(true);
+        List<Integer> work = new ArrayList<>();
+        for (int i = 0; i < batches; i++) work.add(i);
+        manager.enqueue(work);
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        double settledMean = (double) settledSum.get() / settledCount.get();
+        LOG.info("settled mean concurrency {}, settled peak {}, final limit {}",
+            settledMean, settledPeak.get(), manager.getConcurrencyLimit());
+        assertTrue(settledMean >= capacity / 2.0 && settledMean <= 2.0 * capacity, "mean " + settledMean);
+        assertTrue(settledPeak.get() <= 3 * capacity, "peak " + settledPeak.get());
+        assertTrue(manager.getConcurrencyLimit() <= 3 * capacity);
+        manager.shutdown();
+        standIn.shutdownNow();
+    }
+}
@@ -0,0 +1,165 @@
+package edu.jhuapl.trinity.javafx.services;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class MappedFeatureVectorRepositoryTest {
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFeatureVectorRepositoryTest.class);
+
+    @TempDir
+    Path root;
+
+    private static List<FeatureVector> vectors(int count, String prefix) {
+        List<FeatureVector> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            FeatureVector fv = new FeatureVector(List.of((double) i, i * 0.5, -i * 0.25), "label" + (i % 3));
+            fv.setEntityId(prefix + i);
+            fv.setScore(i);
+            fv.getMetaData().put("k", "v" + i);
+            list.add(fv);
+        }
+        return list;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        LOG.info("put/get round trip");
+        try (MappedFeatureVectorRepository repo = new MappedFeatureVectorRepository(root)) {
+            repo.put("a", vectors(10, "a"));
+            List<FeatureVector> got = repo.get("a");
+            assertEquals(10, got.size());
+            FeatureVector fv = got.get(7);
+            assertEquals(List.of(7.0, 3.5, -1.75), fv.getData());
+            assertEquals("label1", fv.getLabel());
+            assertEquals("a7", fv.getEntityId());
+            assertEquals(7.0, fv.getScore());
+            assertEquals("v7", fv.getMetaData().get("k"));
+            assertArrayEquals(new double[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, repo.column("a", 0));
+
+            repo.append("a", vectors(5, "b"));
+            assertEquals(15, repo.get("a").size());
+            assertEquals("b4", repo.get("a").get(14).getEntityId());
+        }
+    }
+
+    @Test
+    public void testViews() throws Exception {
+        LOG.info("duplicate/merge/sample/remove/update views");
+        try (MappedFeatureVectorRepository repo = new MappedFeatureVectorRepository(root)) {
+            repo.put("a", vectors(8, "a"));
+            repo.duplicate("a", "copy");
+            repo.put("b", vectors(4, "a"));
+            repo.merge("copy", "b", true);
+            assertEquals(8, repo.get("copy").size());
+            repo.merge("copy", "b", false);
+            assertEquals(12, repo.get("copy").size());
+
+            repo.sample("a", "s", new int[]{6, 1, 3});
+            assertEquals(List.of("a6", "a1", "a3"),
+                repo.get("s").stream().map(FeatureVector::getEntityId).toList());
+
+            repo.removeEntityIds("a", Set.of("a0", "a5"));
+            assertEquals(6, repo.get("a").size());
+            assertFalse(repo.get("a").stream().anyMatch(fv -> "a5".equals(fv.getEntityId())));
+            assertEquals(12, repo.get("copy").size());
+
+            repo.updateEntityIds("a", Set.of("a2"), fv -> fv.setLabel("edited"));
+            assertEquals("edited", repo.get("a").stream()
+                .filter(fv -> "a2".equals(fv.getEntityId())).findFirst().orElseThrow().getLabel());
+            assertEquals("label2", repo.get("copy").get(2).getLabel());
+
+            repo.rename("s", "sampled");
+            assertEquals(List.of("a", "copy", "b", "sampled"), repo.getCollectionNames());
+        }
+    }
+
+    @Test
+    public void testStageAndPin() throws Exception {
+        LOG.info("staged rows and lists handed out outlive the collections they came from");
+        try (MappedFeatureVectorRepository repo = new MappedFeatureVectorRepository(root)) {
+            repo.put("a", vectors(6, "a"));
+            List<FeatureVector> staged = repo.stage("a", vectors(4, "b"));
+            assertEquals(4, staged.size());
+            assertEquals(6, repo.get("a").size());
+            repo.append("a", staged);
+            assertEquals(10, repo.get("a").size());
+            assertEquals("b3", repo.get("a").get(9).getEntityId());
+
+            List<FeatureVector> held = repo.get("a");
+            repo.remove("a");
+            repo.put("c", vectors(3, "c")); //collects unreferenced blocks
+            assertEquals(10, held.size());
+            assertEquals(List.of(3.0, 1.5, -0.75), held.get(9).getData());
+            repo.put("d", held);
+            assertEquals("a5", repo.get("d").get(5).getEntityId());
+        }
+    }
+
+    @Test
+    public void testIterationWhileAppending() throws Exception {
+        LOG.info("paged iteration matches get and is not blocked by appends");
+        try (MappedFeatureVectorRepository repo = new MappedFeatureVectorRepository(root)) {
+            repo.put("a", vectors(1000, "a"));
+            repo.sample("a", "odd", IntStream.range(0, 500).map(i -> 2 * i + 1).toArray());
+            List<FeatureVector> held = repo.get("a");
+            assertSame(held.get(42), held.get(42));
+
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 20; i++) repo.append("a", vectors(50, "w" + i));
+            });
+            writer.start();
+            int i = 0;
+            for (FeatureVector fv : held) {
+                assertEquals(held.get(i).getEntityId(), fv.getEntityId());
+                assertEquals(List.of((double) i, i * 0.5, -i * 0.25), fv.getData());
+                i++;
+            }
+            writer.join();
+            assertEquals(1000, i);
+            assertEquals(2000, repo.get("a").size());
+
+            List<FeatureVector> odd = repo.get("odd");
+            assertEquals(500, odd.stream().count());
+            assertEquals("a999", odd.stream().reduce((x, y) -> y).orElseThrow().getEntityId());
+        }
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        LOG.info("reopen after close");
+        try (MappedFeatureVectorRepository repo = new MappedFeatureVectorRepository(root)) {
+            repo.put("a", vectors(20, "a"));
+            repo.sample("a", "odd", new int[]{1, 3, 5, 7, 9, 11, 13});
+            repo.updateEntityIds("a", Set.of("a4"), fv -> fv.setLabel("edited"));
+        }
+        try (MappedFeatureVectorRepository repo = new MappedFeatureVectorRepository(root)) {
+            assertTrue(repo.contains("a"));
+            assertEquals(20, repo.get("a").size());
+            assertEquals("edited", repo.get("a").get(4).getLabel());
+            assertEquals(List.of(13.0, 6.5, -3.25), repo.get("odd").get(6).getData());
+            repo.remove("a");
+        }
+        try (MappedFeatureVectorRepository repo = new MappedFeatureVectorRepository(root)) {
+            assertEquals(List.of("odd"), repo.getCollectionNames());
+            assertEquals(7, repo.get("odd").size());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package edu.jhuapl.trinity.messages;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class IngestCoalescerTest {
+    private static final Logger LOG = LoggerFactory.getLogger(IngestCoalescerTest.class);
+
+    private static FeatureVector vector(int i) {
+        FeatureVector fv = FeatureVector.EMPTY_FEATURE_VECTOR("v" + i, 3);
+        fv.getData().set(0, (double) i);
+        return fv;
+    }
+
+    @Test
+    public void testOneBatchPerPulse() {
+        LOG.info("one batch per pulse");
+        List<List<FeatureVector>> batches = new ArrayList<>();
+        IngestCoalescer coalescer = new IngestCoalescer(batches::add);
+        coalescer.setMaxBatch(400);
+        assertEquals(0, coalescer.pulse(System.nanoTime()));
+        for (int i = 0; i < 1000; i++) coalescer.offer(vector(i));
+
+        assertEquals(400, coalescer.pulse(System.nanoTime()));
+        assertEquals(400, coalescer.pulse(System.nanoTime()));
+        assertEquals(200, coalescer.pulse(System.nanoTime()));
+        assertEquals(0, coalescer.pulse(System.nanoTime()));
+        assertEquals(3, batches.size());
+        assertEquals(1000, coalescer.getDeliveredCount());
+        assertEquals(0, coalescer.getPendingCount());
+        //arrival order is preserved across batches
+        assertEquals(0.0, batches.get(0).get(0).getData().get(0));
+        assertEquals(999.0, batches.get(2).get(199).getData().get(0));
+    }
+
+    @Test
+    public void testLatencyBound() {
+        LOG.info("latency bound");
+        List<List<FeatureVector>> batches = new ArrayList<>();
+        IngestCoalescer coalescer = new IngestCoalescer(batches::add);
+        coalescer.setMaxBatch(100);
+        coalescer.setMaxLatencyMillis(50);
+        for (int i = 0; i < 10; i++) coalescer.offer(vector(i));
+        long now = System.nanoTime();
+        //partial batch younger than the latency bound is held back
+        assertEquals(0, coalescer.pulse(now));
+        assertEquals(10, coalescer.pulse(now + TimeUnit.MILLISECONDS.toNanos(60)));
+        //a full batch goes out immediately
+        for (int i = 0; i < 150; i++) coalescer.offer(vector(i));
+        assertEquals(100, coalescer.pulse(System.nanoTime()));
+        //the backlog keeps its age and follows on the next pulse
+        assertEquals(50, coalescer.pulse(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(60)));
+        assertEquals(3, batches.size());
+    }
+
+    @Test
+    public void testPendingBoundDropsOldest() throws InterruptedException {
+        LOG.info("pending bound");
+        List<FeatureVector> delivered = new ArrayList<>();
+        IngestCoalescer coalescer = new IngestCoalescer(delivered::addAll);
+        coalescer.setMaxPending(1000);
+        final int producers = 4;
+        final int perProducer = 5000;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) coalescer.offer(vector(i));
+                done.countDown();
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(coalescer.getPendingCount() <= 1000);
+        while (coalescer.pulse(System.nanoTime()) > 0) {
+            //drain
+        }
+        assertEquals(producers * perProducer, coalescer.getReceivedCount());
+        assertEquals(coalescer.getReceivedCount(),
+            coalescer.getDroppedCount() + coalescer.getDeliveredCount());
+        assertEquals(delivered.size(), coalescer.getDeliveredCount());
+        FeatureVector last = vector(0);
+        coalescer.offer(last);
+        coalescer.pulse(System.nanoTime());
+        assertSame(last, delivered.get(delivered.size() - 1));
+    }
+}
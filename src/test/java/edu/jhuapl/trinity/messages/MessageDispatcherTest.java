@@ -0,0 +1,76 @@
+package edu.jhuapl.trinity.messages;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.jhuapl.trinity.data.messages.CommandRequest;
+import edu.jhuapl.trinity.data.messages.xai.FeatureCollection;
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Sean Phillips
+ */
+public class MessageDispatcherTest {
+    private static final Logger LOG = LoggerFactory.getLogger(MessageDispatcherTest.class);
+
+    private static MessageDispatcher dispatcher() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return new MessageDispatcher(mapper);
+    }
+
+    @Test
+    public void testLeadingTypeBindsRemainder() throws Exception {
+        LOG.info("type first");
+        MessageDispatcher dispatcher = dispatcher();
+        Object fv = dispatcher.decode("{\"messageType\":\"feature_vector\",\"label\":\"cat\",\"score\":0.5,"
+            + "\"data\":[1.0,2.0,3.0]}");
+        FeatureVector vector = assertInstanceOf(FeatureVector.class, fv);
+        assertEquals("cat", vector.getLabel());
+        assertEquals(0.5, vector.getScore());
+        assertEquals(List.of(1.0, 2.0, 3.0), vector.getData());
+
+        Object fc = dispatcher.decode("{\"type\":\"FeatureCollection\",\"features\":["
+            + "{\"messageType\":\"feature_vector\",\"data\":[4.0]}]}");
+        FeatureCollection collection = assertInstanceOf(FeatureCollection.class, fc);
+        assertEquals(1, collection.getFeatures().size());
+        assertEquals(FeatureCollection.TYPESTRING, collection.getType());
+
+        Object empty = dispatcher.decode("{\"messageType\":\"command_request\"}");
+        assertInstanceOf(CommandRequest.class, empty);
+    }
+
+    @Test
+    public void testBufferedScalarPrefix() throws Exception {
+        LOG.info("scalar fields ahead of the type are replayed");
+        Object fv = dispatcher().decode("{\"topic\":\"t\",\"label\":\"dog\",\"messageType\":\"feature_vector\","
+            + "\"data\":[5.0,6.0],\"score\":2.0}");
+        FeatureVector vector = assertInstanceOf(FeatureVector.class, fv);
+        assertEquals("dog", vector.getLabel());
+        assertEquals(2.0, vector.getScore());
+        assertEquals(List.of(5.0, 6.0), vector.getData());
+
+        Object command = dispatcher().decode("{\"request\":\"VIEW_HYPERSPACE\",\"messageType\":\"command_request\"}");
+        assertEquals("VIEW_HYPERSPACE", assertInstanceOf(CommandRequest.class, command).getRequest());
+    }
+
+    @Test
+    public void testFallbackCases() throws Exception {
+        LOG.info("late, missing or unknown type falls back");
+        MessageDispatcher dispatcher = dispatcher();
+        assertNull(dispatcher.decode("{\"data\":[1.0],\"messageType\":\"feature_vector\"}"));
+        assertNull(dispatcher.decode("{\"label\":\"x\"}"));
+        assertNull(dispatcher.decode("{\"messageType\":\"something_else\",\"data\":[1.0]}"));
+        assertNull(dispatcher.decode("howdy"));
+        assertNull(dispatcher.decode("[1,2,3]"));
+        assertNull(dispatcher.decode(""));
+    }
+}
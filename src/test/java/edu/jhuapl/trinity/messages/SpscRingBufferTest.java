@@ -0,0 +1,93 @@
+package edu.jhuapl.trinity.messages;
+
+import edu.jhuapl.trinity.messages.SpscRingBuffer.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class SpscRingBufferTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SpscRingBufferTest.class);
+
+    @Test
+    public void testOverflowPolicies() {
+        LOG.info("overflow policies");
+        SpscRingBuffer<Integer> oldest = new SpscRingBuffer<>(3, OverflowPolicy.DROP_OLDEST);
+        SpscRingBuffer<Integer> newest = new SpscRingBuffer<>(3, OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(oldest.offer(i));
+            assertEquals(i < 3, newest.offer(i));
+        }
+        assertEquals(3, oldest.size());
+        assertEquals(5, oldest.getReceivedCount());
+        assertEquals(2, oldest.getDroppedCount());
+        assertEquals(2, newest.getDroppedCount());
+
+        List<Integer> drained = new ArrayList<>();
+        oldest.drain(drained::add, 10);
+        assertEquals(List.of(2, 3, 4), drained);
+        drained.clear();
+        newest.drain(drained::add, 10);
+        assertEquals(List.of(0, 1, 2), drained);
+        assertNull(newest.poll());
+        assertTrue(newest.isEmpty());
+    }
+
+    @Test
+    public void testPolledElementsReleased() throws Exception {
+        LOG.info("polled elements are not retained by their slot");
+        SpscRingBuffer<Object> buffer = new SpscRingBuffer<>(4, OverflowPolicy.DROP_OLDEST);
+        Object element = new Object();
+        WeakReference<Object> ref = new WeakReference<>(element);
+        buffer.offer(element);
+        assertTrue(buffer.poll() == element);
+        element = null;
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+
+    @Test
+    public void testConcurrentProducerConsumer() throws Exception {
+        LOG.info("concurrent producer/consumer");
+        final int count = 500_000;
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(1000, policy);
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < count; i++) ring.offer(i);
+            });
+            producer.start();
+            int last = -1;
+            int consumed = 0;
+            while (producer.isAlive() || !ring.isEmpty()) {
+                if (!ring.await(10, TimeUnit.MILLISECONDS)) continue;
+                Integer v;
+                while ((v = ring.poll()) != null) {
+                    assertTrue(v > last, policy + " out of order: " + v + " after " + last);
+                    last = v;
+                    consumed++;
+                }
+            }
+            producer.join();
+            assertEquals(count, ring.getReceivedCount());
+            assertEquals(count, consumed + ring.getDroppedCount(), policy.toString());
+            if (policy == OverflowPolicy.BLOCK) assertEquals(0, ring.getDroppedCount());
+            if (policy != OverflowPolicy.DROP_NEWEST) assertEquals(count - 1, last, policy.toString());
+            assertFalse(ring.isClosed());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package edu.jhuapl.trinity.messages;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class TrinityIngestHttpHandlerTest {
+    private static final Logger LOG = LoggerFactory.getLogger(TrinityIngestHttpHandlerTest.class);
+
+    private HttpServer server;
+    private HttpClient client;
+    private IngestCoalescer coalescer;
+    private TrinityIngestHttpHandler handler;
+    private final List<Object> delivered = new ArrayList<>();
+
+    @BeforeEach
+    public void start() throws IOException {
+        coalescer = new IngestCoalescer(delivered::addAll);
+        handler = new TrinityIngestHttpHandler(coalescer);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(TrinityIngestHttpHandler.CONTEXT_PATH, handler);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static String vectorJson(int i) {
+        return "{\"messageType\":\"feature_vector\",\"label\":\"v" + i + "\",\"data\":[" + i + ",1.0,2.0]}";
+    }
+
+    private HttpResponse<String> post(byte[] body, boolean gzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(TrinityIngestHttpHandler.BATCH_PATH))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (gzip) request.header("Content-Encoding", "gzip");
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testNdjsonAndArrayBatches() throws Exception {
+        LOG.info("NDJSON, gzip and array batches");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 500; i++) ndjson.append(vectorJson(i)).append('\n');
+        HttpResponse<String> plain = post(ndjson.toString().getBytes(StandardCharsets.UTF_8), false);
+        assertEquals(202, plain.statusCode());
+        assertEquals("{\"accepted\":500}", plain.body());
+
+        HttpResponse<String> compressed = post(gzip(ndjson.toString()), true);
+        assertEquals(202, compressed.statusCode());
+
+        StringBuilder array = new StringBuilder("[");
+        for (int i = 0; i < 250; i++) array.append(i == 0 ? "" : ",").append(vectorJson(i));
+        array.append(']');
+        HttpResponse<String> arrayResponse = post(gzip(array.toString()), true);
+        assertEquals("{\"accepted\":250}", arrayResponse.body());
+
+        assertEquals(1250, coalescer.getPendingCount());
+        while (coalescer.pulse(System.nanoTime()) > 0) {
+            //drain
+        }
+        assertEquals(1250, delivered.size());
+
+        HttpResponse<String> malformed = post("{\"data\":[1.0]}\n{oops".getBytes(StandardCharsets.UTF_8), false);
+        assertEquals(400, malformed.statusCode());
+        assertTrue(malformed.body().contains("\"accepted\":1"));
+    }
+
+    @Test
+    public void testBackpressureAndStats() throws Exception {
+        LOG.info("429 and stats");
+        coalescer.setMaxPending(100);
+        handler.setMaxWaitMillis(10);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 150; i++) ndjson.append(vectorJson(i)).append('\n');
+        byte[] body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+        //fills the queue mid stream: the first 100 are kept, the rest refused
+        HttpResponse<String> partial = post(body, false);
+        assertEquals(429, partial.statusCode());
+        assertEquals("1", partial.headers().firstValue("Retry-After").orElse(""));
+        assertTrue(partial.body().contains("\"accepted\":100"));
+        //above the high water mark: refused before the body is read
+        HttpResponse<String> refused = post(body, false);
+        assertEquals(429, refused.statusCode());
+        assertTrue(refused.body().contains("\"accepted\":0"));
+        assertEquals(0, coalescer.getDroppedCount());
+
+        HttpResponse<String> stats = client.send(HttpRequest.newBuilder(
+            uri(TrinityIngestHttpHandler.STATS_PATH)).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, stats.statusCode());
+        LOG.info("{}", stats.body());
+        assertTrue(stats.body().contains("\"queueDepth\":100"));
+        assertTrue(stats.body().contains("\"rejectedRequests\":2"));
+        assertEquals(100L, handler.getStats().get("acceptedVectors"));
+    }
+}
@@ -0,0 +1,90 @@
+package edu.jhuapl.trinity.utils;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class LandmarkMdsTest {
+    private static final Logger LOG = LoggerFactory.getLogger(LandmarkMdsTest.class);
+
+    /**
+     * Points in a 3D box rotated into 12 dimensions, so a 3D embedding is exact up to rotation.
+     */
+    private static double[][] rotatedBox(int n, long seed) {
+        Random rnd = new Random(seed);
+        int dims = 12;
+        double[][] basis = new double[3][dims];
+        for (int a = 0; a < 3; a++) {
+            for (int d = 0; d < dims; d++) basis[a][d] = rnd.nextGaussian();
+            for (int b = 0; b < a; b++) {
+                double dot = 0;
+                for (int d = 0; d < dims; d++) dot += basis[a][d] * basis[b][d];
+                for (int d = 0; d < dims; d++) basis[a][d] -= dot * basis[b][d];
+            }
+            double norm = Math.sqrt(Arrays.stream(basis[a]).map(v -> v * v).sum());
+            for (int d = 0; d < dims; d++) basis[a][d] /= norm;
+        }
+        double[][] rows = new double[n][dims];
+        for (int i = 0; i < n; i++) {
+            double x = rnd.nextDouble() * 10, y = rnd.nextDouble() * 4, z = rnd.nextDouble();
+            for (int d = 0; d < dims; d++)
+                rows[i][d] = x * basis[0][d] + y * basis[1][d] + z * basis[2][d] + 5.0;
+        }
+        return rows;
+    }
+
+    @Test
+    public void testRecoversLowDimensionalDistances() {
+        LOG.info("landmark MDS on 60k points embedded linearly in 12D");
+        double[][] rows = rotatedBox(60_000, 9);
+        long start = System.nanoTime();
+        LandmarkMds.Result result = new LandmarkMds(3, 40).embed(LandmarkMds.euclidean(rows));
+        LOG.info("embedded in {} ms, stress {}", (System.nanoTime() - start) / 1_000_000, result.stress());
+        assertEquals(40, result.landmarks().length);
+        assertEquals(60_000, result.embedding().length);
+        assertTrue(result.stress() < 1e-4);
+        //landmarks are distinct and spread out
+        assertEquals(40, Arrays.stream(result.landmarks()).distinct().count());
+        Random rnd = new Random(1);
+        for (int t = 0; t < 200; t++) {
+            int i = rnd.nextInt(rows.length), j = rnd.nextInt(rows.length);
+            double original = LandmarkMds.euclidean(rows).distance(i, j) / result.scale();
+            double[] a = result.embedding()[i], b = result.embedding()[j];
+            double embedded = Math.sqrt((a[0] - b[0]) * (a[0] - b[0])
+                + (a[1] - b[1]) * (a[1] - b[1]) + (a[2] - b[2]) * (a[2] - b[2]));
+            assertEquals(original, embedded, 1e-4);
+        }
+    }
+
+    @Test
+    public void testMatrixInputMatchesRows() {
+        LOG.info("precomputed matrix and on demand distances give the same embedding");
+        double[][] rows = rotatedBox(500, 4);
+        LandmarkMds.Distances euclidean = LandmarkMds.euclidean(rows);
+        double[][] matrix = new double[rows.length][rows.length];
+        for (int i = 0; i < rows.length; i++)
+            for (int j = 0; j < rows.length; j++) matrix[i][j] = euclidean.distance(i, j);
+        LandmarkMds mds = new LandmarkMds(3, 20, 1000, 7L);
+        LandmarkMds.Result fromRows = mds.embed(euclidean);
+        LandmarkMds.Result fromMatrix = mds.embed(LandmarkMds.matrix(matrix));
+        assertArrayEquals(fromRows.landmarks(), fromMatrix.landmarks());
+        for (int i = 0; i < rows.length; i++)
+            assertArrayEquals(fromRows.embedding()[i], fromMatrix.embedding()[i], 1e-9);
+        //duplicates stop landmark selection early instead of failing
+        double[][] twoPoints = new double[100][];
+        for (int i = 0; i < twoPoints.length; i++) twoPoints[i] = new double[]{i % 2, 0};
+        LandmarkMds.Result degenerate = mds.embed(LandmarkMds.euclidean(twoPoints));
+        assertEquals(2, degenerate.landmarks().length);
+        assertEquals(0.0, degenerate.stress(), 1e-6);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.jhuapl.trinity.utils;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Sean Phillips
+ */
+public class PointKdTreeTest {
+    private static final Logger LOG = LoggerFactory.getLogger(PointKdTreeTest.class);
+
+    private static int bruteRay(float[] xyz, int n, double[] o, double[] d, double r) {
+        double len = Math.sqrt(d[0] * d[0] + d[1] * d[1] + d[2] * d[2]);
+        double dx = d[0] / len, dy = d[1] / len, dz = d[2] / len;
+        double bestT = Double.POSITIVE_INFINITY;
+        int best = -1;
+        for (int i = 0; i < n; i++) {
+            double wx = xyz[3 * i] - o[0], wy = xyz[3 * i + 1] - o[1], wz = xyz[3 * i + 2] - o[2];
+            double t = wx * dx + wy * dy + wz * dz;
+            if (t < 0) continue;
+            double d2 = wx * wx + wy * wy + wz * wz - t * t;
+            if (d2 > r * r) continue;
+            double tHit = t - Math.sqrt(r * r - d2);
+            if (tHit < bestT) {
+                bestT = tHit;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void testQueriesMatchBruteForce() {
+        LOG.info("k-d tree ray and nearest queries against brute force");
+        Random rnd = new Random(5);
+        int n = 20_000;
+        float[] xyz = new float[3 * n];
+        for (int i = 0; i < xyz.length; i++) xyz[i] = (float) (rnd.nextGaussian() * 500);
+        long start = System.nanoTime();
+        PointKdTree tree = new PointKdTree(xyz, n);
+        LOG.info("built {} points in {} ms", tree.size(), (System.nanoTime() - start) / 1_000_000);
+
+        int hits = 0;
+        for (int q = 0; q < 500; q++) {
+            //rays from outside the cloud aimed near a random point
+            int target = rnd.nextInt(n);
+            double[] o = {rnd.nextGaussian() * 3000, rnd.nextGaussian() * 3000, -5000};
+            double[] d = {xyz[3 * target] + rnd.nextGaussian() * 10 - o[0],
+                xyz[3 * target + 1] + rnd.nextGaussian() * 10 - o[1],
+                xyz[3 * target + 2] - o[2]};
+            int expected = bruteRay(xyz, n, o, d, 4.0);
+            assertEquals(expected, tree.nearestAlongRay(o[0], o[1], o[2], d[0], d[1], d[2], 4.0, null));
+            if (expected >= 0) hits++;
+
+            double x = rnd.nextGaussian() * 600, y = rnd.nextGaussian() * 600, z = rnd.nextGaussian() * 600;
+            int near = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double ex = xyz[3 * i] - x, ey = xyz[3 * i + 1] - y, ez = xyz[3 * i + 2] - z;
+                double d2 = ex * ex + ey * ey + ez * ez;
+                if (d2 < best && i % 2 == 0) {
+                    best = d2;
+                    near = i;
+                }
+            }
+            assertEquals(near, tree.nearest(x, y, z, i -> i % 2 == 0));
+        }
+        LOG.info("{} of 500 rays hit a point", hits);
+        assertEquals(-1, new PointKdTree(new float[0], 0).nearestAlongRay(0, 0, 0, 0, 0, 1, 1, null));
+    }
+}
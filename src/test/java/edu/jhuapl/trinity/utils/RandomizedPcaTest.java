@@ -0,0 +1,143 @@
+package edu.jhuapl.trinity.utils;
+
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.stat.correlation.Covariance;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class RandomizedPcaTest {
+    private static final Logger LOG = LoggerFactory.getLogger(RandomizedPcaTest.class);
+
+    /**
+     * Rows with a decaying spectrum along random orthogonal-ish directions plus noise and an offset.
+     */
+    private static double[][] plantedData(int n, int d, long seed) {
+        Random rnd = new Random(seed);
+        double[][] axes = new double[5][d];
+        for (double[] axis : axes) {
+            for (int j = 0; j < d; j++) axis[j] = rnd.nextGaussian();
+        }
+        double[] scales = {20, 10, 5, 2.5, 1.2};
+        double[][] rows = new double[n][d];
+        for (int i = 0; i < n; i++) {
+            for (int a = 0; a < axes.length; a++) {
+                double c = rnd.nextGaussian() * scales[a];
+                for (int j = 0; j < d; j++) rows[i][j] += c * axes[a][j];
+            }
+            for (int j = 0; j < d; j++) rows[i][j] += 0.1 * rnd.nextGaussian() + 3.0;
+        }
+        return rows;
+    }
+
+    private static double absDot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return Math.abs(s);
+    }
+
+    @Test
+    public void testMatchesFullEigenDecomposition() {
+        LOG.info("randomized vs full covariance PCA");
+        double[][] rows = plantedData(3000, 60, 7);
+        RealMatrix cov = new Covariance(MatrixUtils.createRealMatrix(rows)).getCovarianceMatrix();
+        EigenDecomposition ed = new EigenDecomposition(cov);
+        double[] exact = ed.getRealEigenvalues().clone();
+        Integer[] order = new Integer[exact.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> Double.compare(exact[y], exact[x]));
+
+        RandomizedPca pca = new RandomizedPca(3).fit(rows);
+        double[] variance = pca.getExplainedVariance();
+        double[][] axes = pca.getComponents();
+        for (int k = 0; k < 3; k++) {
+            double expected = exact[order[k]];
+            LOG.info("component {} variance {} exact {}", k, variance[k], expected);
+            assertEquals(expected, variance[k], expected * 1e-6);
+            assertEquals(1.0, absDot(axes[k], ed.getEigenvector(order[k]).toArray()), 1e-6);
+        }
+
+        //projections agree with projecting onto the exact eigenvectors (up to sign)
+        double[][] projected = AnalysisUtils.doRandomizedPCA(rows, 3);
+        double[] v0 = ed.getEigenvector(order[0]).toArray();
+        double sign = Math.signum(absDot(axes[0], v0) == 0 ? 1 : dot(axes[0], v0));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(dot(rows[i], v0), sign * projected[i][0], 1e-6 * (1 + Math.abs(projected[i][0])));
+        }
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return s;
+    }
+
+    @Test
+    public void testIncrementalMatchesBatch() {
+        LOG.info("incremental partialFit vs single fit");
+        double[][] rows = plantedData(4000, 48, 11);
+        RandomizedPca full = new RandomizedPca(3).fit(rows);
+        RandomizedPca incremental = new RandomizedPca(3);
+        for (int b = 0; b < 4; b++) {
+            incremental.partialFit(Arrays.copyOfRange(rows, b * 1000, (b + 1) * 1000));
+        }
+        assertEquals(4000, incremental.getCount());
+        double[] fullMean = full.getMean();
+        double[] incMean = incremental.getMean();
+        for (int j = 0; j < fullMean.length; j++) assertEquals(fullMean[j], incMean[j], 1e-9);
+        double[][] fullAxes = full.getComponents();
+        double[][] incAxes = incremental.getComponents();
+        double[] fullVar = full.getExplainedVariance();
+        double[] incVar = incremental.getExplainedVariance();
+        for (int k = 0; k < 3; k++) {
+            LOG.info("component {} variance batch {} incremental {}", k, fullVar[k], incVar[k]);
+            assertTrue(absDot(fullAxes[k], incAxes[k]) > 0.9999);
+            assertEquals(fullVar[k], incVar[k], fullVar[k] * 1e-3);
+        }
+    }
+
+    @Test
+    public void testTruncatedSvdAndRankDeficientInput() {
+        LOG.info("truncated SVD and rank deficient rows");
+        double[][] rows = new double[200][10];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i][0] = i;
+            rows[i][1] = 2.0 * i;
+        }
+        double[][] projected = AnalysisUtils.doRandomizedSVD(rows, 3);
+        assertEquals(3, projected[0].length);
+        //all energy is on one direction: |projection| equals the row norm
+        for (int i = 0; i < rows.length; i += 17) {
+            assertEquals(Math.sqrt(5.0) * i, Math.abs(projected[i][0]), 1e-6 * (1 + i));
+            assertEquals(0.0, projected[i][1], 1e-6);
+        }
+    }
+
+    @Test
+    public void testLargeInputTiming() {
+        LOG.info("timing");
+        Random rnd = new Random(3);
+        int n = 100_000, d = 256;
+        double[][] rows = new double[n][d];
+        for (double[] row : rows) {
+            double c = rnd.nextGaussian() * 5;
+            for (int j = 0; j < d; j++) row[j] = c * ((j % 7) - 3) + rnd.nextGaussian();
+        }
+        long start = System.nanoTime();
+        double[][] projected = AnalysisUtils.doRandomizedPCA(rows, 3);
+        LOG.info("{} x {} -> {} components in {} ms", n, d, projected[0].length,
+            (System.nanoTime() - start) / 1_000_000);
+        assertEquals(n, projected.length);
+    }
+}
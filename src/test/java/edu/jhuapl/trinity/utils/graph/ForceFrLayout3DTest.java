@@ -0,0 +1,80 @@
+package edu.jhuapl.trinity.utils.graph;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class ForceFrLayout3DTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ForceFrLayout3DTest.class);
+
+    private static double[][] ringWeights(int n) {
+        double[][] w = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            w[i][j] = w[j][i] = 1.0;
+        }
+        return w;
+    }
+
+    @Test
+    public void testBarnesHutTracksExact() {
+        LOG.info("Barnes-Hut vs exact repulsion");
+        int n = 800;
+        double[][] weights = ringWeights(n);
+        GraphLayoutParams exact = new GraphLayoutParams().withIterations(60).withTheta(0.0);
+        GraphLayoutParams approx = new GraphLayoutParams().withIterations(60).withTheta(0.5);
+        double[][] a = new ForceFrLayout3D().layout(n, null, null, weights, exact);
+        double[][] b = new ForceFrLayout3D().layout(n, null, null, weights, approx);
+        double err = 0, scale = 0;
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < 3; d++) {
+                err += (a[i][d] - b[i][d]) * (a[i][d] - b[i][d]);
+                scale += a[i][d] * a[i][d];
+            }
+        }
+        double rel = Math.sqrt(err / scale);
+        LOG.info("relative position error {}", rel);
+        assertTrue(rel < 0.01);
+
+        //serial and parallel accumulation agree
+        double[][] serial = new ForceFrLayout3D().layout(n, null, null, weights,
+            new GraphLayoutParams().withIterations(60).withTheta(0.5).withParallel(false));
+        for (int i = 0; i < n; i++) assertArrayEquals(serial[i], b[i], 1e-6);
+    }
+
+    @Test
+    public void testProgressAndSparseGraph() {
+        LOG.info("progress snapshots on a sparse graph");
+        int n = 20_000, m = 100_000;
+        Random rnd = new Random(5);
+        int[] from = new int[m], to = new int[m];
+        for (int e = 0; e < m; e++) {
+            from[e] = rnd.nextInt(n);
+            to[e] = (from[e] + 1 + rnd.nextInt(40)) % n;
+        }
+        List<Integer> reported = new ArrayList<>();
+        GraphLayoutParams p = new GraphLayoutParams().withIterations(20).withReportEvery(8);
+        long start = System.nanoTime();
+        double[][] pos = ForceFrLayout3D.layout(n, from, to, null, p, (iteration, positions) -> {
+            assertEquals(n, positions.length);
+            reported.add(iteration);
+        });
+        LOG.info("{} nodes, {} edges, {} iterations in {} ms", n, m, p.iterations,
+            (System.nanoTime() - start) / 1_000_000);
+        assertEquals(List.of(8, 16, 20), reported);
+        for (double[] q : pos) {
+            assertTrue(Double.isFinite(q[0]) && Double.isFinite(q[1]) && Double.isFinite(q[2]));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * @author Sean Phillips
+ */
+public class DatasetFingerprintTest {
+    private static final Logger LOG = LoggerFactory.getLogger(DatasetFingerprintTest.class);
+
+    private static List<FeatureVector> vectors(int n, int dim, long seed) {
+        Random rand = new Random(seed);
+        List<FeatureVector> vectors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            List<Double> data = new ArrayList<>();
+            for (int j = 0; j < dim; j++) {
+                data.add(rand.nextGaussian());
+            }
+            vectors.add(new FeatureVector(data));
+        }
+        return vectors;
+    }
+
+    @Test
+    public void testIncrementalMatchesFullScan() {
+        LOG.info("incremental updates match a full scan");
+        List<FeatureVector> vectors = vectors(10000, 33, 1);
+        DatasetFingerprint incremental = new DatasetFingerprint();
+        incremental.addAll(vectors.subList(0, 6000));
+        for (FeatureVector fv : vectors.subList(6000, 10000)) incremental.add(fv);
+        assertEquals(DatasetFingerprint.of(vectors), incremental);
+
+        List<FeatureVector> removed = new ArrayList<>(vectors.subList(100, 200));
+        incremental.removeAll(removed);
+        List<FeatureVector> kept = new ArrayList<>(vectors);
+        kept.removeAll(removed);
+        assertEquals(DatasetFingerprint.of(kept).toString(), incremental.toString());
+
+        Collections.shuffle(kept, new Random(3));
+        assertEquals(DatasetFingerprint.of(kept).toString(), incremental.toString());
+
+        DatasetFingerprint merged = DatasetFingerprint.of(kept.subList(0, 4000));
+        merged.merge(DatasetFingerprint.of(kept.subList(4000, kept.size())));
+        assertEquals(incremental, merged);
+        assertEquals(merged, incremental);
+    }
+
+    @Test
+    public void testDetectsChangesOutsideSample() {
+        LOG.info("exact fingerprint sees every cell");
+        List<FeatureVector> vectors = vectors(2000, 200, 2);
+        String sampled = DensityCache.fingerprintDataset(vectors, 256, 64);
+        String exact = DensityCache.fingerprintDataset(vectors);
+
+        // row 1 and column 1 fall between the strides of the sampled fingerprint
+        vectors.get(1).getData().set(1, 42.0);
+        assertEquals(sampled, DensityCache.fingerprintDataset(vectors, 256, 64));
+        assertNotEquals(exact, DensityCache.fingerprintDataset(vectors));
+        assertEquals("empty", DensityCache.fingerprintDataset(List.of()));
+    }
+}
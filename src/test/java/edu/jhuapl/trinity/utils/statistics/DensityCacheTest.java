@@ -0,0 +1,181 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class DensityCacheTest {
+    private static final Logger LOG = LoggerFactory.getLogger(DensityCacheTest.class);
+
+    @TempDir
+    Path root;
+
+    private static GridDensityResult density(int bins, double seed) {
+        double[] xs = new double[500];
+        double[] ys = new double[500];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = Math.sin(i * seed);
+            ys[i] = Math.cos(i * seed * 0.5);
+        }
+        return GridDensity3DEngine.computePdfCdf2D(xs, ys, new GridSpec(bins, bins));
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        LOG.info("concurrent misses compute once");
+        DensityCache cache = new DensityCache.Builder().build();
+        AtomicInteger computed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<GridDensityResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return cache.getOrCompute("key", () -> {
+                        computed.incrementAndGet();
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return density(16, 0.1);
+                    }, null);
+                }));
+            }
+            start.countDown();
+            GridDensityResult first = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<GridDensityResult> f : futures) {
+                assertSame(first, f.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, computed.get());
+        assertEquals(1, cache.stats().misses);
+        assertEquals(7, cache.stats().hits);
+    }
+
+    @Test
+    public void testEvictsByWeight() {
+        LOG.info("byte weighted eviction");
+        long one = DensityCache.weigh(density(32, 0.1));
+        DensityCache cache = new DensityCache.Builder().maxBytes(one * 3 + one / 2).build();
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, density(32, 0.1 + i));
+        }
+        assertEquals(3, cache.size());
+        assertTrue(cache.weightBytes() <= one * 3 + one / 2);
+        assertEquals(7, cache.stats().evictions);
+        //small grids fit many more entries in the same budget
+        for (int i = 0; i < 10; i++) {
+            cache.put("s" + i, density(4, 0.1 + i));
+        }
+        assertTrue(cache.size() > 3);
+    }
+
+    @Test
+    public void testDiskTierAcrossInstances() throws Exception {
+        LOG.info("disk tier survives a new cache instance");
+        GridDensityResult expected = density(24, 0.3);
+        JpdfProvenance provenance = JpdfProvenance.newBuilder(JpdfProvenance.Operation.BASELINE,
+                JpdfProvenance.SurfaceKind.PDF,
+                new JpdfProvenance.AxisSummary(StatisticEngine.ScalarType.COMPONENT_AT_DIMENSION, null, 3, null, null, "x"),
+                new JpdfProvenance.AxisSummary(StatisticEngine.ScalarType.COMPONENT_AT_DIMENSION, null, 5, null, null, null),
+                new JpdfProvenance.GridSummary(24, 24, -1, 1, -1, 1, 2.0 / 24, 2.0 / 24, null, null))
+            .recipeName("recipe")
+            .numericChecks(new JpdfProvenance.NumericChecks(1.0, null, true, 0.0, 2.5))
+            .computeMillis(12L)
+            .build();
+        DensityCache first = new DensityCache.Builder().diskDir(root.resolve("tier")).build();
+        first.getOrCompute("dataset|x|y|grid", () -> expected, provenance);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (first.stats().diskWrites < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, first.stats().diskWrites);
+
+        DensityCache second = new DensityCache.Builder().diskDir(root.resolve("tier")).build();
+        GridDensityResult loaded = second.getOrCompute("dataset|x|y|grid", () -> {
+            throw new AssertionError("should have been read from disk");
+        }, null);
+        assertNotNull(loaded);
+        assertEquals(1, second.stats().diskHits);
+        assertEquals(0, second.stats().misses);
+        for (int r = 0; r < 24; r++) {
+            assertArrayEquals(expected.pdfZ()[r], loaded.pdfZ()[r]);
+            assertArrayEquals(expected.cdfZ()[r], loaded.cdfZ()[r]);
+        }
+        assertArrayEquals(expected.xCenters(), loaded.xCenters());
+        JpdfProvenance read = second.getProvenance("dataset|x|y|grid");
+        assertEquals(provenance.toString(), read.toString());
+
+        //a memory hit after the disk hit; the disk hit alone is not a memory hit
+        assertNotNull(second.get("dataset|x|y|grid"));
+        assertEquals(1, second.stats().hits);
+        assertEquals(1, second.stats().diskHits);
+
+        second.invalidate("dataset|x|y|grid");
+        assertEquals(null, second.get("dataset|x|y|grid"));
+    }
+
+    @Test
+    public void testSharedDirectoryRejected() throws Exception {
+        LOG.info("disk tier refuses a directory other users can write to");
+        Path shared = Files.createDirectory(root.resolve("shared"));
+        if (!shared.getFileSystem().supportedFileAttributeViews().contains("posix")) return;
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+        DensityCache cache = new DensityCache.Builder().diskDir(shared).build();
+        cache.put("k", density(8, 0.2));
+        cache.clear();
+        assertEquals(null, cache.get("k"));
+        assertEquals(0, cache.stats().diskWrites);
+
+        Path created = root.resolve("private");
+        new DensityCache.Builder().diskDir(created).build();
+        assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(created));
+        assertEquals(null, DensityCache.defaultDiskDir());
+    }
+
+    @Test
+    public void testReferenceVectorKey() {
+        LOG.info("axis keys hash every reference component");
+        List<Double> ref = new ArrayList<>();
+        for (int i = 0; i < 512; i++) ref.add(i * 0.01);
+        AxisParams a = new AxisParams();
+        a.setType(StatisticEngine.ScalarType.METRIC_DISTANCE_TO_MEAN);
+        a.setMetricName("euclidean");
+        a.setReferenceVec(ref);
+        String before = DensityCache.axisKey(a);
+
+        List<Double> changed = new ArrayList<>(ref);
+        changed.set(1, -1.0); //between the old sampled entries
+        a.setReferenceVec(changed);
+        assertNotEquals(before, DensityCache.axisKey(a));
+        a.setReferenceVec(new ArrayList<>(ref));
+        assertEquals(before, DensityCache.axisKey(a));
+    }
+}
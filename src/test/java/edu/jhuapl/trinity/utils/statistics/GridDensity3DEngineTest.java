@@ -0,0 +1,126 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class GridDensity3DEngineTest {
+    private static final Logger LOG = LoggerFactory.getLogger(GridDensity3DEngineTest.class);
+
+    private static double[] column(int n, long seed) {
+        Random rand = new Random(seed);
+        double[] v = new double[n];
+        for (int i = 0; i < n; i++) v[i] = rand.nextGaussian();
+        // edge cases: exact bounds, NaN and infinities all land in a bin
+        v[0] = Double.NaN;
+        v[1] = Double.POSITIVE_INFINITY;
+        v[2] = Double.NEGATIVE_INFINITY;
+        return v;
+    }
+
+    @Test
+    public void testKernelsAgree() {
+        assumeTrue(HistogramKernel.VECTORIZED, "run with --add-modules jdk.incubator.vector");
+        LOG.info("vector and scalar histograms agree");
+        int n = HistogramKernel.PARALLEL_BLOCK_ROWS * 3 + 17;
+        double[][] cols = {column(n, 1), column(n, 2)};
+        double[] mins = {-3, -2.5};
+        double[] widths = {0.15, 0.2};
+        int[] bins = {40, 25};
+
+        int[] scalar = new int[1000];
+        HistogramKernel.histogram(cols, mins, widths, bins, scalar, null, false);
+        int[] vector = new int[1000];
+        HistogramKernel.histogram(cols, mins, widths, bins, vector, new GridDensity3DEngine.Workspace(), true);
+        assertArrayEquals(scalar, vector);
+    }
+
+    @Test
+    public void testBlocksMatchBruteForce() {
+        LOG.info("block-parallel histogram matches a brute-force count");
+        int n = HistogramKernel.PARALLEL_BLOCK_ROWS * 3 + 17;
+        double[][] cols = {column(n, 1), column(n, 2)};
+        double[] mins = {-3, -2.5};
+        double[] widths = {0.15, 0.2};
+        int[] bins = {40, 25};
+
+        int[] expected = new int[1000];
+        for (int i = 0; i < n; i++) {
+            int bx = (int) Math.max(0, Math.min(39, Math.floor((cols[0][i] - mins[0]) / widths[0])));
+            int by = (int) Math.max(0, Math.min(24, Math.floor((cols[1][i] - mins[1]) / widths[1])));
+            expected[by * 40 + bx]++;
+        }
+        int[] counts = new int[1000];
+        HistogramKernel.histogram(cols, mins, widths, bins, counts, new GridDensity3DEngine.Workspace());
+        assertArrayEquals(expected, counts);
+
+        // fine 3D grids get fewer partial volumes
+        int cells = 100 * 100 * 100;
+        int blocks = HistogramKernel.blockCount(10_000_000, cells);
+        assertTrue(blocks >= 1);
+        assertTrue((long) blocks * cells <= Math.max(cells, HistogramKernel.PARTIAL_CELL_BUDGET));
+    }
+
+    @Test
+    public void testWorkspaceReuse() {
+        LOG.info("workspace reuse across rebinning");
+        int n = 200_000;
+        double[] xs = column(n, 3);
+        double[] ys = column(n, 4);
+        GridDensity3DEngine.Workspace ws = new GridDensity3DEngine.Workspace();
+        for (int bins : new int[]{64, 16, 48}) {
+            GridSpec grid = new GridSpec(bins, bins, -4.0, 4.0, -4.0, 4.0);
+            GridDensityResult fresh = GridDensity3DEngine.computePdfCdf2D(xs, ys, grid);
+            GridDensityResult reused = GridDensity3DEngine.computePdfCdf2D(xs, ys, grid, ws);
+            for (int r = 0; r < bins; r++) {
+                assertArrayEquals(fresh.pdfZ()[r], reused.pdfZ()[r]);
+                assertArrayEquals(fresh.cdfZ()[r], reused.cdfZ()[r]);
+            }
+            assertEquals(1.0, reused.cdfZ()[bins - 1][bins - 1], 1e-9);
+        }
+    }
+
+    @Test
+    public void testVolume() {
+        LOG.info("3D density volume");
+        int n = 50_000;
+        Random rand = new Random(5);
+        double[] xs = new double[n], ys = new double[n], zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = rand.nextGaussian();
+            ys[i] = rand.nextGaussian();
+            zs[i] = rand.nextDouble();
+        }
+        GridDensity3DResult vol = GridDensity3DEngine.computePdfCdf3D(xs, ys, zs, 12, 10, 8, null);
+        double mass = 0;
+        for (double p : vol.pdf()) mass += p * vol.dx() * vol.dy() * vol.dz();
+        assertEquals(1.0, mass, 1e-9);
+        assertEquals(1.0, vol.cdfAt(11, 9, 7), 1e-9);
+
+        // CDF equals a brute-force count at an interior cell
+        int ix = 5, iy = 6, iz = 3;
+        int below = 0;
+        for (int i = 0; i < n; i++) {
+            if (xs[i] < vol.xEdges()[ix + 1] && ys[i] < vol.yEdges()[iy + 1] && zs[i] < vol.zEdges()[iz + 1]) below++;
+        }
+        assertEquals((double) below / n, vol.cdfAt(ix, iy, iz), 1e-3);
+
+        // CDF is monotone along every axis and each slice is a valid 2D grid
+        for (int z = 1; z < 8; z++) {
+            assertTrue(vol.cdfAt(11, 9, z) >= vol.cdfAt(11, 9, z - 1));
+        }
+        GridDensityResult slice = vol.sliceZ(iz);
+        assertEquals(vol.cdfAt(ix, iy, iz), slice.cdfZ()[iy][ix]);
+        assertEquals(vol.pdfAt(ix, iy, iz), slice.pdfZ()[iy][ix]);
+    }
+}
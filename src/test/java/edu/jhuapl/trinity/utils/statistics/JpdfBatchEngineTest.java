@@ -0,0 +1,97 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Sean Phillips
+ */
+public class JpdfBatchEngineTest {
+    private static final Logger LOG = LoggerFactory.getLogger(JpdfBatchEngineTest.class);
+
+    private static List<FeatureVector> vectors(int n, int dim) {
+        Random rand = new Random(42);
+        List<FeatureVector> vectors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            List<Double> data = new ArrayList<>();
+            for (int j = 0; j < dim; j++) {
+                data.add(rand.nextGaussian() + j);
+            }
+            vectors.add(new FeatureVector(data));
+        }
+        return vectors;
+    }
+
+    private static AxisParams component(int index) {
+        AxisParams a = new AxisParams();
+        a.setType(StatisticEngine.ScalarType.COMPONENT_AT_DIMENSION);
+        a.setComponentIndex(index);
+        return a;
+    }
+
+    @Test
+    public void testComponentPairsMatchSinglePair() {
+        LOG.info("component pairs");
+        List<FeatureVector> vectors = vectors(500, 6);
+        JpdfRecipe recipe = JpdfRecipe.newBuilder("pairs")
+            .componentIndexRange(0, 5)
+            .bins(16)
+            .boundsPolicy(JpdfRecipe.BoundsPolicy.DATA_MIN_MAX)
+            .build();
+        DensityCache cache = new DensityCache.Builder().build();
+        AtomicInteger streamed = new AtomicInteger();
+        JpdfBatchEngine.BatchResult batch = JpdfBatchEngine.runComponentPairs(vectors, recipe,
+            CanonicalGridPolicy.get("default"), cache, r -> streamed.incrementAndGet());
+
+        assertEquals(15, batch.submittedPairs());
+        assertEquals(15, streamed.get());
+        for (JpdfBatchEngine.PairJobResult job : batch.jobs()) {
+            GridDensityResult expected = GridDensity3DEngine.computePdfCdf2D(vectors,
+                component(job.i()), component(job.j()), new GridSpec(16, 16));
+            for (int r = 0; r < 16; r++) {
+                assertArrayEquals(expected.pdfZ()[r], job.density().pdfZ()[r], 1e-12);
+                assertArrayEquals(expected.cdfZ()[r], job.density().cdfZ()[r], 1e-12);
+            }
+        }
+
+        JpdfBatchEngine.BatchResult again = JpdfBatchEngine.runComponentPairs(vectors, recipe,
+            CanonicalGridPolicy.get("default"), cache);
+        assertEquals(15, again.cacheHits());
+    }
+
+    @Test
+    public void testWhitelistSharesColumns() {
+        LOG.info("whitelist pairs");
+        List<FeatureVector> vectors = vectors(300, 4);
+        AxisParams mean = new AxisParams();
+        mean.setType(StatisticEngine.ScalarType.DIST_TO_MEAN);
+        JpdfRecipe recipe = JpdfRecipe.newBuilder("whitelist")
+            .pairSelection(JpdfRecipe.PairSelection.WHITELIST)
+            .addAxisPair(component(0), mean)
+            .addAxisPair(component(1), mean)
+            .bins(8)
+            .boundsPolicy(JpdfRecipe.BoundsPolicy.CANONICAL_BY_FEATURE)
+            .cacheEnabled(false)
+            .build();
+        JpdfBatchEngine.BatchResult batch = JpdfBatchEngine.runWhitelistPairs(vectors, recipe,
+            CanonicalGridPolicy.get("minmax"), new DensityCache.Builder().build());
+        assertEquals(2, batch.computedPairs());
+        for (JpdfBatchEngine.PairJobResult job : batch.jobs()) {
+            GridDensityResult expected = GridDensity3DEngine.computePdfCdf2D(vectors,
+                job.xAxis(), job.yAxis(), job.grid());
+            for (int r = 0; r < 8; r++) {
+                assertArrayEquals(expected.pdfZ()[r], job.density().pdfZ()[r], 1e-12);
+            }
+        }
+    }
+}
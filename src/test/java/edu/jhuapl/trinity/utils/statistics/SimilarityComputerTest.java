@@ -0,0 +1,147 @@
+package edu.jhuapl.trinity.utils.statistics;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class SimilarityComputerTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SimilarityComputerTest.class);
+
+    /**
+     * Reference O(n^2) biased distance correlation through double-centered distance matrices.
+     */
+    private static double naiveDistCorr(double[] x, double[] y) {
+        int n = x.length;
+        double[][] a = centeredDistances(x), b = centeredDistances(y);
+        double xy = 0, xx = 0, yy = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                xy += a[i][j] * b[i][j];
+                xx += a[i][j] * a[i][j];
+                yy += b[i][j] * b[i][j];
+            }
+        }
+        return Math.sqrt(Math.max(0, xy) / Math.sqrt(xx * yy));
+    }
+
+    private static double[][] centeredDistances(double[] v) {
+        int n = v.length;
+        double[][] d = new double[n][n];
+        double[] row = new double[n];
+        double grand = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                d[i][j] = Math.abs(v[i] - v[j]);
+                row[i] += d[i][j];
+            }
+            grand += row[i];
+            row[i] /= n;
+        }
+        grand /= (double) n * n;
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                d[i][j] = d[i][j] - row[i] - row[j] + grand;
+        return d;
+    }
+
+    @Test
+    public void testFastDistanceCorrelationMatchesNaive() {
+        LOG.info("O(n log n) distance correlation against the O(n^2) definition");
+        Random rnd = new Random(3);
+        int n = 700;
+        double[] x = new double[n], quad = new double[n], noise = new double[n], ties = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = rnd.nextGaussian();
+            quad[i] = x[i] * x[i] + 0.1 * rnd.nextGaussian();
+            noise[i] = rnd.nextGaussian();
+            ties[i] = Math.round(2 * x[i]) + 5.0; // heavy ties in both samples
+        }
+        double[][] ys = {quad, noise, ties, x};
+        for (double[] y : ys) {
+            double fast = SimilarityComputer.distanceCorrelation(x, y);
+            double naive = naiveDistCorr(x, y);
+            assertEquals(naive, fast, 1e-9);
+        }
+        assertEquals(1.0, SimilarityComputer.distanceCorrelation(x, x), 1e-9);
+        //scale and shift invariant
+        double[] scaled = new double[n];
+        for (int i = 0; i < n; i++) scaled[i] = 1000 * quad[i] - 7;
+        assertEquals(naiveDistCorr(x, quad), SimilarityComputer.distanceCorrelation(x, scaled), 1e-9);
+        //nonlinear dependence is visible, independence is near zero
+        assertTrue(SimilarityComputer.distanceCorrelation(x, quad) > 0.4);
+        assertTrue(SimilarityComputer.distanceCorrelation(x, noise) < 0.15);
+        assertEquals(0.0, SimilarityComputer.distanceCorrelation(x, new double[n]));
+    }
+
+    @Test
+    public void testGramPearsonMatchesPairwise() {
+        LOG.info("blocked Gram |r| matrix on 50k rows");
+        Random rnd = new Random(11);
+        int rows = 50_000, dim = 40;
+        List<FeatureVector> vectors = new ArrayList<>(rows);
+        for (int r = 0; r < rows; r++) {
+            List<Double> data = new ArrayList<>(dim);
+            double base = rnd.nextGaussian();
+            for (int c = 0; c < dim; c++) {
+                data.add(c == 5 ? 3.0 : base * (c % 4) + rnd.nextGaussian());
+            }
+            //one column with missing values takes the pairwise path
+            if (r % 10 == 0) data.set(7, Double.NaN);
+            vectors.add(new FeatureVector(data));
+        }
+        JpdfRecipe recipe = JpdfRecipe.newBuilder("sim").componentIndexRange(0, dim - 1).build();
+
+        long start = System.nanoTime();
+        SimilarityComputer.SimilarityResult pearson = SimilarityComputer.computeForComponentRange(
+            vectors, recipe, SimilarityComputer.Metric.PEARSON_ABS);
+        LOG.info("PEARSON_ABS {}x{} over {} rows in {} ms", dim, dim, rows, (System.nanoTime() - start) / 1_000_000);
+
+        double[][] cols = new double[dim][rows];
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < dim; c++) cols[c][r] = vectors.get(r).getData().get(c);
+        for (int i = 0; i < dim; i++) {
+            for (int j = i + 1; j < dim; j++) {
+                if (i == 5 || j == 5 || i == 7 || j == 7) continue;
+                assertEquals(Math.abs(pearson(cols[i], cols[j])), pearson.matrix()[i][j], 1e-9);
+                assertEquals(1.0, pearson.quality()[i][j]);
+            }
+        }
+        assertEquals(0.0, pearson.matrix()[5][6]);
+        assertEquals(0.9, pearson.quality()[7][8], 1e-12);
+        assertTrue(pearson.matrix()[7][11] > 0.5);
+
+        start = System.nanoTime();
+        double d = SimilarityComputer.distanceCorrelation(cols[1], cols[2]);
+        LOG.info("DIST_CORR over {} rows in {} ms: {}", rows, (System.nanoTime() - start) / 1_000_000, d);
+        assertTrue(d > 0.2);
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        int n = x.length;
+        double mx = 0, my = 0;
+        for (int i = 0; i < n; i++) {
+            mx += x[i];
+            my += y[i];
+        }
+        mx /= n;
+        my /= n;
+        double sxy = 0, sxx = 0, syy = 0;
+        for (int i = 0; i < n; i++) {
+            sxy += (x[i] - mx) * (y[i] - my);
+            sxx += (x[i] - mx) * (x[i] - mx);
+            syy += (y[i] - my) * (y[i] - my);
+        }
+        return sxy / Math.sqrt(sxx * syy);
+    }
+}
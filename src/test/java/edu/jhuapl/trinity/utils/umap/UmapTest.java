@@ -0,0 +1,148 @@
+package edu.jhuapl.trinity.utils.umap;
+
+import edu.jhuapl.trinity.data.messages.xai.FeatureVector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Sean Phillips
+ */
+public class UmapTest {
+    private static final Logger LOG = LoggerFactory.getLogger(UmapTest.class);
+
+    public UmapTest() {
+    }
+
+    /**
+     * Two well separated gaussian blobs in 8 dimensions. Callers stay above the
+     * small problem threshold so the exact pairwise path (which reports
+     * progress to the JavaFX scene) is not used.
+     */
+    private static double[][] blobs(int perBlob) {
+        Random random = new Random(7);
+        double[][] data = new double[perBlob * 2][8];
+        for (int i = 0; i < data.length; i++) {
+            double center = i < perBlob ? -10.0 : 10.0;
+            for (int d = 0; d < 8; d++) {
+                data[i][d] = center + random.nextGaussian();
+            }
+        }
+        return data;
+    }
+
+    private static Umap umap(int threads, boolean parallelLayout) {
+        Umap umap = new Umap();
+        umap.setNumberComponents(2);
+        umap.setNumberNearestNeighbours(10);
+        umap.setNumberEpochs(30);
+        umap.setThreads(threads);
+        umap.setParallelLayout(parallelLayout);
+        umap.setSeed(42);
+        return umap;
+    }
+
+    private static double centroidGap(double[][] embedding) {
+        int half = embedding.length / 2;
+        double[] a = new double[2];
+        double[] b = new double[2];
+        for (int i = 0; i < embedding.length; i++) {
+            double[] target = i < half ? a : b;
+            target[0] += embedding[i][0] / half;
+            target[1] += embedding[i][1] / half;
+        }
+        return Math.hypot(a[0] - b[0], a[1] - b[1]);
+    }
+
+    @Test
+    public void testParallelLayout() {
+        LOG.info("parallel layout");
+        double[][] embedding = umap(4, true).fitTransform(blobs(2100));
+        assertEquals(4200, embedding.length);
+        for (double[] row : embedding) {
+            assertFalse(Double.isNaN(row[0]) || Double.isNaN(row[1]));
+        }
+        assertTrue(centroidGap(embedding) > 1.0);
+    }
+
+    @Test
+    public void testLayoutThreadsLeaveSettings() {
+        LOG.info("layout threads for one fit");
+        Umap umap = umap(1, true);
+        double[][] embedding = umap.fitTransform(blobs(2100), 4);
+        assertEquals(4200, embedding.length);
+        assertEquals(1, umap.getThreads());
+        assertTrue(umap.isParallelLayout());
+        assertTrue(centroidGap(embedding) > 1.0);
+    }
+
+    @Test
+    public void testSerialLayoutIsReproducible() {
+        LOG.info("serial layout reproducible");
+        double[][] data = blobs(2100);
+        double[][] first = umap(1, true).fitTransform(data);
+        double[][] second = umap(1, true).fitTransform(data);
+        for (int i = 0; i < first.length; i++) {
+            assertArrayEquals(first[i], second[i]);
+        }
+    }
+
+    @Test
+    public void testStreamingProjector() throws Exception {
+        LOG.info("streaming projector");
+        double[][] data = blobs(2100);
+        Umap umap = umap(4, true);
+        double[][] embedding = umap.fitTransform(data);
+        double[] centroidA = new double[2];
+        double[] centroidB = new double[2];
+        for (int i = 0; i < embedding.length; i++) {
+            double[] target = i < 2100 ? centroidA : centroidB;
+            target[0] += embedding[i][0] / 2100;
+            target[1] += embedding[i][1] / 2100;
+        }
+
+        int count = 150;
+        CountDownLatch latch = new CountDownLatch(count);
+        List<double[]> placed = new ArrayList<>();
+        StreamingUmapProjector projector = new StreamingUmapProjector(umap, 64, 20, 10, 1024,
+            (batch, coords) -> {
+                assertEquals(batch.size(), coords.length);
+                synchronized (placed) {
+                    placed.addAll(List.of(coords));
+                }
+                for (int i = 0; i < coords.length; i++) latch.countDown();
+            });
+        projector.start();
+        try {
+            Random random = new Random(11);
+            for (int i = 0; i < count; i++) {
+                List<Double> values = new ArrayList<>();
+                for (int d = 0; d < 8; d++) values.add(-10.0 + random.nextGaussian());
+                assertTrue(projector.submit(new FeatureVector(values)));
+            }
+            assertTrue(latch.await(60, TimeUnit.SECONDS));
+        } finally {
+            projector.stop();
+        }
+        assertEquals(count, projector.getProjectedCount());
+        assertTrue(projector.getBatchCount() >= 3);
+        int nearA = 0;
+        for (double[] p : placed) {
+            double da = Math.hypot(p[0] - centroidA[0], p[1] - centroidA[1]);
+            double db = Math.hypot(p[0] - centroidB[0], p[1] - centroidB[1]);
+            if (da < db) nearA++;
+        }
+        assertTrue(nearA > count * 0.9, "placed near the wrong cluster: " + nearA);
+    }
+}